@@ -0,0 +1,24 @@
+package com.marketnest.ecommerce.config;
+
+import com.marketnest.ecommerce.filter.IdempotencyFilter;
+import com.marketnest.ecommerce.service.idempotency.IdempotencyStore;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class IdempotencyConfig {
+
+    // Registered after the Spring Security chain so keys are scoped to the authenticated caller
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyStore idempotencyStore) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyStore));
+        registration.addUrlPatterns("/api/orders", "/api/orders/async", "/api/cart/checkout",
+                "/api/payments/process");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registration;
+    }
+}
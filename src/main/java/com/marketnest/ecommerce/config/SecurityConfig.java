@@ -6,6 +6,7 @@ import com.marketnest.ecommerce.filter.JwtTokenValidatorFilter;
 import com.marketnest.ecommerce.repository.UserRepository;
 import com.marketnest.ecommerce.security.ApplicationUsernamePwdAuthenticationProvider;
 import com.marketnest.ecommerce.service.auth.JwtService;
+import com.marketnest.ecommerce.service.cart.GuestCartService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
@@ -55,6 +56,7 @@ public class SecurityConfig {
                         "/api/payments/methods",
                         "/api/reviews/{reviewId}",
                         "/api/reviews/{reviewId}").permitAll()
+                .requestMatchers("/api/guest-cart/**").permitAll()
                 .requestMatchers(
                         "/swagger-ui.html",
                         "/swagger-ui/**",
@@ -91,7 +93,8 @@ public class SecurityConfig {
 
                 // Admin-only access
                 .requestMatchers("/api/users/**", "/api/admin/reviews",
-                        "/api/admin/coupons/**", "/api/admin/analytics/**")
+                        "/api/admin/coupons/**", "/api/admin/analytics/**",
+                        "/api/admin/products/**", "/api/admin/orders/**")
                 .hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PATCH,
                         "/api/users/{userId}/status",
@@ -175,7 +178,7 @@ public class SecurityConfig {
                 List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowCredentials(true);
         configuration.setAllowedHeaders(List.of("*"));
-        configuration.setExposedHeaders(List.of("Authorization"));
+        configuration.setExposedHeaders(List.of("Authorization", GuestCartService.TOKEN_HEADER));
         configuration.setMaxAge(3600L);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -1,12 +1,17 @@
 package com.marketnest.ecommerce.controller;
 
+import com.marketnest.ecommerce.dto.cart.CartCheckoutRequest;
 import com.marketnest.ecommerce.dto.cart.CartItemRequest;
 import com.marketnest.ecommerce.dto.cart.CartResponse;
+import com.marketnest.ecommerce.dto.cart.CartSummaryResponse;
 import com.marketnest.ecommerce.dto.cart.UpdateCartItemRequest;
+import com.marketnest.ecommerce.dto.error.SimpleErrorResponse;
 import com.marketnest.ecommerce.dto.error.ValidationErrorResponse;
+import com.marketnest.ecommerce.dto.order.OrderResponseDto;
 import com.marketnest.ecommerce.exception.ResourceNotFoundException;
 import com.marketnest.ecommerce.model.User;
 import com.marketnest.ecommerce.repository.UserRepository;
+import com.marketnest.ecommerce.service.cart.CartCheckoutService;
 import com.marketnest.ecommerce.service.cart.CartService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,6 +21,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -30,6 +36,7 @@ import java.util.Map;
 @Tag(name = "Cart Management", description = "APIs for managing the shopping cart")
 public class CartController {
     private final CartService cartService;
+    private final CartCheckoutService cartCheckoutService;
     private final UserRepository userRepository;
 
     @Operation(summary = "Get user cart",
@@ -127,6 +134,52 @@ public class CartController {
         return ResponseEntity.ok(Map.of("count", count));
     }
 
+    @Operation(summary = "Get cart summary",
+            description = "Retrieves the item count and total of the authenticated user's cart " +
+                          "for the cart badge. Send the returned ETag in If-None-Match to get " +
+                          "304 Not Modified while the cart is unchanged.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cart summary retrieved successfully",
+                    content = @Content(
+                            schema = @Schema(implementation = CartSummaryResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Cart summary not modified")
+    })
+    @GetMapping("/summary")
+    public ResponseEntity<CartSummaryResponse> getCartSummary(Authentication authentication) {
+        Long userId = extractUserId(authentication);
+        CartSummaryResponse summary = cartService.getCartSummary(userId);
+
+        // The tag is built from the values themselves, so equal tags always mean an equal body;
+        // Spring answers a matching If-None-Match with 304
+        return ResponseEntity.ok()
+                .eTag(summary.getTotalItems() + "-" + summary.getTotalPrice().toPlainString())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(summary);
+    }
+
+    @Operation(summary = "Check out cart",
+            description = "Places an order for everything in the authenticated user's cart " +
+                          "and closes the cart.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Order placed successfully",
+                    content = @Content(schema = @Schema(implementation = OrderResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Validation failed",
+                    content = @Content(
+                            schema = @Schema(implementation = ValidationErrorResponse.class))),
+            @ApiResponse(responseCode = "409",
+                    description = "Cart prices changed or stock ran out; the cart shows " +
+                                  "the current prices",
+                    content = @Content(schema = @Schema(implementation = SimpleErrorResponse.class)))
+    })
+    @PostMapping("/checkout")
+    public ResponseEntity<OrderResponseDto> checkout(
+            Authentication authentication,
+            @Valid @RequestBody CartCheckoutRequest request) {
+        Long userId = extractUserId(authentication);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(cartCheckoutService.checkout(userId, authentication.getName(), request));
+    }
+
     private Long extractUserId(Authentication authentication) {
         String email = authentication.getName();
 
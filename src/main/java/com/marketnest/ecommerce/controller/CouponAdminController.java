@@ -33,16 +33,23 @@ public class CouponAdminController {
     private final CouponService couponService;
 
     @Operation(summary = "Get all coupons",
-            description = "Retrieves a paginated list of all coupons.")
+            description = "Retrieves a paginated list of all coupons. Pass a cursor (empty " +
+                          "for the first page) to page newest-first by cursor without a " +
+                          "total count.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Coupons retrieved successfully",
                     content = @Content(schema = @Schema(implementation = CouponResponse.class)))
     })
     @GetMapping
-    public ResponseEntity<Page<CouponResponse>> getAllCoupons(
+    public ResponseEntity<?> getAllCoupons(
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC)
-            Pageable pageable) {
+            Pageable pageable,
+            @RequestParam(required = false) String cursor) {
 
+        if (cursor != null) {
+            return ResponseEntity.ok(
+                    couponService.getAllCouponsByCursor(cursor, pageable.getPageSize()));
+        }
         Page<CouponResponse> coupons = couponService.getAllCoupons(pageable);
         return ResponseEntity.ok(coupons);
     }
@@ -0,0 +1,82 @@
+package com.marketnest.ecommerce.controller;
+
+import com.marketnest.ecommerce.dto.cart.CartItemRequest;
+import com.marketnest.ecommerce.dto.cart.CartResponse;
+import com.marketnest.ecommerce.dto.error.ValidationErrorResponse;
+import com.marketnest.ecommerce.service.cart.GuestCartService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/guest-cart")
+@RequiredArgsConstructor
+@Tag(name = "Guest Cart",
+        description = "APIs for the cart of shoppers who are not logged in. The cart is " +
+                      "identified by the X-Guest-Cart-Token header; sending it with the login " +
+                      "request merges the cart into the user's cart.")
+public class GuestCartController {
+    private final GuestCartService guestCartService;
+
+    @Operation(summary = "Get guest cart",
+            description = "Retrieves the guest cart; an unknown token returns an empty cart.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cart retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CartResponse.class)))
+    })
+    @GetMapping
+    public ResponseEntity<CartResponse> getCart(
+            @Parameter(description = "Guest cart token")
+            @RequestHeader(value = GuestCartService.TOKEN_HEADER, required = false)
+            String token) {
+        return ResponseEntity.ok(guestCartService.getCart(token));
+    }
+
+    @Operation(summary = "Add item to guest cart",
+            description = "Adds an item to the guest cart, starting a new cart when no usable " +
+                          "token is sent. The token to keep is returned in the " +
+                          "X-Guest-Cart-Token header.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Item added to cart successfully",
+                    content = @Content(schema = @Schema(implementation = CartResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Validation failed",
+                    content = @Content(
+                            schema = @Schema(implementation = ValidationErrorResponse.class)))
+    })
+    @PostMapping("/items")
+    public ResponseEntity<CartResponse> addToCart(
+            @Parameter(description = "Guest cart token")
+            @RequestHeader(value = GuestCartService.TOKEN_HEADER, required = false)
+            String token,
+            @Valid @RequestBody CartItemRequest request) {
+        String openToken = guestCartService.addToCart(token, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(GuestCartService.TOKEN_HEADER, openToken)
+                .body(guestCartService.getCart(openToken));
+    }
+
+    @Operation(summary = "Remove item from guest cart",
+            description = "Removes a product from the guest cart.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Item removed from cart successfully",
+                    content = @Content(schema = @Schema(implementation = CartResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Item not in the cart")
+    })
+    @DeleteMapping("/items/{productId}")
+    public ResponseEntity<CartResponse> removeCartItem(
+            @Parameter(description = "Guest cart token")
+            @RequestHeader(value = GuestCartService.TOKEN_HEADER, required = false)
+            String token,
+            @PathVariable Long productId) {
+        return ResponseEntity.ok(guestCartService.removeCartItem(token, productId));
+    }
+}
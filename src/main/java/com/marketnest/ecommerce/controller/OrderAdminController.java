@@ -0,0 +1,80 @@
+package com.marketnest.ecommerce.controller;
+
+import com.marketnest.ecommerce.dto.error.ValidationErrorResponse;
+import com.marketnest.ecommerce.dto.order.BulkOrderStatusResultDto;
+import com.marketnest.ecommerce.dto.order.BulkOrderStatusUpdateDto;
+import com.marketnest.ecommerce.service.order.BulkOrderStatusService;
+import com.marketnest.ecommerce.service.order.InvoiceExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.*;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/orders")
+@RequiredArgsConstructor
+@Tag(name = "Order Administration", description = "APIs for fulfilling orders")
+public class OrderAdminController {
+
+    private final BulkOrderStatusService bulkOrderStatusService;
+    private final InvoiceExportService invoiceExportService;
+
+    @Operation(summary = "Update order statuses in bulk",
+            description = "Moves up to 10000 orders to PROCESSING, SHIPPED or DELIVERED and " +
+                          "records optional tracking numbers. Orders whose current status " +
+                          "cannot move to the target are left unchanged and listed as rejected.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Statuses updated",
+                    content = @Content(
+                            schema = @Schema(implementation = BulkOrderStatusResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "Validation failed",
+                    content = @Content(
+                            schema = @Schema(implementation = ValidationErrorResponse.class)))
+    })
+    @PatchMapping("/status")
+    public ResponseEntity<BulkOrderStatusResultDto> updateOrderStatuses(
+            @Valid @RequestBody BulkOrderStatusUpdateDto updateDto,
+            Authentication authentication) {
+
+        return ResponseEntity.ok(
+                bulkOrderStatusService.updateStatus(updateDto, authentication.getName()));
+    }
+
+    @Operation(summary = "Export invoices for a period",
+            description = "Streams a ZIP with the invoice of every order placed between the " +
+                          "two dates (inclusive, at most 93 days apart). Invoices are " +
+                          "rendered in parallel and written as soon as each is ready.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Invoices exported",
+                    content = @Content(mediaType = "application/zip")),
+            @ApiResponse(responseCode = "400", description = "Invalid date range")
+    })
+    @GetMapping("/invoices/export")
+    public ResponseEntity<StreamingResponseBody> exportInvoices(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        List<Long> orderIds = invoiceExportService.findOrderIds(startDate, endDate);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDisposition(ContentDisposition.builder("attachment")
+                .filename("invoices-" + startDate + "-to-" + endDate + ".zip").build());
+
+        StreamingResponseBody body =
+                outputStream -> invoiceExportService.export(orderIds, outputStream);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+}
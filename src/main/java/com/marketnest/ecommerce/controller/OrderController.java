@@ -1,14 +1,21 @@
 package com.marketnest.ecommerce.controller;
 
+import com.marketnest.ecommerce.dto.error.SimpleErrorResponse;
 import com.marketnest.ecommerce.dto.error.ValidationErrorResponse;
+import com.marketnest.ecommerce.dto.order.CheckoutStatusDto;
 import com.marketnest.ecommerce.dto.order.OrderRequestDto;
 import com.marketnest.ecommerce.dto.order.OrderResponseDto;
 import com.marketnest.ecommerce.dto.order.OrderSummaryDto;
 import com.marketnest.ecommerce.exception.ResourceNotFoundException;
+import com.marketnest.ecommerce.filter.IdempotencyFilter;
 import com.marketnest.ecommerce.model.User;
 import com.marketnest.ecommerce.repository.UserRepository;
+import com.marketnest.ecommerce.service.order.InvoiceCache;
+import com.marketnest.ecommerce.service.order.OrderCheckoutPipeline;
 import com.marketnest.ecommerce.service.order.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -22,9 +29,14 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.http.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -32,21 +44,32 @@ import java.util.Map;
 @Tag(name = "Order Management", description = "APIs for managing orders")
 public class OrderController {
 
+    // Kept below the servlet container's default 30 second async timeout
+    private static final int MAX_CHECKOUT_WAIT_SECONDS = 25;
+
     private final OrderService orderService;
+    private final OrderCheckoutPipeline orderCheckoutPipeline;
     private final UserRepository userRepository;
 
     @Operation(summary = "Get user orders",
-            description = "Retrieves a paginated list of orders for the authenticated user.")
+            description = "Retrieves a paginated list of orders for the authenticated user. " +
+                          "Pass a cursor (empty for the first page) to page newest-first by " +
+                          "cursor without a total count.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Orders retrieved successfully",
                     content = @Content(schema = @Schema(implementation = OrderSummaryDto.class)))
     })
     @GetMapping
-    public ResponseEntity<Page<OrderSummaryDto>> getUserOrders(
+    public ResponseEntity<?> getUserOrders(
             @PageableDefault(size = 10, sort = "orderDate") Pageable pageable,
+            @RequestParam(required = false) String cursor,
             Authentication authentication) {
 
         Long userId = getUserIdFromAuthentication(authentication);
+        if (cursor != null) {
+            return ResponseEntity.ok(
+                    orderService.getUserOrdersByCursor(userId, cursor, pageable.getPageSize()));
+        }
         Page<OrderSummaryDto> orders = orderService.getUserOrders(userId, pageable);
         return ResponseEntity.ok(orders);
     }
@@ -74,8 +97,15 @@ public class OrderController {
                     content = @Content(schema = @Schema(implementation = OrderResponseDto.class))),
             @ApiResponse(responseCode = "400", description = "Validation failed",
                     content = @Content(
-                            schema = @Schema(implementation = ValidationErrorResponse.class)))
+                            schema = @Schema(implementation = ValidationErrorResponse.class))),
+            @ApiResponse(responseCode = "409",
+                    description = "A request with the same Idempotency-Key is still running"),
+            @ApiResponse(responseCode = "422",
+                    description = "Idempotency-Key was already used with a different body")
     })
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyFilter.IDEMPOTENCY_KEY_HEADER,
+            description = "Optional client-generated key; retries with the same key and body " +
+                          "replay the first response instead of running the request again")
     @PostMapping
     public ResponseEntity<?> createOrder(
             @Valid @RequestBody OrderRequestDto orderRequestDto) {
@@ -84,6 +114,59 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
     }
 
+    @Operation(summary = "Place an order asynchronously",
+            description = "Queues the order for checkout and returns at once with a ticket in " +
+                          "the PENDING state. Poll the Location URL for the placed order.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Order accepted for checkout",
+                    content = @Content(schema = @Schema(implementation = CheckoutStatusDto.class))),
+            @ApiResponse(responseCode = "400", description = "Validation failed",
+                    content = @Content(
+                            schema = @Schema(implementation = ValidationErrorResponse.class))),
+            @ApiResponse(responseCode = "409",
+                    description = "A request with the same Idempotency-Key is still running"),
+            @ApiResponse(responseCode = "422",
+                    description = "Idempotency-Key was already used with a different body"),
+            @ApiResponse(responseCode = "503",
+                    description = "Checkout queue is full; retry after the Retry-After delay",
+                    content = @Content(schema = @Schema(implementation = SimpleErrorResponse.class)))
+    })
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyFilter.IDEMPOTENCY_KEY_HEADER,
+            description = "Optional client-generated key; retries with the same key and body " +
+                          "return the first ticket instead of queueing the order again")
+    @PostMapping("/async")
+    public ResponseEntity<CheckoutStatusDto> createOrderAsync(
+            @Valid @RequestBody OrderRequestDto orderRequestDto,
+            Authentication authentication) {
+
+        CheckoutStatusDto checkout =
+                orderCheckoutPipeline.submit(authentication.getName(), orderRequestDto);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/checkouts/" + checkout.getTicketId()))
+                .body(checkout);
+    }
+
+    @Operation(summary = "Get checkout status",
+            description = "Returns the progress of an asynchronous checkout. With waitSeconds " +
+                          "the request is held until checkout finishes or the wait runs out.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Checkout status retrieved",
+                    content = @Content(schema = @Schema(implementation = CheckoutStatusDto.class))),
+            @ApiResponse(responseCode = "404", description = "Checkout not found or expired")
+    })
+    @GetMapping("/checkouts/{ticketId}")
+    public CompletableFuture<ResponseEntity<CheckoutStatusDto>> getCheckoutStatus(
+            @PathVariable String ticketId,
+            @Parameter(description = "Seconds to wait for checkout to finish (at most 25)")
+            @RequestParam(defaultValue = "0") int waitSeconds,
+            Authentication authentication) {
+
+        Duration wait = Duration.ofSeconds(Math.clamp(waitSeconds, 0, MAX_CHECKOUT_WAIT_SECONDS));
+        return orderCheckoutPipeline.awaitStatus(ticketId, authentication.getName(), wait)
+                .map(status -> status.thenApply(ResponseEntity::ok))
+                .orElseThrow(() -> new ResourceNotFoundException("Checkout", "id", ticketId));
+    }
+
     @Operation(summary = "Cancel an order", description = "Cancels an order by its ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Order cancelled successfully",
@@ -124,19 +207,25 @@ public class OrderController {
             @ApiResponse(responseCode = "404", description = "Order not found")
     })
     @GetMapping("/{orderId}/invoice")
-    public ResponseEntity<byte[]> downloadInvoice(
+    public ResponseEntity<StreamingResponseBody> downloadInvoice(
             @PathVariable Long orderId,
             Authentication authentication) {
 
         Long userId = getUserIdFromAuthentication(authentication);
-        byte[] invoicePdf = orderService.generateInvoicePdf(orderId, userId);
+        InvoiceCache.CachedInvoice invoice = orderService.getInvoicePdf(orderId, userId);
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentLength(invoice.size());
         headers.setContentDisposition(ContentDisposition.builder("attachment")
                 .filename("invoice-" + orderId + ".pdf").build());
 
-        return new ResponseEntity<>(invoicePdf, headers, HttpStatus.OK);
+        StreamingResponseBody body = outputStream -> {
+            try (InputStream content = invoice.content()) {
+                content.transferTo(outputStream);
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
 
     private Long getUserIdFromAuthentication(Authentication authentication) {
@@ -5,8 +5,11 @@ import com.marketnest.ecommerce.dto.payment.PaymentMethodDto;
 import com.marketnest.ecommerce.dto.payment.PaymentProcessRequestDto;
 import com.marketnest.ecommerce.dto.payment.PaymentResponseDto;
 import com.marketnest.ecommerce.dto.payment.RefundRequestDto;
+import com.marketnest.ecommerce.filter.IdempotencyFilter;
 import com.marketnest.ecommerce.service.payment.PaymentService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -39,8 +42,15 @@ public class PaymentController {
                             schema = @Schema(implementation = PaymentResponseDto.class))),
             @ApiResponse(responseCode = "400", description = "Validation failed",
                     content = @Content(
-                            schema = @Schema(implementation = ValidationErrorResponse.class)))
+                            schema = @Schema(implementation = ValidationErrorResponse.class))),
+            @ApiResponse(responseCode = "409",
+                    description = "A request with the same Idempotency-Key is still running"),
+            @ApiResponse(responseCode = "422",
+                    description = "Idempotency-Key was already used with a different body")
     })
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyFilter.IDEMPOTENCY_KEY_HEADER,
+            description = "Optional client-generated key; retries with the same key and body " +
+                          "replay the first response instead of running the request again")
     @PostMapping("/process")
     public ResponseEntity<?> processPayment(
             @Valid @RequestBody PaymentProcessRequestDto requestDto) {
@@ -1,10 +1,14 @@
 package com.marketnest.ecommerce.controller;
 
 import com.marketnest.ecommerce.dto.error.ValidationErrorResponse;
+import com.marketnest.ecommerce.dto.product.ProductFacetResponseDto;
 import com.marketnest.ecommerce.dto.product.ProductRequestDto;
 import com.marketnest.ecommerce.dto.product.ProductResponseDto;
+import com.marketnest.ecommerce.dto.product.ProductSuggestionDto;
 import com.marketnest.ecommerce.service.product.ProductService;
+import com.marketnest.ecommerce.service.product.ProductSuggestIndex;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -102,7 +106,9 @@ public class ProductController {
     }
 
     @Operation(summary = "Get all products",
-            description = "Retrieves a paginated list of products with optional filters.")
+            description = "Retrieves a paginated list of products with optional filters. " +
+                          "Pass a cursor (empty for the first page) to use cursor pagination, " +
+                          "which skips the total count.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Products retrieved successfully",
                     content = @Content(schema = @Schema(implementation = ProductResponseDto.class)))
@@ -120,10 +126,21 @@ public class ProductController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sort,
-            @RequestParam(defaultValue = "asc") String direction) {
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String cursor) {
 
         Sort.Direction sortDirection = direction.equalsIgnoreCase("desc") ?
                 Sort.Direction.DESC : Sort.Direction.ASC;
+
+        if (cursor != null) {
+            if (size < 1 || size > 100) {
+                throw new IllegalArgumentException("Size must be between 1 and 100");
+            }
+            return ResponseEntity.ok(productService.getAllProductsByCursor(
+                    categoryId, brand, minPrice, maxPrice, active, featured, search, inStock,
+                    new Sort.Order(sortDirection, sort), cursor, size));
+        }
+
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sort));
 
         return ResponseEntity.ok(productService.getAllProducts(
@@ -131,6 +148,58 @@ public class ProductController {
                 pageable));
     }
 
+    @Operation(summary = "Get faceted products",
+            description = "Retrieves filtered products together with counts for every facet " +
+                          "(brand, category, price range, in stock, featured, on sale).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Facets retrieved successfully",
+                    content = @Content(
+                            schema = @Schema(implementation = ProductFacetResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid facet filter")
+    })
+    @GetMapping("/facets")
+    public ResponseEntity<?> getProductFacets(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String priceRange,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) Boolean featured,
+            @RequestParam(required = false) Boolean onSale,
+            @RequestParam(defaultValue = "true") boolean activeOnly,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+
+        if (page < 0 || size < 1 || size > 100) {
+            throw new IllegalArgumentException("Page must be >= 0 and size between 1 and 100");
+        }
+
+        return ResponseEntity.ok(productService.getProductFacets(
+                categoryId, brand, priceRange, inStock, featured, onSale, activeOnly, page,
+                size));
+    }
+
+    @Operation(summary = "Suggest products",
+            description = "Returns typeahead suggestions for product names, SKUs, brands " +
+                          "and categories starting with the given prefix, most popular first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully",
+                    content = @Content(array = @ArraySchema(
+                            schema = @Schema(implementation = ProductSuggestionDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestProducts(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        if (limit < 1 || limit > ProductSuggestIndex.MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException(
+                    "Limit must be between 1 and " + ProductSuggestIndex.MAX_SUGGESTIONS);
+        }
+
+        return ResponseEntity.ok(productService.suggestProducts(q, limit));
+    }
+
     @Operation(summary = "Get product by slug", description = "Retrieves a product by its slug.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Product retrieved successfully",
@@ -169,6 +238,31 @@ public class ProductController {
                 productService.getRelatedProducts(productId, activeOnly, limit, pageable));
     }
 
+    @Operation(summary = "Get frequently bought together products",
+            description = "Retrieves the products most often ordered together with the given " +
+                          "product, strongest first.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Frequently bought together products retrieved successfully",
+                    content = @Content(array = @ArraySchema(
+                            schema = @Schema(implementation = ProductResponseDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid limit"),
+            @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    @GetMapping("/{productId}/frequently-bought-together")
+    public ResponseEntity<?> getFrequentlyBoughtTogether(
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "true") boolean activeOnly,
+            @RequestParam(defaultValue = "4") int limit) {
+
+        if (limit < 1 || limit > 20) {
+            throw new IllegalArgumentException("Limit must be between 1 and 20");
+        }
+
+        return ResponseEntity.ok(
+                productService.getFrequentlyBoughtTogether(productId, activeOnly, limit));
+    }
+
     @Operation(summary = "Get new arrivals",
             description = "Retrieves a paginated list of new arrival products.")
     @ApiResponses(value = {
@@ -0,0 +1,54 @@
+package com.marketnest.ecommerce.controller;
+
+import com.marketnest.ecommerce.dto.product.ProductImportResultDto;
+import com.marketnest.ecommerce.service.product.ProductImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/admin/products")
+@RequiredArgsConstructor
+@Tag(name = "Product Import", description = "APIs for bulk loading products")
+public class ProductImportController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final ProductImportService productImportService;
+
+    @Operation(summary = "Bulk import products",
+            description = "Streams a CSV (with a header row of product field names) or " +
+                          "NDJSON body and upserts every valid row by SKU. Invalid rows " +
+                          "are skipped and listed in the per-row error report.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished",
+                    content = @Content(
+                            schema = @Schema(implementation = ProductImportResultDto.class))),
+            @ApiResponse(responseCode = "415", description = "Unsupported content type")
+    })
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+
+        ProductImportService.Format format =
+                TEXT_CSV.isCompatibleWith(MediaType.parseMediaType(contentType))
+                        ? ProductImportService.Format.CSV
+                        : ProductImportService.Format.NDJSON;
+
+        return ResponseEntity.ok(productImportService.importProducts(body, format));
+    }
+}
@@ -36,15 +36,22 @@ public class ReviewController {
     private final UserRepository userRepository;
 
     @Operation(summary = "Get product reviews",
-            description = "Retrieves reviews for a specific product.")
+            description = "Retrieves reviews for a specific product. Pass a cursor (empty " +
+                          "for the first page) to page newest-first by cursor without a " +
+                          "total count.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Reviews retrieved successfully",
                     content = @Content(schema = @Schema(implementation = ReviewResponse.class)))
     })
     @GetMapping("/products/{productId}/reviews")
-    public ResponseEntity<Page<ReviewResponse>> getProductReviews(
+    public ResponseEntity<?> getProductReviews(
             @PathVariable Long productId,
-            Pageable pageable) {
+            Pageable pageable,
+            @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            return ResponseEntity.ok(reviewService.getProductReviewsByCursor(
+                    productId, cursor, pageable.getPageSize()));
+        }
         return ResponseEntity.ok(reviewService.getProductReviews(productId, pageable));
     }
 
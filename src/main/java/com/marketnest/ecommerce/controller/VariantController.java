@@ -1,6 +1,7 @@
 package com.marketnest.ecommerce.controller;
 
 import com.marketnest.ecommerce.dto.error.ValidationErrorResponse;
+import com.marketnest.ecommerce.dto.variant.FlashSaleStatusDto;
 import com.marketnest.ecommerce.dto.variant.VariantRequestDto;
 import com.marketnest.ecommerce.dto.variant.VariantResponseDto;
 import com.marketnest.ecommerce.service.product.VariantService;
@@ -103,4 +104,33 @@ public class VariantController {
         variantService.deleteVariant(variantId);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Start a flash sale for a variant",
+            description = "Moves the variant's stock into in-memory counters so checkouts no " +
+                          "longer contend on its database row. Sold units are written back in " +
+                          "batches.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flash sale enabled",
+                    content = @Content(
+                            schema = @Schema(implementation = FlashSaleStatusDto.class))),
+            @ApiResponse(responseCode = "404", description = "Variant not found")
+    })
+    @PostMapping("/admin/products/variants/{variantId}/flash-sale")
+    public ResponseEntity<FlashSaleStatusDto> enableFlashSale(@PathVariable Long variantId) {
+        return ResponseEntity.ok(variantService.enableFlashSale(variantId));
+    }
+
+    @Operation(summary = "End a flash sale for a variant",
+            description = "Writes back all sold units and returns the variant to row-level " +
+                          "stock updates.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flash sale disabled",
+                    content = @Content(
+                            schema = @Schema(implementation = FlashSaleStatusDto.class))),
+            @ApiResponse(responseCode = "404", description = "Variant not found")
+    })
+    @DeleteMapping("/admin/products/variants/{variantId}/flash-sale")
+    public ResponseEntity<FlashSaleStatusDto> disableFlashSale(@PathVariable Long variantId) {
+        return ResponseEntity.ok(variantService.disableFlashSale(variantId));
+    }
+}
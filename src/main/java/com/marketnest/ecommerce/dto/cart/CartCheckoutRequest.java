@@ -0,0 +1,32 @@
+package com.marketnest.ecommerce.dto.cart;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+@Schema(description = "Data Transfer Object for placing an order from the user's cart")
+public class CartCheckoutRequest {
+
+    @NotNull(message = "Shipping address ID is required")
+    @Schema(
+            description = "ID of the address where the order should be shipped",
+            example = "5",
+            requiredMode = Schema.RequiredMode.REQUIRED
+    )
+    private Long shippingAddressId;
+
+    @Schema(
+            description = "ID of the billing address. Uses shipping address if not provided",
+            example = "5",
+            nullable = true
+    )
+    private Long billingAddressId;
+
+    @Schema(
+            description = "Additional notes or special instructions for the order",
+            example = "Please deliver after 5 PM",
+            nullable = true
+    )
+    private String notes;
+}
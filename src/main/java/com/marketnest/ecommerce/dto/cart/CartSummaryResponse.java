@@ -0,0 +1,21 @@
+package com.marketnest.ecommerce.dto.cart;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Data Transfer Object for the cart badge: item count and total only")
+public class CartSummaryResponse {
+
+    @Schema(description = "Number of items in the cart", example = "3")
+    private Integer totalItems;
+
+    @Schema(description = "Total price of all items in the cart", example = "899.97")
+    private BigDecimal totalPrice;
+}
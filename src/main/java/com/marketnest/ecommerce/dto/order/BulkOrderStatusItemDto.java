@@ -0,0 +1,25 @@
+package com.marketnest.ecommerce.dto.order;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "An order to move in a bulk status update")
+public class BulkOrderStatusItemDto {
+
+    @NotNull(message = "Order ID is required")
+    @Schema(description = "ID of the order", example = "1",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long orderId;
+
+    @Size(max = 255, message = "Tracking number must not exceed 255 characters")
+    @Schema(description = "Tracking number to record; the current one is kept when omitted",
+            example = "1Z999AA10123456784", nullable = true)
+    private String trackingNumber;
+}
@@ -0,0 +1,29 @@
+package com.marketnest.ecommerce.dto.order;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a bulk order status update")
+public class BulkOrderStatusResultDto {
+
+    @Schema(description = "Status the orders were moved to", example = "SHIPPED")
+    private String status;
+
+    @Schema(description = "Number of distinct orders in the request", example = "10000")
+    private int requestedOrders;
+
+    @Schema(description = "Number of orders moved to the status", example = "9998")
+    private int updatedOrders;
+
+    @Schema(description = "Orders left unchanged, in request order")
+    private List<OrderStatusRejectionDto> rejected;
+}
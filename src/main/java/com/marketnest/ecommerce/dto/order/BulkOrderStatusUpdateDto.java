@@ -0,0 +1,34 @@
+package com.marketnest.ecommerce.dto.order;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Moves many orders to the same status (admin operation)")
+public class BulkOrderStatusUpdateDto {
+
+    @NotBlank(message = "Status is required")
+    @Schema(
+            description = "Status to move the orders to",
+            example = "SHIPPED",
+            requiredMode = Schema.RequiredMode.REQUIRED,
+            allowableValues = {"PROCESSING", "SHIPPED", "DELIVERED"}
+    )
+    private String status;
+
+    @Schema(description = "Optional notes recorded in each order's status history",
+            example = "Evening dispatch, Aramex", nullable = true)
+    private String notes;
+
+    @NotEmpty(message = "At least one order is required")
+    @Size(max = 10000, message = "At most 10000 orders can be updated at once")
+    @Valid
+    @Schema(description = "Orders to move", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<BulkOrderStatusItemDto> orders;
+}
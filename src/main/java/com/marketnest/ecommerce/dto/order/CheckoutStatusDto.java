@@ -0,0 +1,37 @@
+package com.marketnest.ecommerce.dto.order;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Progress of an order accepted for asynchronous checkout")
+public class CheckoutStatusDto {
+
+    @Schema(description = "Identifier to poll the checkout with",
+            example = "3f6c1f0e-7a2b-4c55-9f5e-0c4b7d1e2a90")
+    private String ticketId;
+
+    @Schema(
+            description = "Status of the order; PENDING until it has been placed",
+            example = "PENDING",
+            allowableValues = {"PENDING", "PROCESSING", "SHIPPED", "DELIVERED", "CANCELLED",
+                    "RETURNED"}
+    )
+    private String orderStatus;
+
+    @Schema(description = "Pipeline stage the checkout has reached", example = "PRICING",
+            allowableValues = {"QUEUED", "VALIDATING", "PRICING", "PERSISTING", "RESERVING",
+                    "NOTIFYING", "COMPLETED", "FAILED"})
+    private String stage;
+
+    @Schema(description = "ID of the placed order once it has been persisted", example = "1",
+            nullable = true)
+    private Long orderId;
+
+    @Schema(description = "The placed order once checkout has completed", nullable = true)
+    private OrderResponseDto order;
+
+    @Schema(description = "Why checkout failed", example = "Invalid shipping address",
+            nullable = true)
+    private String error;
+}
@@ -0,0 +1,24 @@
+package com.marketnest.ecommerce.dto.order;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "An order a bulk status update could not move")
+public class OrderStatusRejectionDto {
+
+    @Schema(description = "ID of the order", example = "42")
+    private Long orderId;
+
+    @Schema(description = "Status the order is in, when it exists", example = "DELIVERED",
+            nullable = true)
+    private String currentStatus;
+
+    @Schema(description = "Why the order was not moved",
+            example = "Cannot change status from DELIVERED to SHIPPED")
+    private String message;
+}
@@ -0,0 +1,27 @@
+package com.marketnest.ecommerce.dto.order;
+
+import com.marketnest.ecommerce.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryRowDto {
+
+    private Long id;
+
+    private LocalDateTime orderDate;
+
+    private Order.OrderStatus status;
+
+    private BigDecimal total;
+
+    private String trackingNumber;
+
+    private Long itemCount;
+}
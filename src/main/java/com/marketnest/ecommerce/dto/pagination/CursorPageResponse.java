@@ -0,0 +1,28 @@
+package com.marketnest.ecommerce.dto.pagination;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A page of results in cursor mode. No total count is computed; pass nextCursor back as the cursor parameter to fetch the following page")
+public class CursorPageResponse<T> {
+
+    @Schema(description = "Items on this page")
+    private List<T> content;
+
+    @Schema(description = "Number of items on this page", example = "10")
+    private int size;
+
+    @Schema(description = "Whether another page follows this one", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Opaque cursor for the next page, null on the last page",
+            example = "eyJzIjoib3JkZXJzIiwiayI6W1siaWQiLCJMIiwiNDIiXV19", nullable = true)
+    private String nextCursor;
+}
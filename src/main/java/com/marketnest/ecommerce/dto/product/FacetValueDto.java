@@ -0,0 +1,20 @@
+package com.marketnest.ecommerce.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A single facet value with the number of products matching it")
+public class FacetValueDto {
+
+    @Schema(description = "Facet value to pass back as a filter", example = "Sony")
+    private String value;
+
+    @Schema(description = "Number of products matching the other active filters and this value",
+            example = "42")
+    private long count;
+}
@@ -0,0 +1,29 @@
+package com.marketnest.ecommerce.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetAttributesDto {
+
+    private Long id;
+
+    private Long categoryId;
+
+    private String brand;
+
+    private BigDecimal price;
+
+    private BigDecimal compareAtPrice;
+
+    private Integer stockQuantity;
+
+    private Boolean isActive;
+
+    private Boolean isFeatured;
+}
@@ -0,0 +1,38 @@
+package com.marketnest.ecommerce.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Filtered products together with the facet counts for every facet")
+public class ProductFacetResponseDto {
+
+    @Schema(description = "Requested page of matching products, ordered by ID")
+    private List<ProductResponseDto> products;
+
+    @Schema(description = "Total number of products matching all filters", example = "128")
+    private long totalElements;
+
+    @Schema(description = "Total number of pages", example = "13")
+    private int totalPages;
+
+    @Schema(description = "Current page number (0-based)", example = "0")
+    private int page;
+
+    @Schema(description = "Page size", example = "10")
+    private int size;
+
+    @Schema(description = "Facet counts keyed by facet name (brand, category, priceRange, " +
+                          "inStock, featured, onSale). Each facet is counted against all " +
+                          "other active filters but not its own")
+    private Map<String, List<FacetValueDto>> facets;
+}
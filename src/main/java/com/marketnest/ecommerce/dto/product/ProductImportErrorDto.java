@@ -0,0 +1,25 @@
+package com.marketnest.ecommerce.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A row of a bulk import that could not be imported")
+public class ProductImportErrorDto {
+
+    @Schema(description = "1-based position of the row among the data rows of the upload",
+            example = "42")
+    private long row;
+
+    @Schema(description = "SKU of the row, when it could be read", example = "SONY-WH1000XM5-BLK",
+            nullable = true)
+    private String sku;
+
+    @Schema(description = "Why the row was rejected",
+            example = "price: Price must be greater than 0")
+    private String message;
+}
@@ -0,0 +1,32 @@
+package com.marketnest.ecommerce.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a bulk product import")
+public class ProductImportResultDto {
+
+    @Schema(description = "Number of data rows read from the upload", example = "200000")
+    private long totalRows;
+
+    @Schema(description = "Number of rows inserted or updated", example = "199997")
+    private long importedRows;
+
+    @Schema(description = "Number of rows rejected", example = "3")
+    private long failedRows;
+
+    @Schema(description = "Rejected rows in upload order, capped at the first 1000")
+    private List<ProductImportErrorDto> errors;
+
+    @Schema(description = "Whether more rows failed than are listed in errors", example = "false")
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,35 @@
+package com.marketnest.ecommerce.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Schema(description = "A single product row of a bulk import, matched to existing products by SKU")
+public class ProductImportRowDto extends ProductRequestDto {
+
+    @NotBlank(message = "SKU is required")
+    @Size(max = 100, message = "SKU must not exceed 100 characters")
+    @Schema(
+            description = "Stock keeping unit. Existing products with the same SKU are updated",
+            example = "SONY-WH1000XM5-BLK",
+            requiredMode = Schema.RequiredMode.REQUIRED,
+            maxLength = 100
+    )
+    private String sku;
+
+    @Size(max = 255, message = "Slug must not exceed 255 characters")
+    @Pattern(regexp = "^[a-z0-9]+(-[a-z0-9]+)*$",
+            message = "Slug may only contain lowercase letters, digits and single hyphens")
+    @Schema(
+            description = "URL slug. Generated from the name and SKU when omitted",
+            example = "sony-wh-1000xm5-black",
+            maxLength = 255,
+            nullable = true
+    )
+    private String slug;
+}
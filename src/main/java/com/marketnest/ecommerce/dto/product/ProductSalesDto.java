@@ -0,0 +1,15 @@
+package com.marketnest.ecommerce.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesDto {
+
+    private Long productId;
+
+    private Long quantitySold;
+}
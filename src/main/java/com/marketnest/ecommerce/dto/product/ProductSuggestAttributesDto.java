@@ -0,0 +1,23 @@
+package com.marketnest.ecommerce.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestAttributesDto {
+
+    private Long id;
+
+    private String name;
+
+    private String slug;
+
+    private String sku;
+
+    private String brand;
+
+    private Long categoryId;
+}
@@ -0,0 +1,31 @@
+package com.marketnest.ecommerce.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Typeahead suggestion for the product search box")
+public class ProductSuggestionDto {
+
+    public enum Type {
+        PRODUCT, BRAND, CATEGORY
+    }
+
+    @Schema(description = "What the suggestion refers to", example = "PRODUCT")
+    private Type type;
+
+    @Schema(description = "Text to display", example = "Premium Wireless Headphones")
+    private String text;
+
+    @Schema(description = "Product or category ID, absent for brands", example = "101",
+            nullable = true)
+    private Long id;
+
+    @Schema(description = "Product or category slug, absent for brands",
+            example = "premium-wireless-headphones", nullable = true)
+    private String slug;
+}
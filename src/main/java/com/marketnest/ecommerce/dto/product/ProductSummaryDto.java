@@ -0,0 +1,57 @@
+package com.marketnest.ecommerce.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummaryDto {
+
+    private Long id;
+
+    private String sku;
+
+    private String name;
+
+    private String slug;
+
+    private BigDecimal price;
+
+    private BigDecimal compareAtPrice;
+
+    private Integer stockQuantity;
+
+    private Integer lowStockThreshold;
+
+    private Long categoryId;
+
+    private String categoryName;
+
+    private String brand;
+
+    private Boolean isActive;
+
+    private Boolean isFeatured;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    public boolean isInStock() {
+        return stockQuantity != null && stockQuantity > 0;
+    }
+
+    public boolean isLowStock() {
+        return stockQuantity != null && lowStockThreshold != null
+               && stockQuantity <= lowStockThreshold;
+    }
+
+    public boolean isOnSale() {
+        return compareAtPrice != null && price != null && compareAtPrice.compareTo(price) > 0;
+    }
+}
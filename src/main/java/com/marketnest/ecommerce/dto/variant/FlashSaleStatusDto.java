@@ -0,0 +1,28 @@
+package com.marketnest.ecommerce.dto.variant;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Flash sale state of a product variant")
+public class FlashSaleStatusDto {
+
+    @Schema(description = "ID of the variant", example = "42")
+    private Long variantId;
+
+    @Schema(description = "Whether checkouts take this variant's stock from in-memory counters",
+            example = "true")
+    private boolean active;
+
+    @Schema(description = "Units left in the in-memory counters", example = "480",
+            nullable = true)
+    private Long availableStock;
+
+    @Schema(description = "Number of counter stripes the stock is spread across", example = "16",
+            nullable = true)
+    private Integer stripes;
+}
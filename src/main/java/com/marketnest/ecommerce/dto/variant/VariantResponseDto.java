@@ -85,6 +85,10 @@ public class VariantResponseDto {
             nullable = true)
     private Integer position;
 
+    @Schema(description = "Whether checkouts for this variant sell from flash sale counters",
+            example = "false")
+    private Boolean flashSale;
+
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     @Schema(description = "Timestamp when the variant was created", example = "2025-01-15T10:30:45")
     private LocalDateTime createdAt;
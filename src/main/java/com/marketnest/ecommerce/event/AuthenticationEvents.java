@@ -1,6 +1,7 @@
 package com.marketnest.ecommerce.event;
 
 import com.marketnest.ecommerce.service.auth.LoginHistoryService;
+import com.marketnest.ecommerce.service.cart.GuestCartService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +19,7 @@ import java.util.Objects;
 @Component
 public class AuthenticationEvents {
     private final LoginHistoryService loginHistoryService;
+    private final GuestCartService guestCartService;
 
     @EventListener
     public void onSuccess(AuthenticationSuccessEvent successEvent) {
@@ -26,6 +28,11 @@ public class AuthenticationEvents {
 
         if (request != null) {
             loginHistoryService.recordSuccessfulLogin(email, request);
+
+            String guestCartToken = request.getHeader(GuestCartService.TOKEN_HEADER);
+            if (guestCartToken != null) {
+                guestCartService.mergeAfterLogin(email, guestCartToken);
+            }
         } else {
             log.warn("Could not get request details for login notification for user with email: {}",
                     email);
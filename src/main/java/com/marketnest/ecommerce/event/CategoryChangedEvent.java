@@ -0,0 +1,10 @@
+package com.marketnest.ecommerce.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class CategoryChangedEvent {
+    private final Long categoryId;
+}
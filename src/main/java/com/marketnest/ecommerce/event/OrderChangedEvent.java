@@ -0,0 +1,16 @@
+package com.marketnest.ecommerce.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class OrderChangedEvent {
+
+    public enum Type {
+        PLACED, CANCELLED
+    }
+
+    private final Long orderId;
+    private final Type type;
+}
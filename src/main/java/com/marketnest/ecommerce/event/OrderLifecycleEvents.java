@@ -0,0 +1,29 @@
+package com.marketnest.ecommerce.event;
+
+import com.marketnest.ecommerce.service.inventory.FlashSaleStockService;
+import com.marketnest.ecommerce.service.product.ProductCoPurchaseIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@RequiredArgsConstructor
+@Component
+public class OrderLifecycleEvents {
+    private final ProductCoPurchaseIndex productCoPurchaseIndex;
+    private final FlashSaleStockService flashSaleStockService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        flashSaleStockService.reconcile();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        switch (event.getType()) {
+            case PLACED -> productCoPurchaseIndex.orderPlaced(event.getOrderId());
+            case CANCELLED -> productCoPurchaseIndex.orderCancelled(event.getOrderId());
+        }
+    }
+}
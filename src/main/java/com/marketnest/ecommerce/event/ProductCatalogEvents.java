@@ -0,0 +1,61 @@
+package com.marketnest.ecommerce.event;
+
+import com.marketnest.ecommerce.service.product.ProductCoPurchaseIndex;
+import com.marketnest.ecommerce.service.product.ProductDetailCache;
+import com.marketnest.ecommerce.service.product.ProductFacetIndex;
+import com.marketnest.ecommerce.service.product.ProductSuggestIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class ProductCatalogEvents {
+    private final ProductFacetIndex productFacetIndex;
+    private final ProductDetailCache productDetailCache;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductCoPurchaseIndex productCoPurchaseIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        productFacetIndex.rebuild();
+        productSuggestIndex.rebuildAsync();
+        productCoPurchaseIndex.loadAsync();
+    }
+
+    // Category entries of the suggest index are only built by a rebuild
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        productSuggestIndex.rebuildAsync();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.BULK_IMPORTED) {
+            productDetailCache.invalidateAll();
+            productFacetIndex.rebuildAsync();
+            productSuggestIndex.rebuildAsync();
+            return;
+        }
+
+        productDetailCache.invalidate(event.getProductId());
+
+        switch (event.getType()) {
+            case DELETED -> {
+                productFacetIndex.remove(event.getProductId());
+                productSuggestIndex.remove(event.getProductId());
+            }
+            case CREATED, UPDATED, STATUS_CHANGED -> {
+                productFacetIndex.refresh(event.getProductId());
+                productSuggestIndex.refresh(event.getProductId());
+            }
+            case STOCK_CHANGED -> productFacetIndex.refresh(event.getProductId());
+            default -> {
+            }
+        }
+    }
+}
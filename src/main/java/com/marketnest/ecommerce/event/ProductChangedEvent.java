@@ -0,0 +1,17 @@
+package com.marketnest.ecommerce.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class ProductChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, STATUS_CHANGED, DELETED, VARIANTS_CHANGED, IMAGES_CHANGED, BULK_IMPORTED,
+        STOCK_CHANGED
+    }
+
+    private final Long productId;
+    private final Type type;
+}
@@ -0,0 +1,7 @@
+package com.marketnest.ecommerce.exception;
+
+public class CartChangedException extends RuntimeException {
+    public CartChangedException(String message) {
+        super(message);
+    }
+}
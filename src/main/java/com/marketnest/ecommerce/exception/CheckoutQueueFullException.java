@@ -0,0 +1,7 @@
+package com.marketnest.ecommerce.exception;
+
+public class CheckoutQueueFullException extends RuntimeException {
+    public CheckoutQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -75,6 +75,28 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 .body(new SimpleErrorResponse(ex.getMessage()));
     }
 
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<SimpleErrorResponse> handleInsufficientStockException(
+            InsufficientStockException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new SimpleErrorResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(CartChangedException.class)
+    public ResponseEntity<SimpleErrorResponse> handleCartChangedException(
+            CartChangedException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new SimpleErrorResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(CheckoutQueueFullException.class)
+    public ResponseEntity<SimpleErrorResponse> handleCheckoutQueueFullException(
+            CheckoutQueueFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new SimpleErrorResponse(ex.getMessage()));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<SimpleErrorResponse> handleIllegalArgumentException(
             IllegalArgumentException ex) {
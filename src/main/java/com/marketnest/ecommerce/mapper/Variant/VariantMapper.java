@@ -25,6 +25,8 @@ public interface VariantMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "product", ignore = true)
+    @Mapping(target = "flashSale", ignore = true)
+    @Mapping(target = "flashSaleAllocated", ignore = true)
     @Mapping(target = "option1Name", source = "option1Name", qualifiedByName = "escapeHtml")
     @Mapping(target = "option1Value", source = "option1Value", qualifiedByName = "escapeHtml")
     @Mapping(target = "option2Name", source = "option2Name", qualifiedByName = "escapeHtml")
@@ -5,11 +5,15 @@ import com.marketnest.ecommerce.dto.cart.CartItemResponse;
 import com.marketnest.ecommerce.dto.cart.CartResponse;
 import com.marketnest.ecommerce.model.Cart;
 import com.marketnest.ecommerce.model.CartItem;
+import com.marketnest.ecommerce.service.cart.CartLine;
+import com.marketnest.ecommerce.service.cart.CartState;
 import com.marketnest.ecommerce.util.HtmlEscapeUtil;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper(componentModel = "spring")
@@ -43,6 +47,41 @@ public interface CartMapper {
         return list;
     }
 
+    @Mapping(target = "id", source = "cart.cartId")
+    @Mapping(target = "status", expression = "java(cart.getStatus().name())")
+    @Mapping(target = "totalItems", expression = "java(cart.getItemCount())")
+    @Mapping(target = "items",
+            expression = "java(toLineResponseList(cart.getLines(), htmlEscapeUtil))")
+    CartResponse toResponse(CartState cart, HtmlEscapeUtil htmlEscapeUtil);
+
+    @Mapping(target = "productName",
+            expression = "java(htmlEscapeUtil.escapeHtml(line.getProductName()))")
+    @Mapping(target = "productSku",
+            expression = "java(htmlEscapeUtil.escapeHtml(line.getProductSku()))")
+    @Mapping(target = "addedAt", source = "line.createdAt")
+    CartItemResponse toResponse(CartLine line, HtmlEscapeUtil htmlEscapeUtil);
+
+    default List<CartItemResponse> toLineResponseList(Collection<CartLine> lines,
+                                                      HtmlEscapeUtil htmlEscapeUtil) {
+        List<CartItemResponse> list = new ArrayList<>(lines.size());
+        for (CartLine line : lines) {
+            list.add(toResponse(line, htmlEscapeUtil));
+        }
+        return list;
+    }
+
+    // Guest carts have no id or owner, only their lines
+    default CartResponse toGuestResponse(List<CartLine> lines, HtmlEscapeUtil htmlEscapeUtil) {
+        CartResponse response = new CartResponse();
+        response.setStatus(Cart.CartStatus.ACTIVE.name());
+        response.setItems(toLineResponseList(lines, htmlEscapeUtil));
+        response.setTotalItems(lines.size());
+        response.setTotalPrice(lines.stream()
+                .map(CartLine::getSubtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        return response;
+    }
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "cart", ignore = true)
     @Mapping(target = "product", ignore = true)
@@ -4,6 +4,7 @@ import com.marketnest.ecommerce.dto.order.OrderRequestDto;
 import com.marketnest.ecommerce.dto.order.OrderResponseDto;
 import com.marketnest.ecommerce.dto.order.OrderStatusUpdateDto;
 import com.marketnest.ecommerce.dto.order.OrderSummaryDto;
+import com.marketnest.ecommerce.dto.order.OrderSummaryRowDto;
 import com.marketnest.ecommerce.mapper.payment.PaymentMapper;
 import com.marketnest.ecommerce.mapper.user.UserAddressMapper;
 import com.marketnest.ecommerce.model.Order;
@@ -64,6 +65,12 @@ public abstract class OrderMapper {
             expression = "java(htmlEscapeUtil.escapeHtml(order.getTrackingNumber()))")
     public abstract OrderSummaryDto toSummary(Order order, HtmlEscapeUtil htmlEscapeUtil);
 
+    @Mapping(target = "status", expression = "java(summary.getStatus().name())")
+    @Mapping(target = "trackingNumber",
+            expression = "java(htmlEscapeUtil.escapeHtml(summary.getTrackingNumber()))")
+    public abstract OrderSummaryDto toSummary(OrderSummaryRowDto summary,
+                                              HtmlEscapeUtil htmlEscapeUtil);
+
     public List<OrderSummaryDto> toSummaryList(List<Order> orders, HtmlEscapeUtil htmlEscapeUtil) {
         if (orders == null) {
             return null;
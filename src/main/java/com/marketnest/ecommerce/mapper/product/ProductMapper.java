@@ -2,10 +2,13 @@ package com.marketnest.ecommerce.mapper.product;
 
 import com.marketnest.ecommerce.dto.product.ProductRequestDto;
 import com.marketnest.ecommerce.dto.product.ProductResponseDto;
+import com.marketnest.ecommerce.dto.product.ProductSummaryDto;
 import com.marketnest.ecommerce.model.Product;
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
+import org.mapstruct.ReportingPolicy;
 import org.springframework.web.util.HtmlUtils;
 
 import java.util.List;
@@ -21,6 +24,11 @@ public interface ProductMapper {
 
     List<ProductResponseDto> toResponseList(List<Product> products);
 
+    @BeanMapping(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+    ProductResponseDto toSummaryResponse(ProductSummaryDto summary);
+
+    List<ProductResponseDto> toSummaryResponseList(List<ProductSummaryDto> summaries);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
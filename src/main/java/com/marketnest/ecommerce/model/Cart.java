@@ -29,6 +29,15 @@ public class Cart {
     @Column(name = "total_price", precision = 10, scale = 2)
     private BigDecimal totalPrice = BigDecimal.ZERO;
 
+    // Number of lines, kept next to total_price so the cart badge never reads cart_item
+    @Column(name = "item_count")
+    private Integer itemCount = 0;
+
+    // Bumped by every write so CartStore can tell when another node changed the cart
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true,
             fetch = FetchType.LAZY)
     private List<CartItem> cartItems = new ArrayList<>();
@@ -57,6 +66,7 @@ public class Cart {
         this.totalPrice = cartItems.stream()
                 .map(CartItem::getSubtotal)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
+        this.itemCount = cartItems.size();
     }
 
     public enum CartStatus {
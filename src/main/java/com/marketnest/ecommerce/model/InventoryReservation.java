@@ -0,0 +1,62 @@
+package com.marketnest.ecommerce.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "inventory_reservations", indexes = {
+        @Index(name = "idx_inventory_reservations_order", columnList = "order_id"),
+        @Index(name = "idx_inventory_reservations_status_expires",
+                columnList = "status, expires_at")
+})
+@Data
+public class InventoryReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_reservations_seq")
+    @SequenceGenerator(name = "inventory_reservations_seq",
+            sequenceName = "inventory_reservations_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "variant_id", nullable = false)
+    private Long variantId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReservationStatus status = ReservationStatus.ACTIVE;
+
+    @Column(name = "stock_applied", nullable = false, columnDefinition = "boolean default true")
+    private Boolean stockApplied = true;
+
+    // Node whose flash-sale counter sold the units, while stock_applied is false
+    @Column(name = "node_id", length = 64)
+    private String nodeId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum ReservationStatus {
+        ACTIVE, COMMITTED, RELEASED
+    }
+}
@@ -7,11 +7,13 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_date", columnList = "user_id, order_date DESC, id DESC"),
+        @Index(name = "idx_orders_order_date", columnList = "order_date")
+})
 @Data
 public class Order {
 
@@ -96,6 +98,33 @@ public class Order {
         SHIPPED,
         DELIVERED,
         CANCELLED,
-        REFUNDED
+        REFUNDED;
+
+        private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS =
+                new EnumMap<>(OrderStatus.class);
+
+        static {
+            TRANSITIONS.put(PENDING, EnumSet.of(PROCESSING, CANCELLED));
+            TRANSITIONS.put(PROCESSING, EnumSet.of(SHIPPED, CANCELLED));
+            TRANSITIONS.put(SHIPPED, EnumSet.of(DELIVERED));
+            TRANSITIONS.put(DELIVERED, EnumSet.of(REFUNDED));
+            TRANSITIONS.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+            TRANSITIONS.put(REFUNDED, EnumSet.noneOf(OrderStatus.class));
+        }
+
+        public boolean canTransitionTo(OrderStatus target) {
+            return TRANSITIONS.get(this).contains(target);
+        }
+
+        // Statuses an order may be in to move to the given one
+        public static Set<OrderStatus> sourcesOf(OrderStatus target) {
+            Set<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+            TRANSITIONS.forEach((source, targets) -> {
+                if (targets.contains(target)) {
+                    sources.add(source);
+                }
+            });
+            return sources;
+        }
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.marketnest.ecommerce.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,7 +13,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_category_active", columnList = "category_id, is_active"),
+        @Index(name = "idx_products_active_price", columnList = "is_active, price"),
+        @Index(name = "idx_products_brand", columnList = "brand"),
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "idx_products_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_products_price_id", columnList = "price, id")
+})
 @Data
 public class Product {
 
@@ -91,10 +99,12 @@ public class Product {
             mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true,
             fetch = FetchType.LAZY
     )
+    @BatchSize(size = 50)
     private List<ProductVariant> variants = new ArrayList<>();
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true,
             fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     private List<ProductImage> images = new ArrayList<>();
 
     @Transient
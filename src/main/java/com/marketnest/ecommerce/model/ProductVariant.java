@@ -2,6 +2,7 @@ package com.marketnest.ecommerce.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -64,6 +65,14 @@ public class ProductVariant {
     @Column(name = "position")
     private Integer position = 0;
 
+    @Column(name = "flash_sale", nullable = false, columnDefinition = "boolean default false")
+    private Boolean flashSale = false;
+
+    // Units handed to nodes' flash-sale counters; only FlashSaleStockService writes it
+    @Column(name = "flash_sale_allocated", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer default 0")
+    private Integer flashSaleAllocated = 0;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -78,6 +87,7 @@ public class ProductVariant {
 
     @OneToMany(mappedBy = "variant", cascade = CascadeType.ALL, orphanRemoval = true,
             fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     private List<ProductImage> images = new ArrayList<>();
 
     @Transient
@@ -8,7 +8,10 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_product_approved_created",
+                columnList = "product_id, is_approved, created_at DESC, id DESC")
+})
 @Data
 public class Review {
 
@@ -2,6 +2,8 @@ package com.marketnest.ecommerce.repository;
 
 import com.marketnest.ecommerce.model.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +11,9 @@ import java.util.Optional;
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUserIdAndStatus(Long userId, Cart.CartStatus status);
-}
\ No newline at end of file
+
+    @Query("SELECT DISTINCT c FROM Cart c LEFT JOIN FETCH c.cartItems i " +
+           "LEFT JOIN FETCH i.product WHERE c.userId = :userId AND c.status = :status")
+    Optional<Cart> findWithItemsByUserIdAndStatus(@Param("userId") Long userId,
+                                                  @Param("status") Cart.CartStatus status);
+}
@@ -1,6 +1,9 @@
 package com.marketnest.ecommerce.repository;
 
 import com.marketnest.ecommerce.model.Coupon;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -19,6 +22,8 @@ public interface CouponRepository extends JpaRepository<Coupon, Long> {
 
     boolean existsByCode(String code);
 
+    Window<Coupon> findByOrderByCreatedAtDescIdDesc(ScrollPosition position, Limit limit);
+
     @Query("SELECT c FROM Coupon c WHERE c.isActive = true " +
            "AND c.startDate <= :now AND c.endDate >= :now " +
            "AND (c.usageLimit IS NULL OR c.usageCount < c.usageLimit)")
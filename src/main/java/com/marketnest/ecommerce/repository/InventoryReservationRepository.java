@@ -0,0 +1,60 @@
+package com.marketnest.ecommerce.repository;
+
+import com.marketnest.ecommerce.model.InventoryReservation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InventoryReservationRepository
+        extends JpaRepository<InventoryReservation, Long> {
+
+    List<InventoryReservation> findByOrderIdAndStatusInOrderByVariantId(
+            Long orderId, Collection<InventoryReservation.ReservationStatus> statuses);
+
+    @Query("SELECT DISTINCT r.orderId FROM InventoryReservation r " +
+           "WHERE r.status = :status AND r.expiresAt < :now ORDER BY r.orderId")
+    List<Long> findOrderIdsByStatusExpiredBefore(
+            @Param("status") InventoryReservation.ReservationStatus status,
+            @Param("now") LocalDateTime now, Limit limit);
+
+    @Modifying
+    @Query("UPDATE InventoryReservation r " +
+           "SET r.status = :target, r.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE r.id = :id AND r.status = :expected")
+    int transition(@Param("id") Long id,
+                   @Param("expected") InventoryReservation.ReservationStatus expected,
+                   @Param("target") InventoryReservation.ReservationStatus target);
+
+    @Modifying
+    @Query("UPDATE InventoryReservation r " +
+           "SET r.status = :target, r.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE r.orderId = :orderId AND r.status = :expected")
+    int transitionByOrderId(@Param("orderId") Long orderId,
+                            @Param("expected") InventoryReservation.ReservationStatus expected,
+                            @Param("target") InventoryReservation.ReservationStatus target);
+
+    @Modifying
+    @Query("UPDATE InventoryReservation r " +
+           "SET r.status = :target, r.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE r.orderId IN :orderIds AND r.status = :expected")
+    int transitionByOrderIds(@Param("orderIds") Collection<Long> orderIds,
+                             @Param("expected") InventoryReservation.ReservationStatus expected,
+                             @Param("target") InventoryReservation.ReservationStatus target);
+
+    // Leaves stock_applied alone: the next flash-sale flush hands the units back to the pool
+    @Modifying
+    @Query("UPDATE InventoryReservation r SET r.status = :target, " +
+           "r.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE r.id = :id AND r.status = :expected AND r.stockApplied = false")
+    int transitionUnapplied(@Param("id") Long id,
+                            @Param("expected") InventoryReservation.ReservationStatus expected,
+                            @Param("target") InventoryReservation.ReservationStatus target);
+}
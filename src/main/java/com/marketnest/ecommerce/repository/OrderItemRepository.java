@@ -1,6 +1,7 @@
 package com.marketnest.ecommerce.repository;
 
 import com.marketnest.ecommerce.dto.analytics.TopSellingProductDto;
+import com.marketnest.ecommerce.dto.product.ProductSalesDto;
 import com.marketnest.ecommerce.model.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -17,4 +18,12 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
            "WHERE oi.order.status != 'CANCELLED' " +
            "GROUP BY p.id, p.name, p.sku ORDER BY SUM(oi.quantity) DESC")
     List<TopSellingProductDto> findTopSellingProducts(@Param("limit") int limit);
+
+    @Query("SELECT new com.marketnest.ecommerce.dto.product.ProductSalesDto(" +
+           "oi.product.id, SUM(oi.quantity)) FROM OrderItem oi " +
+           "WHERE oi.order.status != 'CANCELLED' GROUP BY oi.product.id")
+    List<ProductSalesDto> findQuantitySoldPerProduct();
+
+    @Query("SELECT DISTINCT oi.product.id FROM OrderItem oi WHERE oi.order.id = :orderId")
+    List<Long> findProductIdsByOrderId(@Param("orderId") Long orderId);
 }
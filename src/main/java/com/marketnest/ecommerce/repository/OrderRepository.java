@@ -1,9 +1,13 @@
 package com.marketnest.ecommerce.repository;
 
+import com.marketnest.ecommerce.dto.order.OrderSummaryRowDto;
 import com.marketnest.ecommerce.model.Order;
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
@@ -12,13 +16,34 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    // The item count is a correlated subquery rather than a join grouped by order, so a page is
+    // cut from the (user_id, order_date) index first and only its orders are counted
+    String SUMMARY_SELECT =
+            "SELECT new com.marketnest.ecommerce.dto.order.OrderSummaryRowDto(" +
+            "o.id, o.orderDate, o.status, o.total, o.trackingNumber, " +
+            "(SELECT COUNT(i) FROM OrderItem i WHERE i.order = o)) FROM Order o ";
+
     Page<Order> findByUser_UserId(Long userId, Pageable pageable);
 
+    @Query(value = SUMMARY_SELECT + "WHERE o.user.userId = :userId",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.userId = :userId")
+    Page<OrderSummaryRowDto> findSummariesByUserId(@Param("userId") Long userId,
+                                                   Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE o.id IN :ids")
+    List<OrderSummaryRowDto> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    Window<Order> findByUser_UserIdOrderByOrderDateDescIdDesc(Long userId,
+                                                              ScrollPosition position,
+                                                              Limit limit);
+
     Optional<Order> findByUser_UserIdAndId(Long id, Long userId);
 
     boolean existsByUser_UserIdAndOrderItems_Product_IdAndStatusIn(
@@ -64,6 +89,38 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Object[]> findRevenueReportNative(@Param("start") LocalDateTime start,
                                            @Param("end") LocalDateTime end);
 
+    @Query("SELECT o.id FROM Order o WHERE o.orderDate >= :start AND o.orderDate < :end ORDER BY o.id")
+    List<Long> findIdsForPeriod(@Param("start") LocalDateTime start,
+                                @Param("end") LocalDateTime end);
+
+    @Query("SELECT o.updatedAt FROM Order o WHERE o.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    @Query("SELECT o.updatedAt FROM Order o WHERE o.id = :id AND o.user.userId = :userId")
+    Optional<LocalDateTime> findUpdatedAtByUserIdAndId(@Param("userId") Long userId,
+                                                       @Param("id") Long id);
+
+    // Order details fetch plan: the to-one associations and the items ride along in the first
+    // query. Status history and payments are bags too; fetching them in the same query would
+    // multiply the rows (and Hibernate refuses to), so each is fetched into the already loaded
+    // order by its own query.
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.shippingAddress " +
+           "LEFT JOIN FETCH o.billingAddress LEFT JOIN FETCH o.orderItems i " +
+           "LEFT JOIN FETCH i.product WHERE o.id = :id AND o.user.userId = :userId")
+    Optional<Order> findDetailsByUserIdAndId(@Param("userId") Long userId,
+                                             @Param("id") Long id);
+
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.statusHistory WHERE o = :order")
+    Order fetchStatusHistory(@Param("order") Order order);
+
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.payments WHERE o = :order")
+    Order fetchPayments(@Param("order") Order order);
+
+    @Query("SELECT o FROM Order o JOIN FETCH o.user LEFT JOIN FETCH o.shippingAddress " +
+           "LEFT JOIN FETCH o.billingAddress LEFT JOIN FETCH o.orderItems i " +
+           "LEFT JOIN FETCH i.product LEFT JOIN FETCH i.variant WHERE o.id = :id")
+    Optional<Order> findForInvoiceById(@Param("id") Long id);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT o FROM Order o WHERE o.id = :id")
     Optional<Order> findByIdWithLock(@Param("id") Long id);
@@ -0,0 +1,9 @@
+package com.marketnest.ecommerce.repository;
+
+import com.marketnest.ecommerce.model.OrderStatusHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderStatusHistoryRepository extends JpaRepository<OrderStatusHistory, Long> {
+}
@@ -1,18 +1,46 @@
 package com.marketnest.ecommerce.repository;
 
 import com.marketnest.ecommerce.dto.analytics.LowStockProductDto;
+import com.marketnest.ecommerce.dto.product.ProductFacetAttributesDto;
+import com.marketnest.ecommerce.dto.product.ProductSuggestAttributesDto;
+import com.marketnest.ecommerce.dto.product.ProductSummaryDto;
 import com.marketnest.ecommerce.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>,
+        JpaSpecificationExecutor<Product>, ProductSummaryRepository {
+
+    String SUMMARY_SELECT =
+            "SELECT new com.marketnest.ecommerce.dto.product.ProductSummaryDto(" +
+            "p.id, p.sku, p.name, p.slug, p.price, p.compareAtPrice, p.stockQuantity, " +
+            "p.lowStockThreshold, p.categoryId, c.name, p.brand, p.isActive, p.isFeatured, " +
+            "p.createdAt, p.updatedAt) FROM Product p LEFT JOIN p.category c ";
+
+    String RELEVANCE_SEARCH_FILTER =
+            "WHERE (p.search_vector @@ websearch_to_tsquery('english', :search) " +
+            "OR :search <% p.name) " +
+            "AND (CAST(:categoryId AS BIGINT) IS NULL OR p.category_id = :categoryId) " +
+            "AND (CAST(:brand AS TEXT) IS NULL OR LOWER(p.brand) = LOWER(:brand)) " +
+            "AND (CAST(:minPrice AS NUMERIC) IS NULL OR p.price >= :minPrice) " +
+            "AND (CAST(:maxPrice AS NUMERIC) IS NULL OR p.price <= :maxPrice) " +
+            "AND (CAST(:isActive AS BOOLEAN) IS NULL OR p.is_active = :isActive) " +
+            "AND (CAST(:isFeatured AS BOOLEAN) IS NULL OR p.is_featured = :isFeatured) " +
+            "AND (CAST(:inStock AS BOOLEAN) IS NULL " +
+            "OR (COALESCE(p.stock_quantity, 0) > 0) = :inStock) ";
+
     Page<Product> findByCategoryId(Long categoryId, Pageable pageable);
 
     Page<Product> findByCategoryIdAndIsActiveTrue(Long categoryId, Pageable pageable);
@@ -25,6 +53,55 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Page<Product> findByIsActiveTrueAndNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
             String name, String description, Pageable pageable);
 
+    @Query(value = "SELECT p.id FROM products p " + RELEVANCE_SEARCH_FILTER +
+                   "ORDER BY ts_rank(p.search_vector, websearch_to_tsquery('english', :search)) DESC, " +
+                   "word_similarity(:search, p.name) DESC, p.id",
+            countQuery = "SELECT COUNT(*) FROM products p " + RELEVANCE_SEARCH_FILTER,
+            nativeQuery = true)
+    Page<Long> searchIdsByRelevance(@Param("search") String search,
+                                    @Param("categoryId") Long categoryId,
+                                    @Param("brand") String brand,
+                                    @Param("minPrice") BigDecimal minPrice,
+                                    @Param("maxPrice") BigDecimal maxPrice,
+                                    @Param("isActive") Boolean isActive,
+                                    @Param("isFeatured") Boolean isFeatured,
+                                    @Param("inStock") Boolean inStock,
+                                    Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<ProductSummaryDto> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = SUMMARY_SELECT + "WHERE p.categoryId = :categoryId " +
+                   "AND (:activeOnly = false OR p.isActive = true)",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.categoryId = :categoryId " +
+                         "AND (:activeOnly = false OR p.isActive = true)")
+    Page<ProductSummaryDto> findSummariesByCategoryId(@Param("categoryId") Long categoryId,
+                                                      @Param("activeOnly") boolean activeOnly,
+                                                      Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE p.categoryId = :categoryId AND p.id <> :productId " +
+                   "AND (:activeOnly = false OR p.isActive = true)",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.categoryId = :categoryId " +
+                         "AND p.id <> :productId AND (:activeOnly = false OR p.isActive = true)")
+    Page<ProductSummaryDto> findRelatedSummaries(@Param("categoryId") Long categoryId,
+                                                 @Param("productId") Long productId,
+                                                 @Param("activeOnly") boolean activeOnly,
+                                                 Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE (:activeOnly = false OR p.isActive = true) " +
+                   "ORDER BY p.createdAt DESC",
+            countQuery = "SELECT COUNT(p) FROM Product p " +
+                         "WHERE (:activeOnly = false OR p.isActive = true)")
+    Page<ProductSummaryDto> findNewArrivalSummaries(@Param("activeOnly") boolean activeOnly,
+                                                    Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE p.isFeatured = true " +
+                   "AND (:activeOnly = false OR p.isActive = true)",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.isFeatured = true " +
+                         "AND (:activeOnly = false OR p.isActive = true)")
+    Page<ProductSummaryDto> findFeaturedSummaries(@Param("activeOnly") boolean activeOnly,
+                                                  Pageable pageable);
+
     Optional<Product> findBySlug(String slug);
 
     Page<Product> findByCategoryIdAndIdNot(Long categoryId, Long productId, Pageable pageable);
@@ -49,4 +126,37 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
            "FROM Product p WHERE p.stockQuantity <= p.lowStockThreshold AND p.isActive = true " +
            "ORDER BY (p.stockQuantity - p.lowStockThreshold)")
     List<LowStockProductDto> findLowStockProducts();
+
+    @Query("SELECT new com.marketnest.ecommerce.dto.product.ProductFacetAttributesDto(" +
+           "p.id, p.categoryId, p.brand, p.price, p.compareAtPrice, p.stockQuantity, " +
+           "p.isActive, p.isFeatured) FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductFacetAttributesDto> findFacetAttributesAfter(@Param("afterId") Long afterId,
+                                                             Pageable pageable);
+
+    @Query("SELECT new com.marketnest.ecommerce.dto.product.ProductFacetAttributesDto(" +
+           "p.id, p.categoryId, p.brand, p.price, p.compareAtPrice, p.stockQuantity, " +
+           "p.isActive, p.isFeatured) FROM Product p WHERE p.id = :productId")
+    Optional<ProductFacetAttributesDto> findFacetAttributesById(
+            @Param("productId") Long productId);
+
+    @Query("SELECT new com.marketnest.ecommerce.dto.product.ProductSuggestAttributesDto(" +
+           "p.id, p.name, p.slug, p.sku, p.brand, p.categoryId) FROM Product p " +
+           "WHERE p.id > :afterId AND p.isActive = true ORDER BY p.id")
+    List<ProductSuggestAttributesDto> findSuggestAttributesAfter(@Param("afterId") Long afterId,
+                                                                 Pageable pageable);
+
+    @Query("SELECT new com.marketnest.ecommerce.dto.product.ProductSuggestAttributesDto(" +
+           "p.id, p.name, p.slug, p.sku, p.brand, p.categoryId) FROM Product p " +
+           "WHERE p.id = :productId AND p.isActive = true")
+    Optional<ProductSuggestAttributesDto> findSuggestAttributesById(
+            @Param("productId") Long productId);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity " +
+           "WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
 }
@@ -0,0 +1,82 @@
+package com.marketnest.ecommerce.repository;
+
+import com.marketnest.ecommerce.model.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> catalogFilter(
+            Long categoryId,
+            String brand,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Boolean isActive,
+            Boolean isFeatured,
+            Boolean inStock) {
+
+        return Specification.where(hasCategory(categoryId))
+                .and(hasBrand(brand))
+                .and(priceAtLeast(minPrice))
+                .and(priceAtMost(maxPrice))
+                .and(isActive(isActive))
+                .and(isFeatured(isFeatured))
+                .and(inStock(inStock));
+    }
+
+    public static Specification<Product> hasCategory(Long categoryId) {
+        if (categoryId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("categoryId"), categoryId);
+    }
+
+    public static Specification<Product> hasBrand(String brand) {
+        if (brand == null || brand.isBlank()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("brand")), brand.toLowerCase());
+    }
+
+    public static Specification<Product> priceAtLeast(BigDecimal minPrice) {
+        if (minPrice == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Product> priceAtMost(BigDecimal maxPrice) {
+        if (maxPrice == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Product> isActive(Boolean isActive) {
+        if (isActive == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("isActive"), isActive);
+    }
+
+    public static Specification<Product> isFeatured(Boolean isFeatured) {
+        if (isFeatured == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("isFeatured"), isFeatured);
+    }
+
+    public static Specification<Product> inStock(Boolean inStock) {
+        if (inStock == null) {
+            return null;
+        }
+        return (root, query, cb) -> inStock
+                ? cb.greaterThan(root.get("stockQuantity"), 0)
+                : cb.or(cb.isNull(root.get("stockQuantity")),
+                        cb.lessThanOrEqualTo(root.get("stockQuantity"), 0));
+    }
+}
@@ -0,0 +1,13 @@
+package com.marketnest.ecommerce.repository;
+
+import com.marketnest.ecommerce.dto.product.ProductSummaryDto;
+import com.marketnest.ecommerce.model.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ProductSummaryRepository {
+
+    Page<ProductSummaryDto> findSummaries(Specification<Product> specification,
+                                          Pageable pageable);
+}
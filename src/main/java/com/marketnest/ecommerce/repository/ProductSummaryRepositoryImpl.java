@@ -0,0 +1,72 @@
+package com.marketnest.ecommerce.repository;
+
+import com.marketnest.ecommerce.dto.product.ProductSummaryDto;
+import com.marketnest.ecommerce.model.Category;
+import com.marketnest.ecommerce.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+public class ProductSummaryRepositoryImpl implements ProductSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ProductSummaryDto> findSummaries(Specification<Product> specification,
+                                                 Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummaryDto> query = cb.createQuery(ProductSummaryDto.class);
+        Root<Product> root = query.from(Product.class);
+        Join<Product, Category> category = root.join("category", JoinType.LEFT);
+
+        query.select(cb.construct(ProductSummaryDto.class,
+                root.get("id"), root.get("sku"), root.get("name"), root.get("slug"),
+                root.get("price"), root.get("compareAtPrice"), root.get("stockQuantity"),
+                root.get("lowStockThreshold"), root.get("categoryId"), category.get("name"),
+                root.get("brand"), root.get("isActive"), root.get("isFeatured"),
+                root.get("createdAt"), root.get("updatedAt")));
+        applySpecification(specification, root, query, cb);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<ProductSummaryDto> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<ProductSummaryDto> content = typedQuery.getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    private long count(Specification<Product> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+
+        query.select(cb.count(root));
+        applySpecification(specification, root, query, cb);
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private void applySpecification(Specification<Product> specification, Root<Product> root,
+                                    CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (specification == null) {
+            return;
+        }
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -2,8 +2,32 @@ package com.marketnest.ecommerce.repository;
 
 import com.marketnest.ecommerce.model.ProductVariant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ProductVariantRepository extends JpaRepository<ProductVariant, Long> {
+
+    // Units claimed into flash-sale counters are not for sale from the row
+    @Modifying
+    @Query("UPDATE ProductVariant v SET v.stockQuantity = v.stockQuantity - :quantity " +
+           "WHERE v.id = :id AND v.stockQuantity - v.flashSaleAllocated >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE ProductVariant v SET v.stockQuantity = v.stockQuantity + :quantity " +
+           "WHERE v.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // In the order CartPricing tries them when it picks the variant of a cart line
+    @Query("SELECT v FROM ProductVariant v JOIN FETCH v.product p " +
+           "WHERE p.id IN :productIds AND v.isAvailable = true " +
+           "ORDER BY p.id, v.position, v.id")
+    List<ProductVariant> findAvailableWithProductByProductIdIn(
+            @Param("productIds") Collection<Long> productIds);
 }
@@ -1,8 +1,11 @@
 package com.marketnest.ecommerce.repository;
 
 import com.marketnest.ecommerce.model.Review;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -13,6 +16,9 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     Page<Review> findByProductIdAndIsApprovedTrue(Long productId, Pageable pageable);
 
+    Window<Review> findByProductIdAndIsApprovedTrueOrderByCreatedAtDescIdDesc(
+            Long productId, ScrollPosition position, Limit limit);
+
 
     Optional<Review> findByIdAndUser_UserId(Long id, Long userId);
 
@@ -0,0 +1,84 @@
+package com.marketnest.ecommerce.service.cart;
+
+import com.marketnest.ecommerce.dto.cart.CartCheckoutRequest;
+import com.marketnest.ecommerce.dto.order.OrderRequestDto;
+import com.marketnest.ecommerce.dto.order.OrderResponseDto;
+import com.marketnest.ecommerce.exception.CartChangedException;
+import com.marketnest.ecommerce.model.Order;
+import com.marketnest.ecommerce.model.OrderItem;
+import com.marketnest.ecommerce.model.Product;
+import com.marketnest.ecommerce.model.ProductVariant;
+import com.marketnest.ecommerce.repository.UserRepository;
+import com.marketnest.ecommerce.service.order.OrderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+
+// Turns the user's cart into an order inside the cart's checkout transaction: one query resolves
+// every product and variant, order items go out in one batch and the cart row is closed last.
+@Service
+@RequiredArgsConstructor
+public class CartCheckoutService {
+    private final CartStore cartStore;
+    private final OrderService orderService;
+    private final CartPricing cartPricing;
+    private final UserRepository userRepository;
+
+    public OrderResponseDto checkout(Long userId, String email, CartCheckoutRequest request) {
+        return cartStore.checkout(userId, cart -> {
+            Collection<CartLine> lines = cart.getLines();
+            if (lines.isEmpty()) {
+                throw new IllegalArgumentException("Cart is empty");
+            }
+
+            Order order = orderService.newOrder(userRepository.getReferenceById(userId),
+                    toOrderRequest(request));
+            Map<Long, ProductVariant> variants = cartPricing.chooseVariants(lines);
+
+            boolean repriced = false;
+            for (CartLine line : lines) {
+                ProductVariant variant = variants.get(line.getProductId());
+                if (variant == null || !Boolean.TRUE.equals(variant.getProduct().getIsActive())) {
+                    throw new IllegalArgumentException(
+                            "Product not available: " + line.getProductName());
+                }
+
+                Product product = variant.getProduct();
+                BigDecimal price = OrderService.unitPrice(variant, product);
+                if (price.compareTo(line.getPrice()) != 0) {
+                    cart.reprice(line, price);
+                    repriced = true;
+                    continue;
+                }
+
+                OrderItem orderItem = new OrderItem();
+                orderItem.setProduct(product);
+                orderItem.setVariant(variant);
+                orderItem.setQuantity(line.getQuantity());
+                order.addOrderItem(orderItem);
+            }
+            if (repriced) {
+                throw new CartChangedException(
+                        "Cart prices have changed, please review your cart and check out again");
+            }
+
+            orderService.priceOrder(order);
+            Order savedOrder = orderService.persistOrder(order, email);
+            orderService.reserveStock(savedOrder);
+            orderService.notifyOrderPlaced(savedOrder);
+
+            return orderService.toResponse(savedOrder);
+        });
+    }
+
+    private static OrderRequestDto toOrderRequest(CartCheckoutRequest request) {
+        OrderRequestDto orderRequest = new OrderRequestDto();
+        orderRequest.setShippingAddressId(request.getShippingAddressId());
+        orderRequest.setBillingAddressId(request.getBillingAddressId());
+        orderRequest.setNotes(request.getNotes());
+        return orderRequest;
+    }
+}
@@ -0,0 +1,58 @@
+package com.marketnest.ecommerce.service.cart;
+
+import com.marketnest.ecommerce.model.CartItem;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One cart_item row as held by CartStore. Product name and SKU are kept from when the cart was
+// loaded or the line was added, so building a response never touches the products table.
+@Getter
+public class CartLine {
+
+    private Long id;
+    private final Long productId;
+    private final String productName;
+    private final String productSku;
+    private BigDecimal price;
+    private int quantity;
+    private final LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    CartLine(Long id, Long productId, String productName, String productSku, BigDecimal price,
+             int quantity, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.productId = productId;
+        this.productName = productName;
+        this.productSku = productSku;
+        this.price = price;
+        this.quantity = quantity;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    static CartLine of(CartItem item) {
+        return new CartLine(item.getId(), item.getProduct().getId(), item.getProduct().getName(),
+                item.getProduct().getSku(), item.getPrice(), item.getQuantity(),
+                item.getCreatedAt(), item.getUpdatedAt());
+    }
+
+    public BigDecimal getSubtotal() {
+        return price.multiply(BigDecimal.valueOf(quantity));
+    }
+
+    void setId(Long id) {
+        this.id = id;
+    }
+
+    void setPrice(BigDecimal price, LocalDateTime now) {
+        this.price = price;
+        this.updatedAt = now;
+    }
+
+    void setQuantity(int quantity, LocalDateTime now) {
+        this.quantity = quantity;
+        this.updatedAt = now;
+    }
+}
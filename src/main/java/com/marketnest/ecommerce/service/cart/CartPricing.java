@@ -0,0 +1,74 @@
+package com.marketnest.ecommerce.service.cart;
+
+import com.marketnest.ecommerce.exception.ResourceNotFoundException;
+import com.marketnest.ecommerce.model.Product;
+import com.marketnest.ecommerce.model.ProductVariant;
+import com.marketnest.ecommerce.repository.ProductRepository;
+import com.marketnest.ecommerce.repository.ProductVariantRepository;
+import com.marketnest.ecommerce.service.order.OrderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Cart lines carry no variant. The user cart, the guest cart and checkout all pick it here and
+// price it like an order does, so a line is never repriced just for being checked out.
+@Component
+@RequiredArgsConstructor
+public class CartPricing {
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository variantRepository;
+
+    public record PricedProduct(Product product, BigDecimal price) {
+    }
+
+    // A product without an orderable variant keeps its own price; checkout turns it away
+    public PricedProduct price(Long productId, int quantity) {
+        ProductVariant variant = choose(
+                variantRepository.findAvailableWithProductByProductIdIn(List.of(productId)),
+                quantity);
+        if (variant != null) {
+            return new PricedProduct(variant.getProduct(),
+                    OrderService.unitPrice(variant, variant.getProduct()));
+        }
+
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+        return new PricedProduct(product, product.getPrice());
+    }
+
+    // Variants of every line in one query, keyed by product id
+    public Map<Long, ProductVariant> chooseVariants(Collection<CartLine> lines) {
+        List<Long> productIds = lines.stream().map(CartLine::getProductId).toList();
+        Map<Long, List<ProductVariant>> byProduct = new HashMap<>();
+        for (ProductVariant variant :
+                variantRepository.findAvailableWithProductByProductIdIn(productIds)) {
+            byProduct.computeIfAbsent(variant.getProductId(), id -> new ArrayList<>()).add(variant);
+        }
+
+        Map<Long, ProductVariant> variants = new HashMap<>();
+        for (CartLine line : lines) {
+            ProductVariant variant = choose(
+                    byProduct.getOrDefault(line.getProductId(), List.of()), line.getQuantity());
+            if (variant != null) {
+                variants.put(line.getProductId(), variant);
+            }
+        }
+        return variants;
+    }
+
+    // The first variant, by position, with stock for the whole line; the first one if none has
+    static ProductVariant choose(List<ProductVariant> variants, int quantity) {
+        for (ProductVariant variant : variants) {
+            if (variant.getStockQuantity() != null && variant.getStockQuantity() >= quantity) {
+                return variant;
+            }
+        }
+        return variants.isEmpty() ? null : variants.get(0);
+    }
+}
@@ -2,123 +2,97 @@ package com.marketnest.ecommerce.service.cart;
 
 import com.marketnest.ecommerce.dto.cart.CartItemRequest;
 import com.marketnest.ecommerce.dto.cart.CartResponse;
+import com.marketnest.ecommerce.dto.cart.CartSummaryResponse;
 import com.marketnest.ecommerce.exception.ResourceNotFoundException;
 import com.marketnest.ecommerce.mapper.cart.CartMapper;
-import com.marketnest.ecommerce.model.Cart;
-import com.marketnest.ecommerce.model.CartItem;
-import com.marketnest.ecommerce.model.Product;
-import com.marketnest.ecommerce.repository.CartItemRepository;
-import com.marketnest.ecommerce.repository.CartRepository;
-import com.marketnest.ecommerce.repository.ProductRepository;
 import com.marketnest.ecommerce.util.HtmlEscapeUtil;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-
+// Carts are read and changed through CartStore; the database sees the changes in batches.
 @Service
 @RequiredArgsConstructor
 public class CartService {
-    private final CartRepository cartRepository;
-    private final CartItemRepository cartItemRepository;
-    private final ProductRepository productRepository;
+    private final CartStore cartStore;
+    private final CartPricing cartPricing;
     private final CartMapper cartMapper;
     private final HtmlEscapeUtil htmlEscapeUtil;
 
 
     public CartResponse getUserCart(Long userId) {
-        Cart cart = getOrCreateCart(userId);
-        return cartMapper.toResponse(cart, htmlEscapeUtil);
+        return cartStore.read(userId, true, this::toResponse);
     }
 
-    @Transactional
     public CartResponse addToCart(Long userId, CartItemRequest request) {
-        Cart cart = getOrCreateCart(userId);
-
-        Product product = productRepository.findById(request.getProductId())
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", request.getProductId()));
-
-        for (CartItem item : cart.getCartItems()) {
-            if (item.getProduct().getId().equals(product.getId())) {
-                item.incrementQuantity(request.getQuantity());
-                cartItemRepository.save(item);
-                cart.recalculateTotalPrice();
-                return cartMapper.toResponse(cart, htmlEscapeUtil);
+        Long productId = request.getProductId();
+        CartResponse incremented = cartStore.update(userId, true, cart -> {
+            CartLine existing = cart.findByProduct(productId);
+            if (existing == null) {
+                return null;
             }
+            cart.setQuantity(existing, existing.getQuantity() + request.getQuantity());
+            return toResponse(cart);
+        });
+        if (incremented != null) {
+            return incremented;
         }
 
-        CartItem cartItem = cartMapper.toEntity(request);
-        cartItem.setProduct(product);
-        cartItem.setPrice(product.getPrice());
-
-        cart.addCartItem(cartItem);
-        cartRepository.save(cart);
-
-        return cartMapper.toResponse(cart, htmlEscapeUtil);
+        // Only products not yet in the cart are priced, outside the cart's lock
+        CartPricing.PricedProduct priced = cartPricing.price(productId, request.getQuantity());
+        Long itemId = cartStore.nextItemId();
+
+        return cartStore.update(userId, true, cart -> {
+            CartLine existing = cart.findByProduct(productId);
+            if (existing != null) {
+                cart.setQuantity(existing, existing.getQuantity() + request.getQuantity());
+            } else {
+                cart.add(itemId, productId, priced.product().getName(),
+                        priced.product().getSku(), priced.price(), request.getQuantity());
+            }
+            return toResponse(cart);
+        });
     }
 
-    @Transactional
     public CartResponse updateCartItemQuantity(Long userId, Long itemId, Integer quantity) {
-        Cart cart = getUserCartOrThrow(userId);
-
-        CartItem cartItem = cart.getCartItems().stream()
-                .filter(item -> item.getId().equals(itemId))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("CartItem", "id", itemId));
-
-        cartItem.setQuantity(quantity);
-        cartItemRepository.save(cartItem);
-        cart.recalculateTotalPrice();
-        cartRepository.save(cart);
-
-        return cartMapper.toResponse(cart, htmlEscapeUtil);
+        return cartStore.update(userId, false, cart -> {
+            cart.setQuantity(findItem(cart, itemId), quantity);
+            return toResponse(cart);
+        });
     }
 
-    @Transactional
     public CartResponse removeCartItem(Long userId, Long itemId) {
-        Cart cart = getUserCartOrThrow(userId);
-
-        CartItem itemToRemove = cart.getCartItems().stream()
-                .filter(item -> item.getId().equals(itemId))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("CartItem", "id", itemId));
-
-        cart.removeCartItem(itemToRemove);
-        cartItemRepository.delete(itemToRemove);
-        cartRepository.save(cart);
-
-        return cartMapper.toResponse(cart, htmlEscapeUtil);
+        return cartStore.update(userId, false, cart -> {
+            cart.remove(findItem(cart, itemId));
+            return toResponse(cart);
+        });
     }
 
-    @Transactional
     public CartResponse clearCart(Long userId) {
-        Cart cart = getUserCartOrThrow(userId);
-
-        cart.getCartItems().clear();
-        cart.setTotalPrice(BigDecimal.ZERO);
-        cartRepository.save(cart);
-
-        return cartMapper.toResponse(cart, htmlEscapeUtil);
+        return cartStore.update(userId, false, cart -> {
+            cart.clear();
+            return toResponse(cart);
+        });
     }
 
+    // Neither reads load the cart; a user without one gets zeros
     public int getCartItemsCount(Long userId) {
-        Cart cart = getUserCartOrThrow(userId);
-        return cart.getCartItems().size();
+        return cartStore.summary(userId).itemCount();
     }
 
-    private Cart getOrCreateCart(Long userId) {
-        return cartRepository.findByUserIdAndStatus(userId, Cart.CartStatus.ACTIVE)
-                .orElseGet(() -> {
-                    Cart newCart = new Cart();
-                    newCart.setUserId(userId);
-                    newCart.setStatus(Cart.CartStatus.ACTIVE);
-                    return cartRepository.save(newCart);
-                });
+    public CartSummaryResponse getCartSummary(Long userId) {
+        CartStore.Summary summary = cartStore.summary(userId);
+        return new CartSummaryResponse(summary.itemCount(), summary.totalPrice());
     }
 
-    private Cart getUserCartOrThrow(Long userId) {
-        return cartRepository.findByUserIdAndStatus(userId, Cart.CartStatus.ACTIVE)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart", "userId", userId));
+    private CartResponse toResponse(CartState cart) {
+        return cartMapper.toResponse(cart, htmlEscapeUtil);
+    }
+
+    private static CartLine findItem(CartState cart, Long itemId) {
+        CartLine line = cart.findById(itemId);
+        if (line == null) {
+            throw new ResourceNotFoundException("CartItem", "id", itemId);
+        }
+        return line;
     }
-}
\ No newline at end of file
+}
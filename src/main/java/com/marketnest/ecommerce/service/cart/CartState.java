@@ -0,0 +1,228 @@
+package com.marketnest.ecommerce.service.cart;
+
+import com.marketnest.ecommerce.model.Cart;
+import com.marketnest.ecommerce.model.CartItem;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// A user's ACTIVE cart as held by CartStore. Lines are indexed by product and by item id so every
+// mutation is O(1), and the total is adjusted by the changed subtotal instead of re-summed. Changes
+// since the last flush are tracked as the products whose line must be upserted and the item ids to
+// delete. Callers go through CartStore, which serialises access by locking the state.
+public class CartState {
+
+    // Values of one changed line at the time a flush picked it up
+    record LineRow(Long id, Long productId, int quantity, BigDecimal price,
+                   LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    record Changes(CartState state, Long cartId, long version, BigDecimal totalPrice,
+                   int itemCount, LocalDateTime updatedAt, List<LineRow> upserts,
+                   List<Long> deletes) {
+    }
+
+    @Getter
+    private final Long userId;
+    @Getter
+    private Long cartId;
+    @Getter
+    private Cart.CartStatus status;
+    @Getter
+    private long version;
+    @Getter
+    private BigDecimal totalPrice = BigDecimal.ZERO;
+    @Getter
+    private LocalDateTime createdAt;
+    @Getter
+    private LocalDateTime updatedAt;
+
+    private Map<Long, CartLine> lines = new LinkedHashMap<>();
+    private Map<Long, CartLine> linesById = new HashMap<>();
+
+    private final Set<Long> changedProducts = new HashSet<>();
+    private final Set<Long> removedIds = new HashSet<>();
+    @Getter
+    private boolean dirty;
+
+    CartState(Cart cart) {
+        this.userId = cart.getUserId();
+        this.cartId = cart.getId();
+        this.status = cart.getStatus();
+        this.version = cart.getVersion() != null ? cart.getVersion() : 0;
+        this.createdAt = cart.getCreatedAt();
+        this.updatedAt = cart.getUpdatedAt();
+        for (CartItem item : cart.getCartItems()) {
+            CartLine line = CartLine.of(item);
+            lines.put(line.getProductId(), line);
+            linesById.put(line.getId(), line);
+            totalPrice = totalPrice.add(line.getSubtotal());
+        }
+    }
+
+    public Collection<CartLine> getLines() {
+        return Collections.unmodifiableCollection(lines.values());
+    }
+
+    public int getItemCount() {
+        return lines.size();
+    }
+
+    public CartLine findByProduct(Long productId) {
+        return lines.get(productId);
+    }
+
+    public CartLine findById(Long itemId) {
+        return linesById.get(itemId);
+    }
+
+    CartLine add(Long itemId, Long productId, String productName, String productSku,
+                 BigDecimal price, int quantity) {
+        LocalDateTime now = LocalDateTime.now();
+        CartLine line = new CartLine(itemId, productId, productName, productSku, price, quantity,
+                now, now);
+        lines.put(productId, line);
+        linesById.put(itemId, line);
+        totalPrice = totalPrice.add(line.getSubtotal());
+        touch(productId, now);
+        return line;
+    }
+
+    void setQuantity(CartLine line, int quantity) {
+        LocalDateTime now = LocalDateTime.now();
+        totalPrice = totalPrice.add(
+                line.getPrice().multiply(BigDecimal.valueOf(quantity - line.getQuantity())));
+        line.setQuantity(quantity, now);
+        touch(line.getProductId(), now);
+    }
+
+    void reprice(CartLine line, BigDecimal price) {
+        LocalDateTime now = LocalDateTime.now();
+        totalPrice = totalPrice.add(
+                price.subtract(line.getPrice()).multiply(BigDecimal.valueOf(line.getQuantity())));
+        line.setPrice(price, now);
+        touch(line.getProductId(), now);
+    }
+
+    void remove(CartLine line) {
+        lines.remove(line.getProductId());
+        linesById.remove(line.getId());
+        totalPrice = totalPrice.subtract(line.getSubtotal());
+        changedProducts.remove(line.getProductId());
+        removedIds.add(line.getId());
+        touch(null, LocalDateTime.now());
+    }
+
+    void clear() {
+        removedIds.addAll(linesById.keySet());
+        changedProducts.clear();
+        lines.clear();
+        linesById.clear();
+        totalPrice = BigDecimal.ZERO;
+        touch(null, LocalDateTime.now());
+    }
+
+    // Checked out; whoever still holds this state must look the user's cart up again
+    void close() {
+        status = Cart.CartStatus.COMPLETED;
+    }
+
+    boolean isClosed() {
+        return status != Cart.CartStatus.ACTIVE;
+    }
+
+    // Hands the pending changes to a flush; the state counts as clean until something changes again
+    Changes takeChanges() {
+        List<LineRow> upserts = new ArrayList<>(changedProducts.size());
+        for (Long productId : changedProducts) {
+            CartLine line = lines.get(productId);
+            upserts.add(new LineRow(line.getId(), productId, line.getQuantity(), line.getPrice(),
+                    line.getCreatedAt(), line.getUpdatedAt()));
+        }
+        Changes changes = new Changes(this, cartId, version, totalPrice, lines.size(), updatedAt,
+                upserts, List.copyOf(removedIds));
+        changedProducts.clear();
+        removedIds.clear();
+        dirty = false;
+        return changes;
+    }
+
+    // The flush failed or lost the version check: its changes are pending again
+    void restore(Changes changes) {
+        if (!Objects.equals(changes.cartId(), cartId)) {
+            return;
+        }
+        for (LineRow row : changes.upserts()) {
+            if (lines.containsKey(row.productId())) {
+                changedProducts.add(row.productId());
+            }
+        }
+        removedIds.addAll(changes.deletes());
+        dirty = true;
+    }
+
+    void flushed(Changes changes) {
+        if (Objects.equals(changes.cartId(), cartId) && changes.version() == version) {
+            version++;
+        }
+    }
+
+    // Another node wrote this cart since it was loaded. Lines changed here win over what is
+    // stored, everything else is taken from the stored cart. If that cart was closed and the user
+    // has a new one, the local changes are dropped along with the old cart.
+    void rebase(CartState stored) {
+        if (!Objects.equals(stored.cartId, cartId)) {
+            cartId = stored.cartId;
+            status = stored.status;
+            createdAt = stored.createdAt;
+            updatedAt = stored.updatedAt;
+            changedProducts.clear();
+            removedIds.clear();
+            dirty = false;
+            replaceLines(stored.lines, stored.version);
+            return;
+        }
+
+        Map<Long, CartLine> merged = new LinkedHashMap<>(stored.lines);
+        removedIds.removeIf(id -> {
+            CartLine gone = stored.linesById.get(id);
+            if (gone == null) {
+                return true;
+            }
+            merged.remove(gone.getProductId());
+            return false;
+        });
+        for (Long productId : changedProducts) {
+            CartLine mine = lines.get(productId);
+            CartLine theirs = stored.lines.get(productId);
+            if (theirs != null && !theirs.getId().equals(mine.getId())) {
+                // Both nodes added the product; keep the stored row so it is not duplicated
+                mine.setId(theirs.getId());
+                removedIds.remove(theirs.getId());
+            }
+            merged.put(productId, mine);
+        }
+        replaceLines(merged, stored.version);
+    }
+
+    private void replaceLines(Map<Long, CartLine> replacement, long storedVersion) {
+        lines = new LinkedHashMap<>(replacement);
+        linesById = new HashMap<>();
+        totalPrice = BigDecimal.ZERO;
+        for (CartLine line : lines.values()) {
+            linesById.put(line.getId(), line);
+            totalPrice = totalPrice.add(line.getSubtotal());
+        }
+        version = storedVersion;
+    }
+
+    private void touch(Long productId, LocalDateTime now) {
+        if (productId != null) {
+            changedProducts.add(productId);
+        }
+        updatedAt = now;
+        dirty = true;
+    }
+}
@@ -0,0 +1,428 @@
+package com.marketnest.ecommerce.service.cart;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.marketnest.ecommerce.exception.CartChangedException;
+import com.marketnest.ecommerce.exception.ResourceNotFoundException;
+import com.marketnest.ecommerce.model.Cart;
+import com.marketnest.ecommerce.repository.CartRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+// Active carts live in memory keyed by user id and are written back to cart/cart_item in batches.
+// Each flush updates the cart row only if its version is still the one this node loaded; a cart
+// that another node wrote in the meantime is reloaded and keeps the lines changed here.
+// With STICKY routing (all requests of a user reach the same node) that check only guards against
+// the odd misrouted request. SHARED routing is the fallback without affinity: every access first
+// compares the stored version and every change is written through before the call returns.
+@Slf4j
+@Component
+public class CartStore {
+
+    public enum Routing {
+        STICKY, SHARED
+    }
+
+    public record Summary(int itemCount, BigDecimal totalPrice) {
+    }
+
+    private static final String ITEM_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('cart_item', 'id')) " +
+            "FROM generate_series(1, ?)";
+
+    private static final String VERSION_SQL =
+            "SELECT version FROM cart WHERE id = ? AND status = 'ACTIVE'";
+
+    private static final String SUMMARY_SQL =
+            "SELECT item_count, total_price FROM cart WHERE user_id = ? AND status = 'ACTIVE'";
+
+    private static final String UPDATE_CART_SQL =
+            "UPDATE cart SET total_price = ?, item_count = ?, updated_at = ?, " +
+            "version = version + 1 WHERE id = ? AND version = ?";
+
+    private static final String COMPLETE_CART_SQL =
+            "UPDATE cart SET status = 'COMPLETED', total_price = ?, item_count = ?, " +
+            "updated_at = ?, version = version + 1 WHERE id = ? AND version = ?";
+
+    private static final String DELETE_ITEM_SQL = "DELETE FROM cart_item WHERE id = ?";
+
+    private static final String UPSERT_ITEM_SQL =
+            "INSERT INTO cart_item (id, cart_id, product_id, quantity, price, created_at, " +
+            "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET quantity = EXCLUDED.quantity, " +
+            "price = EXCLUDED.price, updated_at = EXCLUDED.updated_at";
+
+    private static final int ITEM_ID_BLOCK = 50;
+
+    private static final Summary EMPTY_SUMMARY = new Summary(0, BigDecimal.ZERO);
+
+    private final CartRepository cartRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Routing routing;
+    private final int flushBatchSize;
+
+    private final Cache<Long, CartState> carts;
+    // Carts that dropped out of the cache before their changes were written
+    private final ConcurrentMap<Long, CartState> evicted = new ConcurrentHashMap<>();
+    private final Set<CartState> dirty = ConcurrentHashMap.newKeySet();
+    private final Queue<Long> itemIds = new ConcurrentLinkedQueue<>();
+
+    public CartStore(CartRepository cartRepository,
+                     JdbcTemplate jdbcTemplate,
+                     PlatformTransactionManager transactionManager,
+                     MeterRegistry meterRegistry,
+                     @Value("${cart.store.max-carts:100000}") long maxCarts,
+                     @Value("${cart.store.idle-timeout:PT30M}") Duration idleTimeout,
+                     @Value("${cart.store.routing:STICKY}") Routing routing,
+                     @Value("${cart.store.flush-batch-size:500}") int flushBatchSize) {
+        this.cartRepository = cartRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.routing = routing;
+        this.flushBatchSize = flushBatchSize;
+        this.carts = Caffeine.newBuilder()
+                .maximumSize(maxCarts)
+                .expireAfterAccess(idleTimeout)
+                .evictionListener((Long userId, CartState state, RemovalCause cause) -> {
+                    if (userId != null && state != null && dirty.contains(state)) {
+                        evicted.put(userId, state);
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, carts, "activeCarts");
+    }
+
+    // Without create, a user who has no ACTIVE cart gets a ResourceNotFoundException
+    public <T> T read(Long userId, boolean create, Function<CartState, T> reader) {
+        while (true) {
+            CartState state = get(userId, create);
+            synchronized (state) {
+                if (state.isClosed()) {
+                    continue;
+                }
+                if (routing == Routing.SHARED) {
+                    refreshIfStale(state);
+                }
+                return reader.apply(state);
+            }
+        }
+    }
+
+    // The mutation runs under the cart's lock and must only use the package-private CartState
+    // operations; whatever it changed is written back later (STICKY) or before returning (SHARED).
+    public <T> T update(Long userId, boolean create, Function<CartState, T> mutation) {
+        while (true) {
+            CartState state = get(userId, create);
+            synchronized (state) {
+                if (state.isClosed()) {
+                    continue;
+                }
+                if (routing == Routing.SHARED) {
+                    refreshIfStale(state);
+                }
+                T result = mutation.apply(state);
+                if (state.isDirty()) {
+                    dirty.add(state);
+                    if (routing == Routing.SHARED) {
+                        writeThrough(state);
+                    }
+                }
+                return result;
+            }
+        }
+    }
+
+    // Runs placeOrder and completes the cart in one transaction. The cart stays locked throughout,
+    // so the order is built from exactly the lines that end up in the completed cart; changes not
+    // yet flushed are written in the same transaction. A cart another node changed since it was
+    // loaded is not completed and the order rolls back with CartChangedException.
+    public <T> T checkout(Long userId, Function<CartState, T> placeOrder) {
+        while (true) {
+            CartState state = get(userId, false);
+            synchronized (state) {
+                if (state.isClosed()) {
+                    continue;
+                }
+                if (routing == Routing.SHARED) {
+                    refreshIfStale(state);
+                }
+
+                T result;
+                try {
+                    result = transactionTemplate.execute(status -> {
+                        T placed = placeOrder.apply(state);
+                        complete(state);
+                        return placed;
+                    });
+                } catch (CartChangedException e) {
+                    // Show the caller what is stored now before they try again
+                    state.rebase(load(userId, true));
+                    dirty.add(state);
+                    throw e;
+                } catch (RuntimeException e) {
+                    if (state.isDirty()) {
+                        dirty.add(state);
+                    }
+                    throw e;
+                }
+
+                state.close();
+                dirty.remove(state);
+                evicted.remove(userId, state);
+                carts.invalidate(userId);
+                return result;
+            }
+        }
+    }
+
+    // Item count and total without loading the cart: a STICKY node answers from memory when it
+    // holds the cart, anything else reads the item_count/total_price kept on the cart row (one
+    // row through the partial index on ACTIVE carts). Users without a cart get zeros.
+    public Summary summary(Long userId) {
+        if (routing == Routing.STICKY) {
+            CartState state = carts.getIfPresent(userId);
+            if (state == null) {
+                state = evicted.get(userId);
+            }
+            if (state != null) {
+                synchronized (state) {
+                    if (!state.isClosed()) {
+                        return new Summary(state.getItemCount(), state.getTotalPrice());
+                    }
+                }
+            }
+        }
+
+        List<Summary> stored = jdbcTemplate.query(SUMMARY_SQL,
+                (rs, rowNum) -> new Summary(rs.getInt("item_count"),
+                        rs.getBigDecimal("total_price")), userId);
+        return stored.isEmpty() ? EMPTY_SUMMARY : stored.getFirst();
+    }
+
+    // For set-based SQL on the cart's rows that CartState cannot express (e.g. merging a guest
+    // cart). Pending changes are written first so the SQL sees them; the write gets the cart id,
+    // runs in one transaction under the cart's lock and must bump the cart's version. The cart is
+    // reloaded afterwards.
+    public <T> T writeDirect(Long userId, Function<Long, T> write) {
+        while (true) {
+            CartState state = get(userId, true);
+            synchronized (state) {
+                if (state.isClosed()) {
+                    continue;
+                }
+                if (state.isDirty()) {
+                    writeThrough(state);
+                }
+
+                T result = transactionTemplate.execute(status -> write.apply(state.getCartId()));
+                state.rebase(load(userId, true));
+                return result;
+            }
+        }
+    }
+
+    // Ids come from the cart_item identity sequence, so rows inserted through JPA never collide
+    public Long nextItemId() {
+        Long id = itemIds.poll();
+        while (id == null) {
+            synchronized (itemIds) {
+                if (itemIds.isEmpty()) {
+                    itemIds.addAll(
+                            jdbcTemplate.queryForList(ITEM_IDS_SQL, Long.class, ITEM_ID_BLOCK));
+                }
+            }
+            id = itemIds.poll();
+        }
+        return id;
+    }
+
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval:PT2S}")
+    public void flush() {
+        // Carts that fail or get merged are dirty again and wait for the next run
+        List<CartState> pending = new ArrayList<>(dirty);
+        for (int from = 0; from < pending.size(); from += flushBatchSize) {
+            List<CartState> batch =
+                    pending.subList(from, Math.min(from + flushBatchSize, pending.size()));
+            batch.forEach(dirty::remove);
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                log.error("Writing back {} carts failed", batch.size(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (!dirty.isEmpty()) {
+            log.warn("{} carts could not be written back before shutdown", dirty.size());
+        }
+    }
+
+    private CartState get(Long userId, boolean create) {
+        CartState state = carts.get(userId, id -> {
+            CartState pending = evicted.remove(id);
+            return pending != null ? pending : load(id, create);
+        });
+        if (state == null) {
+            throw new ResourceNotFoundException("Cart", "userId", userId);
+        }
+        return state;
+    }
+
+    private CartState load(Long userId, boolean create) {
+        Optional<Cart> stored =
+                cartRepository.findWithItemsByUserIdAndStatus(userId, Cart.CartStatus.ACTIVE);
+        if (stored.isEmpty() && !create) {
+            return null;
+        }
+        return new CartState(stored.orElseGet(() -> {
+            Cart newCart = new Cart();
+            newCart.setUserId(userId);
+            newCart.setStatus(Cart.CartStatus.ACTIVE);
+            return cartRepository.save(newCart);
+        }));
+    }
+
+    private void refreshIfStale(CartState state) {
+        List<Long> stored = jdbcTemplate.queryForList(VERSION_SQL, Long.class, state.getCartId());
+        if (stored.isEmpty() || stored.getFirst() != state.getVersion()) {
+            state.rebase(load(state.getUserId(), true));
+        }
+    }
+
+    // A failed write leaves the cart in memory only, which other nodes would never see
+    private void writeThrough(CartState state) {
+        try {
+            for (int attempt = 0; attempt < 2 && state.isDirty(); attempt++) {
+                dirty.remove(state);
+                write(List.of(state));
+            }
+        } catch (RuntimeException e) {
+            dirty.remove(state);
+            carts.invalidate(state.getUserId());
+            throw e;
+        }
+    }
+
+    private void write(List<CartState> states) {
+        List<CartState.Changes> changes = new ArrayList<>(states.size());
+        for (CartState state : states) {
+            synchronized (state) {
+                if (state.isDirty()) {
+                    changes.add(state.takeChanges());
+                }
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Set<CartState.Changes> conflicts;
+        try {
+            conflicts = transactionTemplate.execute(status -> writeChanges(changes));
+        } catch (RuntimeException e) {
+            for (CartState.Changes change : changes) {
+                synchronized (change.state()) {
+                    change.state().restore(change);
+                }
+                dirty.add(change.state());
+            }
+            throw e;
+        }
+
+        for (CartState.Changes change : changes) {
+            CartState state = change.state();
+            if (conflicts.contains(change)) {
+                log.warn("Cart {} was changed by another node, merging", change.cartId());
+                CartState stored = load(state.getUserId(), true);
+                synchronized (state) {
+                    state.restore(change);
+                    state.rebase(stored);
+                }
+            } else {
+                synchronized (state) {
+                    state.flushed(change);
+                }
+            }
+
+            if (state.isDirty()) {
+                dirty.add(state);
+            } else {
+                evicted.remove(state.getUserId(), state);
+            }
+        }
+    }
+
+    private void complete(CartState state) {
+        CartState.Changes changes = state.takeChanges();
+        try {
+            if (jdbcTemplate.update(COMPLETE_CART_SQL, changes.totalPrice(), changes.itemCount(),
+                    LocalDateTime.now(), changes.cartId(), changes.version()) == 0) {
+                throw new CartChangedException(
+                        "Your cart was changed elsewhere, please review it and check out again");
+            }
+            writeLines(List.of(changes));
+        } catch (RuntimeException e) {
+            state.restore(changes);
+            throw e;
+        }
+    }
+
+    // Carts whose version moved are left out entirely, their lines are written after the merge
+    private Set<CartState.Changes> writeChanges(List<CartState.Changes> changes) {
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_CART_SQL, changes.stream()
+                .map(change -> new Object[]{change.totalPrice(), change.itemCount(),
+                        change.updatedAt(), change.cartId(), change.version()})
+                .toList());
+
+        Set<CartState.Changes> conflicts = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < changes.size(); i++) {
+            if (updated[i] == 0) {
+                conflicts.add(changes.get(i));
+            }
+        }
+        writeLines(changes.stream().filter(change -> !conflicts.contains(change)).toList());
+        return conflicts;
+    }
+
+    private void writeLines(List<CartState.Changes> changes) {
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> upserts = new ArrayList<>();
+        for (CartState.Changes change : changes) {
+            change.deletes().forEach(id -> deletes.add(new Object[]{id}));
+            change.upserts().forEach(row -> upserts.add(new Object[]{row.id(), change.cartId(),
+                    row.productId(), row.quantity(), row.price(), row.createdAt(),
+                    row.updatedAt()}));
+        }
+
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_ITEM_SQL, deletes);
+        }
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_ITEM_SQL, upserts);
+        }
+    }
+}
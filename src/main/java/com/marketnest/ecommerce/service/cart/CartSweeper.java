@@ -0,0 +1,96 @@
+package com.marketnest.ecommerce.service.cart;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+// Moves carts out of ACTIVE once they sit idle and deletes closed and guest carts when they get
+// old. Every statement handles at most chunk-size carts and commits on its own, so row locks are
+// held for one chunk only. SKIP LOCKED lets several nodes sweep at once without waiting on each
+// other or on a cart being written right now.
+@Slf4j
+@Component
+public class CartSweeper {
+
+    private static final String ABANDON_SQL =
+            "UPDATE cart SET status = 'ABANDONED', updated_at = ?, version = version + 1 " +
+            "WHERE id IN (SELECT id FROM cart WHERE status = 'ACTIVE' AND updated_at < ? " +
+            "LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private static final String PURGE_SQL =
+            "WITH purged AS (SELECT id FROM cart WHERE status <> 'ACTIVE' AND updated_at < ? " +
+            "LIMIT ? FOR UPDATE SKIP LOCKED), " +
+            "items AS (DELETE FROM cart_item WHERE cart_id IN (SELECT id FROM purged)) " +
+            "DELETE FROM cart WHERE id IN (SELECT id FROM purged)";
+
+    private static final String PURGE_GUEST_SQL =
+            "DELETE FROM guest_carts WHERE token IN (SELECT token FROM guest_carts " +
+            "WHERE updated_at < ? LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration abandonAfter;
+    private final Duration purgeAfter;
+    private final Duration guestPurgeAfter;
+    private final int chunkSize;
+
+    private final Counter abandoned;
+    private final Counter purged;
+    private final Counter guestPurged;
+
+    public CartSweeper(JdbcTemplate jdbcTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${cart.sweeper.abandon-after:P14D}") Duration abandonAfter,
+                       @Value("${cart.sweeper.purge-after:P90D}") Duration purgeAfter,
+                       @Value("${cart.sweeper.guest-purge-after:P30D}") Duration guestPurgeAfter,
+                       @Value("${cart.sweeper.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.abandonAfter = abandonAfter;
+        this.purgeAfter = purgeAfter;
+        this.guestPurgeAfter = guestPurgeAfter;
+        this.chunkSize = chunkSize;
+        this.abandoned = meterRegistry.counter("cart.sweeper.carts", "action", "abandoned");
+        this.purged = meterRegistry.counter("cart.sweeper.carts", "action", "purged");
+        this.guestPurged = meterRegistry.counter("cart.sweeper.carts", "action", "guest-purged");
+    }
+
+    @Scheduled(fixedDelayString = "${cart.sweeper.interval:PT15M}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int abandonedCarts = run("Abandoning idle carts", abandoned,
+                () -> jdbcTemplate.update(ABANDON_SQL, now, now.minus(abandonAfter), chunkSize));
+        int purgedCarts = run("Purging closed carts", purged,
+                () -> jdbcTemplate.update(PURGE_SQL, now.minus(purgeAfter), chunkSize));
+        int purgedGuestCarts = run("Purging guest carts", guestPurged,
+                () -> jdbcTemplate.update(PURGE_GUEST_SQL, now.minus(guestPurgeAfter),
+                        chunkSize));
+
+        if (abandonedCarts + purgedCarts + purgedGuestCarts > 0) {
+            log.info("Cart sweep abandoned {} carts, purged {} closed and {} guest carts",
+                    abandonedCarts, purgedCarts, purgedGuestCarts);
+        }
+    }
+
+    // Repeats the chunk until one comes back short; a failure ends this step until the next run
+    private int run(String step, Counter counter, IntSupplier chunk) {
+        int total = 0;
+        try {
+            int handled;
+            do {
+                handled = chunk.getAsInt();
+                counter.increment(handled);
+                total += handled;
+            } while (handled == chunkSize);
+        } catch (RuntimeException e) {
+            log.error("{} failed after {} carts", step, total, e);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,92 @@
+package com.marketnest.ecommerce.service.cart;
+
+import com.marketnest.ecommerce.dto.cart.CartItemRequest;
+import com.marketnest.ecommerce.dto.cart.CartResponse;
+import com.marketnest.ecommerce.exception.ResourceNotFoundException;
+import com.marketnest.ecommerce.mapper.cart.CartMapper;
+import com.marketnest.ecommerce.repository.UserRepository;
+import com.marketnest.ecommerce.util.HtmlEscapeUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+@Slf4j
+@Service
+public class GuestCartService {
+    // Sent by clients with guest cart requests and with the login request to merge the cart
+    public static final String TOKEN_HEADER = "X-Guest-Cart-Token";
+
+    private final GuestCartStore guestCartStore;
+    private final CartStore cartStore;
+    private final CartPricing cartPricing;
+    private final UserRepository userRepository;
+    private final CartMapper cartMapper;
+    private final HtmlEscapeUtil htmlEscapeUtil;
+    private final TaskExecutor taskExecutor;
+
+    public GuestCartService(GuestCartStore guestCartStore,
+                            CartStore cartStore,
+                            CartPricing cartPricing,
+                            UserRepository userRepository,
+                            CartMapper cartMapper,
+                            HtmlEscapeUtil htmlEscapeUtil,
+                            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.guestCartStore = guestCartStore;
+        this.cartStore = cartStore;
+        this.cartPricing = cartPricing;
+        this.userRepository = userRepository;
+        this.cartMapper = cartMapper;
+        this.htmlEscapeUtil = htmlEscapeUtil;
+        this.taskExecutor = taskExecutor;
+    }
+
+    // An unknown or merged token reads as an empty cart
+    public CartResponse getCart(String token) {
+        return cartMapper.toGuestResponse(guestCartStore.findLines(token), htmlEscapeUtil);
+    }
+
+    // The token may change (none given, or its cart was merged), so callers hand back the
+    // returned one. Opening and adding share a transaction so a concurrent merge either takes
+    // the new item along or makes this call start a new guest cart.
+    @Transactional
+    public String addToCart(String token, CartItemRequest request) {
+        Long productId = request.getProductId();
+        BigDecimal price = cartPricing.price(productId, request.getQuantity()).price();
+
+        String openToken = guestCartStore.open(token);
+        guestCartStore.addItem(openToken, productId, request.getQuantity(), price);
+        return openToken;
+    }
+
+    public CartResponse removeCartItem(String token, Long productId) {
+        if (token == null || !guestCartStore.removeItem(token, productId)) {
+            throw new ResourceNotFoundException("CartItem", "productId", productId);
+        }
+        return getCart(token);
+    }
+
+    // Called on the login path, so the merge runs on the task executor instead of the request
+    public void mergeAfterLogin(String email, String token) {
+        taskExecutor.execute(() -> {
+            try {
+                userRepository.findByEmail(email)
+                        .ifPresent(user -> merge(user.getUserId(), token));
+            } catch (RuntimeException e) {
+                log.error("Merging guest cart into the cart of {} failed", email, e);
+            }
+        });
+    }
+
+    public int merge(Long userId, String token) {
+        int merged = cartStore.writeDirect(userId,
+                cartId -> guestCartStore.mergeInto(token, cartId));
+        if (merged > 0) {
+            log.info("Merged {} guest cart items into the cart of user {}", merged, userId);
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,123 @@
+package com.marketnest.ecommerce.service.cart;
+
+import com.marketnest.ecommerce.model.Cart;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+// Carts of shoppers who are not logged in, kept in guest_carts/guest_cart_items and identified by
+// a random token the client holds on to. Plain JDBC rows: guest carts are only ever listed,
+// upserted by product and merged wholesale into a user's cart on login.
+@Component
+public class GuestCartStore {
+
+    private static final String TOUCH_SQL =
+            "UPDATE guest_carts SET updated_at = ? WHERE token = ? AND status = 'ACTIVE'";
+
+    private static final String INSERT_CART_SQL =
+            "INSERT INTO guest_carts (token, status, created_at, updated_at) " +
+            "VALUES (?, 'ACTIVE', ?, ?)";
+
+    private static final String LINES_SQL =
+            "SELECT g.product_id, p.name, p.sku, g.price, g.quantity, g.created_at, " +
+            "g.updated_at FROM guest_carts c " +
+            "JOIN guest_cart_items g ON g.token = c.token " +
+            "JOIN products p ON p.id = g.product_id " +
+            "WHERE c.token = ? AND c.status = 'ACTIVE' ORDER BY g.created_at, g.product_id";
+
+    private static final String UPSERT_ITEM_SQL =
+            "INSERT INTO guest_cart_items (token, product_id, quantity, price, created_at, " +
+            "updated_at) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (token, product_id) DO UPDATE SET " +
+            "quantity = guest_cart_items.quantity + EXCLUDED.quantity, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private static final String DELETE_ITEM_SQL =
+            "DELETE FROM guest_cart_items WHERE token = ? AND product_id = ?";
+
+    private static final String CLOSE_CART_SQL =
+            "UPDATE guest_carts SET status = ?, merged_cart_id = ?, updated_at = ? " +
+            "WHERE token = ? AND status = 'ACTIVE'";
+
+    // Quantities of products already in the user's cart are added up; the user's price stays
+    private static final String MERGE_ITEMS_SQL =
+            "INSERT INTO cart_item (cart_id, product_id, quantity, price, created_at, " +
+            "updated_at) SELECT ?, product_id, quantity, price, ?, ? " +
+            "FROM guest_cart_items WHERE token = ? " +
+            "ON CONFLICT (cart_id, product_id) DO UPDATE SET " +
+            "quantity = cart_item.quantity + EXCLUDED.quantity, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private static final String DELETE_ITEMS_SQL = "DELETE FROM guest_cart_items WHERE token = ?";
+
+    private static final String RETOTAL_CART_SQL =
+            "UPDATE cart SET (total_price, item_count) = " +
+            "(SELECT COALESCE(SUM(price * quantity), 0), COUNT(*) FROM cart_item " +
+            "WHERE cart_id = ?), updated_at = ?, version = version + 1 WHERE id = ?";
+
+    private static final int TOKEN_BYTES = 32;
+
+    private static final RowMapper<CartLine> LINE_MAPPER = (rs, rowNum) -> new CartLine(null,
+            rs.getLong("product_id"), rs.getString("name"), rs.getString("sku"),
+            rs.getBigDecimal("price"), rs.getInt("quantity"),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("updated_at", LocalDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SecureRandom random = new SecureRandom();
+
+    public GuestCartStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // The token of an ACTIVE guest cart, or of a new one when it is missing, unknown or merged
+    public String open(String token) {
+        LocalDateTime now = LocalDateTime.now();
+        if (token != null && jdbcTemplate.update(TOUCH_SQL, now, token) > 0) {
+            return token;
+        }
+
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String newToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        jdbcTemplate.update(INSERT_CART_SQL, newToken, now, now);
+        return newToken;
+    }
+
+    public List<CartLine> findLines(String token) {
+        if (token == null) {
+            return List.of();
+        }
+        return jdbcTemplate.query(LINES_SQL, LINE_MAPPER, token);
+    }
+
+    public void addItem(String token, Long productId, int quantity, BigDecimal price) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(UPSERT_ITEM_SQL, token, productId, quantity, price, now, now);
+    }
+
+    public boolean removeItem(String token, Long productId) {
+        return jdbcTemplate.update(DELETE_ITEM_SQL, token, productId) > 0;
+    }
+
+    // Runs in the caller's transaction (CartStore.writeDirect). Closing the guest cart first
+    // locks its row, so an item added concurrently is either merged or rejected with the cart.
+    public int mergeInto(String token, Long cartId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (jdbcTemplate.update(CLOSE_CART_SQL, Cart.CartStatus.MERGED.name(), cartId, now,
+                token) == 0) {
+            return 0;
+        }
+
+        int merged = jdbcTemplate.update(MERGE_ITEMS_SQL, cartId, now, now, token);
+        jdbcTemplate.update(DELETE_ITEMS_SQL, token);
+        jdbcTemplate.update(RETOTAL_CART_SQL, cartId, now, cartId);
+        return merged;
+    }
+}
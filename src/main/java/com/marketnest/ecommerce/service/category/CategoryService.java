@@ -1,11 +1,13 @@
 package com.marketnest.ecommerce.service.category;
 
 import com.marketnest.ecommerce.dto.category.CategoryRequestDto;
+import com.marketnest.ecommerce.event.CategoryChangedEvent;
 import com.marketnest.ecommerce.exception.ResourceNotFoundException;
 import com.marketnest.ecommerce.model.Category;
 import com.marketnest.ecommerce.repository.CategoryRepository;
 import com.marketnest.ecommerce.service.cloudinary.CloudinaryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +18,7 @@ import java.util.List;
 public class CategoryService {
     private final CloudinaryService cloudinaryService;
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<Category> getAllRootCategories() {
         return categoryRepository.findRootCategories();
@@ -37,27 +40,34 @@ public class CategoryService {
                 .replaceAll("\\s+", "-");
         category.setSlug(slug);
 
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(savedCategory.getId()));
+        return savedCategory;
     }
 
     @Transactional
     public Category updateCategory(Long id, CategoryRequestDto categoryDto) {
         Category category = getCategoryById(id);
         updateCategoryFromDto(category, categoryDto);
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
+        return savedCategory;
     }
 
     @Transactional
     public void deleteCategory(Long id) {
         Category category = getCategoryById(id);
         categoryRepository.delete(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
     }
 
     @Transactional
     public Category updateCategoryStatus(Long id, boolean isActive) {
         Category category = getCategoryById(id);
         category.setIsActive(isActive);
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
+        return savedCategory;
     }
 
     private void updateCategoryFromDto(Category category, CategoryRequestDto dto) {
@@ -4,6 +4,7 @@ import com.marketnest.ecommerce.dto.coupon.CouponResponse;
 import com.marketnest.ecommerce.dto.coupon.CouponValidationResponse;
 import com.marketnest.ecommerce.dto.coupon.CreateCouponRequest;
 import com.marketnest.ecommerce.dto.coupon.UpdateCouponRequest;
+import com.marketnest.ecommerce.dto.pagination.CursorPageResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -18,6 +19,8 @@ public interface CouponService {
 
     Page<CouponResponse> getAllCoupons(Pageable pageable);
 
+    CursorPageResponse<CouponResponse> getAllCouponsByCursor(String cursor, int size);
+
     CouponResponse getCouponById(Long couponId);
 
     CouponResponse createCoupon(CreateCouponRequest request);
@@ -4,6 +4,7 @@ import com.marketnest.ecommerce.dto.coupon.CouponResponse;
 import com.marketnest.ecommerce.dto.coupon.CouponValidationResponse;
 import com.marketnest.ecommerce.dto.coupon.CreateCouponRequest;
 import com.marketnest.ecommerce.dto.coupon.UpdateCouponRequest;
+import com.marketnest.ecommerce.dto.pagination.CursorPageResponse;
 import com.marketnest.ecommerce.exception.DuplicateResourceException;
 import com.marketnest.ecommerce.exception.InvalidCouponException;
 import com.marketnest.ecommerce.exception.ResourceNotFoundException;
@@ -16,9 +17,12 @@ import com.marketnest.ecommerce.repository.CouponRepository;
 import com.marketnest.ecommerce.repository.CouponUsageRepository;
 import com.marketnest.ecommerce.repository.OrderRepository;
 import com.marketnest.ecommerce.repository.UserRepository;
+import com.marketnest.ecommerce.util.CursorUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,6 +35,7 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class CouponServiceImpl implements CouponService {
+    private static final String COUPONS_CURSOR_SCOPE = "coupons";
 
     private final CouponRepository couponRepository;
     private final CouponUsageRepository couponUsageRepository;
@@ -120,6 +125,14 @@ public class CouponServiceImpl implements CouponService {
                 .map(couponMapper::toResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CouponResponse> getAllCouponsByCursor(String cursor, int size) {
+        Window<Coupon> coupons = couponRepository.findByOrderByCreatedAtDescIdDesc(
+                CursorUtils.decode(COUPONS_CURSOR_SCOPE, cursor), Limit.of(size));
+        return CursorUtils.toResponse(COUPONS_CURSOR_SCOPE, coupons, couponMapper::toResponse);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public CouponResponse getCouponById(Long couponId) {
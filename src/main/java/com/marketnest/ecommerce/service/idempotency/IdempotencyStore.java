@@ -0,0 +1,222 @@
+package com.marketnest.ecommerce.service.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+
+// Completed responses are served from memory first and from idempotency_keys otherwise. A key is
+// claimed in the database before the request runs, so duplicates arriving at other instances see
+// it as in progress; duplicates on this instance wait on the first request's future instead of
+// polling.
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    public enum Outcome {
+        ACQUIRED, REPLAY, MISMATCH, IN_PROGRESS
+    }
+
+    public record StoredResponse(String fingerprint, int status, String contentType, byte[] body) {
+    }
+
+    public record Claim(Outcome outcome, StoredResponse response) {
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<StoredResponse> result) {
+    }
+
+    private static final String CLAIM_SQL =
+            "INSERT INTO idempotency_keys " +
+            "(key_hash, fingerprint, status, locked_until, expires_at) " +
+            "VALUES (?, ?, 'IN_PROGRESS', now() + ? * interval '1 millisecond', " +
+            "now() + ? * interval '1 millisecond') " +
+            "ON CONFLICT (key_hash) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, " +
+            "status = 'IN_PROGRESS', response_status = NULL, content_type = NULL, " +
+            "response_body = NULL, locked_until = EXCLUDED.locked_until, " +
+            "expires_at = EXCLUDED.expires_at " +
+            "WHERE idempotency_keys.expires_at < now() OR " +
+            "(idempotency_keys.status = 'IN_PROGRESS' AND idempotency_keys.locked_until < now())";
+
+    private static final String FIND_SQL =
+            "SELECT fingerprint, response_status, content_type, response_body " +
+            "FROM idempotency_keys WHERE key_hash = ? AND expires_at > now()";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE idempotency_keys SET status = 'COMPLETED', response_status = ?, " +
+            "content_type = ?, response_body = ?, " +
+            "expires_at = now() + ? * interval '1 millisecond' WHERE key_hash = ?";
+
+    private static final String ABANDON_SQL =
+            "DELETE FROM idempotency_keys WHERE key_hash = ? AND status = 'IN_PROGRESS'";
+
+    private static final String PURGE_SQL = "DELETE FROM idempotency_keys WHERE expires_at < now()";
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration lockTimeout;
+
+    private final Cache<String, StoredResponse> completed;
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${idempotency.wait-timeout:PT30S}") Duration waitTimeout,
+                            @Value("${idempotency.lock-timeout:PT2M}") Duration lockTimeout,
+                            @Value("${idempotency.cache-max-size:100000}") long cacheMaxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.lockTimeout = lockTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "idempotentResponses");
+    }
+
+    // ACQUIRED obliges the caller to finish with complete() or abandon().
+    public Claim claim(String keyHash, String fingerprint) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            StoredResponse cached = completed.getIfPresent(keyHash);
+            if (cached != null) {
+                return replay(cached, fingerprint);
+            }
+
+            InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+            InFlight running = inFlight.putIfAbsent(keyHash, mine);
+            if (running == null) {
+                Claim claim;
+                try {
+                    claim = claimStored(keyHash, fingerprint, deadline);
+                } catch (RuntimeException e) {
+                    inFlight.remove(keyHash, mine);
+                    mine.result().complete(null);
+                    throw e;
+                }
+                if (claim.outcome() != Outcome.ACQUIRED) {
+                    inFlight.remove(keyHash, mine);
+                    mine.result().complete(claim.response());
+                }
+                return claim;
+            }
+
+            if (!running.fingerprint().equals(fingerprint)) {
+                return new Claim(Outcome.MISMATCH, null);
+            }
+            StoredResponse response;
+            try {
+                response = running.result().get(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                return new Claim(Outcome.IN_PROGRESS, null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Claim(Outcome.IN_PROGRESS, null);
+            } catch (ExecutionException e) {
+                response = null;
+            }
+            if (response != null) {
+                return replay(response, fingerprint);
+            }
+            // The first request was abandoned; race for the key again
+        }
+    }
+
+    public void complete(String keyHash, StoredResponse response) {
+        try {
+            jdbcTemplate.update(COMPLETE_SQL, response.status(), response.contentType(),
+                    response.body(), ttl.toMillis(), keyHash);
+            completed.put(keyHash, response);
+        } catch (RuntimeException e) {
+            log.error("Storing idempotent response for key {} failed", keyHash, e);
+        } finally {
+            finish(keyHash, response);
+        }
+    }
+
+    public void abandon(String keyHash) {
+        try {
+            jdbcTemplate.update(ABANDON_SQL, keyHash);
+        } catch (RuntimeException e) {
+            log.error("Releasing idempotency key {} failed", keyHash, e);
+        } finally {
+            finish(keyHash, null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update(PURGE_SQL);
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private Claim claimStored(String keyHash, String fingerprint, long deadline) {
+        while (true) {
+            if (jdbcTemplate.update(CLAIM_SQL, keyHash, fingerprint, lockTimeout.toMillis(),
+                    ttl.toMillis()) == 1) {
+                return new Claim(Outcome.ACQUIRED, null);
+            }
+
+            // response_status is NULL (read as 0) while the key is still in progress
+            List<StoredResponse> stored = jdbcTemplate.query(FIND_SQL, (rs, rowNum) ->
+                    new StoredResponse(rs.getString("fingerprint"), rs.getInt("response_status"),
+                            rs.getString("content_type"), rs.getBytes("response_body")), keyHash);
+            if (!stored.isEmpty()) {
+                StoredResponse response = stored.getFirst();
+                if (!response.fingerprint().equals(fingerprint)) {
+                    return new Claim(Outcome.MISMATCH, null);
+                }
+                if (response.status() > 0) {
+                    completed.put(keyHash, response);
+                    return new Claim(Outcome.REPLAY, response);
+                }
+            }
+
+            // Claimed by another instance: wait for it to finish or for its lock to go stale
+            if (remainingNanos(deadline) <= 0) {
+                return new Claim(Outcome.IN_PROGRESS, null);
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Claim(Outcome.IN_PROGRESS, null);
+            }
+        }
+    }
+
+    private void finish(String keyHash, StoredResponse response) {
+        InFlight running = inFlight.remove(keyHash);
+        if (running != null) {
+            running.result().complete(response);
+        }
+    }
+
+    private static Claim replay(StoredResponse response, String fingerprint) {
+        return response.fingerprint().equals(fingerprint)
+                ? new Claim(Outcome.REPLAY, response)
+                : new Claim(Outcome.MISMATCH, null);
+    }
+
+    private static long remainingNanos(long deadline) {
+        return deadline - System.nanoTime();
+    }
+}
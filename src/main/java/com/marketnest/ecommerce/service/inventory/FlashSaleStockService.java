@@ -0,0 +1,347 @@
+package com.marketnest.ecommerce.service.inventory;
+
+import com.marketnest.ecommerce.dto.variant.FlashSaleStatusDto;
+import com.marketnest.ecommerce.event.ProductChangedEvent;
+import com.marketnest.ecommerce.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Flash-sale variants sell from striped in-memory counters instead of their product_variants row.
+// Every node can sell the same variant: it claims chunks of the variant's stock into its own
+// counter, recorded as the node's share in flash_sale_allocations and summed up in
+// product_variants.flash_sale_allocated. A unit therefore sits in at most one counter. Counters
+// are topped up on enable and on every flush, never from a checkout; checkouts that find the
+// counter dry, or run on a node without one, sell from the unclaimed rest of the row. The last
+// units of a sale can be stuck in another node's counter; they are only for sale again once that
+// node hands its share back.
+//
+// Each sale is still recorded durably as an inventory reservation with stock_applied = false and
+// the selling node; flush() folds those rows into product_variants/products and into the node's
+// share in one statement per variant. Nodes renew their shares on every flush and stop selling
+// from counters once they have not managed to for half a lease. Shares nobody renewed for a whole
+// lease (the node died or lost the database) go back to the pool. Node ids must be unique among
+// running nodes; by default every start gets a new one.
+@Slf4j
+@Service
+public class FlashSaleStockService {
+
+    // Sales cancelled before they were written back (status RELEASED) only go back to the pool
+    private static final String APPLY_PENDING_SQL =
+            "WITH applied AS (" +
+            "UPDATE inventory_reservations SET stock_applied = true, updated_at = now() " +
+            "WHERE variant_id = ? AND stock_applied = false " +
+            "RETURNING product_id, node_id, quantity, status <> 'RELEASED' AS sold), " +
+            "shares AS (" +
+            "UPDATE flash_sale_allocations f SET quantity = f.quantity - a.quantity " +
+            "FROM (SELECT node_id, SUM(quantity) AS quantity FROM applied GROUP BY node_id) a " +
+            "WHERE f.variant_id = ? AND f.node_id = a.node_id RETURNING a.quantity), " +
+            "variant AS (" +
+            "UPDATE product_variants SET stock_quantity = stock_quantity - " +
+            "COALESCE((SELECT SUM(quantity) FROM applied WHERE sold), 0), " +
+            "flash_sale_allocated = flash_sale_allocated - " +
+            "COALESCE((SELECT SUM(quantity) FROM shares), 0) " +
+            "WHERE id = ? AND EXISTS (SELECT 1 FROM applied)) " +
+            "UPDATE products p SET stock_quantity = p.stock_quantity - a.quantity " +
+            "FROM (SELECT product_id, SUM(quantity) AS quantity FROM applied WHERE sold " +
+            "GROUP BY product_id) a WHERE p.id = a.product_id RETURNING p.id";
+
+    private static final String PENDING_VARIANTS_SQL =
+            "SELECT DISTINCT variant_id FROM inventory_reservations WHERE stock_applied = false";
+
+    // Everything that changes a variant's pool locks its row first, so the order is always the same
+    private static final String LOCK_VARIANT_SQL =
+            "SELECT id FROM product_variants WHERE id = ? FOR UPDATE";
+
+    private static final String CLAIMABLE_SQL =
+            "SELECT stock_quantity - flash_sale_allocated FROM product_variants " +
+            "WHERE id = ? AND flash_sale = true FOR UPDATE";
+
+    private static final String CLAIM_POOL_SQL =
+            "UPDATE product_variants SET flash_sale_allocated = flash_sale_allocated + ? " +
+            "WHERE id = ?";
+
+    private static final String CLAIM_SHARE_SQL =
+            "INSERT INTO flash_sale_allocations (variant_id, node_id, quantity, renewed_at) " +
+            "VALUES (?, ?, ?, now()) ON CONFLICT (variant_id, node_id) DO UPDATE SET " +
+            "quantity = flash_sale_allocations.quantity + EXCLUDED.quantity, " +
+            "renewed_at = EXCLUDED.renewed_at";
+
+    private static final String RETURN_SHARE_SQL =
+            "WITH returned AS (DELETE FROM flash_sale_allocations " +
+            "WHERE variant_id = ? AND node_id = ? " +
+            "AND renewed_at < now() - make_interval(secs => ?) RETURNING variant_id, quantity) " +
+            "UPDATE product_variants v " +
+            "SET flash_sale_allocated = v.flash_sale_allocated - r.quantity " +
+            "FROM returned r WHERE v.id = r.variant_id";
+
+    private static final String RENEW_SQL =
+            "UPDATE flash_sale_allocations SET renewed_at = now() WHERE node_id = ?";
+
+    private static final String RETURNABLE_SHARES_SQL =
+            "SELECT variant_id, node_id FROM flash_sale_allocations " +
+            "WHERE node_id = ? OR renewed_at < now() - make_interval(secs => ?)";
+
+    private static final String ENABLE_SQL =
+            "UPDATE product_variants SET flash_sale = true WHERE id = ?";
+
+    private static final String DISABLE_SQL =
+            "UPDATE product_variants SET flash_sale = false WHERE id = ?";
+
+    private static final String ACTIVE_VARIANTS_SQL =
+            "SELECT id FROM product_variants WHERE flash_sale = true";
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int stripes;
+    private final String nodeId;
+    private final int claimSize;
+    private final Duration lease;
+
+    private final ConcurrentMap<Long, StripedStockCounter> counters = new ConcurrentHashMap<>();
+    private volatile long leaseRenewedAt;
+
+    public FlashSaleStockService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${inventory.flash-sale.stripes:0}") int stripes,
+                                 @Value("${inventory.flash-sale.node-id:}") String nodeId,
+                                 @Value("${inventory.flash-sale.claim-size:50}") int claimSize,
+                                 @Value("${inventory.flash-sale.lease:PT30S}") Duration lease) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.stripes = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors() * 4;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.claimSize = claimSize;
+        this.lease = lease;
+        this.leaseRenewedAt = System.nanoTime() - lease.toNanos();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean isActive(Long variantId) {
+        return leaseHeld() && counters.containsKey(variantId);
+    }
+
+    // Must run inside the order's transaction: units go back to the counter if it rolls back
+    StripedStockCounter.Outcome tryTake(Long variantId, int quantity) {
+        StripedStockCounter counter = counters.get(variantId);
+        if (counter == null || !leaseHeld()) {
+            return StripedStockCounter.Outcome.CLOSED;
+        }
+
+        StripedStockCounter.Outcome outcome = counter.tryTake(quantity);
+        if (outcome == StripedStockCounter.Outcome.TAKEN) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            if (status != STATUS_COMMITTED) {
+                                counter.release(quantity);
+                            }
+                            counter.finish();
+                        }
+                    });
+        }
+        return outcome;
+    }
+
+    public FlashSaleStatusDto enable(Long variantId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (jdbcTemplate.update(ENABLE_SQL, variantId) == 0) {
+                throw new ResourceNotFoundException("Variant", "ID", variantId);
+            }
+        });
+
+        StripedStockCounter counter = openCounter(variantId);
+        if (leaseHeld()) {
+            topUp(variantId, counter);
+        }
+
+        log.info("Flash sale enabled for variant {} with {} units on node {} over {} stripes",
+                variantId, counter.available(), nodeId, counter.stripes());
+        return toStatus(variantId, counter);
+    }
+
+    // Other nodes close their counters and hand back their shares on their next flush
+    public FlashSaleStatusDto disable(Long variantId) {
+        closeCounter(variantId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (jdbcTemplate.update(DISABLE_SQL, variantId) == 0) {
+                throw new ResourceNotFoundException("Variant", "ID", variantId);
+            }
+            returnShare(variantId, nodeId, 0);
+        });
+
+        log.info("Flash sale disabled for variant {}", variantId);
+        return new FlashSaleStatusDto(variantId, false, null, null);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.flash-sale.flush-interval:PT1S}")
+    public void flush() {
+        for (Long variantId : jdbcTemplate.queryForList(PENDING_VARIANTS_SQL, Long.class)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> applyPending(variantId));
+            } catch (RuntimeException e) {
+                log.error("Writing back flash sale stock for variant {} failed", variantId, e);
+            }
+        }
+
+        try {
+            syncShares();
+        } catch (RuntimeException e) {
+            log.error("Renewing flash sale stock shares of node {} failed", nodeId, e);
+        }
+    }
+
+    public void reconcile() {
+        flush();
+        if (!counters.isEmpty()) {
+            log.info("Opened flash sale stock counters for {} variants on node {}",
+                    counters.size(), nodeId);
+        }
+    }
+
+    // Synchronised with enable(): a counter opened while our shares are being handed back would
+    // sell units that no longer belong to this node
+    private synchronized void syncShares() {
+        long renewingAt = System.nanoTime();
+        boolean lapsed = renewingAt - leaseRenewedAt >= lease.toNanos();
+        jdbcTemplate.update(RENEW_SQL, nodeId);
+        if (lapsed && !counters.isEmpty()) {
+            // Other nodes may already have handed our shares back to the pool
+            log.warn("Flash sale lease of node {} lapsed, dropping its counters", nodeId);
+            Set.copyOf(counters.keySet()).forEach(this::closeCounter);
+        }
+        leaseRenewedAt = renewingAt;
+
+        Set<Long> active =
+                new HashSet<>(jdbcTemplate.queryForList(ACTIVE_VARIANTS_SQL, Long.class));
+        Set.copyOf(counters.keySet()).stream()
+                .filter(variantId -> !active.contains(variantId))
+                .forEach(this::closeCounter);
+
+        // Our own shares without a counter, and shares of nodes whose lease ran out
+        long leaseSeconds = lease.toSeconds();
+        List<Share> returnable = jdbcTemplate.query(RETURNABLE_SHARES_SQL,
+                (rs, rowNum) -> new Share(rs.getLong(1), rs.getString(2)), nodeId, leaseSeconds);
+        for (Share share : returnable) {
+            boolean own = nodeId.equals(share.nodeId());
+            if (own && counters.containsKey(share.variantId())) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> returnShare(share.variantId(),
+                        share.nodeId(), own ? 0 : leaseSeconds));
+            } catch (RuntimeException e) {
+                log.error("Returning flash sale share of node {} for variant {} failed",
+                        share.nodeId(), share.variantId(), e);
+            }
+        }
+
+        for (Long variantId : active) {
+            StripedStockCounter counter = openCounter(variantId);
+            try {
+                topUp(variantId, counter);
+            } catch (RuntimeException e) {
+                log.error("Topping up flash sale counter for variant {} failed", variantId, e);
+            }
+        }
+    }
+
+    private synchronized StripedStockCounter openCounter(Long variantId) {
+        return counters.computeIfAbsent(variantId, id -> new StripedStockCounter(0, stripes));
+    }
+
+    // Claims only what the counter is missing, so each node holds at most claim-size units
+    private void topUp(Long variantId, StripedStockCounter counter) {
+        synchronized (counter) {
+            int missing = claimSize - (int) counter.available();
+            if (counter.isClosed() || missing <= 0) {
+                return;
+            }
+
+            Integer granted = transactionTemplate.execute(status -> {
+                List<Integer> claimable =
+                        jdbcTemplate.queryForList(CLAIMABLE_SQL, Integer.class, variantId);
+                int quantity = claimable.isEmpty() ? 0 : Math.min(missing, claimable.getFirst());
+                if (quantity <= 0) {
+                    return 0;
+                }
+                jdbcTemplate.update(CLAIM_POOL_SQL, quantity, variantId);
+                jdbcTemplate.update(CLAIM_SHARE_SQL, variantId, nodeId, quantity);
+                return quantity;
+            });
+            if (granted != null && granted > 0) {
+                counter.refill(granted);
+            }
+        }
+    }
+
+    private void closeCounter(Long variantId) {
+        StripedStockCounter counter = counters.remove(variantId);
+        if (counter == null) {
+            return;
+        }
+        synchronized (counter) {
+            counter.close();
+        }
+        try {
+            if (!counter.awaitQuiescence(CLOSE_TIMEOUT_MILLIS)) {
+                log.warn("Flash sale checkouts for variant {} still running after {} ms",
+                        variantId, CLOSE_TIMEOUT_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while closing flash sale counter", e);
+        }
+    }
+
+    // Sales are written back first, so what is left of the share are units no counter sold
+    private void returnShare(Long variantId, String shareNodeId, long minAgeSeconds) {
+        applyPending(variantId);
+        jdbcTemplate.update(RETURN_SHARE_SQL, variantId, shareNodeId, minAgeSeconds);
+    }
+
+    private void applyPending(Long variantId) {
+        jdbcTemplate.queryForList(LOCK_VARIANT_SQL, Long.class, variantId);
+        List<Long> productIds = jdbcTemplate.queryForList(APPLY_PENDING_SQL, Long.class,
+                variantId, variantId, variantId);
+        productIds.forEach(productId -> eventPublisher.publishEvent(
+                new ProductChangedEvent(productId, ProductChangedEvent.Type.STOCK_CHANGED)));
+    }
+
+    // Counters stop selling well before other nodes may treat the shares as abandoned
+    private boolean leaseHeld() {
+        return System.nanoTime() - leaseRenewedAt < lease.toNanos() / 2;
+    }
+
+    private static FlashSaleStatusDto toStatus(Long variantId, StripedStockCounter counter) {
+        return new FlashSaleStatusDto(variantId, true, counter.available(), counter.stripes());
+    }
+
+    private record Share(long variantId, String nodeId) {
+    }
+}
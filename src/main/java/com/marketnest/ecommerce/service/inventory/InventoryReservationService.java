@@ -0,0 +1,233 @@
+package com.marketnest.ecommerce.service.inventory;
+
+import com.marketnest.ecommerce.event.OrderChangedEvent;
+import com.marketnest.ecommerce.event.ProductChangedEvent;
+import com.marketnest.ecommerce.exception.InsufficientStockException;
+import com.marketnest.ecommerce.model.InventoryReservation;
+import com.marketnest.ecommerce.model.InventoryReservation.ReservationStatus;
+import com.marketnest.ecommerce.model.Order;
+import com.marketnest.ecommerce.model.OrderItem;
+import com.marketnest.ecommerce.model.OrderStatusHistory;
+import com.marketnest.ecommerce.repository.InventoryReservationRepository;
+import com.marketnest.ecommerce.repository.OrderRepository;
+import com.marketnest.ecommerce.repository.ProductRepository;
+import com.marketnest.ecommerce.repository.ProductVariantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Slf4j
+@Service
+public class InventoryReservationService {
+
+    private static final String SYSTEM_ACTOR = "system";
+
+    private final InventoryReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository variantRepository;
+    private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FlashSaleStockService flashSaleStockService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration reservationTtl;
+    private final int sweepBatchSize;
+
+    public InventoryReservationService(InventoryReservationRepository reservationRepository,
+                                       ProductRepository productRepository,
+                                       ProductVariantRepository variantRepository,
+                                       OrderRepository orderRepository,
+                                       ApplicationEventPublisher eventPublisher,
+                                       FlashSaleStockService flashSaleStockService,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${inventory.reservation.ttl:PT15M}")
+                                       Duration reservationTtl,
+                                       @Value("${inventory.reservation.sweep-batch-size:100}")
+                                       int sweepBatchSize) {
+        this.reservationRepository = reservationRepository;
+        this.productRepository = productRepository;
+        this.variantRepository = variantRepository;
+        this.orderRepository = orderRepository;
+        this.eventPublisher = eventPublisher;
+        this.flashSaleStockService = flashSaleStockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reservationTtl = reservationTtl;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    // Joins the order's transaction so the stock, the reservations and the order commit together.
+    // Rows are decremented in id order (variants, then products) so concurrent multi-item orders
+    // cannot deadlock, and each decrement is a single conditional UPDATE. Flash-sale variants are
+    // taken from in-memory counters instead and written back later by FlashSaleStockService.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Long orderId, List<OrderItem> items) {
+        SortedMap<Long, Integer> variantQuantities = new TreeMap<>();
+        Map<Long, Long> variantProducts = new HashMap<>();
+        for (OrderItem item : items) {
+            Long variantId = item.getVariant().getId();
+            variantQuantities.merge(variantId, item.getQuantity(), Integer::sum);
+            variantProducts.put(variantId, item.getProduct().getId());
+        }
+
+        Set<Long> flashSaleVariants = new HashSet<>();
+        SortedMap<Long, Integer> productQuantities = new TreeMap<>();
+        variantQuantities.forEach((variantId, quantity) -> {
+            if (takeStock(variantId, quantity)) {
+                productQuantities.merge(variantProducts.get(variantId), quantity, Integer::sum);
+            } else {
+                flashSaleVariants.add(variantId);
+            }
+        });
+        productQuantities.forEach((productId, quantity) -> {
+            if (productRepository.decrementStock(productId, quantity) == 0) {
+                throw new InsufficientStockException(
+                        "Insufficient stock for product: " + productId);
+            }
+        });
+
+        LocalDateTime expiresAt = LocalDateTime.now().plus(reservationTtl);
+        List<InventoryReservation> reservations = new ArrayList<>(variantQuantities.size());
+        variantQuantities.forEach((variantId, quantity) -> {
+            InventoryReservation reservation = new InventoryReservation();
+            reservation.setOrderId(orderId);
+            reservation.setVariantId(variantId);
+            reservation.setProductId(variantProducts.get(variantId));
+            reservation.setQuantity(quantity);
+            reservation.setStockApplied(!flashSaleVariants.contains(variantId));
+            if (flashSaleVariants.contains(variantId)) {
+                reservation.setNodeId(flashSaleStockService.getNodeId());
+            }
+            reservation.setExpiresAt(expiresAt);
+            reservations.add(reservation);
+        });
+        reservationRepository.saveAll(reservations);
+
+        publishStockChanged(productQuantities.keySet());
+    }
+
+    @Transactional
+    public void commit(Long orderId) {
+        reservationRepository.transitionByOrderId(orderId, ReservationStatus.ACTIVE,
+                ReservationStatus.COMMITTED);
+    }
+
+    @Transactional
+    public void commitAll(Collection<Long> orderIds) {
+        reservationRepository.transitionByOrderIds(orderIds, ReservationStatus.ACTIVE,
+                ReservationStatus.COMMITTED);
+    }
+
+    @Transactional
+    public void release(Long orderId) {
+        List<InventoryReservation> reservations =
+                reservationRepository.findByOrderIdAndStatusInOrderByVariantId(orderId,
+                        List.of(ReservationStatus.ACTIVE, ReservationStatus.COMMITTED));
+
+        SortedMap<Long, Integer> productQuantities = new TreeMap<>();
+        for (InventoryReservation reservation : reservations) {
+            // Flash-sale units not written back yet go back to the pool on the next flush
+            if (!reservation.getStockApplied() &&
+                reservationRepository.transitionUnapplied(reservation.getId(),
+                        reservation.getStatus(), ReservationStatus.RELEASED) == 1) {
+                continue;
+            }
+            if (reservationRepository.transition(reservation.getId(), reservation.getStatus(),
+                    ReservationStatus.RELEASED) == 0) {
+                continue;
+            }
+            variantRepository.incrementStock(reservation.getVariantId(),
+                    reservation.getQuantity());
+            productQuantities.merge(reservation.getProductId(), reservation.getQuantity(),
+                    Integer::sum);
+        }
+        productQuantities.forEach(productRepository::incrementStock);
+
+        publishStockChanged(productQuantities.keySet());
+    }
+
+    // Each order is expired in its own short transaction so the sweeper never holds stock rows
+    // locked for longer than one order, even while a hot SKU is being bought.
+    @Scheduled(fixedDelayString = "${inventory.reservation.sweep-interval:PT1M}")
+    public void releaseExpiredReservations() {
+        int expired = 0;
+        List<Long> orderIds;
+        int handled;
+        do {
+            orderIds = reservationRepository.findOrderIdsByStatusExpiredBefore(
+                    ReservationStatus.ACTIVE, LocalDateTime.now(), Limit.of(sweepBatchSize));
+            handled = 0;
+            for (Long orderId : orderIds) {
+                try {
+                    if (Boolean.TRUE.equals(transactionTemplate.execute(
+                            status -> expire(orderId)))) {
+                        expired++;
+                    }
+                    handled++;
+                } catch (RuntimeException e) {
+                    log.error("Releasing expired reservations for order {} failed", orderId, e);
+                }
+            }
+        } while (orderIds.size() == sweepBatchSize && handled > 0);
+
+        if (expired > 0) {
+            log.info("Released expired stock reservations for {} orders", expired);
+        }
+    }
+
+    private boolean expire(Long orderId) {
+        Order order = orderRepository.findByIdWithLock(orderId).orElse(null);
+        if (order != null && order.getStatus() != Order.OrderStatus.PENDING &&
+            order.getStatus() != Order.OrderStatus.CANCELLED) {
+            reservationRepository.transitionByOrderId(orderId, ReservationStatus.ACTIVE,
+                    ReservationStatus.COMMITTED);
+            return false;
+        }
+
+        if (order != null && order.getStatus() == Order.OrderStatus.PENDING) {
+            order.setStatus(Order.OrderStatus.CANCELLED);
+
+            OrderStatusHistory statusHistory = new OrderStatusHistory();
+            statusHistory.setStatus(Order.OrderStatus.CANCELLED);
+            statusHistory.setNotes("Stock reservation expired before payment");
+            statusHistory.setCreatedBy(SYSTEM_ACTOR);
+            order.addStatusHistory(statusHistory);
+
+            orderRepository.save(order);
+            eventPublisher.publishEvent(
+                    new OrderChangedEvent(orderId, OrderChangedEvent.Type.CANCELLED));
+        }
+
+        release(orderId);
+        return true;
+    }
+
+    // Returns false when the units came from a flash-sale counter rather than the variant row.
+    // A dry counter, or a node without one, sells from the part of the row no counter holds.
+    private boolean takeStock(Long variantId, int quantity) {
+        if (flashSaleStockService.isActive(variantId) &&
+            flashSaleStockService.tryTake(variantId, quantity) ==
+                    StripedStockCounter.Outcome.TAKEN) {
+            return false;
+        }
+
+        if (variantRepository.decrementStock(variantId, quantity) == 1) {
+            return true;
+        }
+        throw new InsufficientStockException("Insufficient stock for variant: " + variantId);
+    }
+
+    private void publishStockChanged(Collection<Long> productIds) {
+        productIds.forEach(productId -> eventPublisher.publishEvent(
+                new ProductChangedEvent(productId, ProductChangedEvent.Type.STOCK_CHANGED)));
+    }
+}
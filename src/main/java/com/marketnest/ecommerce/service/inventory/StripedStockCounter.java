@@ -0,0 +1,152 @@
+package com.marketnest.ecommerce.service.inventory;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Stock split across CAS-updated stripes. Each stripe sits on its own cache line so buyers on
+// different threads rarely touch the same word; a buyer only visits other stripes once its home
+// stripe runs dry.
+final class StripedStockCounter {
+
+    enum Outcome {
+        TAKEN, INSUFFICIENT, CLOSED
+    }
+
+    private static final int PADDING = 16;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    StripedStockCounter(long stock, int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes));
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.cells = new AtomicLongArray(size * PADDING);
+        refill(stock);
+    }
+
+    // Callers that get TAKEN must call finish() once the outcome of their transaction is known,
+    // so close() can wait for takes that raced with it.
+    Outcome tryTake(int quantity) {
+        inFlight.incrementAndGet();
+        if (closed.get()) {
+            inFlight.decrementAndGet();
+            return Outcome.CLOSED;
+        }
+
+        int home = homeStripe();
+        for (int i = 0; i <= mask; i++) {
+            if (takeWhole((home + i) & mask, quantity)) {
+                return Outcome.TAKEN;
+            }
+        }
+        if (takeAcrossStripes(home, quantity)) {
+            return Outcome.TAKEN;
+        }
+
+        inFlight.decrementAndGet();
+        return Outcome.INSUFFICIENT;
+    }
+
+    void finish() {
+        inFlight.decrementAndGet();
+    }
+
+    void release(long quantity) {
+        cells.getAndAdd(homeStripe() * PADDING, quantity);
+    }
+
+    // Spreads newly claimed stock evenly, so no buyer thread starts on an empty stripe
+    void refill(long quantity) {
+        long share = quantity / (mask + 1);
+        long remainder = quantity % (mask + 1);
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            long units = share + (stripe < remainder ? 1 : 0);
+            if (units > 0) {
+                cells.getAndAdd(stripe * PADDING, units);
+            }
+        }
+    }
+
+    long available() {
+        long total = 0;
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            total += cells.get(stripe * PADDING);
+        }
+        return total;
+    }
+
+    int stripes() {
+        return mask + 1;
+    }
+
+    void close() {
+        closed.set(true);
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    boolean awaitQuiescence(long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000;
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    private boolean takeWhole(int stripe, int quantity) {
+        int index = stripe * PADDING;
+        long current;
+        do {
+            current = cells.get(index);
+            if (current < quantity) {
+                return false;
+            }
+        } while (!cells.compareAndSet(index, current, current - quantity));
+        return true;
+    }
+
+    private boolean takeAcrossStripes(int home, int quantity) {
+        long[] taken = new long[mask + 1];
+        long remaining = quantity;
+        for (int i = 0; i <= mask && remaining > 0; i++) {
+            int stripe = (home + i) & mask;
+            int index = stripe * PADDING;
+            long current;
+            long part;
+            do {
+                current = cells.get(index);
+                part = Math.min(current, remaining);
+            } while (part > 0 && !cells.compareAndSet(index, current, current - part));
+            if (part > 0) {
+                taken[stripe] = part;
+                remaining -= part;
+            }
+        }
+        if (remaining == 0) {
+            return true;
+        }
+
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            if (taken[stripe] > 0) {
+                cells.getAndAdd(stripe * PADDING, taken[stripe]);
+            }
+        }
+        return false;
+    }
+
+    private int homeStripe() {
+        long id = Thread.currentThread().threadId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+    }
+}
@@ -0,0 +1,160 @@
+package com.marketnest.ecommerce.service.order;
+
+import com.marketnest.ecommerce.dto.order.BulkOrderStatusItemDto;
+import com.marketnest.ecommerce.dto.order.BulkOrderStatusResultDto;
+import com.marketnest.ecommerce.dto.order.BulkOrderStatusUpdateDto;
+import com.marketnest.ecommerce.dto.order.OrderStatusRejectionDto;
+import com.marketnest.ecommerce.model.Order;
+import com.marketnest.ecommerce.model.OrderStatusHistory;
+import com.marketnest.ecommerce.repository.OrderRepository;
+import com.marketnest.ecommerce.repository.OrderStatusHistoryRepository;
+import com.marketnest.ecommerce.service.inventory.InventoryReservationService;
+import com.marketnest.ecommerce.util.HtmlEscapeUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+// Moves many orders to one status with a set-based UPDATE per chunk. The UPDATE only matches
+// orders whose current status may move to the target, so concurrent changes (a customer
+// cancelling, the reservation sweeper) are never overwritten; whatever it skips is reported
+// back as rejected. History rows are persisted through Hibernate's pooled sequence and written
+// with batched inserts.
+@Service
+public class BulkOrderStatusService {
+
+    // Cancellations release stock and refunds go through the payment provider, so both stay on
+    // their own per-order paths
+    private static final Set<Order.OrderStatus> BULK_TARGETS = EnumSet.of(
+            Order.OrderStatus.PROCESSING, Order.OrderStatus.SHIPPED, Order.OrderStatus.DELIVERED);
+
+    private static final String UPDATE_SQL =
+            "UPDATE orders o SET status = CAST(? AS order_status), " +
+            "tracking_number = COALESCE(t.tracking_number, o.tracking_number), " +
+            "updated_at = now() " +
+            "FROM unnest(?::bigint[], ?::varchar[]) AS t(id, tracking_number) " +
+            "WHERE o.id = t.id AND CAST(o.status AS varchar) = ANY (?::varchar[]) " +
+            "RETURNING o.id";
+
+    private static final String CURRENT_STATUS_SQL =
+            "SELECT id, CAST(status AS varchar) AS status FROM orders WHERE id = ANY (?::bigint[])";
+
+    private final OrderRepository orderRepository;
+    private final OrderStatusHistoryRepository statusHistoryRepository;
+    private final InventoryReservationService inventoryReservationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final HtmlEscapeUtil htmlEscapeUtil;
+    private final int batchSize;
+
+    public BulkOrderStatusService(OrderRepository orderRepository,
+                                  OrderStatusHistoryRepository statusHistoryRepository,
+                                  InventoryReservationService inventoryReservationService,
+                                  JdbcTemplate jdbcTemplate,
+                                  HtmlEscapeUtil htmlEscapeUtil,
+                                  @Value("${orders.bulk-status.batch-size:1000}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.statusHistoryRepository = statusHistoryRepository;
+        this.inventoryReservationService = inventoryReservationService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.htmlEscapeUtil = htmlEscapeUtil;
+        this.batchSize = batchSize;
+    }
+
+    @Transactional
+    public BulkOrderStatusResultDto updateStatus(BulkOrderStatusUpdateDto updateDto,
+                                                 String actor) {
+        Order.OrderStatus target = parseTarget(updateDto.getStatus());
+        String[] sources = Order.OrderStatus.sourcesOf(target).stream()
+                .map(Enum::name)
+                .toArray(String[]::new);
+        String notes = htmlEscapeUtil.escapeHtml(updateDto.getNotes());
+
+        // A repeated order ID keeps its last tracking number
+        Map<Long, String> trackingNumbers = new LinkedHashMap<>();
+        for (BulkOrderStatusItemDto item : updateDto.getOrders()) {
+            trackingNumbers.put(item.getOrderId(), blankToNull(item.getTrackingNumber()));
+        }
+        List<Long> orderIds = new ArrayList<>(trackingNumbers.keySet());
+
+        Set<Long> updated = new HashSet<>();
+        for (int from = 0; from < orderIds.size(); from += batchSize) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + batchSize, orderIds.size()));
+            List<Long> chunkUpdated = jdbcTemplate.queryForList(UPDATE_SQL, Long.class,
+                    target.name(), chunk.toArray(Long[]::new),
+                    chunk.stream().map(trackingNumbers::get).toArray(String[]::new), sources);
+            updated.addAll(chunkUpdated);
+            appendHistory(chunkUpdated, target, notes, actor);
+
+            // Processing orders keep their stock, so the reservation sweeper must not expire it
+            if (target == Order.OrderStatus.PROCESSING && !chunkUpdated.isEmpty()) {
+                inventoryReservationService.commitAll(chunkUpdated);
+            }
+        }
+
+        return BulkOrderStatusResultDto.builder()
+                .status(target.name())
+                .requestedOrders(orderIds.size())
+                .updatedOrders(updated.size())
+                .rejected(rejections(orderIds, updated, target))
+                .build();
+    }
+
+    private void appendHistory(List<Long> orderIds, Order.OrderStatus status, String notes,
+                               String actor) {
+        List<OrderStatusHistory> history = new ArrayList<>(orderIds.size());
+        for (Long orderId : orderIds) {
+            OrderStatusHistory entry = new OrderStatusHistory();
+            entry.setOrder(orderRepository.getReferenceById(orderId));
+            entry.setStatus(status);
+            entry.setNotes(notes);
+            entry.setCreatedBy(actor);
+            history.add(entry);
+        }
+        statusHistoryRepository.saveAll(history);
+    }
+
+    private List<OrderStatusRejectionDto> rejections(List<Long> orderIds, Set<Long> updated,
+                                                     Order.OrderStatus target) {
+        List<Long> skipped = orderIds.stream().filter(id -> !updated.contains(id)).toList();
+        if (skipped.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, String> currentStatuses = new HashMap<>();
+        jdbcTemplate.query(CURRENT_STATUS_SQL,
+                rs -> {
+                    currentStatuses.put(rs.getLong("id"), rs.getString("status"));
+                },
+                (Object) skipped.toArray(Long[]::new));
+
+        return skipped.stream()
+                .map(id -> {
+                    String current = currentStatuses.get(id);
+                    String message = current == null
+                            ? "Order not found"
+                            : "Cannot change status from " + current + " to " + target;
+                    return new OrderStatusRejectionDto(id, current, message);
+                })
+                .toList();
+    }
+
+    private static Order.OrderStatus parseTarget(String status) {
+        Order.OrderStatus target;
+        try {
+            target = Order.OrderStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid order status: " + status);
+        }
+        if (!BULK_TARGETS.contains(target)) {
+            throw new IllegalArgumentException(
+                    "Orders cannot be moved to " + target + " in bulk");
+        }
+        return target;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,142 @@
+package com.marketnest.ecommerce.service.order;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.marketnest.ecommerce.util.AuthUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.stream.Stream;
+
+// Rendered invoices live on disk under the hash of what they were rendered from, so a changed
+// order gets a new file and stale files simply age out. The in-memory index weighs entries by
+// file size and deletes the least recently used files once the directory outgrows its limit;
+// files left by a previous run are indexed again on startup.
+@Slf4j
+@Component
+public class InvoiceCache {
+
+    @FunctionalInterface
+    public interface Renderer {
+        void render(OutputStream outputStream) throws IOException;
+    }
+
+    public record CachedInvoice(InputStream content, long size) {
+    }
+
+    private static final String SUFFIX = ".pdf";
+
+    private final Path directory;
+    private final Cache<String, Long> files;
+
+    public InvoiceCache(MeterRegistry meterRegistry,
+                        @Value("${invoice.cache.dir:${java.io.tmpdir}/marketnest-invoices}")
+                        Path directory,
+                        @Value("${invoice.cache.max-size:512MB}") DataSize maxSize)
+            throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.files = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, Long size) -> (int) Math.min(size, Integer.MAX_VALUE))
+                .executor(Runnable::run)
+                .removalListener((String key, Long size, RemovalCause cause) -> {
+                    if (key != null && cause != RemovalCause.REPLACED) {
+                        delete(pathOf(key));
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, files, "invoicePdfs");
+        indexExistingFiles();
+    }
+
+    public static String key(Long orderId, Object version) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((orderId + ":" + version + ":" +
+                                         InvoiceRenderer.LAYOUT_VERSION)
+                    .getBytes(StandardCharsets.UTF_8));
+            return AuthUtils.bytesToHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // Concurrent misses for the same key render once; the others wait for that file. The file is
+    // opened before returning, so evicting it afterwards does not cut off the caller's read.
+    public CachedInvoice open(String key, Renderer renderer) throws IOException {
+        while (true) {
+            Long size = files.get(key, k -> write(k, renderer));
+            try {
+                return new CachedInvoice(Files.newInputStream(pathOf(key)), size);
+            } catch (NoSuchFileException e) {
+                // Evicted or removed between lookup and open; render it again
+                files.invalidate(key);
+            }
+        }
+    }
+
+    private Long write(String key, Renderer renderer) {
+        Path target = pathOf(key);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, key, ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                renderer.render(out);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            return Files.size(target);
+        } catch (IOException e) {
+            if (temp != null) {
+                delete(temp);
+            }
+            throw new UncheckedIOException("Failed to write invoice " + key, e);
+        }
+    }
+
+    private void indexExistingFiles() throws IOException {
+        try (Stream<Path> existing = Files.list(directory)) {
+            existing.forEach(path -> {
+                String name = path.getFileName().toString();
+                try {
+                    if (name.endsWith(SUFFIX)) {
+                        files.put(name.substring(0, name.length() - SUFFIX.length()),
+                                Files.size(path));
+                    } else if (name.endsWith(".tmp")) {
+                        Files.delete(path);
+                    }
+                } catch (IOException e) {
+                    log.warn("Skipping cached invoice {}", path, e);
+                }
+            });
+        }
+    }
+
+    private Path pathOf(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete cached invoice {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.marketnest.ecommerce.service.order;
+
+import com.marketnest.ecommerce.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Renders invoices on virtual threads and writes each one into the ZIP as soon as it is ready.
+// At most `parallelism` invoices are rendering or waiting to be written at any time, which also
+// caps the database connections an export holds. Rendered files come from InvoiceCache, so
+// exporting the same period again mostly copies files from disk.
+@Slf4j
+@Service
+public class InvoiceExportService {
+
+    private record RenderedInvoice(Long orderId, InvoiceCache.CachedInvoice invoice) {
+    }
+
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final int parallelism;
+    private final int maxDays;
+
+    public InvoiceExportService(OrderRepository orderRepository,
+                                OrderService orderService,
+                                @Value("${invoice.export.parallelism:4}") int parallelism,
+                                @Value("${invoice.export.max-days:93}") int maxDays) {
+        this.orderRepository = orderRepository;
+        this.orderService = orderService;
+        this.parallelism = parallelism;
+        this.maxDays = maxDays;
+    }
+
+    // Both dates are inclusive
+    public List<Long> findOrderIds(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        if (startDate.plusDays(maxDays).isBefore(endDate)) {
+            throw new IllegalArgumentException(
+                    "Invoices can be exported for at most " + maxDays + " days at a time");
+        }
+        return orderRepository.findIdsForPeriod(startDate.atStartOfDay(),
+                endDate.plusDays(1).atStartOfDay());
+    }
+
+    public void export(List<Long> orderIds, OutputStream outputStream) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        // PDFs are compressed already, deflating them harder only costs CPU
+        zip.setLevel(Deflater.BEST_SPEED);
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        CompletionService<RenderedInvoice> renders = new ExecutorCompletionService<>(executor);
+        Iterator<Long> pending = orderIds.iterator();
+        int inFlight = 0;
+        try {
+            for (; inFlight < parallelism && pending.hasNext(); inFlight++) {
+                submit(renders, pending.next());
+            }
+            while (inFlight > 0) {
+                RenderedInvoice rendered = take(renders);
+                inFlight--;
+                write(zip, rendered);
+
+                if (pending.hasNext()) {
+                    submit(renders, pending.next());
+                    inFlight++;
+                }
+            }
+            zip.finish();
+        } finally {
+            executor.shutdownNow();
+            executor.close();
+            discardUnwritten(renders);
+        }
+    }
+
+    private void submit(CompletionService<RenderedInvoice> renders, Long orderId) {
+        renders.submit(() -> new RenderedInvoice(orderId, orderService.getInvoicePdf(orderId)));
+    }
+
+    private static RenderedInvoice take(CompletionService<RenderedInvoice> renders)
+            throws IOException {
+        try {
+            return renders.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Invoice export was interrupted");
+        } catch (ExecutionException e) {
+            log.error("Invoice export aborted", e.getCause());
+            throw new IOException("Failed to render invoice", e.getCause());
+        }
+    }
+
+    private static void write(ZipOutputStream zip, RenderedInvoice rendered) throws IOException {
+        try (InputStream content = rendered.invoice().content()) {
+            zip.putNextEntry(new ZipEntry("invoice-" + rendered.orderId() + ".pdf"));
+            content.transferTo(zip);
+            zip.closeEntry();
+        }
+    }
+
+    // After a failure, renders that finished but were never written still hold open files
+    private static void discardUnwritten(CompletionService<RenderedInvoice> renders) {
+        Future<RenderedInvoice> done;
+        while ((done = renders.poll()) != null) {
+            try {
+                done.get().invoice().content().close();
+            } catch (ExecutionException | CancellationException | InterruptedException |
+                     IOException e) {
+                // Nothing was opened, or closing failed; either way there is nothing left to do
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.marketnest.ecommerce.service.order;
+
+import com.itextpdf.text.*;
+import com.itextpdf.text.pdf.ColumnText;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfWriter;
+import com.itextpdf.text.pdf.draw.LineSeparator;
+import com.marketnest.ecommerce.model.Address;
+import com.marketnest.ecommerce.model.Order;
+import com.marketnest.ecommerce.model.OrderItem;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.format.DateTimeFormatter;
+
+// Fonts and colors are created once and shared by every render; iText only reads them.
+@Component
+public class InvoiceRenderer {
+
+    // Bump whenever the layout changes so cached invoices are rendered again
+    static final int LAYOUT_VERSION = 1;
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final String[] ITEM_HEADERS =
+            {"Product", "Variant", "Quantity", "Unit Price", "Total"};
+    private static final float[] ITEM_WIDTHS = {3f, 2f, 1f, 2f, 2f};
+
+    private static final BaseColor PRIMARY_COLOR = new BaseColor(41, 128, 185);
+    private static final BaseColor LIGHT_GRAY = new BaseColor(236, 240, 241);
+    private static final Font HEADER_FONT =
+            FontFactory.getFont(FontFactory.HELVETICA_BOLD, 20, PRIMARY_COLOR);
+    private static final Font SUB_HEADER_FONT =
+            FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
+    private static final Font NORMAL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10);
+    private static final Font BOLD_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
+    private static final Font SMALL_FONT =
+            FontFactory.getFont(FontFactory.HELVETICA, 8, BaseColor.DARK_GRAY);
+    private static final Font HIGHLIGHT_FONT =
+            FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, PRIMARY_COLOR);
+
+    public void render(Order order, OutputStream outputStream) throws IOException {
+        try {
+            Document document = new Document();
+            PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+            writer.setCloseStream(false);
+            document.open();
+
+            // Header section
+            Paragraph companyName = new Paragraph("MarketNest", HEADER_FONT);
+            companyName.setAlignment(Element.ALIGN_LEFT);
+            document.add(companyName);
+
+            Paragraph invoiceTitle = new Paragraph("INVOICE #" + order.getId(), SUB_HEADER_FONT);
+            invoiceTitle.setAlignment(Element.ALIGN_RIGHT);
+            document.add(invoiceTitle);
+
+            Paragraph invoiceDate = new Paragraph(
+                    "Date: " + order.getOrderDate().format(DATE_FORMAT), NORMAL_FONT);
+            invoiceDate.setAlignment(Element.ALIGN_RIGHT);
+            document.add(invoiceDate);
+
+            // Add separator line
+            LineSeparator ls = new LineSeparator();
+            ls.setLineColor(PRIMARY_COLOR);
+            ls.setLineWidth(1.5f);
+            document.add(new Chunk(ls));
+
+            document.add(new Paragraph("\n"));
+
+            // Customer and shipping info in a table
+            PdfPTable infoTable = new PdfPTable(2);
+            infoTable.setWidthPercentage(100);
+
+            // Customer information
+            PdfPCell customerCell = new PdfPCell();
+            customerCell.setBorder(Rectangle.NO_BORDER);
+            customerCell.addElement(new Paragraph("BILLED TO:", BOLD_FONT));
+            customerCell.addElement(new Paragraph(order.getUser().getFirstName() + " " +
+                                                  order.getUser().getLastName(), NORMAL_FONT));
+            customerCell.addElement(new Paragraph(order.getUser().getEmail(), NORMAL_FONT));
+
+            Address billingAddress = order.getBillingAddress() != null ?
+                    order.getBillingAddress() : order.getShippingAddress();
+            customerCell.addElement(new Paragraph(formatAddress(billingAddress), NORMAL_FONT));
+            infoTable.addCell(customerCell);
+
+            // Shipping information
+            PdfPCell shippingCell = new PdfPCell();
+            shippingCell.setBorder(Rectangle.NO_BORDER);
+            shippingCell.addElement(new Paragraph("SHIPPED TO:", BOLD_FONT));
+            shippingCell.addElement(
+                    new Paragraph(formatAddress(order.getShippingAddress()), NORMAL_FONT));
+            infoTable.addCell(shippingCell);
+
+            document.add(infoTable);
+            document.add(new Paragraph("\n"));
+
+            // Order items table with styling
+            PdfPTable itemsTable = new PdfPTable(ITEM_HEADERS.length);
+            itemsTable.setWidthPercentage(100);
+            itemsTable.setWidths(ITEM_WIDTHS);
+
+            // Table headers with styling
+            for (String header : ITEM_HEADERS) {
+                PdfPCell cell = new PdfPCell(new Phrase(header, BOLD_FONT));
+                cell.setBackgroundColor(PRIMARY_COLOR);
+                cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+                cell.setPadding(5);
+                cell.setBorderColor(BaseColor.WHITE);
+                itemsTable.addCell(cell);
+            }
+
+            // Table data with alternating row colors
+            boolean alternate = false;
+            for (OrderItem item : order.getOrderItems()) {
+                BaseColor rowColor = alternate ? LIGHT_GRAY : BaseColor.WHITE;
+                alternate = !alternate;
+
+                addItemCell(itemsTable, item.getProduct().getName(), rowColor,
+                        Element.ALIGN_LEFT);
+                addItemCell(itemsTable, item.getVariant().getOption1Name(), rowColor,
+                        Element.ALIGN_LEFT);
+                addItemCell(itemsTable, String.valueOf(item.getQuantity()), rowColor,
+                        Element.ALIGN_CENTER);
+                addItemCell(itemsTable, formatCurrency(item.getUnitPrice()), rowColor,
+                        Element.ALIGN_RIGHT);
+                addItemCell(itemsTable, formatCurrency(item.getTotalPrice()), rowColor,
+                        Element.ALIGN_RIGHT);
+            }
+
+            document.add(itemsTable);
+            document.add(new Paragraph("\n"));
+
+            // Order summary table - right aligned
+            PdfPTable summaryTable = new PdfPTable(2);
+            summaryTable.setWidthPercentage(40);
+            summaryTable.setHorizontalAlignment(Element.ALIGN_RIGHT);
+            summaryTable.setSpacingBefore(10);
+
+            // Add summary rows
+            addSummaryRow(summaryTable, "Subtotal:", order.getSubtotal());
+            addSummaryRow(summaryTable, "Shipping:", order.getShippingCost());
+            addSummaryRow(summaryTable, "Tax:", order.getTax());
+            addSummaryRow(summaryTable, "Discount:", order.getDiscount());
+
+            // Add total with different styling
+            PdfPCell totalLabelCell = new PdfPCell(new Phrase("TOTAL:", BOLD_FONT));
+            totalLabelCell.setBorder(Rectangle.TOP);
+            totalLabelCell.setPaddingTop(5);
+            summaryTable.addCell(totalLabelCell);
+
+            PdfPCell totalValueCell =
+                    new PdfPCell(new Phrase(formatCurrency(order.getTotal()), HIGHLIGHT_FONT));
+            totalValueCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+            totalValueCell.setBorder(Rectangle.TOP);
+            totalValueCell.setPaddingTop(5);
+            summaryTable.addCell(totalValueCell);
+
+            document.add(summaryTable);
+
+            // Add thank you message
+            Paragraph thankYou = new Paragraph("\nThanks for your Trust!", HIGHLIGHT_FONT);
+            thankYou.setAlignment(Element.ALIGN_CENTER);
+            document.add(thankYou);
+
+            // Add footer
+            Rectangle pageSize = document.getPageSize();
+            ColumnText.showTextAligned(writer.getDirectContent(),
+                    Element.ALIGN_CENTER,
+                    new Phrase("MarketNest · support@marketnest.com", SMALL_FONT),
+                    pageSize.getWidth() / 2,
+                    pageSize.getBottom() + 20,
+                    0);
+
+            document.close();
+        } catch (DocumentException e) {
+            throw new IOException("Failed to generate invoice PDF", e);
+        }
+    }
+
+    private static void addItemCell(PdfPTable table, String text, BaseColor rowColor,
+                                    int alignment) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, NORMAL_FONT));
+        cell.setBackgroundColor(rowColor);
+        cell.setHorizontalAlignment(alignment);
+        cell.setPadding(5);
+        table.addCell(cell);
+    }
+
+    private static void addSummaryRow(PdfPTable table, String label, BigDecimal value) {
+        PdfPCell labelCell = new PdfPCell(new Phrase(label, NORMAL_FONT));
+        labelCell.setBorder(Rectangle.NO_BORDER);
+        table.addCell(labelCell);
+
+        PdfPCell valueCell = new PdfPCell(new Phrase(formatCurrency(value), BOLD_FONT));
+        valueCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        valueCell.setBorder(Rectangle.NO_BORDER);
+        table.addCell(valueCell);
+    }
+
+    private static String formatAddress(Address address) {
+        return address.getAddressLine1() + "\n" +
+               address.getCity() + ", " + address.getStateProvince() + " " +
+               address.getPostalCode() + "\n" +
+               address.getCountryCode();
+    }
+
+    private static String formatCurrency(BigDecimal amount) {
+        return "$" + amount.setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,384 @@
+package com.marketnest.ecommerce.service.order;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketnest.ecommerce.dto.order.CheckoutStatusDto;
+import com.marketnest.ecommerce.dto.order.OrderRequestDto;
+import com.marketnest.ecommerce.dto.order.OrderResponseDto;
+import com.marketnest.ecommerce.exception.CheckoutQueueFullException;
+import com.marketnest.ecommerce.exception.InsufficientStockException;
+import com.marketnest.ecommerce.model.Order;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+// Accepts orders onto a bounded queue and places them on virtual worker threads, so request
+// threads return as soon as the order is queued. The queue is the backpressure: when it is full
+// submit() fails fast instead of letting checkouts pile up behind the connection pool. Each
+// checkout runs its stages in one transaction, so a failure in any stage leaves nothing behind.
+//
+// Every accepted order is stored in checkout_tickets before submit() returns. A worker locks the
+// ticket inside the checkout transaction and marks it COMPLETED in that same transaction, so the
+// order exists exactly when its ticket says so and a crash leaves the ticket QUEUED. Queued
+// tickets are leased to the node holding them; recover() picks up tickets whose lease ran out
+// (their node stopped or died) on any node. Polls read the ticket from the database, so they can
+// reach any node.
+@Slf4j
+@Service
+public class OrderCheckoutPipeline {
+
+    public enum Stage {
+        QUEUED, VALIDATING, PRICING, PERSISTING, RESERVING, NOTIFYING, COMPLETED, FAILED
+    }
+
+    private static final String FAILED_MESSAGE = "Order could not be placed";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO checkout_tickets (id, email, request, stage, locked_until, created_at) " +
+            "VALUES (?, ?, ?, 'QUEUED', now() + ? * interval '1 millisecond', now())";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM checkout_tickets WHERE id = ? AND stage = 'QUEUED'";
+
+    // Held until the checkout commits; a ticket finished elsewhere no longer matches
+    private static final String LOCK_SQL =
+            "SELECT id FROM checkout_tickets WHERE id = ? AND stage = 'QUEUED' FOR UPDATE";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE checkout_tickets SET stage = 'COMPLETED', order_id = ?, response = ?, " +
+            "locked_until = NULL, expires_at = now() + ? * interval '1 millisecond' WHERE id = ?";
+
+    private static final String FAIL_SQL =
+            "UPDATE checkout_tickets SET stage = 'FAILED', error = ?, locked_until = NULL, " +
+            "expires_at = now() + ? * interval '1 millisecond' " +
+            "WHERE id = ? AND stage = 'QUEUED'";
+
+    // Tickets being checked out are locked, so SKIP LOCKED leaves them to their worker
+    private static final String RECOVER_SQL =
+            "UPDATE checkout_tickets SET locked_until = now() + ? * interval '1 millisecond' " +
+            "WHERE id IN (SELECT id FROM checkout_tickets " +
+            "WHERE stage = 'QUEUED' AND locked_until < now() " +
+            "ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, email, request";
+
+    private static final String RELEASE_SQL =
+            "UPDATE checkout_tickets SET locked_until = now() WHERE id = ? AND stage = 'QUEUED'";
+
+    private static final String FIND_SQL =
+            "SELECT stage, response, error FROM checkout_tickets WHERE id = ? AND email = ?";
+
+    private static final String PURGE_SQL = "DELETE FROM checkout_tickets WHERE expires_at < now()";
+
+    private static final long POLL_INTERVAL_MILLIS = 250;
+
+    private final OrderService orderService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<Ticket> queue;
+    private final int workers;
+    private final Duration ticketTtl;
+    private final Duration lockTimeout;
+
+    // Tickets queued on or being checked out by this node, for their live stage and long polls
+    private final ConcurrentMap<String, Ticket> local = new ConcurrentHashMap<>();
+    private final ExecutorService pollers = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private volatile boolean running;
+
+    public OrderCheckoutPipeline(OrderService orderService,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${checkout.async.queue-capacity:500}") int queueCapacity,
+                                 @Value("${checkout.async.workers:8}") int workers,
+                                 @Value("${checkout.async.ticket-ttl:PT15M}") Duration ticketTtl,
+                                 @Value("${checkout.async.lock-timeout:PT2M}")
+                                 Duration lockTimeout) {
+        this.orderService = orderService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers = workers;
+        this.ticketTtl = ticketTtl;
+        this.lockTimeout = lockTimeout;
+
+        meterRegistry.gauge("checkout.queue.size", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            workerThreads.add(Thread.ofVirtual().name("checkout-", i).start(this::work));
+        }
+    }
+
+    // Queued tickets stay in the database; releasing them lets other nodes take them right away
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        workerThreads.forEach(Thread::interrupt);
+        for (Thread worker : workerThreads) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        Ticket ticket;
+        while ((ticket = queue.poll()) != null) {
+            try {
+                jdbcTemplate.update(RELEASE_SQL, ticket.id);
+            } catch (RuntimeException e) {
+                log.warn("Releasing checkout {} failed; it is retried once its lease runs out",
+                        ticket.id, e);
+            }
+            finish(ticket);
+        }
+        pollers.shutdownNow();
+    }
+
+    public CheckoutStatusDto submit(String email, OrderRequestDto orderRequestDto) {
+        if (!running || queue.remainingCapacity() == 0) {
+            throw queueFull();
+        }
+
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), email, orderRequestDto);
+        jdbcTemplate.update(INSERT_SQL, ticket.id, email, toJson(orderRequestDto),
+                lockTimeout.toMillis());
+        local.put(ticket.id, ticket);
+        if (!queue.offer(ticket)) {
+            local.remove(ticket.id);
+            jdbcTemplate.update(DELETE_SQL, ticket.id);
+            throw queueFull();
+        }
+        return toStatus(ticket.id, Stage.QUEUED, null, null);
+    }
+
+    // Completes with the ticket's status once checkout finishes or the wait runs out
+    public Optional<CompletableFuture<CheckoutStatusDto>> awaitStatus(String ticketId,
+                                                                      String email,
+                                                                      Duration wait) {
+        return find(ticketId, email).map(status -> {
+            if (wait.isZero() || isFinished(status)) {
+                return CompletableFuture.completedFuture(status);
+            }
+            long deadline = System.nanoTime() + wait.toNanos();
+            return CompletableFuture.supplyAsync(() -> poll(ticketId, email, deadline), pollers);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${checkout.async.recover-interval:PT30S}")
+    public void recover() {
+        int capacity = queue.remainingCapacity();
+        if (!running || capacity == 0) {
+            return;
+        }
+
+        List<Ticket> recovered = jdbcTemplate.query(RECOVER_SQL, (rs, rowNum) ->
+                new Ticket(rs.getString("id"), rs.getString("email"),
+                        fromJson(rs.getString("request"), OrderRequestDto.class)),
+                lockTimeout.toMillis(), capacity);
+        for (Ticket ticket : recovered) {
+            local.put(ticket.id, ticket);
+            if (!queue.offer(ticket)) {
+                local.remove(ticket.id);
+                jdbcTemplate.update(RELEASE_SQL, ticket.id);
+            }
+        }
+        if (!recovered.isEmpty()) {
+            log.info("Recovered {} queued checkouts", recovered.size());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${checkout.async.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update(PURGE_SQL);
+        if (purged > 0) {
+            log.info("Purged {} finished checkout tickets", purged);
+        }
+    }
+
+    private CheckoutStatusDto poll(String ticketId, String email, long deadline) {
+        while (true) {
+            boolean waited = awaitChange(ticketId, deadline);
+            CheckoutStatusDto status = find(ticketId, email).orElseThrow(() ->
+                    new IllegalStateException("Checkout " + ticketId + " disappeared"));
+            if (!waited || isFinished(status) || System.nanoTime() - deadline >= 0) {
+                return status;
+            }
+        }
+    }
+
+    // Tickets checked out on this node signal when they finish; others are polled
+    private boolean awaitChange(String ticketId, long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return true;
+        }
+        Ticket ticket = local.get(ticketId);
+        try {
+            if (ticket != null) {
+                ticket.done.get(remaining, TimeUnit.NANOSECONDS);
+            } else {
+                Thread.sleep(Math.min(POLL_INTERVAL_MILLIS,
+                        TimeUnit.NANOSECONDS.toMillis(remaining) + 1));
+            }
+        } catch (TimeoutException | ExecutionException e) {
+            // Read whatever the ticket says now
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    private Optional<CheckoutStatusDto> find(String ticketId, String email) {
+        return jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> {
+            Stage stage = Stage.valueOf(rs.getString("stage"));
+            Ticket ticket = local.get(ticketId);
+            if (stage == Stage.QUEUED && ticket != null) {
+                // Later stages run in the checkout transaction, which nobody else sees yet
+                stage = ticket.stage;
+            }
+            String response = rs.getString("response");
+            return toStatus(ticketId, stage, response == null ? null
+                    : fromJson(response, OrderResponseDto.class), rs.getString("error"));
+        }, ticketId, email).stream().findFirst();
+    }
+
+    private void work() {
+        while (running) {
+            Ticket ticket;
+            try {
+                ticket = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            process(ticket);
+        }
+    }
+
+    private void process(Ticket ticket) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (jdbcTemplate.queryForList(LOCK_SQL, String.class, ticket.id).isEmpty()) {
+                    return;
+                }
+
+                ticket.stage = Stage.VALIDATING;
+                Order placed = orderService.validateOrder(ticket.email, ticket.request);
+
+                ticket.stage = Stage.PRICING;
+                orderService.priceOrder(placed);
+
+                ticket.stage = Stage.PERSISTING;
+                placed = orderService.persistOrder(placed, ticket.email);
+
+                ticket.stage = Stage.RESERVING;
+                orderService.reserveStock(placed);
+
+                ticket.stage = Stage.NOTIFYING;
+                orderService.notifyOrderPlaced(placed);
+                OrderResponseDto order = orderService.toResponse(placed);
+                jdbcTemplate.update(COMPLETE_SQL, order.getId(), toJson(order),
+                        ticketTtl.toMillis(), ticket.id);
+            });
+        } catch (IllegalArgumentException | IllegalStateException |
+                 InsufficientStockException e) {
+            fail(ticket, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Checkout {} failed in stage {}", ticket.id, ticket.stage, e);
+            fail(ticket, FAILED_MESSAGE);
+        } finally {
+            finish(ticket);
+        }
+    }
+
+    private void fail(Ticket ticket, String error) {
+        try {
+            jdbcTemplate.update(FAIL_SQL, error, ticketTtl.toMillis(), ticket.id);
+        } catch (RuntimeException e) {
+            log.error("Recording failure of checkout {} failed", ticket.id, e);
+        }
+    }
+
+    private void finish(Ticket ticket) {
+        local.remove(ticket.id, ticket);
+        ticket.done.complete(null);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Checkout ticket could not be serialised", e);
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Checkout ticket could not be read", e);
+        }
+    }
+
+    private static boolean isFinished(CheckoutStatusDto status) {
+        return Stage.COMPLETED.name().equals(status.getStage()) ||
+               Stage.FAILED.name().equals(status.getStage());
+    }
+
+    private static CheckoutQueueFullException queueFull() {
+        return new CheckoutQueueFullException(
+                "Too many orders are being placed right now, please retry shortly");
+    }
+
+    private static CheckoutStatusDto toStatus(String ticketId, Stage stage, OrderResponseDto order,
+                                              String error) {
+        CheckoutStatusDto status = new CheckoutStatusDto();
+        status.setTicketId(ticketId);
+        status.setStage(stage.name());
+
+        if (stage == Stage.COMPLETED) {
+            status.setOrderStatus(order.getStatus());
+            status.setOrderId(order.getId());
+            status.setOrder(order);
+        } else if (stage == Stage.FAILED) {
+            status.setError(error);
+        } else {
+            status.setOrderStatus(Order.OrderStatus.PENDING.name());
+        }
+        return status;
+    }
+
+    private static class Ticket {
+
+        private final String id;
+        private final String email;
+        private final OrderRequestDto request;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private volatile Stage stage = Stage.QUEUED;
+
+        Ticket(String id, String email, OrderRequestDto request) {
+            this.id = id;
+            this.email = email;
+            this.request = request;
+        }
+    }
+}
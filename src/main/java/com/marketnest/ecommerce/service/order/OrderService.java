@@ -1,36 +1,43 @@
 package com.marketnest.ecommerce.service.order;
 
-import com.itextpdf.text.*;
-import com.itextpdf.text.pdf.ColumnText;
-import com.itextpdf.text.pdf.PdfPCell;
-import com.itextpdf.text.pdf.PdfPTable;
-import com.itextpdf.text.pdf.PdfWriter;
-import com.itextpdf.text.pdf.draw.LineSeparator;
+import com.marketnest.ecommerce.dto.order.OrderItemRequestDto;
 import com.marketnest.ecommerce.dto.order.OrderRequestDto;
 import com.marketnest.ecommerce.dto.order.OrderResponseDto;
 import com.marketnest.ecommerce.dto.order.OrderSummaryDto;
+import com.marketnest.ecommerce.dto.order.OrderSummaryRowDto;
+import com.marketnest.ecommerce.dto.pagination.CursorPageResponse;
+import com.marketnest.ecommerce.event.OrderChangedEvent;
 import com.marketnest.ecommerce.exception.ResourceNotFoundException;
 import com.marketnest.ecommerce.mapper.order.OrderMapper;
 import com.marketnest.ecommerce.model.*;
 import com.marketnest.ecommerce.repository.*;
+import com.marketnest.ecommerce.service.inventory.InventoryReservationService;
+import com.marketnest.ecommerce.util.CursorUtils;
 import com.marketnest.ecommerce.util.HtmlEscapeUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
+    private static final String ORDERS_CURSOR_SCOPE = "orders";
 
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
@@ -39,16 +46,38 @@ public class OrderService {
     private final ProductVariantRepository variantRepository;
     private final OrderMapper orderMapper;
     private final HtmlEscapeUtil htmlEscapeUtil;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryReservationService inventoryReservationService;
+    private final InvoiceRenderer invoiceRenderer;
+    private final InvoiceCache invoiceCache;
 
+    // Item counts come from the summary query, so a page never touches the item collections
+    @Transactional(readOnly = true)
     public Page<OrderSummaryDto> getUserOrders(Long userId, Pageable pageable) {
-        Page<Order> orders = orderRepository.findByUser_UserId(userId, pageable);
+        Page<OrderSummaryRowDto> orders = orderRepository.findSummariesByUserId(userId, pageable);
         return orders.map(order -> orderMapper.toSummary(order, htmlEscapeUtil));
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderSummaryDto> getUserOrdersByCursor(Long userId, String cursor,
+                                                                     int size) {
+        Window<Order> orders = orderRepository.findByUser_UserIdOrderByOrderDateDescIdDesc(
+                userId, CursorUtils.decode(ORDERS_CURSOR_SCOPE, cursor), Limit.of(size));
+        Map<Long, OrderSummaryRowDto> summaries = orders.isEmpty() ? Map.of() :
+                orderRepository.findSummariesByIdIn(orders.map(Order::getId).toList()).stream()
+                        .collect(Collectors.toMap(OrderSummaryRowDto::getId,
+                                Function.identity()));
+        return CursorUtils.toResponse(ORDERS_CURSOR_SCOPE, orders,
+                order -> orderMapper.toSummary(summaries.get(order.getId()), htmlEscapeUtil));
+    }
+
+    @Transactional(readOnly = true)
     public OrderResponseDto getOrderDetails(Long orderId, Long userId) {
-        Order order = orderRepository.findByUser_UserIdAndId(userId, orderId)
+        Order order = orderRepository.findDetailsByUserIdAndId(userId, orderId)
                 .orElseThrow(
                         () -> new ResourceNotFoundException("Order", "id", orderId));
+        orderRepository.fetchStatusHistory(order);
+        orderRepository.fetchPayments(order);
 
         return orderMapper.toResponse(order, htmlEscapeUtil);
     }
@@ -58,9 +87,61 @@ public class OrderService {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String email = auth.getName();
 
+        Order order = validateOrder(email, orderRequestDto);
+        priceOrder(order);
+        Order savedOrder = persistOrder(order, email);
+        reserveStock(savedOrder);
+        notifyOrderPlaced(savedOrder);
+
+        return toResponse(savedOrder);
+    }
+
+    // The stages below are also run one by one by OrderCheckoutPipeline; the caller owns the
+    // transaction so a failure in any stage rolls back the whole order.
+    public Order validateOrder(String email, OrderRequestDto orderRequestDto) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalStateException("User not authenticated"));
+        Order order = newOrder(user, orderRequestDto);
+
+        // Two IN queries for all lines instead of a product and a variant lookup per line
+        List<OrderItemRequestDto> itemDtos = orderRequestDto.getItems();
+        List<Long> productIds =
+                itemDtos.stream().map(OrderItemRequestDto::getProductId).distinct().toList();
+        List<Long> variantIds =
+                itemDtos.stream().map(OrderItemRequestDto::getVariantId).distinct().toList();
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, ProductVariant> variants = variantRepository.findAllById(variantIds).stream()
+                .collect(Collectors.toMap(ProductVariant::getId, Function.identity()));
+
+        for (var itemDto : itemDtos) {
+            Product product = products.get(itemDto.getProductId());
+            if (product == null) {
+                throw new IllegalArgumentException("Product not found: " + itemDto.getProductId());
+            }
+
+            ProductVariant variant = variants.get(itemDto.getVariantId());
+            if (variant == null) {
+                throw new IllegalArgumentException("Variant not found: " + itemDto.getVariantId());
+            }
+
+            if (!product.getId().equals(variant.getProductId())) {
+                throw new IllegalArgumentException("Variant does not belong to specified product");
+            }
+
+            OrderItem orderItem = new OrderItem();
+            orderItem.setProduct(product);
+            orderItem.setVariant(variant);
+            orderItem.setQuantity(itemDto.getQuantity());
 
+            order.addOrderItem(orderItem);
+        }
+
+        return order;
+    }
+
+    // An order without items, for the user's own addresses; items are added by the caller
+    public Order newOrder(User user, OrderRequestDto orderRequestDto) {
         Address shippingAddress =
                 addressRepository.findAddressByUser_UserIdAndId(
                                 user.getUserId(),
@@ -83,38 +164,21 @@ public class OrderService {
         order.setOrderDate(LocalDateTime.now());
         order.setShippingAddress(shippingAddress);
         order.setBillingAddress(billingAddress);
+        return order;
+    }
 
+    public void priceOrder(Order order) {
         BigDecimal subtotal = BigDecimal.ZERO;
 
-        for (var itemDto : orderRequestDto.getItems()) {
-            Product product = productRepository.findById(itemDto.getProductId())
-                    .orElseThrow(() -> new IllegalArgumentException(
-                            "Product not found: " + itemDto.getProductId()));
-
-            ProductVariant variant = variantRepository.findById(itemDto.getVariantId())
-                    .orElseThrow(() -> new IllegalArgumentException(
-                            "Variant not found: " + itemDto.getVariantId()));
-
-            if (!variant.getProduct().getId().equals(product.getId())) {
-                throw new IllegalArgumentException("Variant does not belong to specified product");
-            }
-
-            OrderItem orderItem = new OrderItem();
-            orderItem.setProduct(product);
-            orderItem.setVariant(variant);
-            orderItem.setQuantity(itemDto.getQuantity());
-
-            BigDecimal unitPrice =
-                    variant.getPrice() != null ? variant.getPrice() : product.getPrice();
+        for (OrderItem orderItem : order.getOrderItems()) {
+            BigDecimal unitPrice = unitPrice(orderItem.getVariant(), orderItem.getProduct());
             orderItem.setUnitPrice(unitPrice);
 
             BigDecimal totalItemPrice =
-                    unitPrice.multiply(BigDecimal.valueOf(itemDto.getQuantity()));
+                    unitPrice.multiply(BigDecimal.valueOf(orderItem.getQuantity()));
             orderItem.setTotalPrice(totalItemPrice);
 
             subtotal = subtotal.add(totalItemPrice);
-
-            order.addOrderItem(orderItem);
         }
 
         order.setSubtotal(subtotal);
@@ -128,16 +192,34 @@ public class OrderService {
                 .add(order.getTax())
                 .subtract(order.getDiscount());
         order.setTotal(total);
+    }
+
+    public static BigDecimal unitPrice(ProductVariant variant, Product product) {
+        return variant.getPrice() != null ? variant.getPrice() : product.getPrice();
+    }
 
+    public Order persistOrder(Order order, String email) {
         OrderStatusHistory statusHistory = new OrderStatusHistory();
         statusHistory.setStatus(Order.OrderStatus.PENDING);
         statusHistory.setNotes("Order created");
         statusHistory.setCreatedBy(email);
         order.addStatusHistory(statusHistory);
 
-        Order savedOrder = orderRepository.save(order);
+        return orderRepository.save(order);
+    }
 
-        return orderMapper.toResponse(savedOrder, htmlEscapeUtil);
+    // Reservations are keyed by order id, so this runs once the order row exists
+    public void reserveStock(Order order) {
+        inventoryReservationService.reserve(order.getId(), order.getOrderItems());
+    }
+
+    public void notifyOrderPlaced(Order order) {
+        eventPublisher.publishEvent(
+                new OrderChangedEvent(order.getId(), OrderChangedEvent.Type.PLACED));
+    }
+
+    public OrderResponseDto toResponse(Order order) {
+        return orderMapper.toResponse(order, htmlEscapeUtil);
     }
 
     @Transactional
@@ -146,8 +228,7 @@ public class OrderService {
                 .orElseThrow(
                         () -> new ResourceNotFoundException("Order", "id", orderId));
 
-        if (order.getStatus() != Order.OrderStatus.PENDING &&
-            order.getStatus() != Order.OrderStatus.PROCESSING) {
+        if (!order.getStatus().canTransitionTo(Order.OrderStatus.CANCELLED)) {
             throw new IllegalStateException(
                     "Cannot cancel order with status: " + order.getStatus());
         }
@@ -162,212 +243,49 @@ public class OrderService {
         order.addStatusHistory(statusHistory);
 
         Order savedOrder = orderRepository.save(order);
+        inventoryReservationService.release(savedOrder.getId());
+        eventPublisher.publishEvent(
+                new OrderChangedEvent(savedOrder.getId(), OrderChangedEvent.Type.CANCELLED));
 
         return orderMapper.toResponse(savedOrder, htmlEscapeUtil);
     }
 
-    public byte[] generateInvoicePdf(Long orderId, Long userId) {
-        Order order = orderRepository.findByUser_UserIdAndId(userId, orderId)
+    // Streams the cached invoice for the order's current version. A cache hit only reads the
+    // version; a miss loads everything the invoice shows in one query.
+    @Transactional(readOnly = true)
+    public InvoiceCache.CachedInvoice getInvoicePdf(Long orderId, Long userId) {
+        LocalDateTime updatedAt = orderRepository.findUpdatedAtByUserIdAndId(userId, orderId)
                 .orElseThrow(
                         () -> new ResourceNotFoundException("Order", "id", orderId));
-
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        try {
-            Document document = new Document();
-            PdfWriter writer = PdfWriter.getInstance(document, outputStream);
-            document.open();
-
-            // Define colors and fonts
-            BaseColor primaryColor = new BaseColor(41, 128, 185);
-            BaseColor lightGray = new BaseColor(236, 240, 241);
-            Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 20, primaryColor);
-            Font subHeaderFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
-            Font normalFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
-            Font boldFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
-            Font smallFont = FontFactory.getFont(FontFactory.HELVETICA, 8, BaseColor.DARK_GRAY);
-
-            // Header section
-            Paragraph companyName = new Paragraph("MarketNest", headerFont);
-            companyName.setAlignment(Element.ALIGN_LEFT);
-            document.add(companyName);
-
-            Paragraph invoiceTitle = new Paragraph("INVOICE #" + order.getId(), subHeaderFont);
-            invoiceTitle.setAlignment(Element.ALIGN_RIGHT);
-            document.add(invoiceTitle);
-
-            Paragraph invoiceDate = new Paragraph("Date: " + order.getOrderDate().format(
-                    DateTimeFormatter.ofPattern("yyyy-MM-dd")), normalFont);
-            invoiceDate.setAlignment(Element.ALIGN_RIGHT);
-            document.add(invoiceDate);
-
-            // Add separator line
-            LineSeparator ls = new LineSeparator();
-            ls.setLineColor(primaryColor);
-            ls.setLineWidth(1.5f);
-            document.add(new Chunk(ls));
-
-            document.add(new Paragraph("\n"));
-
-            // Customer and shipping info in a table
-            PdfPTable infoTable = new PdfPTable(2);
-            infoTable.setWidthPercentage(100);
-
-            // Customer information
-            PdfPCell customerCell = new PdfPCell();
-            customerCell.setBorder(Rectangle.NO_BORDER);
-            customerCell.addElement(new Paragraph("BILLED TO:", boldFont));
-            customerCell.addElement(new Paragraph(order.getUser().getFirstName() + " " +
-                                                  order.getUser().getLastName(), normalFont));
-            customerCell.addElement(new Paragraph(order.getUser().getEmail(), normalFont));
-
-            Address billingAddress = order.getBillingAddress() != null ?
-                    order.getBillingAddress() : order.getShippingAddress();
-            customerCell.addElement(new Paragraph(formatAddress(billingAddress), normalFont));
-            infoTable.addCell(customerCell);
-
-            // Shipping information
-            PdfPCell shippingCell = new PdfPCell();
-            shippingCell.setBorder(Rectangle.NO_BORDER);
-            shippingCell.addElement(new Paragraph("SHIPPED TO:", boldFont));
-            shippingCell.addElement(
-                    new Paragraph(formatAddress(order.getShippingAddress()), normalFont));
-            infoTable.addCell(shippingCell);
-
-            document.add(infoTable);
-            document.add(new Paragraph("\n"));
-
-            // Order items table with styling
-            PdfPTable itemsTable = new PdfPTable(5);
-            itemsTable.setWidthPercentage(100);
-            itemsTable.setWidths(new float[]{3f, 2f, 1f, 2f, 2f});
-
-            // Table headers with styling
-            String[] headers = {"Product", "Variant", "Quantity", "Unit Price", "Total"};
-            for (String header : headers) {
-                PdfPCell cell = new PdfPCell(new Phrase(header, boldFont));
-                cell.setBackgroundColor(primaryColor);
-                cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                cell.setPadding(5);
-                cell.setBorderColor(BaseColor.WHITE);
-                itemsTable.addCell(cell);
-            }
-
-            // Table data with alternating row colors
-            boolean alternate = false;
-            for (OrderItem item : order.getOrderItems()) {
-                BaseColor rowColor = alternate ? lightGray : BaseColor.WHITE;
-                alternate = !alternate;
-
-                // Product name
-                PdfPCell cell = new PdfPCell(new Phrase(item.getProduct().getName(), normalFont));
-                cell.setBackgroundColor(rowColor);
-                cell.setPadding(5);
-                itemsTable.addCell(cell);
-
-                // Variant
-                cell = new PdfPCell(new Phrase(item.getVariant().getOption1Name(), normalFont));
-                cell.setBackgroundColor(rowColor);
-                cell.setPadding(5);
-                itemsTable.addCell(cell);
-
-                // Quantity
-                cell = new PdfPCell(new Phrase(String.valueOf(item.getQuantity()), normalFont));
-                cell.setBackgroundColor(rowColor);
-                cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                cell.setPadding(5);
-                itemsTable.addCell(cell);
-
-                // Unit price
-                cell = new PdfPCell(new Phrase(formatCurrency(item.getUnitPrice()), normalFont));
-                cell.setBackgroundColor(rowColor);
-                cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-                cell.setPadding(5);
-                itemsTable.addCell(cell);
-
-                // Total price
-                cell = new PdfPCell(new Phrase(formatCurrency(item.getTotalPrice()), normalFont));
-                cell.setBackgroundColor(rowColor);
-                cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-                cell.setPadding(5);
-                itemsTable.addCell(cell);
-            }
-
-            document.add(itemsTable);
-            document.add(new Paragraph("\n"));
-
-            // Order summary table - right aligned
-            PdfPTable summaryTable = new PdfPTable(2);
-            summaryTable.setWidthPercentage(40);
-            summaryTable.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            summaryTable.setSpacingBefore(10);
-
-            // Add summary rows
-            addSummaryRow(summaryTable, "Subtotal:", order.getSubtotal(), normalFont, boldFont);
-            addSummaryRow(summaryTable, "Shipping:", order.getShippingCost(), normalFont, boldFont);
-            addSummaryRow(summaryTable, "Tax:", order.getTax(), normalFont, boldFont);
-            addSummaryRow(summaryTable, "Discount:", order.getDiscount(), normalFont, boldFont);
-
-            // Add total with different styling
-            PdfPCell totalLabelCell = new PdfPCell(new Phrase("TOTAL:", boldFont));
-            totalLabelCell.setBorder(Rectangle.TOP);
-            totalLabelCell.setPaddingTop(5);
-            summaryTable.addCell(totalLabelCell);
-
-            PdfPCell totalValueCell = new PdfPCell(new Phrase(formatCurrency(order.getTotal()),
-                    FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, primaryColor)));
-            totalValueCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            totalValueCell.setBorder(Rectangle.TOP);
-            totalValueCell.setPaddingTop(5);
-            summaryTable.addCell(totalValueCell);
-
-            document.add(summaryTable);
-
-            // Add thank you message
-            Paragraph thankYou = new Paragraph("\nThanks for your Trust!",
-                    FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, primaryColor));
-            thankYou.setAlignment(Element.ALIGN_CENTER);
-            document.add(thankYou);
-
-            // Add footer
-            Rectangle pageSize = document.getPageSize();
-            ColumnText.showTextAligned(writer.getDirectContent(),
-                    Element.ALIGN_CENTER,
-                    new Phrase("MarketNest · support@marketnest.com", smallFont),
-                    pageSize.getWidth() / 2,
-                    pageSize.getBottom() + 20,
-                    0);
-
-            document.close();
-            return outputStream.toByteArray();
-        } catch (DocumentException e) {
-            throw new RuntimeException("Failed to generate invoice PDF", e);
-        }
+        return openInvoice(orderId, updatedAt);
     }
 
-    private void addSummaryRow(PdfPTable table, String label, BigDecimal value,
-                               Font labelFont, Font valueFont) {
-        PdfPCell labelCell = new PdfPCell(new Phrase(label, labelFont));
-        labelCell.setBorder(Rectangle.NO_BORDER);
-        table.addCell(labelCell);
-
-        PdfPCell valueCell = new PdfPCell(new Phrase(formatCurrency(value), valueFont));
-        valueCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-        valueCell.setBorder(Rectangle.NO_BORDER);
-        table.addCell(valueCell);
+    // Any user's order, for admin exports
+    @Transactional(readOnly = true)
+    public InvoiceCache.CachedInvoice getInvoicePdf(Long orderId) {
+        LocalDateTime updatedAt = orderRepository.findUpdatedAtById(orderId)
+                .orElseThrow(
+                        () -> new ResourceNotFoundException("Order", "id", orderId));
+        return openInvoice(orderId, updatedAt);
     }
 
-
-    private String formatAddress(Address address) {
-        return address.getAddressLine1() + "\n" +
-               address.getCity() + ", " + address.getStateProvince() + " " + address.getPostalCode() + "\n" +
-               address.getCountryCode();
+    private InvoiceCache.CachedInvoice openInvoice(Long orderId, LocalDateTime updatedAt) {
+        try {
+            return invoiceCache.open(InvoiceCache.key(orderId, updatedAt),
+                    outputStream -> invoiceRenderer.render(loadForInvoice(orderId),
+                            outputStream));
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Failed to generate invoice PDF", e);
+        }
     }
 
-    private String formatCurrency(BigDecimal amount) {
-        return "$" + amount.setScale(2, RoundingMode.HALF_UP);
+    private Order loadForInvoice(Long orderId) {
+        return orderRepository.findForInvoiceById(orderId)
+                .orElseThrow(
+                        () -> new ResourceNotFoundException("Order", "id", orderId));
     }
 
-
+    @Transactional(readOnly = true)
     public OrderResponseDto trackOrder(Long orderId, Long userId) {
         return getOrderDetails(orderId, userId);
     }
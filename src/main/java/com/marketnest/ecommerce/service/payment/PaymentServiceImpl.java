@@ -10,6 +10,7 @@ import com.marketnest.ecommerce.model.Order;
 import com.marketnest.ecommerce.model.Payment;
 import com.marketnest.ecommerce.repository.OrderRepository;
 import com.marketnest.ecommerce.repository.PaymentRepository;
+import com.marketnest.ecommerce.service.inventory.InventoryReservationService;
 import com.marketnest.ecommerce.util.HtmlEscapeUtil;
 import com.stripe.exception.StripeException;
 import com.stripe.model.Charge;
@@ -38,6 +39,7 @@ public class PaymentServiceImpl implements PaymentService {
     private final OrderRepository orderRepository;
     private final PaymentMapper paymentMapper;
     private final HtmlEscapeUtil htmlEscapeUtil;
+    private final InventoryReservationService inventoryReservationService;
 
     @Override
     @Transactional
@@ -47,6 +49,10 @@ public class PaymentServiceImpl implements PaymentService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Order", "ID", requestDto.getOrderId()));
 
+        if (order.getStatus() == Order.OrderStatus.CANCELLED) {
+            throw new IllegalStateException("Cannot process payment for a cancelled order");
+        }
+
         List<Payment> existingPayment = paymentRepository.findByOrderId(order.getId());
         if (!existingPayment.isEmpty()) {
             Payment existing = existingPayment.getFirst();
@@ -99,6 +105,7 @@ public class PaymentServiceImpl implements PaymentService {
                                                    requestDto.getPaymentMethod());
             }
 
+            inventoryReservationService.commit(order.getId());
             Payment savedPayment = paymentRepository.save(payment);
             return paymentMapper.toResponse(savedPayment, htmlEscapeUtil);
 
@@ -0,0 +1,517 @@
+package com.marketnest.ecommerce.service.product;
+
+import com.marketnest.ecommerce.repository.OrderItemRepository;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+@Slf4j
+@Component
+public class ProductCoPurchaseIndex {
+
+    private static final String BASKET_ITEMS_SQL =
+            "SELECT oi.order_id, oi.product_id FROM order_items oi " +
+            "JOIN orders o ON o.id = oi.order_id " +
+            "WHERE o.status <> 'CANCELLED' ORDER BY oi.order_id";
+
+    private static final String LOAD_SQL =
+            "SELECT product_id, related_product_id, purchase_count FROM product_co_purchases " +
+            "ORDER BY product_id, purchase_count DESC, related_product_id";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO product_co_purchases (product_id, related_product_id, purchase_count) " +
+            "VALUES (?, ?, ?)";
+
+    private static final String DELETE_ALL_SQL = "DELETE FROM product_co_purchases";
+
+    private static final String DELETE_PRODUCT_SQL =
+            "DELETE FROM product_co_purchases WHERE product_id = ?";
+
+    private static final int FETCH_SIZE = 10_000;
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final int MAX_BASKET_SIZE = 100;
+    private static final long MAX_PRODUCT_ID = 0xFFFFFFFFL;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderItemRepository orderItemRepository;
+    private final TaskExecutor taskExecutor;
+    private final int maxNeighbours;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock persistLock = new ReentrantLock();
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+    private Long2ObjectOpenHashMap<Neighbours> neighbours = new Long2ObjectOpenHashMap<>();
+    private List<OrderDelta> deferredDeltas;
+
+    public ProductCoPurchaseIndex(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  OrderItemRepository orderItemRepository,
+                                  @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                  @Value("${product.co-purchase.max-neighbours:20}")
+                                  int maxNeighbours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.orderItemRepository = orderItemRepository;
+        this.taskExecutor = taskExecutor;
+        this.maxNeighbours = maxNeighbours;
+    }
+
+    public List<Long> getNeighbours(Long productId) {
+        lock.readLock().lock();
+        try {
+            Neighbours related = neighbours.get(productId.longValue());
+            if (related == null) {
+                return List.of();
+            }
+            return Arrays.stream(related.productIds()).boxed().toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void loadAsync() {
+        taskExecutor.execute(() -> {
+            try {
+                load();
+            } catch (RuntimeException e) {
+                log.error("Loading product co-purchases failed", e);
+            }
+        });
+    }
+
+    public void load() {
+        Long2ObjectOpenHashMap<Neighbours> loaded = new Long2ObjectOpenHashMap<>();
+        NeighbourCollector collector = new NeighbourCollector(loaded);
+        jdbcTemplate.query(LOAD_SQL, (RowCallbackHandler) rs -> collector.add(
+                rs.getLong(1), rs.getLong(2), rs.getInt(3)));
+        collector.finish();
+
+        if (loaded.isEmpty()) {
+            rebuild();
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (deferredDeltas == null) {
+                neighbours = loaded;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded frequently bought together neighbours for {} products", loaded.size());
+    }
+
+    @Scheduled(cron = "${product.co-purchase.rebuild-cron:0 30 3 * * *}")
+    public void rebuildAsync() {
+        taskExecutor.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Product co-purchase rebuild failed", e);
+            }
+        });
+    }
+
+    public void rebuild() {
+        if (!rebuildRunning.compareAndSet(false, true)) {
+            log.info("Product co-purchase rebuild already running, skipping");
+            return;
+        }
+
+        try {
+            long startedAt = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                deferredDeltas = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Baskets baskets = new Baskets();
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement statement = con.prepareStatement(BASKET_ITEMS_SQL);
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, (RowCallbackHandler) rs -> baskets.add(rs.getLong(1), rs.getLong(2))));
+            baskets.finish();
+
+            int partitions = Runtime.getRuntime().availableProcessors() * 4;
+            Long2ObjectOpenHashMap<Neighbours> rebuilt = new Long2ObjectOpenHashMap<>();
+            IntStream.range(0, partitions)
+                    .parallel()
+                    .mapToObj(partition -> countPartition(baskets, partition, partitions))
+                    .toList()
+                    .forEach(rebuilt::putAll);
+
+            persistLock.lock();
+            try {
+                persistAll(rebuilt);
+
+                // Changes that arrived while the scan ran are replayed on top unless the scan
+                // already reflects them: placements of orders it did not count, and
+                // cancellations of orders that are counted (by the scan or by a replay)
+                Set<Long> replayed = new HashSet<>();
+                lock.writeLock().lock();
+                try {
+                    LongOpenHashSet counted = baskets.orderIds;
+                    for (OrderDelta delta : deferredDeltas) {
+                        boolean replay = delta.delta() > 0
+                                ? counted.add(delta.orderId())
+                                : counted.remove(delta.orderId());
+                        if (replay) {
+                            replayed.addAll(apply(rebuilt, delta));
+                        }
+                    }
+                    neighbours = rebuilt;
+                    deferredDeltas = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                persist(replayed);
+            } finally {
+                persistLock.unlock();
+            }
+
+            log.info("Product co-purchases rebuilt from {} baskets for {} products in {} ms",
+                    baskets.count(), rebuilt.size(), System.currentTimeMillis() - startedAt);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                deferredDeltas = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuildRunning.set(false);
+        }
+    }
+
+    public void orderPlaced(Long orderId) {
+        taskExecutor.execute(() -> update(orderId, 1));
+    }
+
+    public void orderCancelled(Long orderId) {
+        taskExecutor.execute(() -> update(orderId, -1));
+    }
+
+    private void update(Long orderId, int delta) {
+        try {
+            long[] basket = orderItemRepository.findProductIdsByOrderId(orderId).stream()
+                    .mapToLong(Long::longValue)
+                    .filter(productId -> productId <= MAX_PRODUCT_ID)
+                    .limit(MAX_BASKET_SIZE)
+                    .toArray();
+            if (basket.length < 2) {
+                return;
+            }
+
+            OrderDelta orderDelta = new OrderDelta(orderId, basket, delta);
+            Set<Long> changed;
+            lock.writeLock().lock();
+            try {
+                if (deferredDeltas != null) {
+                    deferredDeltas.add(orderDelta);
+                }
+                changed = apply(neighbours, orderDelta);
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            persistLock.lock();
+            try {
+                persist(changed);
+            } finally {
+                persistLock.unlock();
+            }
+        } catch (RuntimeException e) {
+            log.error("Updating product co-purchases for order {} failed", orderId, e);
+        }
+    }
+
+    // Incremental updates only adjust pairs already in a product's top list (or fill free
+    // slots); pairs that grow past the weakest kept neighbour show up on the next rebuild.
+    private Set<Long> apply(Long2ObjectMap<Neighbours> target, OrderDelta delta) {
+        Set<Long> changed = new HashSet<>();
+        for (long productId : delta.basket()) {
+            Neighbours current = target.get(productId);
+            Neighbours updated = current;
+            for (long relatedId : delta.basket()) {
+                if (relatedId != productId) {
+                    updated = adjust(updated, relatedId, delta.delta());
+                }
+            }
+            if (updated != current) {
+                if (updated == null) {
+                    target.remove(productId);
+                } else {
+                    target.put(productId, updated);
+                }
+                changed.add(productId);
+            }
+        }
+        return changed;
+    }
+
+    private Neighbours adjust(Neighbours current, long relatedId, int delta) {
+        long[] productIds = current == null ? new long[0] : current.productIds();
+        int[] counts = current == null ? new int[0] : current.counts();
+
+        int index = 0;
+        while (index < productIds.length && productIds[index] != relatedId) {
+            index++;
+        }
+
+        if (index == productIds.length) {
+            if (delta < 0 || productIds.length >= maxNeighbours) {
+                return current;
+            }
+            productIds = Arrays.copyOf(productIds, productIds.length + 1);
+            counts = Arrays.copyOf(counts, counts.length + 1);
+            productIds[index] = relatedId;
+            counts[index] = delta;
+        } else if (counts[index] + delta <= 0) {
+            long[] keptIds = new long[productIds.length - 1];
+            int[] keptCounts = new int[counts.length - 1];
+            System.arraycopy(productIds, 0, keptIds, 0, index);
+            System.arraycopy(productIds, index + 1, keptIds, index, keptIds.length - index);
+            System.arraycopy(counts, 0, keptCounts, 0, index);
+            System.arraycopy(counts, index + 1, keptCounts, index, keptCounts.length - index);
+            return keptIds.length == 0 ? null : new Neighbours(keptIds, keptCounts);
+        } else {
+            productIds = productIds.clone();
+            counts = counts.clone();
+            counts[index] += delta;
+        }
+
+        sortByCount(productIds, counts);
+        return new Neighbours(productIds, counts);
+    }
+
+    private Long2ObjectOpenHashMap<Neighbours> countPartition(Baskets baskets, int partition,
+                                                              int partitions) {
+        Long2IntOpenHashMap pairCounts = new Long2IntOpenHashMap();
+        long[] items = baskets.items.elements();
+        int[] starts = baskets.starts.elements();
+
+        for (int basket = 0; basket < baskets.count(); basket++) {
+            int from = starts[basket];
+            int to = starts[basket + 1];
+            for (int i = from; i < to; i++) {
+                long productId = items[i];
+                if (productId % partitions != partition) {
+                    continue;
+                }
+                for (int j = from; j < to; j++) {
+                    if (j != i) {
+                        pairCounts.addTo(productId << 32 | items[j], 1);
+                    }
+                }
+            }
+        }
+
+        Long2ObjectOpenHashMap<Neighbours> result = new Long2ObjectOpenHashMap<>();
+        NeighbourCollector collector = new NeighbourCollector(result);
+        long[] pairs = pairCounts.keySet().toLongArray();
+        Arrays.sort(pairs);
+        for (long pair : pairs) {
+            collector.add(pair >>> 32, pair & MAX_PRODUCT_ID, pairCounts.get(pair));
+        }
+        collector.finish();
+        return result;
+    }
+
+    private void persistAll(Long2ObjectOpenHashMap<Neighbours> rebuilt) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_ALL_SQL);
+
+            List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+            for (Long2ObjectMap.Entry<Neighbours> entry : rebuilt.long2ObjectEntrySet()) {
+                addRows(batch, entry.getLongKey(), entry.getValue());
+                if (batch.size() >= INSERT_BATCH_SIZE) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+            }
+        });
+    }
+
+    private void persist(Set<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long productId : productIds) {
+                Neighbours related = neighbours.get(productId.longValue());
+                if (related != null) {
+                    addRows(rows, productId, related);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Object[]> deletes = productIds.stream()
+                .map(productId -> new Object[]{productId})
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(DELETE_PRODUCT_SQL, deletes);
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            }
+        });
+    }
+
+    private static void addRows(List<Object[]> rows, long productId, Neighbours related) {
+        for (int i = 0; i < related.productIds().length; i++) {
+            rows.add(new Object[]{productId, related.productIds()[i], related.counts()[i]});
+        }
+    }
+
+    private static void sortByCount(long[] productIds, int[] counts) {
+        for (int i = 1; i < productIds.length; i++) {
+            long productId = productIds[i];
+            int count = counts[i];
+            int j = i - 1;
+            while (j >= 0 && (counts[j] < count
+                              || counts[j] == count && productIds[j] > productId)) {
+                productIds[j + 1] = productIds[j];
+                counts[j + 1] = counts[j];
+                j--;
+            }
+            productIds[j + 1] = productId;
+            counts[j + 1] = count;
+        }
+    }
+
+    private record Neighbours(long[] productIds, int[] counts) {
+    }
+
+    private record OrderDelta(long orderId, long[] basket, int delta) {
+    }
+
+    private static final class Baskets {
+        private final LongArrayList items = new LongArrayList();
+        private final IntArrayList starts = IntArrayList.of(0);
+        // Every order the scan returned, including baskets too small to count
+        private final LongOpenHashSet orderIds = new LongOpenHashSet();
+        private long currentOrderId = -1;
+
+        private void add(long orderId, long productId) {
+            if (orderId != currentOrderId) {
+                closeBasket();
+                currentOrderId = orderId;
+                orderIds.add(orderId);
+            }
+
+            int start = starts.getInt(starts.size() - 1);
+            if (productId > MAX_PRODUCT_ID || items.size() - start >= MAX_BASKET_SIZE) {
+                return;
+            }
+            for (int i = start; i < items.size(); i++) {
+                if (items.getLong(i) == productId) {
+                    return;
+                }
+            }
+            items.add(productId);
+        }
+
+        private void finish() {
+            closeBasket();
+            items.trim();
+            starts.trim();
+        }
+
+        private int count() {
+            return starts.size() - 1;
+        }
+
+        private void closeBasket() {
+            int start = starts.getInt(starts.size() - 1);
+            if (items.size() - start < 2) {
+                items.size(start);
+            } else {
+                starts.add(items.size());
+            }
+        }
+    }
+
+    // Consumes (product, related, count) rows grouped by product and keeps the strongest
+    // neighbours of each product.
+    private final class NeighbourCollector {
+        private final Long2ObjectOpenHashMap<Neighbours> target;
+        private final LongArrayList productIds = new LongArrayList();
+        private final IntArrayList counts = new IntArrayList();
+        private long currentProductId = -1;
+
+        private NeighbourCollector(Long2ObjectOpenHashMap<Neighbours> target) {
+            this.target = target;
+        }
+
+        private void add(long productId, long relatedId, int count) {
+            if (productId != currentProductId) {
+                finish();
+                currentProductId = productId;
+            }
+            productIds.add(relatedId);
+            counts.add(count);
+        }
+
+        private void finish() {
+            if (!productIds.isEmpty()) {
+                long[] ids = new long[Math.min(productIds.size(), maxNeighbours)];
+                int[] values = new int[ids.length];
+                int size = 0;
+                for (int i = 0; i < productIds.size(); i++) {
+                    long relatedId = productIds.getLong(i);
+                    int count = counts.getInt(i);
+                    if (size == ids.length && (values[size - 1] > count
+                            || values[size - 1] == count && ids[size - 1] < relatedId)) {
+                        continue;
+                    }
+
+                    int position = size < ids.length ? size++ : size - 1;
+                    while (position > 0 && (values[position - 1] < count
+                            || values[position - 1] == count && ids[position - 1] > relatedId)) {
+                        ids[position] = ids[position - 1];
+                        values[position] = values[position - 1];
+                        position--;
+                    }
+                    ids[position] = relatedId;
+                    values[position] = count;
+                }
+                target.put(currentProductId, new Neighbours(ids, values));
+            }
+            productIds.clear();
+            counts.clear();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.marketnest.ecommerce.service.product;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.marketnest.ecommerce.dto.product.ProductResponseDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Component
+public class ProductDetailCache {
+    private static final int BASE_ENTRY_WEIGHT = 256;
+    private static final int NESTED_ENTRY_WEIGHT = 192;
+
+    private final Cache<Long, ProductResponseDto> productsById;
+    private final Cache<String, Long> productIdsBySlug;
+
+    public ProductDetailCache(
+            MeterRegistry meterRegistry,
+            @Value("${product.cache.max-weight-bytes:67108864}") long maxWeightBytes,
+            @Value("${product.cache.max-slugs:200000}") long maxSlugs,
+            @Value("${product.cache.expire-after-write:PT30M}") Duration expireAfterWrite) {
+
+        this.productsById = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Long id, ProductResponseDto product) -> estimateSize(product))
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.productIdsBySlug = Caffeine.newBuilder()
+                .maximumSize(maxSlugs)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, productsById, "productDetailsById");
+        CaffeineCacheMetrics.monitor(meterRegistry, productIdsBySlug, "productDetailsBySlug");
+    }
+
+    public ProductResponseDto getById(Long productId,
+                                      Function<Long, ProductResponseDto> loader) {
+        return productsById.get(productId, loader);
+    }
+
+    public ProductResponseDto getBySlug(String slug, Supplier<ProductResponseDto> loader) {
+        Long productId = productIdsBySlug.getIfPresent(slug);
+        if (productId != null) {
+            ProductResponseDto cached = productsById.getIfPresent(productId);
+            if (cached != null && slug.equals(cached.getSlug())) {
+                return cached;
+            }
+            productIdsBySlug.invalidate(slug);
+        }
+
+        ProductResponseDto product = loader.get();
+        productsById.put(product.getId(), product);
+        productIdsBySlug.put(slug, product.getId());
+        return product;
+    }
+
+    public void invalidate(Long productId) {
+        ProductResponseDto cached = productsById.getIfPresent(productId);
+        productsById.invalidate(productId);
+        if (cached != null && cached.getSlug() != null) {
+            productIdsBySlug.invalidate(cached.getSlug());
+        }
+    }
+
+    public void invalidateAll() {
+        productsById.invalidateAll();
+        productIdsBySlug.invalidateAll();
+    }
+
+    private static int estimateSize(ProductResponseDto product) {
+        int size = BASE_ENTRY_WEIGHT
+                   + chars(product.getSku()) + chars(product.getName())
+                   + chars(product.getSlug()) + chars(product.getDescription())
+                   + chars(product.getBrand()) + chars(product.getDimensions())
+                   + chars(product.getMetaTitle()) + chars(product.getMetaDescription())
+                   + chars(product.getMetaKeywords()) + chars(product.getCategoryName());
+        if (product.getVariants() != null) {
+            size += product.getVariants().size() * NESTED_ENTRY_WEIGHT;
+        }
+        if (product.getImages() != null) {
+            size += product.getImages().size() * NESTED_ENTRY_WEIGHT;
+        }
+        return size;
+    }
+
+    private static int chars(String value) {
+        return value == null ? 0 : value.length() * 2;
+    }
+}
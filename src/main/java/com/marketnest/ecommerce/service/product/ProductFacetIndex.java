@@ -0,0 +1,392 @@
+package com.marketnest.ecommerce.service.product;
+
+import com.marketnest.ecommerce.dto.product.FacetValueDto;
+import com.marketnest.ecommerce.dto.product.ProductFacetAttributesDto;
+import com.marketnest.ecommerce.repository.ProductRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+@Slf4j
+@Component
+public class ProductFacetIndex {
+
+    public static final String BRAND = "brand";
+    public static final String CATEGORY = "category";
+    public static final String PRICE_RANGE = "priceRange";
+    public static final String IN_STOCK = "inStock";
+    public static final String FEATURED = "featured";
+    public static final String ON_SALE = "onSale";
+
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    private static final List<PriceBucket> PRICE_BUCKETS = List.of(
+            new PriceBucket("0-25", null, new BigDecimal("25")),
+            new PriceBucket("25-50", new BigDecimal("25"), new BigDecimal("50")),
+            new PriceBucket("50-100", new BigDecimal("50"), new BigDecimal("100")),
+            new PriceBucket("100-250", new BigDecimal("100"), new BigDecimal("250")),
+            new PriceBucket("250-500", new BigDecimal("250"), new BigDecimal("500")),
+            new PriceBucket("500-1000", new BigDecimal("500"), new BigDecimal("1000")),
+            new PriceBucket("1000+", new BigDecimal("1000"), null));
+
+    private final ProductRepository productRepository;
+    private final TaskExecutor taskExecutor;
+
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+    private FacetData data = new FacetData();
+    // Latest attributes (null once removed) of products changed while a rebuild scans
+    private Map<Long, ProductFacetAttributesDto> deferredChanges;
+
+    public ProductFacetIndex(ProductRepository productRepository,
+                             @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.productRepository = productRepository;
+        this.taskExecutor = taskExecutor;
+    }
+
+    public void rebuildAsync() {
+        rebuildRequested.set(true);
+        if (rebuildRunning.compareAndSet(false, true)) {
+            taskExecutor.execute(this::runRequestedRebuilds);
+        }
+    }
+
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                deferredChanges = new HashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            FacetData rebuilt = new FacetData();
+            long lastId = 0L;
+            List<ProductFacetAttributesDto> batch;
+
+            do {
+                batch = productRepository.findFacetAttributesAfter(
+                        lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                batch.forEach(rebuilt::add);
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            // The scan may have read a product before it changed, so changes that arrived
+            // meanwhile are applied again on top of the new data
+            lock.writeLock().lock();
+            try {
+                deferredChanges.forEach((productId, attributes) -> {
+                    rebuilt.remove(toDocId(productId));
+                    if (attributes != null) {
+                        rebuilt.add(attributes);
+                    }
+                });
+                data = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Product facet index rebuilt with {} products", rebuilt.entries.size());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                deferredChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuildLock.unlock();
+        }
+    }
+
+    public void refresh(Long productId) {
+        ProductFacetAttributesDto attributes =
+                productRepository.findFacetAttributesById(productId).orElse(null);
+
+        lock.writeLock().lock();
+        try {
+            data.remove(toDocId(productId));
+            if (attributes != null) {
+                data.add(attributes);
+            }
+            if (deferredChanges != null) {
+                deferredChanges.put(productId, attributes);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            data.remove(toDocId(productId));
+            if (deferredChanges != null) {
+                deferredChanges.put(productId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public FacetSearchResult search(Long categoryId, String brand, String priceRange,
+                                    Boolean inStock, Boolean featured, Boolean onSale,
+                                    boolean activeOnly, long offset, int limit) {
+        if (priceRange != null && PRICE_BUCKETS.stream()
+                .noneMatch(bucket -> bucket.key().equals(priceRange))) {
+            throw new IllegalArgumentException("Unknown price range: " + priceRange);
+        }
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap universe = activeOnly ? data.active : data.all;
+
+            Map<String, RoaringBitmap> filters = new HashMap<>();
+            if (brand != null && !brand.isBlank()) {
+                filters.put(BRAND, data.brands.getOrDefault(
+                        brand.trim().toLowerCase(), new RoaringBitmap()));
+            }
+            if (categoryId != null) {
+                filters.put(CATEGORY,
+                        data.categories.getOrDefault(categoryId, new RoaringBitmap()));
+            }
+            if (priceRange != null) {
+                filters.put(PRICE_RANGE, data.priceBuckets.get(priceRange));
+            }
+            putFlagFilter(filters, IN_STOCK, data.inStock, inStock);
+            putFlagFilter(filters, FEATURED, data.featured, featured);
+            putFlagFilter(filters, ON_SALE, data.onSale, onSale);
+
+            RoaringBitmap matches = intersect(universe, filters, null);
+
+            Map<String, List<FacetValueDto>> facets = new LinkedHashMap<>();
+            facets.put(BRAND, countValues(intersect(universe, filters, BRAND),
+                    data.brands, key -> data.brandLabels.get(key)));
+            facets.put(CATEGORY, countValues(intersect(universe, filters, CATEGORY),
+                    data.categories, String::valueOf));
+            facets.put(PRICE_RANGE, countPriceBuckets(intersect(universe, filters, PRICE_RANGE)));
+            facets.put(IN_STOCK, countFlag(intersect(universe, filters, IN_STOCK), data.inStock));
+            facets.put(FEATURED, countFlag(intersect(universe, filters, FEATURED), data.featured));
+            facets.put(ON_SALE, countFlag(intersect(universe, filters, ON_SALE), data.onSale));
+
+            return new FacetSearchResult(matches.getLongCardinality(),
+                    page(matches, offset, limit), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void runRequestedRebuilds() {
+        try {
+            while (rebuildRequested.getAndSet(false)) {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("Product facet index rebuild failed", e);
+                }
+            }
+        } finally {
+            rebuildRunning.set(false);
+        }
+
+        if (rebuildRequested.get()) {
+            rebuildAsync();
+        }
+    }
+
+    private void putFlagFilter(Map<String, RoaringBitmap> filters, String facet,
+                               RoaringBitmap flagged, Boolean value) {
+        if (value != null) {
+            filters.put(facet, value ? flagged : RoaringBitmap.andNot(data.all, flagged));
+        }
+    }
+
+    private RoaringBitmap intersect(RoaringBitmap universe, Map<String, RoaringBitmap> filters,
+                                    String excludedFacet) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>();
+        bitmaps.add(universe);
+        filters.forEach((facet, bitmap) -> {
+            if (!facet.equals(excludedFacet)) {
+                bitmaps.add(bitmap);
+            }
+        });
+        return bitmaps.size() == 1
+                ? universe
+                : FastAggregation.and(bitmaps.toArray(new RoaringBitmap[0]));
+    }
+
+    private <K> List<FacetValueDto> countValues(RoaringBitmap base, Map<K, RoaringBitmap> values,
+                                                Function<K, String> label) {
+        List<FacetValueDto> counts = new ArrayList<>();
+        values.forEach((key, bitmap) -> {
+            long count = RoaringBitmap.andCardinality(base, bitmap);
+            if (count > 0) {
+                counts.add(new FacetValueDto(label.apply(key), count));
+            }
+        });
+        counts.sort(Comparator.comparingLong(FacetValueDto::getCount).reversed()
+                .thenComparing(FacetValueDto::getValue));
+        return counts;
+    }
+
+    private List<FacetValueDto> countPriceBuckets(RoaringBitmap base) {
+        List<FacetValueDto> counts = new ArrayList<>();
+        for (PriceBucket bucket : PRICE_BUCKETS) {
+            counts.add(new FacetValueDto(bucket.key(),
+                    RoaringBitmap.andCardinality(base, data.priceBuckets.get(bucket.key()))));
+        }
+        return counts;
+    }
+
+    private List<FacetValueDto> countFlag(RoaringBitmap base, RoaringBitmap flagged) {
+        long flaggedCount = RoaringBitmap.andCardinality(base, flagged);
+        return List.of(
+                new FacetValueDto("true", flaggedCount),
+                new FacetValueDto("false", base.getLongCardinality() - flaggedCount));
+    }
+
+    // Offsets past the last match, however large, are an empty page
+    private List<Long> page(RoaringBitmap matches, long offset, int limit) {
+        List<Long> productIds = new ArrayList<>();
+        if (offset < 0 || offset >= matches.getLongCardinality()) {
+            return productIds;
+        }
+
+        PeekableIntIterator iterator = matches.getIntIterator();
+        if (offset > 0) {
+            iterator.advanceIfNeeded(matches.select((int) offset));
+        }
+        while (iterator.hasNext() && productIds.size() < limit) {
+            productIds.add((long) iterator.next());
+        }
+        return productIds;
+    }
+
+    private static int toDocId(Long productId) {
+        return Math.toIntExact(productId);
+    }
+
+    private static String priceBucketKey(BigDecimal price) {
+        for (PriceBucket bucket : PRICE_BUCKETS) {
+            if ((bucket.min() == null || price.compareTo(bucket.min()) >= 0)
+                && (bucket.max() == null || price.compareTo(bucket.max()) < 0)) {
+                return bucket.key();
+            }
+        }
+        return PRICE_BUCKETS.get(0).key();
+    }
+
+    private record PriceBucket(String key, BigDecimal min, BigDecimal max) {
+    }
+
+    private static final class FacetData {
+        private final Map<Integer, ProductFacetAttributesDto> entries = new HashMap<>();
+        private final RoaringBitmap all = new RoaringBitmap();
+        private final RoaringBitmap active = new RoaringBitmap();
+        private final RoaringBitmap inStock = new RoaringBitmap();
+        private final RoaringBitmap featured = new RoaringBitmap();
+        private final RoaringBitmap onSale = new RoaringBitmap();
+        private final Map<String, RoaringBitmap> brands = new HashMap<>();
+        private final Map<String, String> brandLabels = new HashMap<>();
+        private final Map<Long, RoaringBitmap> categories = new HashMap<>();
+        private final Map<String, RoaringBitmap> priceBuckets = new HashMap<>();
+
+        private FacetData() {
+            PRICE_BUCKETS.forEach(bucket -> priceBuckets.put(bucket.key(), new RoaringBitmap()));
+        }
+
+        private void add(ProductFacetAttributesDto product) {
+            int docId = toDocId(product.getId());
+            entries.put(docId, product);
+            all.add(docId);
+
+            if (!Boolean.FALSE.equals(product.getIsActive())) {
+                active.add(docId);
+            }
+            if (Boolean.TRUE.equals(product.getIsFeatured())) {
+                featured.add(docId);
+            }
+            if (product.getStockQuantity() != null && product.getStockQuantity() > 0) {
+                inStock.add(docId);
+            }
+            if (product.getPrice() != null) {
+                if (product.getCompareAtPrice() != null
+                    && product.getCompareAtPrice().compareTo(product.getPrice()) > 0) {
+                    onSale.add(docId);
+                }
+                priceBuckets.get(priceBucketKey(product.getPrice())).add(docId);
+            }
+            if (product.getBrand() != null && !product.getBrand().isBlank()) {
+                String brandKey = product.getBrand().trim().toLowerCase();
+                brands.computeIfAbsent(brandKey, key -> new RoaringBitmap()).add(docId);
+                brandLabels.putIfAbsent(brandKey, product.getBrand().trim());
+            }
+            if (product.getCategoryId() != null) {
+                categories.computeIfAbsent(product.getCategoryId(), key -> new RoaringBitmap())
+                        .add(docId);
+            }
+        }
+
+        private void remove(int docId) {
+            ProductFacetAttributesDto product = entries.remove(docId);
+            if (product == null) {
+                return;
+            }
+
+            all.remove(docId);
+            active.remove(docId);
+            inStock.remove(docId);
+            featured.remove(docId);
+            onSale.remove(docId);
+            priceBuckets.values().forEach(bitmap -> bitmap.remove(docId));
+
+            if (product.getBrand() != null && !product.getBrand().isBlank()) {
+                String brandKey = product.getBrand().trim().toLowerCase();
+                RoaringBitmap bitmap = brands.get(brandKey);
+                if (bitmap != null) {
+                    bitmap.remove(docId);
+                    if (bitmap.isEmpty()) {
+                        brands.remove(brandKey);
+                        brandLabels.remove(brandKey);
+                    }
+                }
+            }
+            if (product.getCategoryId() != null) {
+                RoaringBitmap bitmap = categories.get(product.getCategoryId());
+                if (bitmap != null) {
+                    bitmap.remove(docId);
+                    if (bitmap.isEmpty()) {
+                        categories.remove(product.getCategoryId());
+                    }
+                }
+            }
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class FacetSearchResult {
+        private final long totalElements;
+        private final List<Long> productIds;
+        private final Map<String, List<FacetValueDto>> facets;
+    }
+}
@@ -2,6 +2,7 @@ package com.marketnest.ecommerce.service.product;
 
 import com.marketnest.ecommerce.dto.image.ImageRequestDto;
 import com.marketnest.ecommerce.dto.image.ImageResponseDto;
+import com.marketnest.ecommerce.event.ProductChangedEvent;
 import com.marketnest.ecommerce.exception.ResourceNotFoundException;
 import com.marketnest.ecommerce.mapper.image.ImageMapper;
 import com.marketnest.ecommerce.model.ProductImage;
@@ -9,6 +10,7 @@ import com.marketnest.ecommerce.repository.ProductImageRepository;
 import com.marketnest.ecommerce.repository.ProductRepository;
 import com.marketnest.ecommerce.service.cloudinary.CloudinaryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -23,6 +25,7 @@ public class ProductImageService {
     private final ProductImageRepository productImageRepository;
     private final ImageMapper imageMapper;
     private final CloudinaryService cloudinaryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ImageResponseDto uploadProductImage(Long productId, ImageRequestDto request) {
@@ -41,6 +44,7 @@ public class ProductImageService {
         image.setMimeType(file.getContentType());
 
         ProductImage savedImage = productImageRepository.save(image);
+        publishImagesChanged(productId);
         return imageMapper.toResponse(savedImage);
     }
 
@@ -68,6 +72,7 @@ public class ProductImageService {
         }
 
         productImageRepository.delete(image);
+        publishImagesChanged(productId);
     }
 
     @Transactional(readOnly = true)
@@ -85,4 +90,9 @@ public class ProductImageService {
 
         return imageMapper.toResponseList(images);
     }
+
+    private void publishImagesChanged(Long productId) {
+        eventPublisher.publishEvent(
+                new ProductChangedEvent(productId, ProductChangedEvent.Type.IMAGES_CHANGED));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,305 @@
+package com.marketnest.ecommerce.service.product;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketnest.ecommerce.dto.product.ProductImportErrorDto;
+import com.marketnest.ecommerce.dto.product.ProductImportResultDto;
+import com.marketnest.ecommerce.dto.product.ProductImportRowDto;
+import com.marketnest.ecommerce.event.ProductChangedEvent;
+import com.marketnest.ecommerce.mapper.product.ProductMapper;
+import com.marketnest.ecommerce.model.Product;
+import com.marketnest.ecommerce.repository.CategoryRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ProductImportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO products (sku, name, slug, description, price, compare_at_price, " +
+            "stock_quantity, low_stock_threshold, category_id, brand, weight, dimensions, " +
+            "meta_title, meta_description, meta_keywords, is_active, is_featured, is_taxable, " +
+            "created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, now(), now()) " +
+            "ON CONFLICT (sku) DO UPDATE SET name = EXCLUDED.name, slug = EXCLUDED.slug, " +
+            "description = EXCLUDED.description, price = EXCLUDED.price, " +
+            "compare_at_price = EXCLUDED.compare_at_price, " +
+            "stock_quantity = EXCLUDED.stock_quantity, " +
+            "low_stock_threshold = EXCLUDED.low_stock_threshold, " +
+            "category_id = EXCLUDED.category_id, brand = EXCLUDED.brand, " +
+            "weight = EXCLUDED.weight, dimensions = EXCLUDED.dimensions, " +
+            "meta_title = EXCLUDED.meta_title, meta_description = EXCLUDED.meta_description, " +
+            "meta_keywords = EXCLUDED.meta_keywords, is_active = EXCLUDED.is_active, " +
+            "is_featured = EXCLUDED.is_featured, is_taxable = EXCLUDED.is_taxable, " +
+            "updated_at = now()";
+
+    private static final int[] UPSERT_TYPES = {
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.NUMERIC,
+            Types.NUMERIC, Types.INTEGER, Types.INTEGER, Types.BIGINT, Types.VARCHAR,
+            Types.NUMERIC, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.BOOLEAN, Types.BOOLEAN, Types.BOOLEAN
+    };
+
+    private static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setIgnoreEmptyLines(true)
+            .setTrim(true)
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ProductMapper productMapper;
+    private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public ProductImportService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                ProductMapper productMapper,
+                                CategoryRepository categoryRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${product.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.productMapper = productMapper;
+        this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    public ProductImportResultDto importProducts(InputStream input, Format format) {
+        ImportRun run = new ImportRun(new HashSet<>(categoryRepository.findAllIds()));
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            if (format == Format.CSV) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            run.reject(null, "Import stopped, unreadable input: " + e.getMessage());
+        }
+        run.flush();
+
+        if (run.importedRows > 0) {
+            eventPublisher.publishEvent(
+                    new ProductChangedEvent(null, ProductChangedEvent.Type.BULK_IMPORTED));
+        }
+        log.info("Product import finished: {} rows read, {} imported, {} failed",
+                run.totalRows, run.importedRows, run.failedRows);
+
+        return ProductImportResultDto.builder()
+                .totalRows(run.totalRows)
+                .importedRows(run.importedRows)
+                .failedRows(run.failedRows)
+                .errors(run.errors)
+                .errorsTruncated(run.failedRows > run.errors.size())
+                .build();
+    }
+
+    private void readCsv(Reader reader, ImportRun run) throws IOException {
+        try (CSVParser parser = CSV_FORMAT.parse(reader)) {
+            List<String> headers = parser.getHeaderNames();
+            for (CSVRecord record : parser) {
+                Map<String, String> values = new HashMap<>();
+                for (String header : headers) {
+                    String value = record.isSet(header) ? record.get(header) : null;
+                    if (value != null && !value.isEmpty()) {
+                        values.put(header, value);
+                    }
+                }
+
+                ProductImportRowDto row;
+                try {
+                    row = objectMapper.convertValue(values, ProductImportRowDto.class);
+                } catch (IllegalArgumentException e) {
+                    run.reject(values.get("sku"), describe(e.getCause()));
+                    continue;
+                }
+                run.accept(row);
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+
+            ProductImportRowDto row;
+            try {
+                row = objectMapper.readValue(line, ProductImportRowDto.class);
+            } catch (JsonProcessingException e) {
+                run.reject(null, describe(e));
+                continue;
+            }
+            if (row == null) {
+                run.reject(null, "Malformed row");
+                continue;
+            }
+            run.accept(row);
+        }
+    }
+
+    private static String describe(Throwable error) {
+        if (error instanceof JsonMappingException mappingError
+            && !mappingError.getPath().isEmpty()) {
+            String field = mappingError.getPath().get(mappingError.getPath().size() - 1)
+                    .getFieldName();
+            return "Invalid value for " + field;
+        }
+        return "Malformed row";
+    }
+
+    private static String slugFor(ProductImportRowDto row) {
+        if (row.getSlug() != null && !row.getSlug().isBlank()) {
+            return row.getSlug();
+        }
+
+        String base = row.getName().toLowerCase()
+                .replaceAll("[^a-z0-9\\s-]", "")
+                .trim()
+                .replaceAll("[\\s-]+", "-");
+        String sku = row.getSku().trim().toLowerCase()
+                .replaceAll("[^a-z0-9]+", "-");
+        return base.isEmpty() ? sku : base + "-" + sku;
+    }
+
+    private record PendingRow(long rowNumber, String sku, Object[] args) {
+    }
+
+    private final class ImportRun {
+        private final Set<Long> categoryIds;
+        private final Map<String, PendingRow> pending = new LinkedHashMap<>();
+        private final List<ProductImportErrorDto> errors = new ArrayList<>();
+        private long totalRows;
+        private long importedRows;
+        private long failedRows;
+
+        private ImportRun(Set<Long> categoryIds) {
+            this.categoryIds = categoryIds;
+        }
+
+        private void accept(ProductImportRowDto row) {
+            long rowNumber = ++totalRows;
+
+            String error = validate(row);
+            if (error != null) {
+                fail(rowNumber, row.getSku(), error);
+                return;
+            }
+
+            String sku = row.getSku().trim();
+            if (pending.put(sku, new PendingRow(rowNumber, sku, toArgs(sku, row))) != null) {
+                importedRows++;
+            }
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void reject(String sku, String message) {
+            fail(++totalRows, sku, message);
+        }
+
+        private String validate(ProductImportRowDto row) {
+            Set<ConstraintViolation<ProductImportRowDto>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                return violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": "
+                                          + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+            }
+            if (!categoryIds.contains(row.getCategoryId())) {
+                return "Category not found with ID: " + row.getCategoryId();
+            }
+            return null;
+        }
+
+        private Object[] toArgs(String sku, ProductImportRowDto row) {
+            Product product = productMapper.toEntity(row);
+            return new Object[]{
+                    sku, product.getName(), slugFor(row), product.getDescription(),
+                    product.getPrice(), product.getCompareAtPrice(), product.getStockQuantity(),
+                    product.getLowStockThreshold(), product.getCategoryId(), product.getBrand(),
+                    product.getWeight(), product.getDimensions(), product.getMetaTitle(),
+                    product.getMetaDescription(), product.getMetaKeywords(),
+                    product.getIsActive(), product.getIsFeatured(), product.getIsTaxable()
+            };
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            List<PendingRow> rows = new ArrayList<>(pending.values());
+            pending.clear();
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                        UPSERT_SQL, rows.stream().map(PendingRow::args).toList(), UPSERT_TYPES));
+                importedRows += rows.size();
+            } catch (DataAccessException e) {
+                log.debug("Product import batch failed, retrying rows one by one", e);
+                rows.forEach(this::upsertSingle);
+            }
+        }
+
+        private void upsertSingle(PendingRow row) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.update(UPSERT_SQL, row.args(), UPSERT_TYPES));
+                importedRows++;
+            } catch (DataAccessException e) {
+                String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                fail(row.rowNumber(), row.sku(), message == null ? "Database error"
+                        : message.lines().findFirst().orElse(message));
+            }
+        }
+
+        private void fail(long rowNumber, String sku, String message) {
+            failedRows++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ProductImportErrorDto(rowNumber, sku, message));
+            }
+        }
+    }
+}
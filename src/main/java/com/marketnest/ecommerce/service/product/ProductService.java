@@ -1,46 +1,70 @@
 package com.marketnest.ecommerce.service.product;
 
+import com.marketnest.ecommerce.dto.pagination.CursorPageResponse;
+import com.marketnest.ecommerce.dto.product.ProductFacetResponseDto;
 import com.marketnest.ecommerce.dto.product.ProductRequestDto;
 import com.marketnest.ecommerce.dto.product.ProductResponseDto;
+import com.marketnest.ecommerce.dto.product.ProductSuggestionDto;
+import com.marketnest.ecommerce.dto.product.ProductSummaryDto;
+import com.marketnest.ecommerce.event.ProductChangedEvent;
 import com.marketnest.ecommerce.exception.ResourceNotFoundException;
 import com.marketnest.ecommerce.mapper.product.ProductMapper;
+import com.marketnest.ecommerce.model.Category;
 import com.marketnest.ecommerce.model.Product;
 import com.marketnest.ecommerce.repository.CategoryRepository;
 import com.marketnest.ecommerce.repository.ProductRepository;
+import com.marketnest.ecommerce.repository.ProductSpecifications;
+import com.marketnest.ecommerce.util.CursorUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
+    private static final Set<String> CURSOR_SORT_PROPERTIES =
+            Set.of("id", "name", "price", "createdAt");
 
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
     private final CategoryRepository categoryRepository;
+    private final ProductFacetIndex productFacetIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductCoPurchaseIndex productCoPurchaseIndex;
+    private final ProductDetailCache productDetailCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ProductResponseDto createProduct(ProductRequestDto request) {
         Product product = productMapper.toEntity(request);
 
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(
+                new ProductChangedEvent(savedProduct.getId(), ProductChangedEvent.Type.CREATED));
         return productMapper.toResponse(savedProduct);
     }
 
     @Transactional(readOnly = true)
     public ProductResponseDto getProductById(Long productId) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "ID", productId));
+        return productDetailCache.getById(productId, id -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product", "ID", id));
 
-        return productMapper.toResponse(product);
+            return productMapper.toResponse(product);
+        });
     }
 
     @Transactional
@@ -53,6 +77,8 @@ public class ProductService {
         updatedProduct.setCreatedAt(existingProduct.getCreatedAt());
 
         Product savedProduct = productRepository.save(updatedProduct);
+        eventPublisher.publishEvent(
+                new ProductChangedEvent(savedProduct.getId(), ProductChangedEvent.Type.UPDATED));
 
         return productMapper.toResponse(savedProduct);
     }
@@ -63,6 +89,8 @@ public class ProductService {
             throw new ResourceNotFoundException("Product", "ID", productId);
         }
         productRepository.deleteById(productId);
+        eventPublisher.publishEvent(
+                new ProductChangedEvent(productId, ProductChangedEvent.Type.DELETED));
     }
 
     @Transactional
@@ -72,6 +100,8 @@ public class ProductService {
 
         product.setIsActive(isActive);
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(
+                new ProductChangedEvent(productId, ProductChangedEvent.Type.STATUS_CHANGED));
 
         return productMapper.toResponse(savedProduct);
     }
@@ -82,14 +112,8 @@ public class ProductService {
         categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", "ID", categoryId));
 
-        Page<Product> productPage;
-        if (activeOnly) {
-            productPage = productRepository.findByCategoryIdAndIsActiveTrue(categoryId, pageable);
-        } else {
-            productPage = productRepository.findByCategoryId(categoryId, pageable);
-        }
-
-        return productPage.map(productMapper::toResponse);
+        return productRepository.findSummariesByCategoryId(categoryId, activeOnly, pageable)
+                .map(productMapper::toSummaryResponse);
     }
 
     @Transactional(readOnly = true)
@@ -104,66 +128,97 @@ public class ProductService {
             Boolean inStock,
             Pageable pageable) {
 
-        Page<Product> productPage;
-
-        if (search != null && !search.isEmpty()) {
-            if (isActive != null && isActive) {
-                productPage =
-                        productRepository.findByIsActiveTrueAndNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-                                search, search, pageable);
-            } else {
-                productPage =
-                        productRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-                                search, search, pageable);
-            }
-        } else if (isActive != null && isActive) {
-            productPage = productRepository.findByIsActiveTrue(pageable);
+        Page<ProductSummaryDto> productPage;
+
+        if (search != null && !search.isBlank()) {
+            Page<Long> productIds = productRepository.searchIdsByRelevance(
+                    search.trim(), categoryId, brand, minPrice, maxPrice, isActive, isFeatured,
+                    inStock, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+            productPage = new PageImpl<>(findSummariesInOrder(productIds.getContent()),
+                    productIds.getPageable(), productIds.getTotalElements());
         } else {
-            productPage = productRepository.findAll(pageable);
+            Specification<Product> specification = ProductSpecifications.catalogFilter(
+                    categoryId, brand, minPrice, maxPrice, isActive, isFeatured, inStock);
+            productPage = productRepository.findSummaries(specification, pageable);
         }
 
+        return productPage.map(productMapper::toSummaryResponse);
+    }
 
-        List<Product> filteredContent = productPage.getContent().stream()
-                .filter(product -> categoryId == null || product.getCategoryId().equals(categoryId))
-                .filter(product -> brand == null || (product.getBrand() != null && product.getBrand()
-                        .equalsIgnoreCase(brand)))
-                .filter(product -> minPrice == null || (product.getPrice() != null && product.getPrice()
-                                                                                              .compareTo(
-                                                                                                      minPrice) >= 0))
-                .filter(product -> maxPrice == null || (product.getPrice() != null && product.getPrice()
-                                                                                              .compareTo(
-                                                                                                      maxPrice) <= 0))
-                .filter(product -> isFeatured == null || product.getIsFeatured().equals(isFeatured))
-                .filter(product -> inStock == null || product.isInStock() == inStock)
-                .collect(Collectors.toList());
-
-
-        filteredContent.forEach(product -> {
-            if (product.getCategoryId() != null) {
-                product.setCategory(
-                        categoryRepository.findById(product.getCategoryId()).orElse(null));
-            }
-        });
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProductResponseDto> getAllProductsByCursor(
+            Long categoryId,
+            String brand,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Boolean isActive,
+            Boolean isFeatured,
+            String search,
+            Boolean inStock,
+            Sort.Order sortOrder,
+            String cursor,
+            int size) {
 
+        if (search != null && !search.isBlank()) {
+            throw new IllegalArgumentException(
+                    "Cursor pagination is not supported for search queries");
+        }
+        if (!CURSOR_SORT_PROPERTIES.contains(sortOrder.getProperty())) {
+            throw new IllegalArgumentException(
+                    "Cursor pagination supports sorting by " + CURSOR_SORT_PROPERTIES);
+        }
+
+        Sort sort = "id".equals(sortOrder.getProperty())
+                ? Sort.by(sortOrder)
+                : Sort.by(sortOrder, new Sort.Order(sortOrder.getDirection(), "id"));
+        String scope = "products:" + sortOrder.getProperty() + ":" + sortOrder.getDirection();
 
-        final int start = (int) pageable.getOffset();
-        final int end = Math.min((start + pageable.getPageSize()), filteredContent.size());
+        Specification<Product> specification = ProductSpecifications.catalogFilter(
+                categoryId, brand, minPrice, maxPrice, isActive, isFeatured, inStock);
+        Window<Product> products = productRepository.findBy(specification, query -> query
+                .sortBy(sort)
+                .limit(size)
+                .scroll(CursorUtils.decode(scope, cursor)));
 
-        Page<Product> filteredPage = new PageImpl<>(
-                filteredContent.subList(start, end),
-                pageable,
-                filteredContent.size());
+        attachCategories(products.getContent());
 
-        return filteredPage.map(productMapper::toResponse);
+        return CursorUtils.toResponse(scope, products, productMapper::toResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public ProductFacetResponseDto getProductFacets(Long categoryId, String brand,
+                                                    String priceRange, Boolean inStock,
+                                                    Boolean featured, Boolean onSale,
+                                                    boolean activeOnly, int page, int size) {
+        ProductFacetIndex.FacetSearchResult result = productFacetIndex.search(
+                categoryId, brand, priceRange, inStock, featured, onSale, activeOnly,
+                (long) page * size, size);
+
+        List<ProductSummaryDto> products = findSummariesInOrder(result.getProductIds());
+
+        return ProductFacetResponseDto.builder()
+                .products(productMapper.toSummaryResponseList(products))
+                .totalElements(result.getTotalElements())
+                .totalPages((int) ((result.getTotalElements() + size - 1) / size))
+                .page(page)
+                .size(size)
+                .facets(result.getFacets())
+                .build();
+    }
+
+    public List<ProductSuggestionDto> suggestProducts(String query, int limit) {
+        return productSuggestIndex.suggest(query, limit);
     }
 
     @Transactional(readOnly = true)
     public ProductResponseDto getProductBySlug(String slug) {
-        Product product = productRepository.findBySlug(slug)
-                .orElseThrow(
-                        () -> new ResourceNotFoundException("Product", "slug", slug));
+        return productDetailCache.getBySlug(slug, () -> {
+            Product product = productRepository.findBySlug(slug)
+                    .orElseThrow(
+                            () -> new ResourceNotFoundException("Product", "slug", slug));
 
-        return productMapper.toResponse(product);
+            return productMapper.toResponse(product);
+        });
     }
 
     @Transactional(readOnly = true)
@@ -176,53 +231,64 @@ public class ProductService {
             return Page.empty(pageable);
         }
 
-        Page<Product> relatedProducts;
-        if (activeOnly) {
-            relatedProducts = productRepository.findByCategoryIdAndIsActiveTrueAndIdNot(
-                    product.getCategoryId(), product.getId(),
-                    PageRequest.of(0, limit, pageable.getSort()));
-        } else {
-            relatedProducts = productRepository.findByCategoryIdAndIdNot(
-                    product.getCategoryId(), product.getId(),
-                    PageRequest.of(0, limit, pageable.getSort()));
-        }
+        return productRepository.findRelatedSummaries(product.getCategoryId(), product.getId(),
+                        activeOnly, PageRequest.of(0, limit, pageable.getSort()))
+                .map(productMapper::toSummaryResponse);
+    }
 
-        relatedProducts.getContent().forEach(relatedProduct -> {
-            if (relatedProduct.getCategoryId() != null) {
-                relatedProduct.setCategory(
-                        categoryRepository.findById(relatedProduct.getCategoryId()).orElse(null));
-            }
-        });
+    @Transactional(readOnly = true)
+    public List<ProductResponseDto> getFrequentlyBoughtTogether(Long productId,
+                                                                boolean activeOnly, int limit) {
+        if (!productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Product", "ID", productId);
+        }
 
-        return relatedProducts.map(productMapper::toResponse);
+        return findSummariesInOrder(productCoPurchaseIndex.getNeighbours(productId)).stream()
+                .filter(product -> !activeOnly || Boolean.TRUE.equals(product.getIsActive()))
+                .limit(limit)
+                .map(productMapper::toSummaryResponse)
+                .toList();
     }
 
     @Transactional(readOnly = true)
     public Page<ProductResponseDto> getNewArrivals(boolean activeOnly, int limit,
                                                    Pageable pageable) {
-        Page<Product> newArrivals;
-
-        if (activeOnly) {
-            newArrivals = productRepository.findByIsActiveTrueOrderByCreatedAtDesc(
-                    PageRequest.of(0, limit, pageable.getSort()));
-        } else {
-            newArrivals = productRepository.findByOrderByCreatedAtDesc(
-                    PageRequest.of(0, limit, pageable.getSort()));
-        }
-
-        return newArrivals.map(productMapper::toResponse);
+        return productRepository.findNewArrivalSummaries(activeOnly,
+                        PageRequest.of(0, limit, pageable.getSort()))
+                .map(productMapper::toSummaryResponse);
     }
 
     @Transactional(readOnly = true)
     public Page<ProductResponseDto> getFeaturedProducts(boolean activeOnly, Pageable pageable) {
-        Page<Product> productPage;
+        return productRepository.findFeaturedSummaries(activeOnly, pageable)
+                .map(productMapper::toSummaryResponse);
+    }
 
-        if (activeOnly) {
-            productPage = productRepository.findByIsFeaturedTrueAndIsActiveTrue(pageable);
-        } else {
-            productPage = productRepository.findByIsFeaturedTrue(pageable);
+    private List<ProductSummaryDto> findSummariesInOrder(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, ProductSummaryDto> summaries = productRepository.findSummariesByIdIn(productIds)
+                .stream()
+                .collect(Collectors.toMap(ProductSummaryDto::getId, Function.identity()));
+        return productIds.stream()
+                .map(summaries::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private void attachCategories(Collection<Product> products) {
+        Set<Long> categoryIds = products.stream()
+                .map(Product::getCategoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (categoryIds.isEmpty()) {
+            return;
         }
 
-        return productPage.map(productMapper::toResponse);
+        Map<Long, Category> categories = categoryRepository.findAllById(categoryIds).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        products.forEach(product -> product.setCategory(categories.get(product.getCategoryId())));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,566 @@
+package com.marketnest.ecommerce.service.product;
+
+import com.marketnest.ecommerce.dto.product.ProductSalesDto;
+import com.marketnest.ecommerce.dto.product.ProductSuggestAttributesDto;
+import com.marketnest.ecommerce.dto.product.ProductSuggestionDto;
+import com.marketnest.ecommerce.model.Category;
+import com.marketnest.ecommerce.repository.CategoryRepository;
+import com.marketnest.ecommerce.repository.OrderItemRepository;
+import com.marketnest.ecommerce.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+public class ProductSuggestIndex {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final int REBUILD_BATCH_SIZE = 5000;
+    private static final int MAX_PENDING_PATCHES = 2000;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingLong(Entry::score).reversed()
+            .thenComparingInt(entry -> entry.label().length())
+            .thenComparing(Entry::label)
+            .thenComparing(Entry::type);
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final TaskExecutor taskExecutor;
+
+    private final Map<Long, Patch> patches = new ConcurrentHashMap<>();
+    private final Object brandLock = new Object();
+    private BrandCounts brandCounts = new BrandCounts();
+    private final AtomicLong patchSequence = new AtomicLong();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+    private volatile Snapshot snapshot = new Snapshot(List.of(), 0);
+
+    public ProductSuggestIndex(ProductRepository productRepository,
+                               CategoryRepository categoryRepository,
+                               OrderItemRepository orderItemRepository,
+                               @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.taskExecutor = taskExecutor;
+    }
+
+    public void rebuildAsync() {
+        rebuildRequested.set(true);
+        if (rebuildRunning.compareAndSet(false, true)) {
+            taskExecutor.execute(this::runRequestedRebuilds);
+        }
+    }
+
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        long startSequence = patchSequence.get();
+
+        Map<Long, Long> quantitiesSold = new HashMap<>();
+        for (ProductSalesDto sales : orderItemRepository.findQuantitySoldPerProduct()) {
+            quantitiesSold.put(sales.getProductId(), sales.getQuantitySold());
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        Map<String, String> brandLabels = new HashMap<>();
+        Map<String, long[]> brandScores = new HashMap<>();
+        Map<Long, long[]> categoryScores = new HashMap<>();
+        BrandCounts rebuiltBrands = new BrandCounts();
+        long lastId = 0L;
+        List<ProductSuggestAttributesDto> batch;
+
+        do {
+            batch = productRepository.findSuggestAttributesAfter(
+                    lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (ProductSuggestAttributesDto product : batch) {
+                long score = quantitiesSold.getOrDefault(product.getId(), 0L);
+                entries.add(productEntry(product, score));
+
+                String brandKey = normalize(product.getBrand());
+                if (!brandKey.isEmpty()) {
+                    rebuiltBrands.put(product.getId(), brandKey);
+                    brandLabels.putIfAbsent(brandKey, product.getBrand().trim());
+                    brandScores.computeIfAbsent(brandKey, key -> new long[1])[0] += score + 1;
+                }
+                if (product.getCategoryId() != null) {
+                    categoryScores.computeIfAbsent(product.getCategoryId(), id -> new long[1])
+                            [0] += score + 1;
+                }
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        int productCount = entries.size();
+        brandLabels.forEach((brandKey, label) -> entries.add(new Entry(
+                ProductSuggestionDto.Type.BRAND, label, brandKey, null, null, null,
+                brandScores.get(brandKey)[0])));
+        for (Category category : categoryRepository.findAll()) {
+            if (Boolean.FALSE.equals(category.getIsActive())) {
+                continue;
+            }
+            long[] score = categoryScores.get(category.getId());
+            entries.add(new Entry(ProductSuggestionDto.Type.CATEGORY, category.getName(),
+                    normalize(category.getName()), null, category.getId(), category.getSlug(),
+                    score == null ? 0L : score[0]));
+        }
+
+        Snapshot rebuilt = new Snapshot(entries, productCount);
+        boolean brandsChanged = false;
+        synchronized (brandLock) {
+            // Products patched during the scan may have been read with their old brand
+            for (Map.Entry<Long, Patch> patch : patches.entrySet()) {
+                if (patch.getValue().sequence() > startSequence) {
+                    brandsChanged |= rebuiltBrands.put(patch.getKey(),
+                            patch.getValue().brandKey());
+                }
+            }
+            brandCounts = rebuiltBrands;
+            snapshot = rebuilt;
+            patches.values().removeIf(patch -> patch.sequence() <= startSequence);
+        }
+        if (brandsChanged) {
+            rebuildAsync();
+        }
+
+        log.info("Product suggest index rebuilt with {} entries and {} keys in {} ms",
+                entries.size(), rebuilt.keys.length, System.currentTimeMillis() - startedAt);
+    }
+
+    public void refresh(Long productId) {
+        long score = snapshot.scoreOf(productId);
+        ProductSuggestAttributesDto product =
+                productRepository.findSuggestAttributesById(productId).orElse(null);
+        if (product == null) {
+            applyPatch(productId, null, "");
+        } else {
+            applyPatch(productId, productEntry(product, score), normalize(product.getBrand()));
+        }
+    }
+
+    public void remove(Long productId) {
+        applyPatch(productId, null, "");
+    }
+
+    public List<ProductSuggestionDto> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+
+        Predicate<Entry> patched = patches.isEmpty() ? null
+                : entry -> entry.type() == ProductSuggestionDto.Type.PRODUCT
+                           && patches.containsKey(entry.id());
+        List<Entry> matches = snapshot.search(prefix, limit, patched);
+
+        if (patched != null) {
+            for (Patch patch : patches.values()) {
+                if (patch.entry() != null && patch.entry().matches(prefix)) {
+                    matches.add(patch.entry());
+                }
+            }
+            matches.sort(RANKING);
+        }
+
+        return matches.stream()
+                .limit(limit)
+                .map(Entry::toSuggestion)
+                .toList();
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return SEPARATORS.matcher(COMBINING_MARKS.matcher(decomposed).replaceAll(""))
+                .replaceAll(" ")
+                .trim()
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private void runRequestedRebuilds() {
+        try {
+            while (rebuildRequested.getAndSet(false)) {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("Product suggest index rebuild failed", e);
+                }
+            }
+        } finally {
+            rebuildRunning.set(false);
+        }
+
+        if (rebuildRequested.get()) {
+            rebuildAsync();
+        }
+    }
+
+    // Brand entries are only built by a rebuild, so one is requested when a brand gains its
+    // first product or loses its last
+    private void applyPatch(Long productId, Entry entry, String brandKey) {
+        boolean brandsChanged;
+        synchronized (brandLock) {
+            patches.put(productId, new Patch(patchSequence.incrementAndGet(), entry, brandKey));
+            brandsChanged = brandCounts.put(productId, brandKey);
+        }
+        if (brandsChanged || patches.size() > MAX_PENDING_PATCHES) {
+            rebuildAsync();
+        }
+    }
+
+    private static Entry productEntry(ProductSuggestAttributesDto product, long score) {
+        return new Entry(ProductSuggestionDto.Type.PRODUCT, product.getName(),
+                normalize(product.getName()), normalize(product.getSku()), product.getId(),
+                product.getSlug(), score);
+    }
+
+    private record Patch(long sequence, Entry entry, String brandKey) {
+    }
+
+    // Brand of every suggested product and how many products carry each brand
+    private static final class BrandCounts {
+        private final Map<Long, String> brandsByProduct = new HashMap<>();
+        private final Map<String, Integer> productCounts = new HashMap<>();
+
+        // An empty key means the product has no brand or is gone; returns whether a brand
+        // key appeared or disappeared
+        private boolean put(Long productId, String brandKey) {
+            String previous = brandKey.isEmpty()
+                    ? brandsByProduct.remove(productId)
+                    : brandsByProduct.put(productId, brandKey);
+            if (brandKey.equals(previous)) {
+                return false;
+            }
+
+            boolean changed = false;
+            if (previous != null
+                && productCounts.merge(previous, -1, Integer::sum) == 0) {
+                productCounts.remove(previous);
+                changed = true;
+            }
+            if (!brandKey.isEmpty() && productCounts.merge(brandKey, 1, Integer::sum) == 1) {
+                changed = true;
+            }
+            return changed;
+        }
+    }
+
+    private record Entry(ProductSuggestionDto.Type type, String label, String text,
+                         String skuText, Long id, String slug, long score) {
+
+        private boolean matches(String prefix) {
+            if (skuText != null && skuText.startsWith(prefix)) {
+                return true;
+            }
+            int start = 0;
+            while (!text.startsWith(prefix, start)) {
+                start = text.indexOf(' ', start) + 1;
+                if (start == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private ProductSuggestionDto toSuggestion() {
+            return new ProductSuggestionDto(type, label, id, slug);
+        }
+    }
+
+    // One key per word start (plus the SKU) packed as entry << 9 | field << 8 | offset and
+    // sorted by the text after the offset, so every completion of a prefix is one contiguous
+    // range. Ranges too large to scan per request get their top entries precomputed.
+    private static final class Snapshot {
+        private static final int MAX_WORDS = 8;
+        private static final int MAX_OFFSET = 255;
+        private static final int SCAN_LIMIT = 256;
+        private static final int INSERTION_SORT_THRESHOLD = 16;
+
+        private final Entry[] entries;
+        private final int productCount;
+        private final long[] keys;
+        private final Map<String, int[]> topEntries = new HashMap<>();
+
+        private Snapshot(List<Entry> entries, int productCount) {
+            this.entries = entries.toArray(Entry[]::new);
+            this.productCount = productCount;
+            this.keys = buildKeys();
+            sortKeys(keys, new long[keys.length], 0, keys.length);
+            cacheTopEntries(0, keys.length, 0);
+        }
+
+        private List<Entry> search(String prefix, int limit, Predicate<Entry> excluded) {
+            List<Entry> result = new ArrayList<>(limit);
+            int[] cached = topEntries.get(prefix);
+            if (cached != null) {
+                for (int entry : cached) {
+                    if (excluded == null || !excluded.test(entries[entry])) {
+                        result.add(entries[entry]);
+                        if (result.size() == limit) {
+                            return result;
+                        }
+                    }
+                }
+                if (cached.length < MAX_SUGGESTIONS) {
+                    return result;
+                }
+                result.clear();
+            }
+
+            int from = lowerBound(prefix);
+            int to = upperBound(prefix, from);
+            for (int entry : selectTop(from, to, limit, excluded)) {
+                result.add(entries[entry]);
+            }
+            return result;
+        }
+
+        private long scoreOf(Long productId) {
+            int low = 0;
+            int high = productCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = entries[mid].id().compareTo(productId);
+                if (cmp == 0) {
+                    return entries[mid].score();
+                }
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return 0L;
+        }
+
+        private long[] buildKeys() {
+            long[] built = new long[entries.length * 2];
+            int size = 0;
+            for (int entry = 0; entry < entries.length; entry++) {
+                String text = entries[entry].text();
+                int words = 0;
+                for (int start = 0; start < text.length() && start <= MAX_OFFSET
+                                    && words < MAX_WORDS; words++) {
+                    if (size == built.length) {
+                        built = Arrays.copyOf(built, size * 2);
+                    }
+                    built[size++] = key(entry, 0, start);
+                    int space = text.indexOf(' ', start);
+                    if (space < 0) {
+                        break;
+                    }
+                    start = space + 1;
+                }
+
+                String skuText = entries[entry].skuText();
+                if (skuText != null && !skuText.isEmpty() && !skuText.equals(text)) {
+                    if (size == built.length) {
+                        built = Arrays.copyOf(built, size * 2 + 1);
+                    }
+                    built[size++] = key(entry, 1, 0);
+                }
+            }
+            return Arrays.copyOf(built, size);
+        }
+
+        private void cacheTopEntries(int from, int to, int depth) {
+            int start = from;
+            while (start < to) {
+                if (suffixLength(keys[start]) <= depth) {
+                    start++;
+                    continue;
+                }
+
+                char c = charAt(keys[start], depth);
+                int end = start + 1;
+                while (end < to && charAt(keys[end], depth) == c) {
+                    end++;
+                }
+                if (end - start > SCAN_LIMIT) {
+                    long key = keys[start];
+                    topEntries.put(textOf(key).substring(offsetOf(key), offsetOf(key) + depth + 1),
+                            selectTop(start, end, MAX_SUGGESTIONS, null));
+                    cacheTopEntries(start, end, depth + 1);
+                }
+                start = end;
+            }
+        }
+
+        private int[] selectTop(int from, int to, int limit, Predicate<Entry> excluded) {
+            int[] top = new int[limit];
+            int size = 0;
+            for (int i = from; i < to; i++) {
+                int entry = entryOf(keys[i]);
+                if (size == limit && !ranksBefore(entry, top[size - 1])) {
+                    continue;
+                }
+                if (excluded != null && excluded.test(entries[entry])) {
+                    continue;
+                }
+                if (contains(top, size, entry)) {
+                    continue;
+                }
+
+                int position = size < limit ? size++ : limit - 1;
+                while (position > 0 && ranksBefore(entry, top[position - 1])) {
+                    top[position] = top[position - 1];
+                    position--;
+                }
+                top[position] = entry;
+            }
+            return Arrays.copyOf(top, size);
+        }
+
+        private boolean ranksBefore(int left, int right) {
+            int cmp = RANKING.compare(entries[left], entries[right]);
+            return cmp < 0 || cmp == 0 && left < right;
+        }
+
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (comparePrefix(keys[mid], prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int upperBound(String prefix, int from) {
+            int low = from;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (comparePrefix(keys[mid], prefix) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int comparePrefix(long key, String prefix) {
+            String text = textOf(key);
+            int offset = offsetOf(key);
+            int length = Math.min(text.length() - offset, prefix.length());
+            for (int i = 0; i < length; i++) {
+                int diff = text.charAt(offset + i) - prefix.charAt(i);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return text.length() - offset >= prefix.length() ? 0 : -1;
+        }
+
+        private int compareKeys(long left, long right) {
+            String leftText = textOf(left);
+            String rightText = textOf(right);
+            int leftOffset = offsetOf(left);
+            int rightOffset = offsetOf(right);
+            int leftLength = leftText.length() - leftOffset;
+            int rightLength = rightText.length() - rightOffset;
+            int length = Math.min(leftLength, rightLength);
+            for (int i = 0; i < length; i++) {
+                int diff = leftText.charAt(leftOffset + i) - rightText.charAt(rightOffset + i);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return leftLength != rightLength ? leftLength - rightLength
+                    : Long.compare(left, right);
+        }
+
+        private void sortKeys(long[] values, long[] buffer, int from, int to) {
+            if (to - from <= INSERTION_SORT_THRESHOLD) {
+                for (int i = from + 1; i < to; i++) {
+                    long value = values[i];
+                    int j = i - 1;
+                    while (j >= from && compareKeys(values[j], value) > 0) {
+                        values[j + 1] = values[j];
+                        j--;
+                    }
+                    values[j + 1] = value;
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            sortKeys(values, buffer, from, middle);
+            sortKeys(values, buffer, middle, to);
+            if (compareKeys(values[middle - 1], values[middle]) <= 0) {
+                return;
+            }
+
+            System.arraycopy(values, from, buffer, from, to - from);
+            int left = from;
+            int right = middle;
+            for (int i = from; i < to; i++) {
+                if (right >= to || left < middle && compareKeys(buffer[left], buffer[right]) <= 0) {
+                    values[i] = buffer[left++];
+                } else {
+                    values[i] = buffer[right++];
+                }
+            }
+        }
+
+        private char charAt(long key, int depth) {
+            return textOf(key).charAt(offsetOf(key) + depth);
+        }
+
+        private int suffixLength(long key) {
+            return textOf(key).length() - offsetOf(key);
+        }
+
+        private String textOf(long key) {
+            Entry entry = entries[entryOf(key)];
+            return (key & 0x100) == 0 ? entry.text() : entry.skuText();
+        }
+
+        private static long key(int entry, int field, int offset) {
+            return (long) entry << 9 | (long) field << 8 | offset;
+        }
+
+        private static int entryOf(long key) {
+            return (int) (key >>> 9);
+        }
+
+        private static int offsetOf(long key) {
+            return (int) (key & 0xFF);
+        }
+
+        private static boolean contains(int[] values, int size, int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
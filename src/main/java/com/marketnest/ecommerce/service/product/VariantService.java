@@ -1,17 +1,22 @@
 package com.marketnest.ecommerce.service.product;
 
+import com.marketnest.ecommerce.dto.variant.FlashSaleStatusDto;
 import com.marketnest.ecommerce.dto.variant.VariantRequestDto;
 import com.marketnest.ecommerce.dto.variant.VariantResponseDto;
+import com.marketnest.ecommerce.event.ProductChangedEvent;
 import com.marketnest.ecommerce.exception.ResourceNotFoundException;
 import com.marketnest.ecommerce.mapper.Variant.VariantMapper;
 import com.marketnest.ecommerce.model.ProductVariant;
 import com.marketnest.ecommerce.repository.ProductRepository;
 import com.marketnest.ecommerce.repository.VariantRepository;
+import com.marketnest.ecommerce.service.inventory.FlashSaleStockService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +25,8 @@ public class VariantService {
     private final VariantRepository variantRepository;
     private final ProductRepository productRepository;
     private final VariantMapper variantMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FlashSaleStockService flashSaleStockService;
 
     @Transactional(readOnly = true)
     public List<VariantResponseDto> getVariantsByProductId(Long productId) {
@@ -46,6 +53,7 @@ public class VariantService {
         variant.setProductId(productId);
 
         ProductVariant savedVariant = variantRepository.save(variant);
+        publishVariantsChanged(productId);
         return variantMapper.toResponse(savedVariant);
     }
 
@@ -55,19 +63,46 @@ public class VariantService {
                 .orElseThrow(() -> new ResourceNotFoundException("Variant", "ID", variantId));
 
         ProductVariant updatedVariant = variantMapper.toEntity(request);
+        if (Boolean.TRUE.equals(existingVariant.getFlashSale()) &&
+            !Objects.equals(updatedVariant.getStockQuantity(),
+                    existingVariant.getStockQuantity())) {
+            throw new IllegalArgumentException(
+                    "Stock cannot be changed while the variant is in a flash sale");
+        }
         updatedVariant.setId(existingVariant.getId());
         updatedVariant.setProductId(existingVariant.getProductId());
         updatedVariant.setCreatedAt(existingVariant.getCreatedAt());
+        updatedVariant.setFlashSale(existingVariant.getFlashSale());
 
         ProductVariant savedVariant = variantRepository.save(updatedVariant);
+        publishVariantsChanged(savedVariant.getProductId());
         return variantMapper.toResponse(savedVariant);
     }
 
+    public FlashSaleStatusDto enableFlashSale(Long variantId) {
+        FlashSaleStatusDto status = flashSaleStockService.enable(variantId);
+        variantRepository.findById(variantId)
+                .ifPresent(variant -> publishVariantsChanged(variant.getProductId()));
+        return status;
+    }
+
+    public FlashSaleStatusDto disableFlashSale(Long variantId) {
+        FlashSaleStatusDto status = flashSaleStockService.disable(variantId);
+        variantRepository.findById(variantId)
+                .ifPresent(variant -> publishVariantsChanged(variant.getProductId()));
+        return status;
+    }
+
     @Transactional
     public void deleteVariant(Long variantId) {
-        if (!variantRepository.existsById(variantId)) {
-            throw new ResourceNotFoundException("Variant", "ID", variantId);
-        }
+        ProductVariant variant = variantRepository.findById(variantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Variant", "ID", variantId));
         variantRepository.deleteById(variantId);
+        publishVariantsChanged(variant.getProductId());
+    }
+
+    private void publishVariantsChanged(Long productId) {
+        eventPublisher.publishEvent(
+                new ProductChangedEvent(productId, ProductChangedEvent.Type.VARIANTS_CHANGED));
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.marketnest.ecommerce.service.review;
 
+import com.marketnest.ecommerce.dto.pagination.CursorPageResponse;
 import com.marketnest.ecommerce.dto.review.CreateReviewRequest;
 import com.marketnest.ecommerce.dto.review.ReviewResponse;
 import com.marketnest.ecommerce.dto.review.UpdateReviewRequest;
@@ -12,6 +13,9 @@ public interface ReviewService {
 
     Page<ReviewResponse> getProductReviews(Long productId, Pageable pageable);
 
+    CursorPageResponse<ReviewResponse> getProductReviewsByCursor(Long productId, String cursor,
+                                                                 int size);
+
     ReviewResponse getReviewById(Long reviewId);
 
     ReviewResponse createReview(Long productId, Long userId, CreateReviewRequest request);
@@ -1,5 +1,6 @@
 package com.marketnest.ecommerce.service.review;
 
+import com.marketnest.ecommerce.dto.pagination.CursorPageResponse;
 import com.marketnest.ecommerce.dto.review.CreateReviewRequest;
 import com.marketnest.ecommerce.dto.review.ReviewResponse;
 import com.marketnest.ecommerce.dto.review.UpdateReviewRequest;
@@ -15,9 +16,12 @@ import com.marketnest.ecommerce.repository.OrderRepository;
 import com.marketnest.ecommerce.repository.ProductRepository;
 import com.marketnest.ecommerce.repository.ReviewRepository;
 import com.marketnest.ecommerce.repository.UserRepository;
+import com.marketnest.ecommerce.util.CursorUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,6 +31,7 @@ import java.util.List;
 @RequiredArgsConstructor
 @Transactional
 public class ReviewServiceImpl implements ReviewService {
+    private static final String REVIEWS_CURSOR_SCOPE = "reviews";
 
     private final ReviewRepository reviewRepository;
     private final ProductRepository productRepository;
@@ -45,6 +50,21 @@ public class ReviewServiceImpl implements ReviewService {
                 .map(reviewMapper::toResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ReviewResponse> getProductReviewsByCursor(Long productId,
+                                                                        String cursor, int size) {
+        if (!productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Product", "id", productId);
+        }
+
+        Window<Review> reviews =
+                reviewRepository.findByProductIdAndIsApprovedTrueOrderByCreatedAtDescIdDesc(
+                        productId, CursorUtils.decode(REVIEWS_CURSOR_SCOPE, cursor),
+                        Limit.of(size));
+        return CursorUtils.toResponse(REVIEWS_CURSOR_SCOPE, reviews, reviewMapper::toResponse);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ReviewResponse getReviewById(Long reviewId) {
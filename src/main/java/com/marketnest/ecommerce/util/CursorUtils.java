@@ -0,0 +1,103 @@
+package com.marketnest.ecommerce.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.marketnest.ecommerce.dto.pagination.CursorPageResponse;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+public class CursorUtils {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private CursorUtils() {
+    }
+
+    public static ScrollPosition decode(String scope, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        try {
+            JsonNode root = OBJECT_MAPPER.readTree(Base64.getUrlDecoder().decode(cursor));
+            if (!scope.equals(root.path("s").asText())) {
+                throw new IllegalArgumentException("Cursor does not belong to this listing");
+            }
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (JsonNode key : root.path("k")) {
+                keys.put(key.get(0).asText(), readValue(key.get(1).asText(), key.get(2).asText()));
+            }
+            if (keys.isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public static String encode(String scope, KeysetScrollPosition position) {
+        ObjectNode root = OBJECT_MAPPER.createObjectNode();
+        root.put("s", scope);
+        ArrayNode keys = root.putArray("k");
+        position.getKeys().forEach((property, value) -> keys.addArray()
+                .add(property)
+                .add(typeOf(value))
+                .add(value.toString()));
+
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(OBJECT_MAPPER.writeValueAsBytes(root));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    public static <T, R> CursorPageResponse<R> toResponse(String scope, Window<T> window,
+                                                          Function<T, R> mapper) {
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = encode(scope,
+                    (KeysetScrollPosition) window.positionAt(window.size() - 1));
+        }
+
+        return new CursorPageResponse<>(window.map(mapper).getContent(), window.size(),
+                window.hasNext(), nextCursor);
+    }
+
+    private static String typeOf(Object value) {
+        if (value instanceof Long) return "L";
+        if (value instanceof Integer) return "I";
+        if (value instanceof BigDecimal) return "D";
+        if (value instanceof LocalDateTime) return "T";
+        if (value instanceof Boolean) return "B";
+        if (value instanceof String) return "S";
+        throw new IllegalStateException(
+                "Unsupported cursor key type: " + value.getClass().getSimpleName());
+    }
+
+    private static Object readValue(String type, String value) {
+        return switch (type) {
+            case "L" -> Long.valueOf(value);
+            case "I" -> Integer.valueOf(value);
+            case "D" -> new BigDecimal(value);
+            case "T" -> LocalDateTime.parse(value);
+            case "B" -> Boolean.valueOf(value);
+            case "S" -> value;
+            default -> throw new IllegalArgumentException("Invalid cursor");
+        };
+    }
+}
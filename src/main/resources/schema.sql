@@ -0,0 +1,195 @@
+-- Full-text product search: weighted tsvector (name > brand > meta_keywords > description)
+-- maintained by a trigger, plus trigram matching on names for typo tolerance.
+-- A trigger (without a column list) is used instead of a generated column so Hibernate
+-- schema updates can still alter the source columns.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION products_search_vector_refresh() RETURNS trigger AS '
+BEGIN
+    IF TG_OP = ''UPDATE''
+            AND NEW.name IS NOT DISTINCT FROM OLD.name
+            AND NEW.brand IS NOT DISTINCT FROM OLD.brand
+            AND NEW.meta_keywords IS NOT DISTINCT FROM OLD.meta_keywords
+            AND NEW.description IS NOT DISTINCT FROM OLD.description
+            AND OLD.search_vector IS NOT NULL THEN
+        RETURN NEW;
+    END IF;
+    NEW.search_vector :=
+            setweight(to_tsvector(''english'', coalesce(NEW.name, '''')), ''A'') ||
+            setweight(to_tsvector(''english'', coalesce(NEW.brand, '''')), ''B'') ||
+            setweight(to_tsvector(''english'', coalesce(NEW.meta_keywords, '''')), ''C'') ||
+            setweight(to_tsvector(''english'', coalesce(NEW.description, '''')), ''D'');
+    RETURN NEW;
+END
+' LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER trg_products_search_vector
+    BEFORE INSERT OR UPDATE ON products
+    FOR EACH ROW EXECUTE FUNCTION products_search_vector_refresh();
+
+UPDATE products SET name = name WHERE search_vector IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_products_search_vector ON products USING GIN (search_vector);
+
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING GIN (name gin_trgm_ops);
+
+-- Top co-purchased products per product ("frequently bought together"), written by
+-- ProductCoPurchaseIndex and loaded back into memory on startup.
+CREATE TABLE IF NOT EXISTS product_co_purchases (
+    product_id         BIGINT  NOT NULL,
+    related_product_id BIGINT  NOT NULL,
+    purchase_count     INTEGER NOT NULL,
+    PRIMARY KEY (product_id, related_product_id)
+);
+
+-- Stock held for orders (InventoryReservation). Flash-sale sales are recorded with
+-- stock_applied = false until FlashSaleStockService writes them back to the stock columns.
+CREATE TABLE IF NOT EXISTS inventory_reservations (
+    id            BIGSERIAL PRIMARY KEY,
+    order_id      BIGINT      NOT NULL,
+    product_id    BIGINT      NOT NULL,
+    variant_id    BIGINT      NOT NULL,
+    quantity      INTEGER     NOT NULL,
+    status        VARCHAR(20) NOT NULL,
+    stock_applied BOOLEAN     NOT NULL DEFAULT TRUE,
+    expires_at    TIMESTAMP   NOT NULL,
+    created_at    TIMESTAMP,
+    updated_at    TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_inventory_reservations_order ON inventory_reservations (order_id);
+
+CREATE INDEX IF NOT EXISTS idx_inventory_reservations_status_expires
+    ON inventory_reservations (status, expires_at);
+
+CREATE INDEX IF NOT EXISTS idx_inventory_reservations_unapplied
+    ON inventory_reservations (variant_id) WHERE NOT stock_applied;
+
+ALTER TABLE product_variants ADD COLUMN IF NOT EXISTS flash_sale BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Flash-sale stock claimed by nodes into their counters (FlashSaleStockService). A share holds
+-- the units in the node's counter plus its sales not written back yet; flash_sale_allocated on the
+-- variant is the sum of its shares. Shares not renewed for a lease go back to the pool.
+ALTER TABLE product_variants
+    ADD COLUMN IF NOT EXISTS flash_sale_allocated INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE inventory_reservations ADD COLUMN IF NOT EXISTS node_id VARCHAR(64);
+
+CREATE TABLE IF NOT EXISTS flash_sale_allocations (
+    variant_id BIGINT      NOT NULL,
+    node_id    VARCHAR(64) NOT NULL,
+    quantity   INTEGER     NOT NULL,
+    renewed_at TIMESTAMP   NOT NULL,
+    PRIMARY KEY (variant_id, node_id)
+);
+
+-- Pooled id sequences (allocation size 50 in the entities) for the rows written when an order is
+-- placed, so Hibernate can batch their inserts; IDENTITY ids cost one round trip per row.
+-- setval only ever moves a sequence forward, past ids already taken by the column default.
+CREATE SEQUENCE IF NOT EXISTS order_items_seq INCREMENT BY 50;
+
+SELECT setval('order_items_seq', GREATEST((SELECT last_value FROM order_items_seq),
+                                          (SELECT COALESCE(MAX(id), 0) FROM order_items), 1));
+
+CREATE SEQUENCE IF NOT EXISTS order_status_history_seq INCREMENT BY 50;
+
+SELECT setval('order_status_history_seq',
+              GREATEST((SELECT last_value FROM order_status_history_seq),
+                       (SELECT COALESCE(MAX(id), 0) FROM order_status_history), 1));
+
+CREATE SEQUENCE IF NOT EXISTS inventory_reservations_seq INCREMENT BY 50;
+
+SELECT setval('inventory_reservations_seq',
+              GREATEST((SELECT last_value FROM inventory_reservations_seq),
+                       (SELECT COALESCE(MAX(id), 0) FROM inventory_reservations), 1));
+
+-- Responses recorded for Idempotency-Key retries (IdempotencyStore). key_hash covers the caller,
+-- the endpoint and the key; fingerprint is the hash of the request body it was first used with.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    key_hash        CHAR(64)     PRIMARY KEY,
+    fingerprint     CHAR(64)     NOT NULL,
+    status          VARCHAR(20)  NOT NULL,
+    response_status INTEGER,
+    content_type    VARCHAR(255),
+    response_body   BYTEA,
+    locked_until    TIMESTAMP    NOT NULL,
+    expires_at      TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires ON idempotency_keys (expires_at);
+
+-- Orders accepted for asynchronous checkout (OrderCheckoutPipeline). A ticket stays QUEUED until
+-- the checkout transaction that placed its order marks it COMPLETED; locked_until is the lease of
+-- the node that has it queued, after which any node may pick it up.
+CREATE TABLE IF NOT EXISTS checkout_tickets (
+    id           VARCHAR(36)  PRIMARY KEY,
+    email        VARCHAR(255) NOT NULL,
+    request      TEXT         NOT NULL,
+    stage        VARCHAR(20)  NOT NULL,
+    order_id     BIGINT,
+    response     TEXT,
+    error        VARCHAR(500),
+    locked_until TIMESTAMP,
+    created_at   TIMESTAMP    NOT NULL,
+    expires_at   TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_checkout_tickets_queued
+    ON checkout_tickets (created_at) WHERE stage = 'QUEUED';
+
+CREATE INDEX IF NOT EXISTS idx_checkout_tickets_expires ON checkout_tickets (expires_at);
+
+-- Carts of shoppers who are not logged in (GuestCartStore), identified by a token the client
+-- keeps. On login the items are merged into the user's cart and the guest cart becomes MERGED.
+CREATE TABLE IF NOT EXISTS guest_carts (
+    token          VARCHAR(64) PRIMARY KEY,
+    status         VARCHAR(20) NOT NULL,
+    merged_cart_id BIGINT,
+    created_at     TIMESTAMP   NOT NULL,
+    updated_at     TIMESTAMP   NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS guest_cart_items (
+    token      VARCHAR(64)    NOT NULL REFERENCES guest_carts (token) ON DELETE CASCADE,
+    product_id BIGINT         NOT NULL,
+    quantity   INTEGER        NOT NULL,
+    price      NUMERIC(10, 2) NOT NULL,
+    created_at TIMESTAMP      NOT NULL,
+    updated_at TIMESTAMP      NOT NULL,
+    PRIMARY KEY (token, product_id)
+);
+
+-- One line per product and cart; the guest cart merge upserts against it. Carts written before
+-- the index may hold a product twice, so those lines are folded into the oldest one first.
+UPDATE cart_item SET quantity = duplicates.quantity
+FROM (SELECT MIN(id) AS id, SUM(quantity) AS quantity
+      FROM cart_item
+      GROUP BY cart_id, product_id
+      HAVING COUNT(*) > 1) duplicates
+WHERE cart_item.id = duplicates.id;
+
+DELETE FROM cart_item USING cart_item kept
+WHERE kept.cart_id = cart_item.cart_id
+  AND kept.product_id = cart_item.product_id
+  AND kept.id < cart_item.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_cart_item_cart_product ON cart_item (cart_id, product_id);
+
+-- Partial indexes for carts: the ACTIVE cart is looked up by user on every cart request, and
+-- CartSweeper finds idle ACTIVE carts and old closed carts by age
+CREATE INDEX IF NOT EXISTS idx_cart_active_user ON cart (user_id) WHERE status = 'ACTIVE';
+
+CREATE INDEX IF NOT EXISTS idx_cart_active_updated ON cart (updated_at) WHERE status = 'ACTIVE';
+
+CREATE INDEX IF NOT EXISTS idx_cart_closed_updated ON cart (updated_at) WHERE status <> 'ACTIVE';
+
+CREATE INDEX IF NOT EXISTS idx_guest_carts_updated ON guest_carts (updated_at);
+
+-- Line count kept on the cart row (CartStore writes it with total_price); carts written before
+-- the column existed are counted once
+ALTER TABLE cart ADD COLUMN IF NOT EXISTS item_count INTEGER;
+
+UPDATE cart SET item_count = (SELECT COUNT(*) FROM cart_item WHERE cart_item.cart_id = cart.id)
+WHERE item_count IS NULL;
@@ -1,12 +1,17 @@
 package com.marketnest.ecommerce.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketnest.ecommerce.dto.cart.CartCheckoutRequest;
 import com.marketnest.ecommerce.dto.cart.CartItemRequest;
 import com.marketnest.ecommerce.dto.cart.CartResponse;
+import com.marketnest.ecommerce.dto.cart.CartSummaryResponse;
 import com.marketnest.ecommerce.dto.cart.UpdateCartItemRequest;
+import com.marketnest.ecommerce.dto.order.OrderResponseDto;
+import com.marketnest.ecommerce.exception.CartChangedException;
 import com.marketnest.ecommerce.exception.ResourceNotFoundException;
 import com.marketnest.ecommerce.model.User;
 import com.marketnest.ecommerce.repository.UserRepository;
+import com.marketnest.ecommerce.service.cart.CartCheckoutService;
 import com.marketnest.ecommerce.service.cart.CartService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,6 +31,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -41,6 +48,9 @@ class CartControllerTest {
     @MockBean
     private CartService cartService;
 
+    @MockBean
+    private CartCheckoutService cartCheckoutService;
+
     @MockBean
     private UserRepository userRepository;
 
@@ -243,4 +253,70 @@ class CartControllerTest {
 
         verify(cartService).getCartItemsCount(1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void getCartSummary_shouldReturnSummaryWithETag() throws Exception {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(cartService.getCartSummary(1L))
+                .thenReturn(new CartSummaryResponse(3, new BigDecimal("59.97")));
+
+        mockMvc.perform(get("/api/cart/summary"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3-59.97\""))
+                .andExpect(jsonPath("$.totalItems", is(3)))
+                .andExpect(jsonPath("$.totalPrice", is(59.97)));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void getCartSummary_shouldReturnNotModified_whenETagMatches() throws Exception {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(cartService.getCartSummary(1L))
+                .thenReturn(new CartSummaryResponse(3, new BigDecimal("59.97")));
+
+        mockMvc.perform(get("/api/cart/summary")
+                        .header("If-None-Match", "\"3-59.97\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void checkout_shouldReturnCreatedOrder() throws Exception {
+        CartCheckoutRequest request = new CartCheckoutRequest();
+        request.setShippingAddressId(5L);
+
+        OrderResponseDto orderResponse = new OrderResponseDto();
+        orderResponse.setId(42L);
+
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(cartCheckoutService.checkout(eq(1L), eq("test@example.com"),
+                any(CartCheckoutRequest.class))).thenReturn(orderResponse);
+
+        mockMvc.perform(post("/api/cart/checkout")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(42)));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void checkout_shouldReturn409_whenPricesChanged() throws Exception {
+        CartCheckoutRequest request = new CartCheckoutRequest();
+        request.setShippingAddressId(5L);
+
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(cartCheckoutService.checkout(eq(1L), eq("test@example.com"),
+                any(CartCheckoutRequest.class)))
+                .thenThrow(new CartChangedException("Cart prices have changed"));
+
+        mockMvc.perform(post("/api/cart/checkout")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+    }
+}
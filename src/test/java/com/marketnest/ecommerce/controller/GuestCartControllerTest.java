@@ -0,0 +1,90 @@
+package com.marketnest.ecommerce.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketnest.ecommerce.dto.cart.CartItemRequest;
+import com.marketnest.ecommerce.dto.cart.CartResponse;
+import com.marketnest.ecommerce.exception.ResourceNotFoundException;
+import com.marketnest.ecommerce.service.cart.GuestCartService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(GuestCartController.class)
+class GuestCartControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private GuestCartService guestCartService;
+
+    private CartResponse cartResponse;
+
+    @BeforeEach
+    void setUp() {
+        cartResponse = new CartResponse();
+        cartResponse.setStatus("ACTIVE");
+        cartResponse.setTotalItems(1);
+        cartResponse.setTotalPrice(new BigDecimal("199.98"));
+    }
+
+    @Test
+    @WithMockUser
+    void getCart_shouldReturnCartForToken() throws Exception {
+        when(guestCartService.getCart("token")).thenReturn(cartResponse);
+
+        mockMvc.perform(get("/api/guest-cart").header(GuestCartService.TOKEN_HEADER, "token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalItems", is(1)));
+    }
+
+    @Test
+    @WithMockUser
+    void addToCart_shouldReturnCartAndToken() throws Exception {
+        CartItemRequest request = new CartItemRequest();
+        request.setProductId(1L);
+        request.setQuantity(2);
+
+        when(guestCartService.addToCart(eq(null), any(CartItemRequest.class)))
+                .thenReturn("new-token");
+        when(guestCartService.getCart("new-token")).thenReturn(cartResponse);
+
+        mockMvc.perform(post("/api/guest-cart/items")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(GuestCartService.TOKEN_HEADER, "new-token"))
+                .andExpect(jsonPath("$.totalPrice", is(199.98)));
+    }
+
+    @Test
+    @WithMockUser
+    void removeCartItem_shouldReturn404_whenItemNotInCart() throws Exception {
+        when(guestCartService.removeCartItem("token", 1L))
+                .thenThrow(new ResourceNotFoundException("CartItem", "productId", 1L));
+
+        mockMvc.perform(delete("/api/guest-cart/items/1")
+                        .header(GuestCartService.TOKEN_HEADER, "token")
+                        .with(csrf()))
+                .andExpect(status().isNotFound());
+    }
+}
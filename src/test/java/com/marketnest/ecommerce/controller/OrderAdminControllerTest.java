@@ -0,0 +1,125 @@
+package com.marketnest.ecommerce.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketnest.ecommerce.dto.order.BulkOrderStatusItemDto;
+import com.marketnest.ecommerce.dto.order.BulkOrderStatusResultDto;
+import com.marketnest.ecommerce.dto.order.BulkOrderStatusUpdateDto;
+import com.marketnest.ecommerce.dto.order.OrderStatusRejectionDto;
+import com.marketnest.ecommerce.service.order.BulkOrderStatusService;
+import com.marketnest.ecommerce.service.order.InvoiceExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(OrderAdminController.class)
+@WithMockUser(username = "admin@example.com", roles = "ADMIN")
+class OrderAdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private BulkOrderStatusService bulkOrderStatusService;
+
+    @MockBean
+    private InvoiceExportService invoiceExportService;
+
+    @Test
+    void updateOrderStatuses_shouldReturnResult() throws Exception {
+        BulkOrderStatusUpdateDto request = new BulkOrderStatusUpdateDto();
+        request.setStatus("SHIPPED");
+        request.setOrders(List.of(new BulkOrderStatusItemDto(1L, "TRK-1"),
+                new BulkOrderStatusItemDto(2L, null)));
+        BulkOrderStatusResultDto result = BulkOrderStatusResultDto.builder()
+                .status("SHIPPED")
+                .requestedOrders(2)
+                .updatedOrders(1)
+                .rejected(List.of(new OrderStatusRejectionDto(2L, "DELIVERED",
+                        "Cannot change status from DELIVERED to SHIPPED")))
+                .build();
+        when(bulkOrderStatusService.updateStatus(any(BulkOrderStatusUpdateDto.class),
+                eq("admin@example.com"))).thenReturn(result);
+
+        mockMvc.perform(patch("/api/admin/orders/status")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updatedOrders").value(1))
+                .andExpect(jsonPath("$.rejected[0].orderId").value(2))
+                .andExpect(jsonPath("$.rejected[0].currentStatus").value("DELIVERED"));
+    }
+
+    @Test
+    void updateOrderStatuses_shouldReturn400_whenNoOrders() throws Exception {
+        BulkOrderStatusUpdateDto request = new BulkOrderStatusUpdateDto();
+        request.setStatus("SHIPPED");
+        request.setOrders(List.of());
+
+        mockMvc.perform(patch("/api/admin/orders/status")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bulkOrderStatusService);
+    }
+
+    @Test
+    void exportInvoices_shouldStreamZip() throws Exception {
+        LocalDate startDate = LocalDate.of(2024, 3, 1);
+        LocalDate endDate = LocalDate.of(2024, 3, 31);
+        when(invoiceExportService.findOrderIds(startDate, endDate)).thenReturn(List.of(1L, 2L));
+        doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write(new byte[]{'P', 'K'});
+            return null;
+        }).when(invoiceExportService).export(eq(List.of(1L, 2L)), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/admin/orders/invoices/export")
+                        .param("startDate", "2024-03-01")
+                        .param("endDate", "2024-03-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/zip"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"invoices-2024-03-01-to-2024-03-31.zip\""))
+                .andExpect(content().bytes(new byte[]{'P', 'K'}));
+    }
+
+    @Test
+    void exportInvoices_shouldReturn400_whenRangeInvalid() throws Exception {
+        when(invoiceExportService.findOrderIds(any(), any()))
+                .thenThrow(new IllegalArgumentException("Start date must not be after end date"));
+
+        mockMvc.perform(get("/api/admin/orders/invoices/export")
+                        .param("startDate", "2024-03-31")
+                        .param("endDate", "2024-03-01"))
+                .andExpect(status().isBadRequest());
+
+        verify(invoiceExportService, never()).export(any(), any());
+    }
+}
@@ -1,13 +1,18 @@
 package com.marketnest.ecommerce.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketnest.ecommerce.dto.order.CheckoutStatusDto;
+import com.marketnest.ecommerce.dto.order.OrderItemRequestDto;
 import com.marketnest.ecommerce.dto.order.OrderRequestDto;
 import com.marketnest.ecommerce.dto.order.OrderResponseDto;
 import com.marketnest.ecommerce.dto.order.OrderSummaryDto;
+import com.marketnest.ecommerce.exception.CheckoutQueueFullException;
 import com.marketnest.ecommerce.exception.ResourceNotFoundException;
 import com.marketnest.ecommerce.model.Order;
 import com.marketnest.ecommerce.model.User;
 import com.marketnest.ecommerce.repository.UserRepository;
+import com.marketnest.ecommerce.service.order.InvoiceCache;
+import com.marketnest.ecommerce.service.order.OrderCheckoutPipeline;
 import com.marketnest.ecommerce.service.order.OrderService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,11 +24,16 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -31,6 +41,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -47,6 +58,9 @@ class OrderControllerTest {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private OrderCheckoutPipeline orderCheckoutPipeline;
+
     @MockBean
     private UserRepository userRepository;
 
@@ -149,6 +163,78 @@ class OrderControllerTest {
         verify(orderService, never()).createOrder(any());
     }
 
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void createOrderAsync_shouldAcceptOrderAsPending() throws Exception {
+        CheckoutStatusDto checkout = new CheckoutStatusDto();
+        checkout.setTicketId("ticket-1");
+        checkout.setStage(OrderCheckoutPipeline.Stage.QUEUED.name());
+        checkout.setOrderStatus(Order.OrderStatus.PENDING.name());
+
+        when(orderCheckoutPipeline.submit(eq("test@example.com"), any(OrderRequestDto.class)))
+                .thenReturn(checkout);
+
+        mockMvc.perform(post("/api/orders/async")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validOrderRequest())))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/orders/checkouts/ticket-1"))
+                .andExpect(jsonPath("$.orderStatus", is("PENDING")))
+                .andExpect(jsonPath("$.stage", is("QUEUED")));
+
+        verify(orderService, never()).createOrder(any());
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void createOrderAsync_shouldReturn503_whenQueueIsFull() throws Exception {
+        when(orderCheckoutPipeline.submit(eq("test@example.com"), any(OrderRequestDto.class)))
+                .thenThrow(new CheckoutQueueFullException("Too many orders"));
+
+        mockMvc.perform(post("/api/orders/async")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validOrderRequest())))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void getCheckoutStatus_shouldReturnPlacedOrder() throws Exception {
+        CheckoutStatusDto checkout = new CheckoutStatusDto();
+        checkout.setTicketId("ticket-1");
+        checkout.setStage(OrderCheckoutPipeline.Stage.COMPLETED.name());
+        checkout.setOrderStatus(Order.OrderStatus.PENDING.name());
+        checkout.setOrderId(1L);
+        checkout.setOrder(orderResponseDto);
+
+        when(orderCheckoutPipeline.awaitStatus("ticket-1", "test@example.com",
+                Duration.ofSeconds(25)))
+                .thenReturn(Optional.of(CompletableFuture.completedFuture(checkout)));
+
+        MvcResult result = mockMvc.perform(get("/api/orders/checkouts/ticket-1")
+                        .param("waitSeconds", "60"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stage", is("COMPLETED")))
+                .andExpect(jsonPath("$.order.id", is(1)));
+    }
+
+    @Test
+    @WithMockUser(username = "test@example.com")
+    void getCheckoutStatus_shouldReturn404_whenTicketUnknown() throws Exception {
+        when(orderCheckoutPipeline.awaitStatus("ticket-1", "test@example.com", Duration.ZERO))
+                .thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/orders/checkouts/ticket-1"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @WithMockUser(username = "test@example.com")
     void cancelOrder_shouldReturnCancelledOrder() throws Exception {
@@ -200,15 +286,21 @@ class OrderControllerTest {
         byte[] pdfBytes = new byte[]{1, 2, 3};
 
         when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
-        when(orderService.generateInvoicePdf(1L, 1L)).thenReturn(pdfBytes);
+        when(orderService.getInvoicePdf(1L, 1L)).thenReturn(
+                new InvoiceCache.CachedInvoice(new ByteArrayInputStream(pdfBytes), pdfBytes.length));
 
-        mockMvc.perform(get("/api/orders/1/invoice"))
+        MvcResult result = mockMvc.perform(get("/api/orders/1/invoice"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Type", "application/pdf"))
+                .andExpect(header().longValue("Content-Length", pdfBytes.length))
                 .andExpect(header().exists("Content-Disposition"))
                 .andExpect(content().bytes(pdfBytes));
 
-        verify(orderService).generateInvoicePdf(1L, 1L);
+        verify(orderService).getInvoicePdf(1L, 1L);
     }
 
     @Test
@@ -221,4 +313,16 @@ class OrderControllerTest {
 
         verify(orderService, never()).getUserOrders(anyLong(), any());
     }
-}
\ No newline at end of file
+
+    private static OrderRequestDto validOrderRequest() {
+        OrderItemRequestDto item = new OrderItemRequestDto();
+        item.setProductId(10L);
+        item.setVariantId(20L);
+        item.setQuantity(1);
+
+        OrderRequestDto requestDto = new OrderRequestDto();
+        requestDto.setShippingAddressId(1L);
+        requestDto.setItems(List.of(item));
+        return requestDto;
+    }
+}
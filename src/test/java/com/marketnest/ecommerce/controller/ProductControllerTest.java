@@ -1,8 +1,11 @@
 package com.marketnest.ecommerce.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketnest.ecommerce.dto.product.FacetValueDto;
+import com.marketnest.ecommerce.dto.product.ProductFacetResponseDto;
 import com.marketnest.ecommerce.dto.product.ProductRequestDto;
 import com.marketnest.ecommerce.dto.product.ProductResponseDto;
+import com.marketnest.ecommerce.dto.product.ProductSuggestionDto;
 import com.marketnest.ecommerce.service.product.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,10 +15,13 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -135,6 +141,85 @@ class ProductControllerTest {
                 any(), any(), any(), any(), any(), any(), any(), any(), any());
     }
 
+    @Test
+    @WithMockUser
+    void testGetAllProductsByCursor_InvalidSize() throws Exception {
+        for (String size : List.of("0", "-1", "101")) {
+            mockMvc.perform(get("/api/products")
+                            .param("cursor", "")
+                            .param("size", size))
+                    .andExpect(status().isBadRequest());
+        }
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @WithMockUser
+    void testGetProductFacets() throws Exception {
+        ProductFacetResponseDto facetResponse = ProductFacetResponseDto.builder()
+                .products(Collections.singletonList(productResponseDto))
+                .totalElements(1)
+                .totalPages(1)
+                .page(0)
+                .size(10)
+                .facets(Map.of("brand", List.of(new FacetValueDto("Acme", 1))))
+                .build();
+        when(productService.getProductFacets(
+                any(), any(), any(), any(), any(), any(), anyBoolean(), anyInt(), anyInt()))
+                .thenReturn(facetResponse);
+
+        mockMvc.perform(get("/api/products/facets")
+                        .param("brand", "Acme")
+                        .param("inStock", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].name").value("Laptop"))
+                .andExpect(jsonPath("$.facets.brand[0].value").value("Acme"))
+                .andExpect(jsonPath("$.facets.brand[0].count").value(1));
+
+        verify(productService, times(1)).getProductFacets(
+                null, "Acme", null, true, null, null, true, 0, 10);
+    }
+
+    @Test
+    @WithMockUser
+    void testSuggestProducts() throws Exception {
+        when(productService.suggestProducts("lap", 5)).thenReturn(List.of(
+                new ProductSuggestionDto(ProductSuggestionDto.Type.PRODUCT, "Laptop", 1L,
+                        "laptop")));
+
+        mockMvc.perform(get("/api/products/suggest")
+                        .param("q", "lap")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].type").value("PRODUCT"))
+                .andExpect(jsonPath("$[0].text").value("Laptop"))
+                .andExpect(jsonPath("$[0].slug").value("laptop"));
+    }
+
+    @Test
+    @WithMockUser
+    void testSuggestProducts_InvalidLimit() throws Exception {
+        mockMvc.perform(get("/api/products/suggest")
+                        .param("q", "lap")
+                        .param("limit", "50"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @WithMockUser
+    void testGetFrequentlyBoughtTogether() throws Exception {
+        when(productService.getFrequentlyBoughtTogether(1L, true, 3))
+                .thenReturn(List.of(productResponseDto));
+
+        mockMvc.perform(get("/api/products/1/frequently-bought-together")
+                        .param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].slug").value("laptop"));
+    }
+
     @Test
     void testGetProductBySlug() throws Exception {
         when(productService.getProductBySlug(anyString())).thenReturn(productResponseDto);
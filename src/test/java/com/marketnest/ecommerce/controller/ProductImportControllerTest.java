@@ -0,0 +1,81 @@
+package com.marketnest.ecommerce.controller;
+
+import com.marketnest.ecommerce.dto.product.ProductImportErrorDto;
+import com.marketnest.ecommerce.dto.product.ProductImportResultDto;
+import com.marketnest.ecommerce.service.product.ProductImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ProductImportController.class)
+@WithMockUser(roles = "ADMIN")
+class ProductImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductImportService productImportService;
+
+    @Test
+    void testImportProducts_Csv() throws Exception {
+        ProductImportResultDto result = ProductImportResultDto.builder()
+                .totalRows(2)
+                .importedRows(1)
+                .failedRows(1)
+                .errors(List.of(new ProductImportErrorDto(2, "SKU-2", "Invalid value for price")))
+                .build();
+        when(productImportService.importProducts(any(InputStream.class),
+                eq(ProductImportService.Format.CSV))).thenReturn(result);
+
+        mockMvc.perform(post("/api/admin/products/import")
+                        .with(csrf())
+                        .contentType("text/csv; charset=UTF-8")
+                        .content("sku,name\nSKU-1,Laptop\nSKU-2,Tablet\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedRows").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("Invalid value for price"));
+    }
+
+    @Test
+    void testImportProducts_Ndjson() throws Exception {
+        when(productImportService.importProducts(any(InputStream.class),
+                eq(ProductImportService.Format.NDJSON)))
+                .thenReturn(ProductImportResultDto.builder().totalRows(1).importedRows(1)
+                        .errors(List.of()).build());
+
+        mockMvc.perform(post("/api/admin/products/import")
+                        .with(csrf())
+                        .contentType("application/x-ndjson")
+                        .content("{\"sku\":\"SKU-1\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(1));
+    }
+
+    @Test
+    void testImportProducts_UnsupportedContentType() throws Exception {
+        mockMvc.perform(post("/api/admin/products/import")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(productImportService);
+    }
+}
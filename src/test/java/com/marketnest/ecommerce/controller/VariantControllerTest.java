@@ -1,6 +1,7 @@
 package com.marketnest.ecommerce.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketnest.ecommerce.dto.variant.FlashSaleStatusDto;
 import com.marketnest.ecommerce.dto.variant.VariantRequestDto;
 import com.marketnest.ecommerce.dto.variant.VariantResponseDto;
 import com.marketnest.ecommerce.exception.ResourceNotFoundException;
@@ -11,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
@@ -21,6 +23,7 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -178,4 +181,17 @@ class VariantControllerTest {
         mockMvc.perform(delete("/api/variants/999"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void enableFlashSale_shouldReturnCounterState() throws Exception {
+        when(variantService.enableFlashSale(1L))
+                .thenReturn(new FlashSaleStatusDto(1L, true, 500L, 16));
+
+        mockMvc.perform(post("/api/admin/products/variants/1/flash-sale").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(true))
+                .andExpect(jsonPath("$.availableStock").value(500))
+                .andExpect(jsonPath("$.stripes").value(16));
+    }
+}
@@ -0,0 +1,200 @@
+package com.marketnest.ecommerce.filter;
+
+import com.marketnest.ecommerce.service.idempotency.IdempotencyStore;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    private static final String EMPTY_BODY_SHA256 =
+            "44136fa355b3678a1146ad16f7e8649e94fb4fc21fe77e8310c060f61caaff8a";
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    private IdempotencyFilter idempotencyFilter;
+    private AtomicInteger executions;
+    private MockFilterChain filterChain;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyFilter = new IdempotencyFilter(idempotencyStore);
+        executions = new AtomicInteger();
+        filterChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest request, HttpServletResponse response)
+                    throws IOException {
+                executions.incrementAndGet();
+                response.setStatus(HttpServletResponse.SC_CREATED);
+                response.setContentType("application/json");
+                response.getOutputStream().write(request.getInputStream().readAllBytes());
+            }
+        });
+    }
+
+    @Test
+    void doFilter_shouldRecordResponseOfFirstRequest() throws Exception {
+        when(idempotencyStore.claim(anyString(), anyString()))
+                .thenReturn(new IdempotencyStore.Claim(IdempotencyStore.Outcome.ACQUIRED, null));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        idempotencyFilter.doFilter(request("key-1", "{\"orderId\":7}"), response, filterChain);
+
+        ArgumentCaptor<IdempotencyStore.StoredResponse> stored =
+                ArgumentCaptor.forClass(IdempotencyStore.StoredResponse.class);
+        verify(idempotencyStore).complete(anyString(), stored.capture());
+        assertThat(stored.getValue().status()).isEqualTo(201);
+        assertThat(new String(stored.getValue().body(), StandardCharsets.UTF_8))
+                .isEqualTo("{\"orderId\":7}");
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getContentAsString()).isEqualTo("{\"orderId\":7}");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void doFilter_shouldReplayStoredResponseWithoutRunningRequest() throws Exception {
+        IdempotencyStore.StoredResponse stored = new IdempotencyStore.StoredResponse(
+                "hash", 201, "application/json", "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        when(idempotencyStore.claim(anyString(), anyString()))
+                .thenReturn(new IdempotencyStore.Claim(IdempotencyStore.Outcome.REPLAY, stored));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        idempotencyFilter.doFilter(request("key-1", "{}"), response, filterChain);
+
+        assertThat(executions).hasValue(0);
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void doFilter_shouldRejectKeyReusedWithDifferentBody() throws Exception {
+        when(idempotencyStore.claim(anyString(), anyString()))
+                .thenReturn(new IdempotencyStore.Claim(IdempotencyStore.Outcome.MISMATCH, null));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        idempotencyFilter.doFilter(request("key-1", "{}"), response, filterChain);
+
+        assertThat(executions).hasValue(0);
+        assertThat(response.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    void doFilter_shouldReleaseKeyWhenRequestFailsWithServerError() throws Exception {
+        when(idempotencyStore.claim(anyString(), anyString()))
+                .thenReturn(new IdempotencyStore.Claim(IdempotencyStore.Outcome.ACQUIRED, null));
+        MockFilterChain failingChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest request, HttpServletResponse response) {
+                response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            }
+        });
+
+        idempotencyFilter.doFilter(request("key-1", "{}"), new MockHttpServletResponse(),
+                failingChain);
+
+        verify(idempotencyStore).abandon(anyString());
+        verify(idempotencyStore, never()).complete(anyString(), any());
+    }
+
+    @Test
+    void doFilter_shouldHandCachedBodyToNonBlockingReaders() throws Exception {
+        when(idempotencyStore.claim(anyString(), anyString()))
+                .thenReturn(new IdempotencyStore.Claim(IdempotencyStore.Outcome.ACQUIRED, null));
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+        MockFilterChain nonBlockingChain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest request, HttpServletResponse response)
+                    throws IOException {
+                ServletInputStream input = request.getInputStream();
+                input.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        while (input.isReady() && !input.isFinished()) {
+                            received.write(input.read());
+                        }
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                        allDataRead.set(true);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                    }
+                });
+                response.setStatus(HttpServletResponse.SC_CREATED);
+            }
+        });
+
+        idempotencyFilter.doFilter(request("key-1", "{\"orderId\":7}"),
+                new MockHttpServletResponse(), nonBlockingChain);
+
+        assertThat(received.toString(StandardCharsets.UTF_8)).isEqualTo("{\"orderId\":7}");
+        assertThat(allDataRead).isTrue();
+    }
+
+    @Test
+    void doFilter_withoutKey_shouldPassThrough() throws Exception {
+        MockHttpServletRequest request = request(null, "{}");
+
+        idempotencyFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertThat(executions).hasValue(1);
+        verifyNoInteractions(idempotencyStore);
+    }
+
+    @Test
+    void doFilter_shouldFingerprintBodyAndScopeKeysToTheEndpoint() throws Exception {
+        when(idempotencyStore.claim(anyString(), eq(EMPTY_BODY_SHA256)))
+                .thenReturn(new IdempotencyStore.Claim(IdempotencyStore.Outcome.ACQUIRED, null));
+        MockHttpServletRequest payment = request("key-1", "{}");
+        payment.setRequestURI("/api/payments/process");
+
+        idempotencyFilter.doFilter(request("key-1", "{}"), new MockHttpServletResponse(),
+                filterChain);
+        filterChain.reset();
+        idempotencyFilter.doFilter(payment, new MockHttpServletResponse(), filterChain);
+
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyStore, times(2)).claim(keys.capture(), anyString());
+        assertThat(keys.getAllValues().get(0)).isNotEqualTo(keys.getAllValues().get(1));
+    }
+
+    private static MockHttpServletRequest request(String idempotencyKey, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/orders");
+        if (idempotencyKey != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -1,5 +1,6 @@
 package com.marketnest.ecommerce.repository;
 
+import com.marketnest.ecommerce.dto.order.OrderSummaryRowDto;
 import com.marketnest.ecommerce.model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,6 +9,7 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -132,6 +134,37 @@ class OrderRepositoryTest {
                 o -> o.getUser().getUserId().equals(testUser.getUserId()));
     }
 
+    @Test
+    void findSummariesByUserId_shouldCountItemsPerOrder() {
+        Order order1 = createOrder(Order.OrderStatus.PENDING);
+        for (int i = 0; i < 2; i++) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setProduct(testProduct);
+            orderItem.setQuantity(1);
+            orderItem.setUnitPrice(testProduct.getPrice());
+            orderItem.setTotalPrice(testProduct.getPrice());
+            order1.addOrderItem(orderItem);
+        }
+        order1.setOrderDate(LocalDateTime.now().minusDays(1));
+        Order order2 = createOrder(Order.OrderStatus.SHIPPED);
+        order2.setTrackingNumber("TRK-1");
+
+        orderRepository.save(order1);
+        orderRepository.save(order2);
+
+        Page<OrderSummaryRowDto> summaries = orderRepository.findSummariesByUserId(
+                testUser.getUserId(),
+                PageRequest.of(0, 10, Sort.by("orderDate"))
+        );
+
+        assertThat(summaries.getTotalElements()).isEqualTo(2);
+        assertThat(summaries.getContent()).extracting(OrderSummaryRowDto::getItemCount)
+                .containsExactly(2L, 0L);
+        assertThat(summaries.getContent().get(1).getStatus())
+                .isEqualTo(Order.OrderStatus.SHIPPED);
+        assertThat(summaries.getContent().get(1).getTrackingNumber()).isEqualTo("TRK-1");
+    }
+
     @Test
     void findByUser_UserIdAndId_shouldReturnOrder_whenExists() {
         Order order = createOrder(Order.OrderStatus.PENDING);
@@ -12,6 +12,9 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -19,6 +22,7 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -238,6 +242,65 @@ class ProductRepositoryTest {
         assertThat(products.getContent().getFirst().getIsFeatured()).isTrue();
     }
 
+    @Test
+    void findAll_withCatalogFilter_shouldFilterAndCountInDatabase() {
+        for (int i = 0; i < 15; i++) {
+            Product product = new Product();
+            product.setName("Filtered Product " + i);
+            product.setSlug("filtered-product-" + i);
+            product.setSku("SKU-F" + i);
+            product.setBrand(i % 3 == 0 ? "Acme" : "Other");
+            product.setPrice(new BigDecimal("10.00").add(BigDecimal.valueOf(i)));
+            product.setStockQuantity(i % 2 == 0 ? 5 : 0);
+            product.setCategory(testCategory);
+            product.setCategoryId(testCategory.getId());
+            product.setIsActive(true);
+            productRepository.save(product);
+        }
+
+        Page<Product> products = productRepository.findAll(
+                ProductSpecifications.catalogFilter(testCategory.getId(), "acme", null, null,
+                        true, null, true),
+                PageRequest.of(0, 2));
+
+        assertThat(products.getTotalElements()).isEqualTo(3);
+        assertThat(products.getContent()).hasSize(2);
+        assertThat(products.getContent())
+                .allMatch(product -> "Acme".equals(product.getBrand()) && product.isInStock());
+    }
+
+    @Test
+    void findBy_withKeysetScroll_shouldPageByNameAndIdWithoutGapsOrDuplicates() {
+        for (int i = 0; i < 5; i++) {
+            Product product = new Product();
+            product.setName(i < 3 ? "Same Name" : "Product " + i);
+            product.setSlug("keyset-product-" + i);
+            product.setSku("SKU-K" + i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStockQuantity(5);
+            product.setCategory(testCategory);
+            product.setIsActive(true);
+            productRepository.save(product);
+        }
+        Sort sort = Sort.by(Sort.Order.asc("name"), Sort.Order.asc("id"));
+
+        List<Long> ids = new ArrayList<>();
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<Product> window;
+        do {
+            ScrollPosition current = position;
+            window = productRepository.findBy(
+                    ProductSpecifications.catalogFilter(null, null, null, null, true, null,
+                            null),
+                    query -> query.sortBy(sort).limit(2).scroll(current));
+            window.forEach(product -> ids.add(product.getId()));
+            position = window.positionAt(window.size() - 1);
+        } while (window.hasNext());
+
+        List<Product> expected = productRepository.findAll(sort);
+        assertThat(ids).containsExactlyElementsOf(expected.stream().map(Product::getId).toList());
+    }
+
     @Test
     void countLowStockProducts_shouldReturnCorrectCount() {
         testProduct.setStockQuantity(5);
@@ -0,0 +1,189 @@
+package com.marketnest.ecommerce.service.cart;
+
+import com.marketnest.ecommerce.dto.cart.CartCheckoutRequest;
+import com.marketnest.ecommerce.dto.order.OrderRequestDto;
+import com.marketnest.ecommerce.dto.order.OrderResponseDto;
+import com.marketnest.ecommerce.exception.CartChangedException;
+import com.marketnest.ecommerce.model.*;
+import com.marketnest.ecommerce.repository.ProductRepository;
+import com.marketnest.ecommerce.repository.ProductVariantRepository;
+import com.marketnest.ecommerce.repository.UserRepository;
+import com.marketnest.ecommerce.service.order.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartCheckoutServiceTest {
+
+    @Mock
+    private CartStore cartStore;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductVariantRepository variantRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private CartCheckoutService cartCheckoutService;
+
+    private Cart testCart;
+    private CartState cartState;
+    private CartCheckoutRequest request;
+
+    @BeforeEach
+    void setUp() {
+        cartCheckoutService = new CartCheckoutService(cartStore, orderService,
+                new CartPricing(productRepository, variantRepository), userRepository);
+
+        testCart = new Cart();
+        testCart.setId(1L);
+        testCart.setUserId(1L);
+        testCart.setStatus(Cart.CartStatus.ACTIVE);
+
+        request = new CartCheckoutRequest();
+        request.setShippingAddressId(5L);
+    }
+
+    @Test
+    void checkout_shouldPlaceOrderForAllCartLines() {
+        addItem(1L, 10L, 2, "10.00");
+        addItem(2L, 20L, 1, "25.00");
+        stubCheckout();
+        User user = new User();
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(orderService.newOrder(eq(user), any(OrderRequestDto.class))).thenReturn(new Order());
+        when(variantRepository.findAvailableWithProductByProductIdIn(List.of(10L, 20L)))
+                .thenReturn(List.of(variant(100L, 10L, null, "10.00"),
+                        variant(101L, 10L, null, "10.00"),
+                        variant(200L, 20L, "25.00", "30.00")));
+        when(orderService.persistOrder(any(Order.class), eq("test@example.com")))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        OrderResponseDto response = new OrderResponseDto();
+        when(orderService.toResponse(any(Order.class))).thenReturn(response);
+
+        OrderResponseDto result = cartCheckoutService.checkout(1L, "test@example.com", request);
+
+        assertThat(result).isSameAs(response);
+        ArgumentCaptor<Order> order = ArgumentCaptor.forClass(Order.class);
+        verify(orderService).priceOrder(order.capture());
+        assertThat(order.getValue().getOrderItems())
+                .extracting(item -> item.getVariant().getId(), OrderItem::getQuantity)
+                .containsExactly(tuple(100L, 2), tuple(200L, 1));
+        verify(orderService).reserveStock(order.getValue());
+        verify(orderService).notifyOrderPlaced(order.getValue());
+    }
+
+    @Test
+    void checkout_shouldOrderFirstVariantWithEnoughStock() {
+        addItem(1L, 10L, 3, "12.00");
+        stubCheckout();
+        when(orderService.newOrder(any(), any(OrderRequestDto.class))).thenReturn(new Order());
+        ProductVariant soldOut = variant(100L, 10L, "10.00", "10.00");
+        soldOut.setStockQuantity(2);
+        ProductVariant inStock = variant(101L, 10L, "12.00", "10.00");
+        inStock.setStockQuantity(5);
+        when(variantRepository.findAvailableWithProductByProductIdIn(List.of(10L)))
+                .thenReturn(List.of(soldOut, inStock));
+        when(orderService.persistOrder(any(Order.class), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        cartCheckoutService.checkout(1L, "test@example.com", request);
+
+        ArgumentCaptor<Order> order = ArgumentCaptor.forClass(Order.class);
+        verify(orderService).priceOrder(order.capture());
+        assertThat(order.getValue().getOrderItems())
+                .extracting(item -> item.getVariant().getId(), OrderItem::getQuantity)
+                .containsExactly(tuple(101L, 3));
+    }
+
+    @Test
+    void checkout_shouldRepriceCartAndReject_whenPricesChanged() {
+        addItem(1L, 10L, 2, "10.00");
+        stubCheckout();
+        when(orderService.newOrder(any(), any(OrderRequestDto.class))).thenReturn(new Order());
+        when(variantRepository.findAvailableWithProductByProductIdIn(List.of(10L)))
+                .thenReturn(List.of(variant(100L, 10L, "12.50", "10.00")));
+
+        assertThatThrownBy(() -> cartCheckoutService.checkout(1L, "test@example.com", request))
+                .isInstanceOf(CartChangedException.class);
+        assertThat(cartState.findById(1L).getPrice()).isEqualByComparingTo("12.50");
+        assertThat(cartState.getTotalPrice()).isEqualByComparingTo("25.00");
+        verify(orderService, never()).persistOrder(any(), any());
+    }
+
+    @Test
+    void checkout_shouldThrowException_whenProductUnavailable() {
+        addItem(1L, 10L, 1, "10.00");
+        stubCheckout();
+        when(orderService.newOrder(any(), any(OrderRequestDto.class))).thenReturn(new Order());
+        when(variantRepository.findAvailableWithProductByProductIdIn(List.of(10L)))
+                .thenReturn(List.of());
+
+        assertThatThrownBy(() -> cartCheckoutService.checkout(1L, "test@example.com", request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Product not available");
+    }
+
+    @Test
+    void checkout_shouldThrowException_whenCartEmpty() {
+        stubCheckout();
+
+        assertThatThrownBy(() -> cartCheckoutService.checkout(1L, "test@example.com", request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Cart is empty");
+        verifyNoInteractions(orderService, variantRepository);
+    }
+
+    private void addItem(Long id, Long productId, int quantity, String price) {
+        Product product = new Product();
+        product.setId(productId);
+        product.setName("Product " + productId);
+
+        CartItem item = new CartItem();
+        item.setId(id);
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setPrice(new BigDecimal(price));
+        testCart.addCartItem(item);
+    }
+
+    private void stubCheckout() {
+        cartState = new CartState(testCart);
+        when(cartStore.checkout(eq(1L), any())).thenAnswer(invocation ->
+                invocation.<Function<CartState, ?>>getArgument(1).apply(cartState));
+    }
+
+    private static ProductVariant variant(Long id, Long productId, String variantPrice,
+                                          String productPrice) {
+        Product product = new Product();
+        product.setId(productId);
+        product.setPrice(new BigDecimal(productPrice));
+
+        ProductVariant variant = new ProductVariant();
+        variant.setId(id);
+        variant.setProductId(productId);
+        variant.setProduct(product);
+        variant.setPrice(variantPrice == null ? null : new BigDecimal(variantPrice));
+        return variant;
+    }
+}
@@ -2,44 +2,44 @@ package com.marketnest.ecommerce.service.cart;
 
 import com.marketnest.ecommerce.dto.cart.CartItemRequest;
 import com.marketnest.ecommerce.dto.cart.CartResponse;
+import com.marketnest.ecommerce.dto.cart.CartSummaryResponse;
 import com.marketnest.ecommerce.exception.ResourceNotFoundException;
 import com.marketnest.ecommerce.mapper.cart.CartMapper;
 import com.marketnest.ecommerce.model.Cart;
 import com.marketnest.ecommerce.model.CartItem;
 import com.marketnest.ecommerce.model.Product;
-import com.marketnest.ecommerce.repository.CartItemRepository;
-import com.marketnest.ecommerce.repository.CartRepository;
+import com.marketnest.ecommerce.model.ProductVariant;
 import com.marketnest.ecommerce.repository.ProductRepository;
+import com.marketnest.ecommerce.repository.ProductVariantRepository;
 import com.marketnest.ecommerce.util.HtmlEscapeUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class CartServiceTest {
 
     @Mock
-    private CartRepository cartRepository;
+    private CartStore cartStore;
 
     @Mock
-    private CartItemRepository cartItemRepository;
+    private ProductRepository productRepository;
 
     @Mock
-    private ProductRepository productRepository;
+    private ProductVariantRepository variantRepository;
 
     @Mock
     private CartMapper cartMapper;
@@ -47,16 +47,19 @@ class CartServiceTest {
     @Mock
     private HtmlEscapeUtil htmlEscapeUtil;
 
-    @InjectMocks
     private CartService cartService;
 
     private Cart testCart;
     private Product testProduct;
     private CartItemRequest cartItemRequest;
     private CartResponse cartResponse;
+    private CartState cartState;
 
     @BeforeEach
     void setUp() {
+        cartService = new CartService(cartStore,
+                new CartPricing(productRepository, variantRepository), cartMapper, htmlEscapeUtil);
+
         testCart = new Cart();
         testCart.setId(1L);
         testCart.setUserId(1L);
@@ -80,76 +83,67 @@ class CartServiceTest {
 
     @Test
     void getUserCart_shouldReturnExistingCart() {
-        when(cartRepository.findByUserIdAndStatus(1L, Cart.CartStatus.ACTIVE))
-                .thenReturn(Optional.of(testCart));
-        when(cartMapper.toResponse(testCart, htmlEscapeUtil)).thenReturn(cartResponse);
+        stubRead(1L, true);
+        when(cartMapper.toResponse(cartState, htmlEscapeUtil)).thenReturn(cartResponse);
 
         CartResponse result = cartService.getUserCart(1L);
 
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
-        verify(cartRepository).findByUserIdAndStatus(1L, Cart.CartStatus.ACTIVE);
-    }
-
-    @Test
-    void getUserCart_shouldCreateNewCart_whenNotExists() {
-        when(cartRepository.findByUserIdAndStatus(1L, Cart.CartStatus.ACTIVE))
-                .thenReturn(Optional.empty());
-        when(cartRepository.save(any(Cart.class))).thenReturn(testCart);
-        when(cartMapper.toResponse(testCart, htmlEscapeUtil)).thenReturn(cartResponse);
-
-        CartResponse result = cartService.getUserCart(1L);
-
-        assertThat(result).isNotNull();
-        verify(cartRepository).save(any(Cart.class));
     }
 
     @Test
     void addToCart_shouldAddNewItem_whenProductNotInCart() {
-        CartItem cartItem = new CartItem();
-        cartItem.setProduct(testProduct);
-        cartItem.setQuantity(2);
-        cartItem.setPrice(testProduct.getPrice());
-
-        when(cartRepository.findByUserIdAndStatus(1L, Cart.CartStatus.ACTIVE))
-                .thenReturn(Optional.of(testCart));
+        stubUpdate(1L, true);
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(cartMapper.toEntity(cartItemRequest)).thenReturn(cartItem);
-        when(cartRepository.save(testCart)).thenReturn(testCart);
-        when(cartMapper.toResponse(testCart, htmlEscapeUtil)).thenReturn(cartResponse);
+        when(cartStore.nextItemId()).thenReturn(10L);
+        when(cartMapper.toResponse(cartState, htmlEscapeUtil)).thenReturn(cartResponse);
 
         CartResponse result = cartService.addToCart(1L, cartItemRequest);
 
         assertThat(result).isNotNull();
-        verify(cartRepository).save(testCart);
+        assertThat(cartState.findById(10L).getQuantity()).isEqualTo(2);
+        assertThat(cartState.getTotalPrice()).isEqualByComparingTo("199.98");
+        assertThat(cartState.isDirty()).isTrue();
+    }
+
+    @Test
+    void addToCart_shouldPriceNewItemLikeCheckout_whenVariantHasOwnPrice() {
+        ProductVariant variant = new ProductVariant();
+        variant.setProductId(1L);
+        variant.setProduct(testProduct);
+        variant.setPrice(new BigDecimal("89.99"));
+        variant.setStockQuantity(5);
+        stubUpdate(1L, true);
+        when(variantRepository.findAvailableWithProductByProductIdIn(List.of(1L)))
+                .thenReturn(List.of(variant));
+        when(cartStore.nextItemId()).thenReturn(10L);
+        when(cartMapper.toResponse(cartState, htmlEscapeUtil)).thenReturn(cartResponse);
+
+        cartService.addToCart(1L, cartItemRequest);
+
+        assertThat(cartState.findById(10L).getPrice()).isEqualByComparingTo("89.99");
+        assertThat(cartState.findById(10L).getProductName()).isEqualTo("Test Product");
+        verifyNoInteractions(productRepository);
     }
 
     @Test
     void addToCart_shouldIncrementQuantity_whenProductAlreadyInCart() {
-        CartItem existingItem = new CartItem();
-        existingItem.setId(1L);
-        existingItem.setProduct(testProduct);
-        existingItem.setQuantity(1);
-        existingItem.setPrice(testProduct.getPrice());
-        testCart.getCartItems().add(existingItem);
-
-        when(cartRepository.findByUserIdAndStatus(1L, Cart.CartStatus.ACTIVE))
-                .thenReturn(Optional.of(testCart));
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(cartItemRepository.save(existingItem)).thenReturn(existingItem);
-        when(cartMapper.toResponse(testCart, htmlEscapeUtil)).thenReturn(cartResponse);
+        addItem(1L, 1);
+        stubUpdate(1L, true);
+        when(cartMapper.toResponse(cartState, htmlEscapeUtil)).thenReturn(cartResponse);
 
         CartResponse result = cartService.addToCart(1L, cartItemRequest);
 
         assertThat(result).isNotNull();
-        assertThat(existingItem.getQuantity()).isEqualTo(3);
-        verify(cartItemRepository).save(existingItem);
+        assertThat(cartState.findById(1L).getQuantity()).isEqualTo(3);
+        assertThat(cartState.getTotalPrice()).isEqualByComparingTo("299.97");
+        verifyNoInteractions(productRepository, variantRepository);
     }
 
     @Test
     void addToCart_shouldThrowException_whenProductNotFound() {
-        when(cartRepository.findByUserIdAndStatus(1L, Cart.CartStatus.ACTIVE))
-                .thenReturn(Optional.of(testCart));
+        stubUpdate(1L, true);
         when(productRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> cartService.addToCart(1L, cartItemRequest))
@@ -159,30 +153,21 @@ class CartServiceTest {
 
     @Test
     void updateCartItemQuantity_shouldUpdateQuantity() {
-        CartItem cartItem = new CartItem();
-        cartItem.setId(1L);
-        cartItem.setProduct(testProduct);
-        cartItem.setQuantity(2);
-        cartItem.setPrice(testProduct.getPrice());
-        testCart.getCartItems().add(cartItem);
-
-        when(cartRepository.findByUserIdAndStatus(1L, Cart.CartStatus.ACTIVE))
-                .thenReturn(Optional.of(testCart));
-        when(cartItemRepository.save(cartItem)).thenReturn(cartItem);
-        when(cartRepository.save(testCart)).thenReturn(testCart);
-        when(cartMapper.toResponse(testCart, htmlEscapeUtil)).thenReturn(cartResponse);
+        addItem(1L, 2);
+        stubUpdate(1L, false);
+        when(cartMapper.toResponse(cartState, htmlEscapeUtil)).thenReturn(cartResponse);
 
         CartResponse result = cartService.updateCartItemQuantity(1L, 1L, 5);
 
         assertThat(result).isNotNull();
-        assertThat(cartItem.getQuantity()).isEqualTo(5);
-        verify(cartItemRepository).save(cartItem);
+        assertThat(cartState.findById(1L).getQuantity()).isEqualTo(5);
+        assertThat(cartState.getTotalPrice()).isEqualByComparingTo("499.95");
+        assertThat(cartState.isDirty()).isTrue();
     }
 
     @Test
     void updateCartItemQuantity_shouldThrowException_whenItemNotFound() {
-        when(cartRepository.findByUserIdAndStatus(1L, Cart.CartStatus.ACTIVE))
-                .thenReturn(Optional.of(testCart));
+        stubUpdate(1L, false);
 
         assertThatThrownBy(() -> cartService.updateCartItemQuantity(1L, 999L, 5))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -191,8 +176,8 @@ class CartServiceTest {
 
     @Test
     void updateCartItemQuantity_shouldThrowException_whenCartNotFound() {
-        when(cartRepository.findByUserIdAndStatus(anyLong(), any()))
-                .thenReturn(Optional.empty());
+        when(cartStore.update(eq(999L), eq(false), any()))
+                .thenThrow(new ResourceNotFoundException("Cart", "userId", 999L));
 
         assertThatThrownBy(() -> cartService.updateCartItemQuantity(999L, 1L, 5))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -201,28 +186,21 @@ class CartServiceTest {
 
     @Test
     void removeCartItem_shouldRemoveItem() {
-        CartItem cartItem = new CartItem();
-        cartItem.setId(1L);
-        cartItem.setProduct(testProduct);
-        cartItem.setQuantity(2);
-        testCart.getCartItems().add(cartItem);
-
-        when(cartRepository.findByUserIdAndStatus(1L, Cart.CartStatus.ACTIVE))
-                .thenReturn(Optional.of(testCart));
-        when(cartRepository.save(testCart)).thenReturn(testCart);
-        when(cartMapper.toResponse(testCart, htmlEscapeUtil)).thenReturn(cartResponse);
+        addItem(1L, 2);
+        stubUpdate(1L, false);
+        when(cartMapper.toResponse(cartState, htmlEscapeUtil)).thenReturn(cartResponse);
 
         CartResponse result = cartService.removeCartItem(1L, 1L);
 
         assertThat(result).isNotNull();
-        assertThat(testCart.getCartItems()).isEmpty();
-        verify(cartItemRepository).delete(cartItem);
+        assertThat(cartState.getLines()).isEmpty();
+        assertThat(cartState.getTotalPrice()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(cartState.takeChanges().deletes()).containsExactly(1L);
     }
 
     @Test
     void removeCartItem_shouldThrowException_whenItemNotFound() {
-        when(cartRepository.findByUserIdAndStatus(1L, Cart.CartStatus.ACTIVE))
-                .thenReturn(Optional.of(testCart));
+        stubUpdate(1L, false);
 
         assertThatThrownBy(() -> cartService.removeCartItem(1L, 999L))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -231,45 +209,71 @@ class CartServiceTest {
 
     @Test
     void clearCart_shouldRemoveAllItems() {
-        CartItem item1 = new CartItem();
-        CartItem item2 = new CartItem();
-        testCart.getCartItems().add(item1);
-        testCart.getCartItems().add(item2);
-
-        when(cartRepository.findByUserIdAndStatus(1L, Cart.CartStatus.ACTIVE))
-                .thenReturn(Optional.of(testCart));
-        when(cartRepository.save(testCart)).thenReturn(testCart);
-        when(cartMapper.toResponse(testCart, htmlEscapeUtil)).thenReturn(cartResponse);
+        addItem(1L, 1);
+        addItem(2L, 1);
+        stubUpdate(1L, false);
+        when(cartMapper.toResponse(cartState, htmlEscapeUtil)).thenReturn(cartResponse);
 
         CartResponse result = cartService.clearCart(1L);
 
         assertThat(result).isNotNull();
-        assertThat(testCart.getCartItems()).isEmpty();
-        assertThat(testCart.getTotalPrice()).isEqualByComparingTo(BigDecimal.ZERO);
-        verify(cartRepository).save(testCart);
+        assertThat(cartState.getLines()).isEmpty();
+        assertThat(cartState.getTotalPrice()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(cartState.takeChanges().deletes()).containsExactlyInAnyOrder(1L, 2L);
     }
 
     @Test
     void getCartItemsCount_shouldReturnCorrectCount() {
-        testCart.getCartItems().add(new CartItem());
-        testCart.getCartItems().add(new CartItem());
-        testCart.getCartItems().add(new CartItem());
-
-        when(cartRepository.findByUserIdAndStatus(1L, Cart.CartStatus.ACTIVE))
-                .thenReturn(Optional.of(testCart));
+        when(cartStore.summary(1L)).thenReturn(new CartStore.Summary(3, new BigDecimal("50.00")));
 
         int count = cartService.getCartItemsCount(1L);
 
         assertThat(count).isEqualTo(3);
+        verify(cartStore, never()).read(any(), anyBoolean(), any());
     }
 
     @Test
     void getCartItemsCount_shouldReturnZero_whenCartEmpty() {
-        when(cartRepository.findByUserIdAndStatus(1L, Cart.CartStatus.ACTIVE))
-                .thenReturn(Optional.of(testCart));
+        when(cartStore.summary(1L)).thenReturn(new CartStore.Summary(0, BigDecimal.ZERO));
 
         int count = cartService.getCartItemsCount(1L);
 
         assertThat(count).isZero();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCartSummary_shouldReturnCountAndTotal() {
+        when(cartStore.summary(1L)).thenReturn(new CartStore.Summary(2, new BigDecimal("199.98")));
+
+        CartSummaryResponse summary = cartService.getCartSummary(1L);
+
+        assertThat(summary.getTotalItems()).isEqualTo(2);
+        assertThat(summary.getTotalPrice()).isEqualByComparingTo("199.98");
+    }
+
+    private void addItem(Long id, int quantity) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setPrice(testProduct.getPrice());
+
+        CartItem item = new CartItem();
+        item.setId(id);
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setPrice(product.getPrice());
+        testCart.addCartItem(item);
+    }
+
+    private void stubRead(Long userId, boolean create) {
+        cartState = new CartState(testCart);
+        when(cartStore.read(eq(userId), eq(create), any())).thenAnswer(invocation ->
+                invocation.<Function<CartState, ?>>getArgument(2).apply(cartState));
+    }
+
+    private void stubUpdate(Long userId, boolean create) {
+        cartState = new CartState(testCart);
+        when(cartStore.update(eq(userId), eq(create), any())).thenAnswer(invocation ->
+                invocation.<Function<CartState, ?>>getArgument(2).apply(cartState));
+    }
+}
@@ -0,0 +1,336 @@
+package com.marketnest.ecommerce.service.cart;
+
+import com.marketnest.ecommerce.exception.CartChangedException;
+import com.marketnest.ecommerce.exception.ResourceNotFoundException;
+import com.marketnest.ecommerce.model.Cart;
+import com.marketnest.ecommerce.model.CartItem;
+import com.marketnest.ecommerce.model.Product;
+import com.marketnest.ecommerce.repository.CartRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartStoreTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void flush_shouldWriteManyChangesToOneCartAsOneBatch() {
+        CartStore cartStore = newStore(CartStore.Routing.STICKY);
+        stubStoredCart(cart(0, item(1L, 1)));
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE cart"), anyList()))
+                .thenReturn(new int[]{1});
+
+        for (int i = 0; i < 10; i++) {
+            cartStore.update(7L, false, cart -> {
+                CartLine line = cart.findById(1L);
+                cart.setQuantity(line, line.getQuantity() + 1);
+                return null;
+            });
+        }
+        cartStore.flush();
+        cartStore.flush();
+
+        List<Object[]> carts = captureBatch("UPDATE cart");
+        assertThat(carts).singleElement().satisfies(row -> {
+            assertThat((BigDecimal) row[0]).isEqualByComparingTo("110.00");
+            assertThat(row[1]).isEqualTo(1);
+            assertThat(row[4]).isEqualTo(0L);
+        });
+        assertThat(captureBatch("INSERT INTO cart_item")).singleElement()
+                .satisfies(row -> assertThat(row[3]).isEqualTo(11));
+        verify(cartRepository, times(1)).findWithItemsByUserIdAndStatus(7L,
+                Cart.CartStatus.ACTIVE);
+    }
+
+    @Test
+    void read_shouldCreateCartOnlyWhenAsked() {
+        CartStore cartStore = newStore(CartStore.Routing.STICKY);
+        when(cartRepository.findWithItemsByUserIdAndStatus(7L, Cart.CartStatus.ACTIVE))
+                .thenReturn(Optional.empty());
+        when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> {
+            Cart cart = invocation.getArgument(0);
+            cart.setId(3L);
+            cart.setVersion(0L);
+            return cart;
+        });
+
+        assertThatThrownBy(() -> cartStore.read(7L, false, CartState::getItemCount))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(cartStore.read(7L, true, CartState::getCartId)).isEqualTo(3L);
+        assertThat(cartStore.read(7L, false, CartState::getItemCount)).isZero();
+        verify(cartRepository, times(1)).save(any(Cart.class));
+    }
+
+    @Test
+    void flush_shouldMergeCartChangedByAnotherNode() {
+        CartStore cartStore = newStore(CartStore.Routing.STICKY);
+        Cart stored = cart(0, item(1L, 1));
+        Cart changedElsewhere = cart(4, item(1L, 1), item(2L, 5));
+        when(cartRepository.findWithItemsByUserIdAndStatus(7L, Cart.CartStatus.ACTIVE))
+                .thenReturn(Optional.of(stored), Optional.of(changedElsewhere));
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE cart"), anyList()))
+                .thenReturn(new int[]{0}, new int[]{1});
+
+        cartStore.update(7L, false, cart -> {
+            cart.setQuantity(cart.findById(1L), 3);
+            return null;
+        });
+        cartStore.flush();
+
+        List<Integer> quantities = cartStore.read(7L, false, cart -> cart.getLines().stream()
+                .map(CartLine::getQuantity).toList());
+        assertThat(quantities).containsExactly(3, 5);
+        assertThat(cartStore.read(7L, false, CartState::getTotalPrice))
+                .isEqualByComparingTo("80.00");
+
+        cartStore.flush();
+
+        List<Object[]> carts = captureBatch("UPDATE cart");
+        assertThat(carts.getFirst()[4]).isEqualTo(4L);
+        assertThat(captureBatch("INSERT INTO cart_item")).singleElement()
+                .satisfies(row -> assertThat(row[3]).isEqualTo(3));
+    }
+
+    @Test
+    void flush_shouldKeepChangesWhenWriteFails() {
+        CartStore cartStore = newStore(CartStore.Routing.STICKY);
+        stubStoredCart(cart(0, item(1L, 1), item(2L, 1)));
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE cart"), anyList()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[]{1});
+
+        cartStore.update(7L, false, cart -> {
+            cart.remove(cart.findById(2L));
+            return null;
+        });
+        cartStore.flush();
+        cartStore.flush();
+
+        ArgumentCaptor<List<Object[]>> deletes = ArgumentCaptor.captor();
+        verify(jdbcTemplate).batchUpdate(startsWith("DELETE FROM cart_item"), deletes.capture());
+        assertThat(deletes.getValue()).singleElement()
+                .satisfies(row -> assertThat(row[0]).isEqualTo(2L));
+    }
+
+    @Test
+    void update_withSharedRouting_shouldCheckVersionAndWriteThrough() {
+        CartStore cartStore = newStore(CartStore.Routing.SHARED);
+        stubStoredCart(cart(0, item(1L, 1)));
+        when(jdbcTemplate.queryForList(startsWith("SELECT version"), eq(Long.class), eq(1L)))
+                .thenReturn(List.of(0L));
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE cart"), anyList()))
+                .thenReturn(new int[]{1});
+
+        cartStore.update(7L, false, cart -> {
+            cart.setQuantity(cart.findById(1L), 2);
+            return null;
+        });
+
+        assertThat(captureBatch("INSERT INTO cart_item")).singleElement()
+                .satisfies(row -> assertThat(row[3]).isEqualTo(2));
+        assertThat(cartStore.read(7L, false, CartState::isDirty)).isFalse();
+        verify(jdbcTemplate, times(2))
+                .queryForList(startsWith("SELECT version"), eq(Long.class), eq(1L));
+    }
+
+    @Test
+    void checkout_shouldWritePendingLinesAndCloseCart() {
+        CartStore cartStore = newStore(CartStore.Routing.STICKY);
+        stubStoredCart(cart(0, item(1L, 1)));
+        when(jdbcTemplate.update(startsWith("UPDATE cart SET status = 'COMPLETED'"), any(),
+                any(), any(), eq(1L), eq(0L))).thenReturn(1);
+
+        cartStore.update(7L, false, cart -> {
+            cart.setQuantity(cart.findById(1L), 2);
+            return null;
+        });
+        Long cartId = cartStore.checkout(7L, CartState::getCartId);
+        cartStore.flush();
+
+        assertThat(cartId).isEqualTo(1L);
+        assertThat(captureBatch("INSERT INTO cart_item")).singleElement()
+                .satisfies(row -> assertThat(row[3]).isEqualTo(2));
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("UPDATE cart"), anyList());
+    }
+
+    @Test
+    void checkout_shouldMergeAndRejectCartChangedByAnotherNode() {
+        CartStore cartStore = newStore(CartStore.Routing.STICKY);
+        when(cartRepository.findWithItemsByUserIdAndStatus(7L, Cart.CartStatus.ACTIVE))
+                .thenReturn(Optional.of(cart(0, item(1L, 1))),
+                        Optional.of(cart(4, item(1L, 1), item(2L, 5))));
+        when(jdbcTemplate.update(startsWith("UPDATE cart SET status = 'COMPLETED'"), any(),
+                any(), any(), eq(1L), eq(0L))).thenReturn(0);
+
+        cartStore.update(7L, false, cart -> {
+            cart.setQuantity(cart.findById(1L), 3);
+            return null;
+        });
+
+        assertThatThrownBy(() -> cartStore.checkout(7L, CartState::getCartId))
+                .isInstanceOf(CartChangedException.class);
+        List<Integer> quantities = cartStore.read(7L, false, cart -> cart.getLines().stream()
+                .map(CartLine::getQuantity).toList());
+        assertThat(quantities).containsExactly(3, 5);
+        assertThat(cartStore.read(7L, false, CartState::getVersion)).isEqualTo(4L);
+    }
+
+    @Test
+    void writeDirect_shouldFlushPendingChangesFirstAndReloadCart() {
+        CartStore cartStore = newStore(CartStore.Routing.STICKY);
+        when(cartRepository.findWithItemsByUserIdAndStatus(7L, Cart.CartStatus.ACTIVE))
+                .thenReturn(Optional.of(cart(0, item(1L, 1))),
+                        Optional.of(cart(2, item(1L, 2), item(2L, 4))));
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE cart"), anyList()))
+                .thenReturn(new int[]{1});
+
+        cartStore.update(7L, false, cart -> {
+            cart.setQuantity(cart.findById(1L), 2);
+            return null;
+        });
+        List<Long> written = new ArrayList<>();
+        cartStore.writeDirect(7L, cartId -> {
+            verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO cart_item"), anyList());
+            return written.add(cartId);
+        });
+
+        assertThat(written).containsExactly(1L);
+        List<Integer> quantities = cartStore.read(7L, false, cart -> cart.getLines().stream()
+                .map(CartLine::getQuantity).toList());
+        assertThat(quantities).containsExactly(2, 4);
+        assertThat(cartStore.read(7L, false, CartState::isDirty)).isFalse();
+    }
+
+    @Test
+    void summary_shouldAnswerFromMemory_whenCartIsHeld() {
+        CartStore cartStore = newStore(CartStore.Routing.STICKY);
+        stubStoredCart(cart(0, item(1L, 1), item(2L, 3)));
+
+        cartStore.update(7L, false, cart -> {
+            cart.remove(cart.findById(1L));
+            return null;
+        });
+        CartStore.Summary summary = cartStore.summary(7L);
+
+        assertThat(summary.itemCount()).isEqualTo(1);
+        assertThat(summary.totalPrice()).isEqualByComparingTo("30.00");
+        verify(jdbcTemplate, never()).query(startsWith("SELECT item_count"),
+                any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    void summary_shouldReadCartRowOnly_whenCartIsNotHeld() {
+        CartStore cartStore = newStore(CartStore.Routing.STICKY);
+        when(jdbcTemplate.query(startsWith("SELECT item_count"), any(RowMapper.class), eq(7L)))
+                .thenReturn(List.of(new CartStore.Summary(2, new BigDecimal("25.00"))));
+        when(jdbcTemplate.query(startsWith("SELECT item_count"), any(RowMapper.class), eq(8L)))
+                .thenReturn(List.of());
+
+        assertThat(cartStore.summary(7L).itemCount()).isEqualTo(2);
+        assertThat(cartStore.summary(8L)).isEqualTo(new CartStore.Summary(0, BigDecimal.ZERO));
+        verifyNoInteractions(cartRepository);
+    }
+
+    @Test
+    void nextItemId_shouldReserveIdsInBlocks() {
+        CartStore cartStore = newStore(CartStore.Routing.STICKY);
+        when(jdbcTemplate.queryForList(startsWith("SELECT nextval"), eq(Long.class), eq(50)))
+                .thenReturn(LongStream.rangeClosed(101, 150).boxed().toList());
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ids.add(cartStore.nextItemId());
+        }
+
+        assertThat(ids).doesNotHaveDuplicates().startsWith(101L).endsWith(150L);
+        verify(jdbcTemplate, times(1))
+                .queryForList(startsWith("SELECT nextval"), eq(Long.class), eq(50));
+    }
+
+    private CartStore newStore(CartStore.Routing routing) {
+        return new CartStore(cartRepository, jdbcTemplate, new NoOpTransactionManager(),
+                new SimpleMeterRegistry(), 1_000, Duration.ofMinutes(30), routing, 100);
+    }
+
+    private void stubStoredCart(Cart cart) {
+        when(cartRepository.findWithItemsByUserIdAndStatus(7L, Cart.CartStatus.ACTIVE))
+                .thenReturn(Optional.of(cart));
+    }
+
+    private List<Object[]> captureBatch(String sqlPrefix) {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.captor();
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(startsWith(sqlPrefix), rows.capture());
+        return rows.getValue();
+    }
+
+    private static Cart cart(long version, CartItem... items) {
+        Cart cart = new Cart();
+        cart.setId(1L);
+        cart.setUserId(7L);
+        cart.setVersion(version);
+        for (CartItem item : items) {
+            cart.addCartItem(item);
+        }
+        return cart;
+    }
+
+    private static CartItem item(Long id, int quantity) {
+        Product product = new Product();
+        product.setId(id * 10);
+        product.setName("Product " + id);
+
+        CartItem item = new CartItem();
+        item.setId(id);
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setPrice(new BigDecimal("10.00"));
+        return item;
+    }
+
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.marketnest.ecommerce.service.cart;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartSweeperTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CartSweeper cartSweeper;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cartSweeper = new CartSweeper(jdbcTemplate, meterRegistry, Duration.ofDays(14),
+                Duration.ofDays(90), Duration.ofDays(30), 100);
+    }
+
+    @Test
+    void sweep_shouldRepeatEachStepUntilChunkComesBackShort() {
+        when(jdbcTemplate.update(startsWith("UPDATE cart SET status = 'ABANDONED'"), any(),
+                any(), eq(100))).thenReturn(100, 100, 7);
+        when(jdbcTemplate.update(startsWith("WITH purged"), any(), eq(100))).thenReturn(3);
+        when(jdbcTemplate.update(startsWith("DELETE FROM guest_carts"), any(), eq(100)))
+                .thenReturn(0);
+
+        cartSweeper.sweep();
+
+        verify(jdbcTemplate, times(3)).update(startsWith("UPDATE cart SET status = 'ABANDONED'"),
+                any(), any(), eq(100));
+        verify(jdbcTemplate, times(1)).update(startsWith("WITH purged"), any(), eq(100));
+        assertThat(count("abandoned")).isEqualTo(207);
+        assertThat(count("purged")).isEqualTo(3);
+        assertThat(count("guest-purged")).isZero();
+    }
+
+    @Test
+    void sweep_shouldContinueWithNextStep_whenOneFails() {
+        when(jdbcTemplate.update(startsWith("UPDATE cart SET status = 'ABANDONED'"), any(),
+                any(), eq(100))).thenReturn(100)
+                .thenThrow(new QueryTimeoutException("timeout"));
+        when(jdbcTemplate.update(startsWith("WITH purged"), any(), eq(100))).thenReturn(0);
+        when(jdbcTemplate.update(startsWith("DELETE FROM guest_carts"), any(), eq(100)))
+                .thenReturn(5);
+
+        cartSweeper.sweep();
+
+        assertThat(count("abandoned")).isEqualTo(100);
+        assertThat(count("guest-purged")).isEqualTo(5);
+    }
+
+    private double count(String action) {
+        return meterRegistry.get("cart.sweeper.carts").tag("action", action).counter().count();
+    }
+}
@@ -0,0 +1,121 @@
+package com.marketnest.ecommerce.service.cart;
+
+import com.marketnest.ecommerce.dto.cart.CartItemRequest;
+import com.marketnest.ecommerce.exception.ResourceNotFoundException;
+import com.marketnest.ecommerce.mapper.cart.CartMapper;
+import com.marketnest.ecommerce.model.Product;
+import com.marketnest.ecommerce.model.User;
+import com.marketnest.ecommerce.repository.ProductRepository;
+import com.marketnest.ecommerce.repository.ProductVariantRepository;
+import com.marketnest.ecommerce.repository.UserRepository;
+import com.marketnest.ecommerce.util.HtmlEscapeUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GuestCartServiceTest {
+
+    @Mock
+    private GuestCartStore guestCartStore;
+
+    @Mock
+    private CartStore cartStore;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductVariantRepository variantRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CartMapper cartMapper;
+
+    @Mock
+    private HtmlEscapeUtil htmlEscapeUtil;
+
+    private GuestCartService guestCartService;
+
+    private CartItemRequest cartItemRequest;
+
+    @BeforeEach
+    void setUp() {
+        guestCartService = new GuestCartService(guestCartStore, cartStore,
+                new CartPricing(productRepository, variantRepository), userRepository, cartMapper,
+                htmlEscapeUtil, new SyncTaskExecutor());
+
+        cartItemRequest = new CartItemRequest();
+        cartItemRequest.setProductId(1L);
+        cartItemRequest.setQuantity(2);
+    }
+
+    @Test
+    void addToCart_shouldAddItemAtCurrentPrice_andReturnOpenToken() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setPrice(new BigDecimal("99.99"));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(guestCartStore.open("merged-token")).thenReturn("new-token");
+
+        String token = guestCartService.addToCart("merged-token", cartItemRequest);
+
+        assertThat(token).isEqualTo("new-token");
+        verify(guestCartStore).addItem("new-token", 1L, 2, new BigDecimal("99.99"));
+    }
+
+    @Test
+    void addToCart_shouldThrowException_whenProductNotFound() {
+        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> guestCartService.addToCart("token", cartItemRequest))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(guestCartStore);
+    }
+
+    @Test
+    void removeCartItem_shouldThrowException_whenItemNotInCart() {
+        when(guestCartStore.removeItem("token", 1L)).thenReturn(false);
+
+        assertThatThrownBy(() -> guestCartService.removeCartItem("token", 1L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void mergeAfterLogin_shouldMergeGuestCartIntoUserCart() {
+        User user = new User();
+        user.setUserId(7L);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+        when(cartStore.writeDirect(eq(7L), any())).thenAnswer(invocation ->
+                invocation.<Function<Long, ?>>getArgument(1).apply(3L));
+        when(guestCartStore.mergeInto("token", 3L)).thenReturn(2);
+
+        guestCartService.mergeAfterLogin("test@example.com", "token");
+
+        verify(guestCartStore).mergeInto("token", 3L);
+    }
+
+    @Test
+    void mergeAfterLogin_shouldNotFailLogin_whenMergeFails() {
+        when(userRepository.findByEmail("test@example.com"))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        guestCartService.mergeAfterLogin("test@example.com", "token");
+
+        verifyNoInteractions(cartStore, guestCartStore);
+    }
+}
@@ -1,6 +1,7 @@
 package com.marketnest.ecommerce.service.category;
 
 import com.marketnest.ecommerce.dto.category.CategoryRequestDto;
+import com.marketnest.ecommerce.event.CategoryChangedEvent;
 import com.marketnest.ecommerce.exception.ResourceNotFoundException;
 import com.marketnest.ecommerce.model.Category;
 import com.marketnest.ecommerce.repository.CategoryRepository;
@@ -12,6 +13,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mock.web.MockMultipartFile;
 
 import java.util.List;
@@ -31,6 +33,9 @@ class CategoryServiceTest {
     @Mock
     private CloudinaryService cloudinaryService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -185,6 +190,7 @@ class CategoryServiceTest {
         assertThat(result.getName()).isEqualTo("Updated Electronics");
         assertThat(result.getDescription()).isEqualTo("Updated description");
         verify(categoryRepository).save(testCategory);
+        verify(eventPublisher).publishEvent(any(CategoryChangedEvent.class));
     }
 
     @Test
@@ -4,6 +4,7 @@ import com.marketnest.ecommerce.dto.coupon.CouponResponse;
 import com.marketnest.ecommerce.dto.coupon.CouponValidationResponse;
 import com.marketnest.ecommerce.dto.coupon.CreateCouponRequest;
 import com.marketnest.ecommerce.dto.coupon.UpdateCouponRequest;
+import com.marketnest.ecommerce.dto.pagination.CursorPageResponse;
 import com.marketnest.ecommerce.exception.ResourceNotFoundException;
 import com.marketnest.ecommerce.mapper.coupon.CouponMapper;
 import com.marketnest.ecommerce.model.Coupon;
@@ -18,10 +19,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -109,6 +113,21 @@ class CouponServiceTest {
         verify(couponRepository).findAll(pageable);
     }
 
+    @Test
+    void getAllCouponsByCursor_shouldReturnLastPageWithoutCursor() {
+        when(couponRepository.findByOrderByCreatedAtDescIdDesc(ScrollPosition.keyset(),
+                Limit.of(20)))
+                .thenReturn(Window.from(List.of(testCoupon), ScrollPosition::offset, false));
+        when(couponMapper.toResponse(testCoupon)).thenReturn(couponResponse);
+
+        CursorPageResponse<CouponResponse> result = couponService.getAllCouponsByCursor("", 20);
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.isHasNext()).isFalse();
+        assertThat(result.getNextCursor()).isNull();
+        verify(couponRepository, never()).findAll(any(Pageable.class));
+    }
+
     @Test
     void getCouponById_shouldReturnCoupon_whenExists() {
         when(couponRepository.findById(1L)).thenReturn(Optional.of(testCoupon));
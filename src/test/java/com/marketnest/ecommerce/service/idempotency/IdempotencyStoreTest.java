@@ -0,0 +1,117 @@
+package com.marketnest.ecommerce.service.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private IdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyStore = new IdempotencyStore(jdbcTemplate, new SimpleMeterRegistry(),
+                Duration.ofHours(24), Duration.ofSeconds(5), Duration.ofMinutes(2), 1_000);
+    }
+
+    @Test
+    void claim_shouldReplayCompletedResponseFromMemory() {
+        mockClaim("key", "body-hash", 1);
+
+        assertThat(idempotencyStore.claim("key", "body-hash").outcome())
+                .isEqualTo(IdempotencyStore.Outcome.ACQUIRED);
+        idempotencyStore.complete("key", response("body-hash"));
+
+        IdempotencyStore.Claim retry = idempotencyStore.claim("key", "body-hash");
+        IdempotencyStore.Claim otherBody = idempotencyStore.claim("key", "other-hash");
+
+        assertThat(retry.outcome()).isEqualTo(IdempotencyStore.Outcome.REPLAY);
+        assertThat(retry.response().status()).isEqualTo(201);
+        assertThat(otherBody.outcome()).isEqualTo(IdempotencyStore.Outcome.MISMATCH);
+        verify(jdbcTemplate, times(1)).update(startsWith("INSERT INTO idempotency_keys"),
+                eq("key"), eq("body-hash"), anyLong(), anyLong());
+    }
+
+    @Test
+    void claim_withConcurrentDuplicate_shouldWaitForFirstRequest() throws Exception {
+        mockClaim("key", "body-hash", 1);
+        idempotencyStore.claim("key", "body-hash");
+
+        CompletableFuture<IdempotencyStore.Claim> duplicate =
+                CompletableFuture.supplyAsync(() -> idempotencyStore.claim("key", "body-hash"));
+        Thread.sleep(100);
+        assertThat(duplicate).isNotDone();
+
+        idempotencyStore.complete("key", response("body-hash"));
+
+        IdempotencyStore.Claim claim = duplicate.get(5, TimeUnit.SECONDS);
+        assertThat(claim.outcome()).isEqualTo(IdempotencyStore.Outcome.REPLAY);
+        verify(jdbcTemplate, times(1)).update(startsWith("INSERT INTO idempotency_keys"),
+                eq("key"), eq("body-hash"), anyLong(), anyLong());
+    }
+
+    @Test
+    void claim_afterFirstRequestAbandoned_shouldLetDuplicateRunIt() throws Exception {
+        mockClaim("key", "body-hash", 1);
+        idempotencyStore.claim("key", "body-hash");
+
+        CompletableFuture<IdempotencyStore.Claim> duplicate =
+                CompletableFuture.supplyAsync(() -> idempotencyStore.claim("key", "body-hash"));
+        Thread.sleep(100);
+        idempotencyStore.abandon("key");
+
+        assertThat(duplicate.get(5, TimeUnit.SECONDS).outcome())
+                .isEqualTo(IdempotencyStore.Outcome.ACQUIRED);
+        verify(jdbcTemplate).update(startsWith("DELETE FROM idempotency_keys"), eq("key"));
+    }
+
+    @Test
+    void claim_shouldReplayResponseStoredByAnotherInstance() throws Exception {
+        mockClaim("key", "body-hash", 0);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString("fingerprint")).thenReturn("body-hash");
+        when(resultSet.getInt("response_status")).thenReturn(201);
+        when(resultSet.getString("content_type")).thenReturn("application/json");
+        when(resultSet.getBytes("response_body"))
+                .thenReturn("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        when(jdbcTemplate.query(startsWith("SELECT fingerprint"), any(RowMapper.class), eq("key")))
+                .thenAnswer(invocation -> List.of(
+                        invocation.<RowMapper<?>>getArgument(1).mapRow(resultSet, 0)));
+
+        IdempotencyStore.Claim claim = idempotencyStore.claim("key", "body-hash");
+
+        assertThat(claim.outcome()).isEqualTo(IdempotencyStore.Outcome.REPLAY);
+        assertThat(new String(claim.response().body(), StandardCharsets.UTF_8))
+                .isEqualTo("{\"id\":1}");
+    }
+
+    private void mockClaim(String key, String fingerprint, int updated) {
+        lenient().when(jdbcTemplate.update(startsWith("INSERT INTO idempotency_keys"), eq(key),
+                eq(fingerprint), anyLong(), anyLong())).thenReturn(updated);
+    }
+
+    private static IdempotencyStore.StoredResponse response(String fingerprint) {
+        return new IdempotencyStore.StoredResponse(fingerprint, 201, "application/json",
+                "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,228 @@
+package com.marketnest.ecommerce.service.inventory;
+
+import com.marketnest.ecommerce.dto.variant.FlashSaleStatusDto;
+import com.marketnest.ecommerce.event.ProductChangedEvent;
+import com.marketnest.ecommerce.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlashSaleStockServiceTest {
+
+    private static final String ENABLE = "UPDATE product_variants SET flash_sale = true";
+    private static final String DISABLE = "UPDATE product_variants SET flash_sale = false";
+    private static final String CLAIMABLE = "SELECT stock_quantity - flash_sale_allocated";
+    private static final String ACTIVE_VARIANTS =
+            "SELECT id FROM product_variants WHERE flash_sale";
+    private static final String PENDING_VARIANTS = "SELECT DISTINCT variant_id";
+    private static final String APPLY_PENDING = "WITH applied";
+    private static final String CLAIM_SHARE = "INSERT INTO flash_sale_allocations";
+    private static final String RETURN_SHARE = "WITH returned";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final NoOpTransactionManager transactionManager = new NoOpTransactionManager();
+
+    private FlashSaleStockService flashSaleStockService;
+
+    @BeforeEach
+    void setUp() {
+        flashSaleStockService = new FlashSaleStockService(jdbcTemplate, transactionManager,
+                eventPublisher, 4, "node-a", 3, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void enable_shouldClaimAShareAndReturnUnitsOfRolledBackCheckouts() {
+        flashSaleStockService.flush();
+        lenient().when(jdbcTemplate.update(startsWith(ENABLE), eq(5L))).thenReturn(1);
+        lenient().when(jdbcTemplate.queryForList(startsWith(CLAIMABLE),
+                eq(Integer.class), eq(5L))).thenReturn(List.of(5));
+
+        FlashSaleStatusDto status = flashSaleStockService.enable(5L);
+
+        assertThat(status.isActive()).isTrue();
+        assertThat(status.getAvailableStock()).isEqualTo(3);
+        assertThat(status.getStripes()).isEqualTo(4);
+        verify(jdbcTemplate).update(startsWith(CLAIM_SHARE), eq(5L), eq("node-a"), eq(3));
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(tx -> {
+            assertThat(flashSaleStockService.tryTake(5L, 2))
+                    .isEqualTo(StripedStockCounter.Outcome.TAKEN);
+            tx.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(tx -> assertThat(
+                flashSaleStockService.tryTake(5L, 3)).isEqualTo(StripedStockCounter.Outcome.TAKEN));
+
+        assertThat(flashSaleStockService.tryTake(6L, 1))
+                .isEqualTo(StripedStockCounter.Outcome.CLOSED);
+    }
+
+    @Test
+    void flush_shouldTopCounterUpToClaimSize_whileCheckoutsNeverClaim() {
+        flashSaleStockService.flush();
+        lenient().when(jdbcTemplate.update(startsWith(ENABLE), eq(5L))).thenReturn(1);
+        lenient().when(jdbcTemplate.queryForList(startsWith(CLAIMABLE), eq(Integer.class),
+                eq(5L))).thenReturn(List.of(5), List.of(1));
+        lenient().when(jdbcTemplate.queryForList(startsWith(ACTIVE_VARIANTS), eq(Long.class)))
+                .thenReturn(List.of(5L));
+        flashSaleStockService.enable(5L);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(tx -> assertThat(
+                flashSaleStockService.tryTake(5L, 2)).isEqualTo(StripedStockCounter.Outcome.TAKEN));
+        assertThat(flashSaleStockService.tryTake(5L, 2))
+                .isEqualTo(StripedStockCounter.Outcome.INSUFFICIENT);
+        flashSaleStockService.flush();
+
+        verify(jdbcTemplate, times(2))
+                .queryForList(startsWith(CLAIMABLE), eq(Integer.class), eq(5L));
+        verify(jdbcTemplate).update(startsWith(CLAIM_SHARE), eq(5L), eq("node-a"), eq(3));
+        verify(jdbcTemplate).update(startsWith(CLAIM_SHARE), eq(5L), eq("node-a"), eq(1));
+        transactionTemplate.executeWithoutResult(tx -> assertThat(
+                flashSaleStockService.tryTake(5L, 2)).isEqualTo(StripedStockCounter.Outcome.TAKEN));
+    }
+
+    @Test
+    void enable_shouldNotSellFromCounter_untilNodeHoldsItsLease() {
+        lenient().when(jdbcTemplate.update(startsWith(ENABLE), eq(5L))).thenReturn(1);
+
+        flashSaleStockService.enable(5L);
+
+        assertThat(flashSaleStockService.isActive(5L)).isFalse();
+        assertThat(flashSaleStockService.tryTake(5L, 1))
+                .isEqualTo(StripedStockCounter.Outcome.CLOSED);
+        verify(jdbcTemplate, never()).queryForList(
+                startsWith(CLAIMABLE), eq(Integer.class), any());
+
+        lenient().when(jdbcTemplate.queryForList(startsWith(ACTIVE_VARIANTS),
+                eq(Long.class))).thenReturn(List.of(5L));
+        flashSaleStockService.flush();
+
+        assertThat(flashSaleStockService.isActive(5L)).isTrue();
+    }
+
+    @Test
+    void enable_shouldThrowException_whenVariantNotFound() {
+        flashSaleStockService.flush();
+        lenient().when(jdbcTemplate.update(startsWith(ENABLE), eq(9L))).thenReturn(0);
+
+        assertThatThrownBy(() -> flashSaleStockService.enable(9L))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(flashSaleStockService.isActive(9L)).isFalse();
+    }
+
+    @Test
+    void flush_shouldWriteBackSalesAndHandBackSharesOfLapsedNodes() throws Exception {
+        lenient().when(jdbcTemplate.queryForList(startsWith(PENDING_VARIANTS), eq(Long.class)))
+                .thenReturn(List.of(5L));
+        lenient().when(jdbcTemplate.queryForList(startsWith(APPLY_PENDING), eq(Long.class), eq(5L),
+                eq(5L), eq(5L))).thenReturn(List.of(1L));
+        stubReturnableShares(7L, "node-b");
+
+        flashSaleStockService.flush();
+
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof ProductChangedEvent changed && changed.getProductId() == 1L
+                && changed.getType() == ProductChangedEvent.Type.STOCK_CHANGED));
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).update(startsWith("UPDATE flash_sale_allocations"),
+                eq("node-a"));
+        inOrder.verify(jdbcTemplate).queryForList(startsWith("SELECT id FROM product_variants"),
+                eq(Long.class), eq(7L));
+        inOrder.verify(jdbcTemplate).queryForList(startsWith(APPLY_PENDING), eq(Long.class),
+                eq(7L), eq(7L), eq(7L));
+        inOrder.verify(jdbcTemplate).update(startsWith(RETURN_SHARE), eq(7L), eq("node-b"),
+                eq(30L));
+    }
+
+    @Test
+    void flush_shouldCloseCounterAndHandBackShare_whenVariantDisabledOnAnotherNode()
+            throws Exception {
+        lenient().when(jdbcTemplate.queryForList(startsWith(ACTIVE_VARIANTS),
+                eq(Long.class))).thenReturn(List.of(5L), List.of());
+        flashSaleStockService.flush();
+        assertThat(flashSaleStockService.isActive(5L)).isTrue();
+
+        stubReturnableShares(5L, "node-a");
+        flashSaleStockService.flush();
+
+        assertThat(flashSaleStockService.isActive(5L)).isFalse();
+        verify(jdbcTemplate).update(startsWith(RETURN_SHARE), eq(5L), eq("node-a"), eq(0L));
+    }
+
+    @Test
+    void disable_shouldStopServingFromCounterAndHandBackItsShare() {
+        flashSaleStockService.flush();
+        lenient().when(jdbcTemplate.update(startsWith(ENABLE), eq(5L))).thenReturn(1);
+        lenient().when(jdbcTemplate.update(startsWith(DISABLE), eq(5L))).thenReturn(1);
+        lenient().when(jdbcTemplate.queryForList(startsWith(CLAIMABLE),
+                eq(Integer.class), eq(5L))).thenReturn(List.of(5));
+        flashSaleStockService.enable(5L);
+
+        FlashSaleStatusDto status = flashSaleStockService.disable(5L);
+
+        assertThat(status.isActive()).isFalse();
+        assertThat(flashSaleStockService.isActive(5L)).isFalse();
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).queryForList(startsWith(APPLY_PENDING), eq(Long.class),
+                eq(5L), eq(5L), eq(5L));
+        inOrder.verify(jdbcTemplate).update(startsWith(RETURN_SHARE), eq(5L), eq("node-a"), eq(0L));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubReturnableShares(long variantId, String nodeId) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong(1)).thenReturn(variantId);
+        when(resultSet.getString(2)).thenReturn(nodeId);
+        doAnswer(invocation -> List.of(invocation.<RowMapper<Object>>getArgument(1)
+                .mapRow(resultSet, 0)))
+                .when(jdbcTemplate).query(startsWith("SELECT variant_id, node_id"),
+                        any(RowMapper.class), eq("node-a"), eq(30L));
+    }
+
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
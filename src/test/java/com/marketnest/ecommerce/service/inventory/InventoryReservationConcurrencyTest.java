@@ -0,0 +1,233 @@
+package com.marketnest.ecommerce.service.inventory;
+
+import com.marketnest.ecommerce.exception.InsufficientStockException;
+import com.marketnest.ecommerce.model.Category;
+import com.marketnest.ecommerce.model.InventoryReservation;
+import com.marketnest.ecommerce.model.OrderItem;
+import com.marketnest.ecommerce.model.Product;
+import com.marketnest.ecommerce.model.ProductVariant;
+import com.marketnest.ecommerce.repository.CategoryRepository;
+import com.marketnest.ecommerce.repository.InventoryReservationRepository;
+import com.marketnest.ecommerce.repository.OrderRepository;
+import com.marketnest.ecommerce.repository.ProductRepository;
+import com.marketnest.ecommerce.repository.ProductVariantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({InventoryReservationService.class, FlashSaleStockService.class})
+class InventoryReservationConcurrencyTest {
+
+    private static final int STOCK = 25;
+    private static final int BUYERS = 400;
+
+    @Container
+    @SuppressWarnings("resource")
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Autowired
+    private InventoryReservationService inventoryReservationService;
+
+    @Autowired
+    private FlashSaleStockService flashSaleStockService;
+
+    @Autowired
+    private InventoryReservationRepository reservationRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductVariantRepository variantRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Product product;
+    private ProductVariant variant;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+    }
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository.deleteAll();
+        variantRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+
+        Category category = new Category();
+        category.setName("Flash Sale");
+        category.setSlug("flash-sale");
+        category = categoryRepository.save(category);
+
+        product = new Product();
+        product.setName("Limited Sneakers");
+        product.setSlug("limited-sneakers");
+        product.setSku("SNEAKER-001");
+        product.setPrice(new BigDecimal("199.99"));
+        product.setStockQuantity(STOCK);
+        product.setCategoryId(category.getId());
+        product.setIsActive(true);
+        product = productRepository.save(product);
+
+        variant = new ProductVariant();
+        variant.setProductId(product.getId());
+        variant.setSku("SNEAKER-001-42");
+        variant.setPrice(new BigDecimal("199.99"));
+        variant.setStockQuantity(STOCK);
+        variant = variantRepository.save(variant);
+    }
+
+    @Test
+    void reserve_withHundredsOfConcurrentBuyers_shouldSellExactlyTheRemainingStock()
+            throws InterruptedException {
+        assertConcurrentBuyersSellExactlyTheRemainingStock(List.of(inventoryReservationService),
+                List.of(flashSaleStockService));
+    }
+
+    @Test
+    void reserve_inFlashSaleMode_shouldSellExactlyTheRemainingStockAndWriteItBack()
+            throws InterruptedException {
+        flashSaleStockService.reconcile();
+        flashSaleStockService.enable(variant.getId());
+
+        assertConcurrentBuyersSellExactlyTheRemainingStock(List.of(inventoryReservationService),
+                List.of(flashSaleStockService));
+        assertThat(reservationRepository.findAll())
+                .allSatisfy(reservation -> assertThat(reservation.getStockApplied()).isTrue());
+
+        flashSaleStockService.disable(variant.getId());
+    }
+
+    @Test
+    void reserve_inFlashSaleModeOnTwoNodes_shouldSellTheStockOnceAcrossBothNodes()
+            throws InterruptedException {
+        FlashSaleStockService nodeA = flashSaleStockService("node-a");
+        FlashSaleStockService nodeB = flashSaleStockService("node-b");
+        nodeA.reconcile();
+        nodeB.reconcile();
+        nodeA.enable(variant.getId());
+        nodeB.flush();
+
+        assertConcurrentBuyersSellExactlyTheRemainingStock(
+                List.of(inventoryReservationService(nodeA), inventoryReservationService(nodeB)),
+                List.of(nodeA, nodeB));
+        assertThat(reservationRepository.findAll())
+                .extracting(InventoryReservation::getNodeId)
+                .contains("node-a", "node-b");
+
+        nodeA.disable(variant.getId());
+        nodeB.flush();
+        assertThat(variantRepository.findById(variant.getId()).orElseThrow()
+                .getFlashSaleAllocated()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM flash_sale_allocations",
+                Long.class)).isZero();
+    }
+
+    private FlashSaleStockService flashSaleStockService(String nodeId) {
+        return new FlashSaleStockService(jdbcTemplate, transactionManager, eventPublisher, 4,
+                nodeId, 10, Duration.ofSeconds(30));
+    }
+
+    private InventoryReservationService inventoryReservationService(
+            FlashSaleStockService flashSaleStockService) {
+        return new InventoryReservationService(reservationRepository, productRepository,
+                variantRepository, orderRepository, eventPublisher, flashSaleStockService,
+                transactionManager, Duration.ofMinutes(15), 100);
+    }
+
+    private void assertConcurrentBuyersSellExactlyTheRemainingStock(
+            List<InventoryReservationService> nodes, List<FlashSaleStockService> flashSales)
+            throws InterruptedException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long orderId = 1; orderId <= BUYERS; orderId++) {
+                long buyerOrderId = orderId;
+                executor.submit(() -> {
+                    start.await();
+                    try {
+                        InventoryReservationService node =
+                                nodes.get((int) (buyerOrderId % nodes.size()));
+                        transactionTemplate.executeWithoutResult(status ->
+                                node.reserve(buyerOrderId, List.of(item(1))));
+                        sold.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+        flashSales.forEach(FlashSaleStockService::flush);
+
+        assertThat(sold).hasValue(STOCK);
+        assertThat(rejected).hasValue(BUYERS - STOCK);
+        assertThat(variantRepository.findById(variant.getId()).orElseThrow().getStockQuantity())
+                .isZero();
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity())
+                .isZero();
+        assertThat(reservationRepository.count()).isEqualTo(STOCK);
+    }
+
+    private OrderItem item(int quantity) {
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setVariant(variant);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
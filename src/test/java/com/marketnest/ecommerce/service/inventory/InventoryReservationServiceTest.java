@@ -0,0 +1,253 @@
+package com.marketnest.ecommerce.service.inventory;
+
+import com.marketnest.ecommerce.event.OrderChangedEvent;
+import com.marketnest.ecommerce.exception.InsufficientStockException;
+import com.marketnest.ecommerce.model.*;
+import com.marketnest.ecommerce.model.InventoryReservation.ReservationStatus;
+import com.marketnest.ecommerce.repository.InventoryReservationRepository;
+import com.marketnest.ecommerce.repository.OrderRepository;
+import com.marketnest.ecommerce.repository.ProductRepository;
+import com.marketnest.ecommerce.repository.ProductVariantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryReservationServiceTest {
+
+    @Mock
+    private InventoryReservationRepository reservationRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductVariantRepository variantRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private FlashSaleStockService flashSaleStockService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<List<InventoryReservation>> reservationsCaptor;
+
+    private InventoryReservationService inventoryReservationService;
+
+    @BeforeEach
+    void setUp() {
+        inventoryReservationService = new InventoryReservationService(reservationRepository,
+                productRepository, variantRepository, orderRepository, eventPublisher,
+                flashSaleStockService, transactionManager, Duration.ofMinutes(15), 2);
+    }
+
+    @Test
+    void reserve_shouldTakeStockInIdOrderAndRecordOneReservationPerVariant() {
+        when(variantRepository.decrementStock(anyLong(), anyInt())).thenReturn(1);
+        when(productRepository.decrementStock(anyLong(), anyInt())).thenReturn(1);
+
+        inventoryReservationService.reserve(7L, List.of(
+                item(2L, 20L, 1), item(1L, 10L, 2), item(2L, 20L, 1)));
+
+        InOrder inOrder = inOrder(variantRepository, productRepository);
+        inOrder.verify(variantRepository).decrementStock(10L, 2);
+        inOrder.verify(variantRepository).decrementStock(20L, 2);
+        inOrder.verify(productRepository).decrementStock(1L, 2);
+        inOrder.verify(productRepository).decrementStock(2L, 2);
+
+        verify(reservationRepository).saveAll(reservationsCaptor.capture());
+        assertThat(reservationsCaptor.getValue())
+                .extracting(InventoryReservation::getOrderId, InventoryReservation::getVariantId,
+                        InventoryReservation::getProductId, InventoryReservation::getQuantity,
+                        InventoryReservation::getStatus)
+                .containsExactly(
+                        tuple(7L, 10L, 1L, 2, ReservationStatus.ACTIVE),
+                        tuple(7L, 20L, 2L, 2, ReservationStatus.ACTIVE));
+        assertThat(reservationsCaptor.getValue())
+                .allSatisfy(reservation -> assertThat(reservation.getExpiresAt()).isNotNull());
+    }
+
+    @Test
+    void reserve_shouldThrowException_whenStockIsShort() {
+        when(variantRepository.decrementStock(10L, 3)).thenReturn(0);
+
+        assertThatThrownBy(() -> inventoryReservationService.reserve(7L,
+                List.of(item(1L, 10L, 3))))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("variant: 10");
+
+        verifyNoInteractions(productRepository, reservationRepository, eventPublisher);
+    }
+
+    @Test
+    void reserve_shouldTakeFlashSaleVariantsFromCountersWithoutTouchingTheirRows() {
+        when(flashSaleStockService.isActive(10L)).thenReturn(true);
+        when(flashSaleStockService.tryTake(10L, 2)).thenReturn(StripedStockCounter.Outcome.TAKEN);
+        when(flashSaleStockService.getNodeId()).thenReturn("node-a");
+        when(variantRepository.decrementStock(20L, 1)).thenReturn(1);
+        when(productRepository.decrementStock(2L, 1)).thenReturn(1);
+
+        inventoryReservationService.reserve(7L, List.of(item(1L, 10L, 2), item(2L, 20L, 1)));
+
+        verify(variantRepository, never()).decrementStock(eq(10L), anyInt());
+        verify(productRepository, never()).decrementStock(eq(1L), anyInt());
+        verify(reservationRepository).saveAll(reservationsCaptor.capture());
+        assertThat(reservationsCaptor.getValue())
+                .extracting(InventoryReservation::getVariantId,
+                        InventoryReservation::getStockApplied, InventoryReservation::getNodeId)
+                .containsExactly(tuple(10L, false, "node-a"), tuple(20L, true, null));
+    }
+
+    @Test
+    void reserve_shouldThrowException_whenCounterAndUnclaimedRowAreSoldOut() {
+        when(flashSaleStockService.isActive(10L)).thenReturn(true);
+        when(flashSaleStockService.tryTake(10L, 1))
+                .thenReturn(StripedStockCounter.Outcome.INSUFFICIENT);
+        when(variantRepository.decrementStock(10L, 1)).thenReturn(0);
+
+        assertThatThrownBy(() -> inventoryReservationService.reserve(7L,
+                List.of(item(1L, 10L, 1))))
+                .isInstanceOf(InsufficientStockException.class);
+
+        verifyNoInteractions(productRepository, reservationRepository);
+    }
+
+    @Test
+    void reserve_shouldSellFromVariantRow_whenFlashSaleCounterClosedWhileWaiting() {
+        when(flashSaleStockService.isActive(10L)).thenReturn(true);
+        when(flashSaleStockService.tryTake(10L, 1)).thenReturn(StripedStockCounter.Outcome.CLOSED);
+        when(variantRepository.decrementStock(10L, 1)).thenReturn(1);
+        when(productRepository.decrementStock(1L, 1)).thenReturn(1);
+
+        inventoryReservationService.reserve(7L, List.of(item(1L, 10L, 1)));
+
+        verify(reservationRepository).saveAll(reservationsCaptor.capture());
+        assertThat(reservationsCaptor.getValue())
+                .extracting(InventoryReservation::getStockApplied)
+                .containsExactly(true);
+    }
+
+    @Test
+    void release_shouldLeaveUnappliedFlashSaleUnitsToTheNextFlush() {
+        InventoryReservation flashSale = reservation(3L, 10L, 1L, 2, ReservationStatus.ACTIVE);
+        flashSale.setStockApplied(false);
+        when(reservationRepository.findByOrderIdAndStatusInOrderByVariantId(eq(7L),
+                anyCollection()))
+                .thenReturn(List.of(flashSale));
+        when(reservationRepository.transitionUnapplied(3L, ReservationStatus.ACTIVE,
+                ReservationStatus.RELEASED)).thenReturn(1);
+
+        inventoryReservationService.release(7L);
+
+        verifyNoInteractions(variantRepository, productRepository, flashSaleStockService);
+    }
+
+    @Test
+    void release_shouldReturnStockOnlyForReservationsItTransitioned() {
+        InventoryReservation committed = reservation(1L, 10L, 1L, 2, ReservationStatus.COMMITTED);
+        InventoryReservation raced = reservation(2L, 20L, 1L, 1, ReservationStatus.ACTIVE);
+        when(reservationRepository.findByOrderIdAndStatusInOrderByVariantId(eq(7L),
+                anyCollection()))
+                .thenReturn(List.of(committed, raced));
+        when(reservationRepository.transition(1L, ReservationStatus.COMMITTED,
+                ReservationStatus.RELEASED)).thenReturn(1);
+        when(reservationRepository.transition(2L, ReservationStatus.ACTIVE,
+                ReservationStatus.RELEASED)).thenReturn(0);
+
+        inventoryReservationService.release(7L);
+
+        verify(variantRepository).incrementStock(10L, 2);
+        verify(productRepository).incrementStock(1L, 2);
+        verifyNoMoreInteractions(variantRepository, productRepository);
+    }
+
+    @Test
+    void releaseExpiredReservations_shouldCancelUnpaidOrdersAndKeepPaidOnes() {
+        Order unpaid = order(1L, Order.OrderStatus.PENDING);
+        Order paid = order(2L, Order.OrderStatus.PROCESSING);
+        when(reservationRepository.findOrderIdsByStatusExpiredBefore(
+                eq(ReservationStatus.ACTIVE), any(), any(Limit.class)))
+                .thenReturn(List.of(1L, 2L), List.of());
+        when(orderRepository.findByIdWithLock(1L)).thenReturn(Optional.of(unpaid));
+        when(orderRepository.findByIdWithLock(2L)).thenReturn(Optional.of(paid));
+        when(reservationRepository.findByOrderIdAndStatusInOrderByVariantId(eq(1L),
+                anyCollection()))
+                .thenReturn(List.of(reservation(5L, 10L, 1L, 3, ReservationStatus.ACTIVE)));
+        when(reservationRepository.transition(5L, ReservationStatus.ACTIVE,
+                ReservationStatus.RELEASED)).thenReturn(1);
+
+        inventoryReservationService.releaseExpiredReservations();
+
+        assertThat(unpaid.getStatus()).isEqualTo(Order.OrderStatus.CANCELLED);
+        assertThat(unpaid.getStatusHistory()).singleElement()
+                .extracting(OrderStatusHistory::getCreatedBy).isEqualTo("system");
+        verify(orderRepository).save(unpaid);
+        verify(variantRepository).incrementStock(10L, 3);
+        verify(productRepository).incrementStock(1L, 3);
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof OrderChangedEvent changed && changed.getOrderId() == 1L
+                && changed.getType() == OrderChangedEvent.Type.CANCELLED));
+
+        assertThat(paid.getStatus()).isEqualTo(Order.OrderStatus.PROCESSING);
+        verify(reservationRepository).transitionByOrderId(2L, ReservationStatus.ACTIVE,
+                ReservationStatus.COMMITTED);
+        verify(orderRepository, never()).save(paid);
+    }
+
+    private static OrderItem item(Long productId, Long variantId, int quantity) {
+        Product product = new Product();
+        product.setId(productId);
+        ProductVariant variant = new ProductVariant();
+        variant.setId(variantId);
+        variant.setProductId(productId);
+
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setVariant(variant);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private static InventoryReservation reservation(Long id, Long variantId, Long productId,
+                                                    int quantity, ReservationStatus status) {
+        InventoryReservation reservation = new InventoryReservation();
+        reservation.setId(id);
+        reservation.setVariantId(variantId);
+        reservation.setProductId(productId);
+        reservation.setQuantity(quantity);
+        reservation.setStatus(status);
+        return reservation;
+    }
+
+    private static Order order(Long id, Order.OrderStatus status) {
+        Order order = new Order();
+        order.setId(id);
+        order.setStatus(status);
+        return order;
+    }
+}
@@ -0,0 +1,80 @@
+package com.marketnest.ecommerce.service.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedStockCounterTest {
+
+    @Test
+    void tryTake_shouldGatherUnitsAcrossStripesAndRestoreThemOnShortfall() {
+        StripedStockCounter counter = new StripedStockCounter(10, 3);
+
+        assertThat(counter.stripes()).isEqualTo(4);
+        assertThat(counter.tryTake(7)).isEqualTo(StripedStockCounter.Outcome.TAKEN);
+        assertThat(counter.available()).isEqualTo(3);
+        assertThat(counter.tryTake(4)).isEqualTo(StripedStockCounter.Outcome.INSUFFICIENT);
+        assertThat(counter.available()).isEqualTo(3);
+
+        counter.release(2);
+
+        assertThat(counter.tryTake(5)).isEqualTo(StripedStockCounter.Outcome.TAKEN);
+        assertThat(counter.available()).isZero();
+    }
+
+    @Test
+    void refill_shouldAddClaimedUnitsToWhatIsLeft() {
+        StripedStockCounter counter = new StripedStockCounter(0, 4);
+        assertThat(counter.tryTake(1)).isEqualTo(StripedStockCounter.Outcome.INSUFFICIENT);
+
+        counter.refill(6);
+        assertThat(counter.tryTake(5)).isEqualTo(StripedStockCounter.Outcome.TAKEN);
+        counter.refill(3);
+
+        assertThat(counter.available()).isEqualTo(4);
+        assertThat(counter.tryTake(4)).isEqualTo(StripedStockCounter.Outcome.TAKEN);
+    }
+
+    @Test
+    void close_shouldRejectNewTakesAndWaitForUnfinishedOnes() throws InterruptedException {
+        StripedStockCounter counter = new StripedStockCounter(5, 2);
+        assertThat(counter.tryTake(1)).isEqualTo(StripedStockCounter.Outcome.TAKEN);
+
+        counter.close();
+
+        assertThat(counter.tryTake(1)).isEqualTo(StripedStockCounter.Outcome.CLOSED);
+        assertThat(counter.awaitQuiescence(20)).isFalse();
+        counter.finish();
+        assertThat(counter.awaitQuiescence(20)).isTrue();
+    }
+
+    @Test
+    void tryTake_withConcurrentBuyers_shouldNeverOversell() throws InterruptedException {
+        StripedStockCounter counter = new StripedStockCounter(800, 16);
+        AtomicInteger sold = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int buyer = 0; buyer < 500; buyer++) {
+                int quantity = buyer % 3 + 1;
+                executor.submit(() -> {
+                    start.await();
+                    if (counter.tryTake(quantity) == StripedStockCounter.Outcome.TAKEN) {
+                        sold.addAndGet(quantity);
+                        counter.finish();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertThat(sold.get()).isGreaterThan(700);
+        assertThat(sold.get() + counter.available()).isEqualTo(800);
+    }
+}
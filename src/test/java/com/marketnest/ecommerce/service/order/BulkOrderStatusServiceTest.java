@@ -0,0 +1,169 @@
+package com.marketnest.ecommerce.service.order;
+
+import com.marketnest.ecommerce.dto.order.BulkOrderStatusItemDto;
+import com.marketnest.ecommerce.dto.order.BulkOrderStatusResultDto;
+import com.marketnest.ecommerce.dto.order.BulkOrderStatusUpdateDto;
+import com.marketnest.ecommerce.dto.order.OrderStatusRejectionDto;
+import com.marketnest.ecommerce.model.Order;
+import com.marketnest.ecommerce.model.OrderStatusHistory;
+import com.marketnest.ecommerce.repository.OrderRepository;
+import com.marketnest.ecommerce.repository.OrderStatusHistoryRepository;
+import com.marketnest.ecommerce.service.inventory.InventoryReservationService;
+import com.marketnest.ecommerce.util.HtmlEscapeUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkOrderStatusServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderStatusHistoryRepository statusHistoryRepository;
+
+    @Mock
+    private InventoryReservationService inventoryReservationService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private HtmlEscapeUtil htmlEscapeUtil;
+
+    private BulkOrderStatusService bulkOrderStatusService;
+
+    @BeforeEach
+    void setUp() {
+        bulkOrderStatusService = new BulkOrderStatusService(orderRepository,
+                statusHistoryRepository, inventoryReservationService, jdbcTemplate,
+                htmlEscapeUtil, 2);
+    }
+
+    @Test
+    void updateStatus_shouldUpdateInChunksAndAppendHistory() {
+        when(htmlEscapeUtil.escapeHtml("Evening dispatch")).thenReturn("Evening dispatch");
+        when(jdbcTemplate.queryForList(startsWith("UPDATE orders"), eq(Long.class),
+                eq("SHIPPED"), any(Long[].class), any(String[].class), any(String[].class)))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(orderRepository.getReferenceById(anyLong()))
+                .thenAnswer(invocation -> order(invocation.getArgument(0)));
+
+        BulkOrderStatusResultDto result = bulkOrderStatusService.updateStatus(
+                request("SHIPPED", new BulkOrderStatusItemDto(1L, "TRK-1"),
+                        new BulkOrderStatusItemDto(2L, " "), new BulkOrderStatusItemDto(3L, null)),
+                "admin@example.com");
+
+        assertThat(result.getUpdatedOrders()).isEqualTo(3);
+        assertThat(result.getRejected()).isEmpty();
+
+        ArgumentCaptor<Long[]> ids = ArgumentCaptor.forClass(Long[].class);
+        ArgumentCaptor<String[]> trackingNumbers = ArgumentCaptor.forClass(String[].class);
+        ArgumentCaptor<String[]> sources = ArgumentCaptor.forClass(String[].class);
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(Long.class), eq("SHIPPED"),
+                ids.capture(), trackingNumbers.capture(), sources.capture());
+        assertThat(ids.getAllValues().get(0)).containsExactly(1L, 2L);
+        assertThat(trackingNumbers.getAllValues().get(0)).containsExactly("TRK-1", null);
+        assertThat(sources.getValue()).containsExactly("PROCESSING");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderStatusHistory>> history = ArgumentCaptor.forClass(List.class);
+        verify(statusHistoryRepository, times(2)).saveAll(history.capture());
+        assertThat(history.getAllValues().get(0)).hasSize(2).allSatisfy(entry -> {
+            assertThat(entry.getStatus()).isEqualTo(Order.OrderStatus.SHIPPED);
+            assertThat(entry.getNotes()).isEqualTo("Evening dispatch");
+            assertThat(entry.getCreatedBy()).isEqualTo("admin@example.com");
+        });
+        verifyNoInteractions(inventoryReservationService);
+    }
+
+    @Test
+    void updateStatus_shouldReportOrdersThatCannotMove() throws Exception {
+        when(jdbcTemplate.queryForList(startsWith("UPDATE orders"), eq(Long.class),
+                eq("DELIVERED"), any(Long[].class), any(String[].class), any(String[].class)))
+                .thenReturn(List.of(1L));
+        when(orderRepository.getReferenceById(1L)).thenReturn(order(1L));
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("id")).thenReturn(2L);
+        when(resultSet.getString("status")).thenReturn("PENDING");
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT id"), any(RowCallbackHandler.class),
+                (Object) any());
+
+        BulkOrderStatusResultDto result = bulkOrderStatusService.updateStatus(
+                request("DELIVERED", new BulkOrderStatusItemDto(1L, null),
+                        new BulkOrderStatusItemDto(2L, null)),
+                "admin@example.com");
+
+        assertThat(result.getUpdatedOrders()).isEqualTo(1);
+        assertThat(result.getRejected()).containsExactly(new OrderStatusRejectionDto(2L,
+                "PENDING", "Cannot change status from PENDING to DELIVERED"));
+    }
+
+    @Test
+    void updateStatus_toProcessing_shouldCommitStockReservations() {
+        when(jdbcTemplate.queryForList(startsWith("UPDATE orders"), eq(Long.class),
+                eq("PROCESSING"), any(Long[].class), any(String[].class), any(String[].class)))
+                .thenReturn(List.of(1L));
+        when(orderRepository.getReferenceById(1L)).thenReturn(order(1L));
+
+        bulkOrderStatusService.updateStatus(
+                request("PROCESSING", new BulkOrderStatusItemDto(1L, null)), "admin@example.com");
+
+        verify(inventoryReservationService).commitAll(List.of(1L));
+    }
+
+    @Test
+    void updateStatus_shouldRejectTargetsWithSideEffects() {
+        assertThatThrownBy(() -> bulkOrderStatusService.updateStatus(
+                request("CANCELLED", new BulkOrderStatusItemDto(1L, null)), "admin@example.com"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Orders cannot be moved to CANCELLED in bulk");
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void orderStatus_shouldOnlyAllowForwardTransitions() {
+        assertThat(Order.OrderStatus.PENDING.canTransitionTo(Order.OrderStatus.PROCESSING))
+                .isTrue();
+        assertThat(Order.OrderStatus.SHIPPED.canTransitionTo(Order.OrderStatus.CANCELLED))
+                .isFalse();
+        assertThat(Order.OrderStatus.DELIVERED.canTransitionTo(Order.OrderStatus.SHIPPED))
+                .isFalse();
+        assertThat(Order.OrderStatus.sourcesOf(Order.OrderStatus.CANCELLED))
+                .containsExactlyInAnyOrder(Order.OrderStatus.PENDING,
+                        Order.OrderStatus.PROCESSING);
+    }
+
+    private static BulkOrderStatusUpdateDto request(String status,
+                                                    BulkOrderStatusItemDto... items) {
+        BulkOrderStatusUpdateDto request = new BulkOrderStatusUpdateDto();
+        request.setStatus(status);
+        request.setNotes("Evening dispatch");
+        request.setOrders(List.of(items));
+        return request;
+    }
+
+    private static Order order(Long id) {
+        Order order = new Order();
+        order.setId(id);
+        return order;
+    }
+}
@@ -0,0 +1,98 @@
+package com.marketnest.ecommerce.service.order;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvoiceCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void open_shouldRenderOnceAndServeFromDisk() throws IOException {
+        InvoiceCache cache = newCache(DataSize.ofMegabytes(1));
+        AtomicInteger renders = new AtomicInteger();
+        String key = InvoiceCache.key(1L, LocalDateTime.of(2024, 1, 1, 10, 0));
+
+        byte[] first = read(cache.open(key, out -> {
+            renders.incrementAndGet();
+            out.write(new byte[]{1, 2, 3});
+        }));
+        byte[] second = read(cache.open(key, out -> renders.incrementAndGet()));
+
+        assertThat(first).containsExactly(1, 2, 3);
+        assertThat(second).containsExactly(1, 2, 3);
+        assertThat(renders).hasValue(1);
+    }
+
+    @Test
+    void key_shouldChangeWhenOrderIsUpdated() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+        assertThat(InvoiceCache.key(1L, updatedAt))
+                .isEqualTo(InvoiceCache.key(1L, updatedAt))
+                .isNotEqualTo(InvoiceCache.key(1L, updatedAt.plusSeconds(1)))
+                .isNotEqualTo(InvoiceCache.key(2L, updatedAt));
+    }
+
+    @Test
+    void open_shouldDeleteLeastRecentlyUsedFilesOverTheLimit() throws IOException {
+        InvoiceCache cache = newCache(DataSize.ofBytes(1024));
+
+        for (long orderId = 1; orderId <= 10; orderId++) {
+            cache.open(InvoiceCache.key(orderId, "v1"), out -> out.write(new byte[400])).content()
+                    .close();
+        }
+
+        try (var files = Files.list(directory)) {
+            assertThat(files.mapToLong(path -> path.toFile().length()).sum())
+                    .isLessThanOrEqualTo(1024);
+        }
+    }
+
+    @Test
+    void open_shouldRenderAgainWhenFileWentMissing() throws IOException {
+        InvoiceCache cache = newCache(DataSize.ofMegabytes(1));
+        String key = InvoiceCache.key(1L, "v1");
+        cache.open(key, out -> out.write(1)).content().close();
+        Files.delete(directory.resolve(key + ".pdf"));
+
+        byte[] content = read(cache.open(key, out -> out.write(2)));
+
+        assertThat(content).containsExactly(2);
+    }
+
+    @Test
+    void constructor_shouldIndexFilesFromPreviousRun() throws IOException {
+        String key = InvoiceCache.key(1L, "v1");
+        Files.write(directory.resolve(key + ".pdf"), new byte[]{7});
+        Files.write(directory.resolve(key + "123.tmp"), new byte[]{8});
+
+        InvoiceCache cache = newCache(DataSize.ofMegabytes(1));
+        byte[] content = read(cache.open(key, out -> out.write(9)));
+
+        assertThat(content).containsExactly(7);
+        assertThat(directory.resolve(key + "123.tmp")).doesNotExist();
+    }
+
+    private InvoiceCache newCache(DataSize maxSize) throws IOException {
+        return new InvoiceCache(new SimpleMeterRegistry(), directory, maxSize);
+    }
+
+    private static byte[] read(InvoiceCache.CachedInvoice invoice) throws IOException {
+        try (InputStream content = invoice.content()) {
+            return content.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.marketnest.ecommerce.service.order;
+
+import com.marketnest.ecommerce.exception.ResourceNotFoundException;
+import com.marketnest.ecommerce.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceExportServiceTest {
+
+    private static final int PARALLELISM = 3;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderService orderService;
+
+    private InvoiceExportService invoiceExportService;
+
+    @BeforeEach
+    void setUp() {
+        invoiceExportService =
+                new InvoiceExportService(orderRepository, orderService, PARALLELISM, 31);
+    }
+
+    @Test
+    void export_shouldZipEveryInvoiceWithBoundedParallelism() throws IOException {
+        AtomicInteger rendering = new AtomicInteger();
+        AtomicInteger maxRendering = new AtomicInteger();
+        when(orderService.getInvoicePdf(anyLong())).thenAnswer(invocation -> {
+            maxRendering.accumulateAndGet(rendering.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            rendering.decrementAndGet();
+            Long orderId = invocation.getArgument(0);
+            return invoice(new byte[]{orderId.byteValue()});
+        });
+        List<Long> orderIds = LongStream.rangeClosed(1, 20).boxed().toList();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        invoiceExportService.export(orderIds, out);
+
+        Map<String, byte[]> entries = unzip(out.toByteArray());
+        assertThat(entries).hasSize(20);
+        assertThat(entries.get("invoice-7.pdf")).containsExactly(7);
+        assertThat(maxRendering.get()).isLessThanOrEqualTo(PARALLELISM);
+    }
+
+    @Test
+    void export_shouldAbortWhenAnInvoiceFails() {
+        when(orderService.getInvoicePdf(anyLong())).thenReturn(invoice(new byte[]{1}));
+        when(orderService.getInvoicePdf(2L))
+                .thenThrow(new ResourceNotFoundException("Order", "id", 2L));
+
+        assertThatThrownBy(() -> invoiceExportService.export(List.of(1L, 2L, 3L),
+                new ByteArrayOutputStream()))
+                .isInstanceOf(IOException.class)
+                .hasCauseInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void findOrderIds_shouldIncludeWholeEndDate() {
+        when(orderRepository.findIdsForPeriod(LocalDateTime.of(2024, 3, 1, 0, 0),
+                LocalDateTime.of(2024, 4, 1, 0, 0))).thenReturn(List.of(1L, 2L));
+
+        List<Long> orderIds = invoiceExportService.findOrderIds(LocalDate.of(2024, 3, 1),
+                LocalDate.of(2024, 3, 31));
+
+        assertThat(orderIds).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void findOrderIds_shouldRejectRangeLongerThanLimit() {
+        assertThatThrownBy(() -> invoiceExportService.findOrderIds(LocalDate.of(2024, 1, 1),
+                LocalDate.of(2024, 3, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(orderRepository);
+    }
+
+    private static InvoiceCache.CachedInvoice invoice(byte[] content) {
+        return new InvoiceCache.CachedInvoice(new ByteArrayInputStream(content), content.length);
+    }
+
+    private static Map<String, byte[]> unzip(byte[] zip) throws IOException {
+        Map<String, byte[]> entries = new HashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                entries.put(entry.getName(), in.readAllBytes());
+            }
+        }
+        return entries;
+    }
+}
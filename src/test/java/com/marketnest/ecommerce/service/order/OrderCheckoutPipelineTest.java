@@ -0,0 +1,253 @@
+package com.marketnest.ecommerce.service.order;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketnest.ecommerce.dto.order.CheckoutStatusDto;
+import com.marketnest.ecommerce.dto.order.OrderRequestDto;
+import com.marketnest.ecommerce.dto.order.OrderResponseDto;
+import com.marketnest.ecommerce.exception.CheckoutQueueFullException;
+import com.marketnest.ecommerce.exception.InsufficientStockException;
+import com.marketnest.ecommerce.model.Order;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderCheckoutPipelineTest {
+
+    private static final String EMAIL = "test@example.com";
+    private static final String INSERT = "INSERT INTO checkout_tickets";
+    private static final String LOCK = "SELECT id FROM checkout_tickets";
+    private static final String COMPLETE = "UPDATE checkout_tickets SET stage = 'COMPLETED'";
+    private static final String FAIL = "UPDATE checkout_tickets SET stage = 'FAILED'";
+    private static final String RECOVER = "UPDATE checkout_tickets SET locked_until = now() +";
+    private static final String RELEASE = "UPDATE checkout_tickets SET locked_until = now() WHERE";
+    private static final String FIND = "SELECT stage, response, error FROM checkout_tickets";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderCheckoutPipeline pipeline;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.stop();
+    }
+
+    @Test
+    void submit_shouldStoreTicketAndCompleteItInTheCheckoutTransaction() {
+        startPipeline(10, 2);
+        OrderRequestDto request = new OrderRequestDto();
+        Order order = new Order();
+        when(orderService.validateOrder(EMAIL, request)).thenReturn(order);
+        when(orderService.persistOrder(order, EMAIL)).thenReturn(order);
+        when(orderService.toResponse(order)).thenReturn(response(7L));
+
+        CheckoutStatusDto accepted = pipeline.submit(EMAIL, request);
+
+        assertThat(accepted.getTicketId()).isNotBlank();
+        assertThat(accepted.getStage()).isEqualTo("QUEUED");
+        assertThat(accepted.getOrderStatus()).isEqualTo("PENDING");
+        verify(transactionManager, timeout(5000)).commit(any());
+        InOrder stages = inOrder(jdbcTemplate, orderService, transactionManager);
+        stages.verify(jdbcTemplate).update(startsWith(INSERT), eq(accepted.getTicketId()),
+                eq(EMAIL), anyString(), eq(120_000L));
+        stages.verify(jdbcTemplate).queryForList(startsWith(LOCK), eq(String.class),
+                eq(accepted.getTicketId()));
+        stages.verify(orderService).validateOrder(EMAIL, request);
+        stages.verify(orderService).priceOrder(order);
+        stages.verify(orderService).persistOrder(order, EMAIL);
+        stages.verify(orderService).reserveStock(order);
+        stages.verify(orderService).notifyOrderPlaced(order);
+        stages.verify(jdbcTemplate).update(startsWith(COMPLETE), eq(7L), anyString(),
+                eq(900_000L), eq(accepted.getTicketId()));
+        stages.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void submit_whenStageFails_shouldRollBackAndRecordError() {
+        startPipeline(10, 1);
+        OrderRequestDto request = new OrderRequestDto();
+        Order order = new Order();
+        when(orderService.validateOrder(EMAIL, request)).thenReturn(order);
+        when(orderService.persistOrder(order, EMAIL)).thenReturn(order);
+        doThrow(new InsufficientStockException("Insufficient stock for variant 20"))
+                .when(orderService).reserveStock(order);
+
+        String ticketId = pipeline.submit(EMAIL, request).getTicketId();
+
+        verify(jdbcTemplate, timeout(5000)).update(startsWith(FAIL),
+                eq("Insufficient stock for variant 20"), eq(900_000L), eq(ticketId));
+        verify(transactionManager).rollback(any());
+        verify(orderService, never()).notifyOrderPlaced(any());
+        verify(jdbcTemplate, never()).update(startsWith(COMPLETE), any(), any(), any(), any());
+    }
+
+    @Test
+    void submit_whenTicketWasCheckedOutElsewhere_shouldSkipIt() {
+        startPipeline(10, 1);
+        when(jdbcTemplate.queryForList(startsWith(LOCK), eq(String.class), anyString()))
+                .thenReturn(List.of());
+
+        pipeline.submit(EMAIL, new OrderRequestDto());
+
+        verify(transactionManager, timeout(5000)).commit(any());
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void submit_whenQueueIsFull_shouldRejectOrder() {
+        startPipeline(1, 0);
+
+        pipeline.submit(EMAIL, new OrderRequestDto());
+
+        assertThatThrownBy(() -> pipeline.submit(EMAIL, new OrderRequestDto()))
+                .isInstanceOf(CheckoutQueueFullException.class);
+        verify(jdbcTemplate).update(startsWith(INSERT), any(), any(), any(), any());
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void awaitStatus_shouldHideTicketsOfOtherUsers() {
+        startPipeline(1, 0);
+        String ticketId = pipeline.submit(EMAIL, new OrderRequestDto()).getTicketId();
+        stubTicket(ticketId, row("QUEUED", null, null));
+
+        assertThat(pipeline.awaitStatus(ticketId, "other@example.com", Duration.ZERO)).isEmpty();
+        assertThat(pipeline.awaitStatus(ticketId, EMAIL, Duration.ZERO)).isPresent();
+    }
+
+    @Test
+    void awaitStatus_shouldReturnPendingStatusWhenWaitRunsOut() throws Exception {
+        startPipeline(1, 0);
+        String ticketId = pipeline.submit(EMAIL, new OrderRequestDto()).getTicketId();
+        stubTicket(ticketId, row("QUEUED", null, null));
+
+        CheckoutStatusDto status = pipeline.awaitStatus(ticketId, EMAIL, Duration.ofMillis(50))
+                .orElseThrow().get(5, TimeUnit.SECONDS);
+
+        assertThat(status.getTicketId()).isEqualTo(ticketId);
+        assertThat(status.getStage()).isEqualTo("QUEUED");
+        assertThat(status.getOrderStatus()).isEqualTo("PENDING");
+    }
+
+    @Test
+    void awaitStatus_shouldPollTicketsCheckedOutOnOtherNodes() throws Exception {
+        startPipeline(1, 0);
+        stubTicket("t-1", row("QUEUED", null, null),
+                row("COMPLETED", objectMapper.writeValueAsString(response(7L)), null));
+
+        CheckoutStatusDto status = pipeline.awaitStatus("t-1", EMAIL, Duration.ofSeconds(5))
+                .orElseThrow().get(10, TimeUnit.SECONDS);
+
+        assertThat(status.getStage()).isEqualTo("COMPLETED");
+        assertThat(status.getOrderId()).isEqualTo(7L);
+        assertThat(status.getOrder().getStatus()).isEqualTo("PENDING");
+    }
+
+    @Test
+    void recover_shouldCheckOutTicketsWhoseLeaseRanOut() {
+        startPipeline(10, 1);
+        Order order = new Order();
+        when(orderService.validateOrder(eq(EMAIL), any(OrderRequestDto.class))).thenReturn(order);
+        when(orderService.persistOrder(order, EMAIL)).thenReturn(order);
+        when(orderService.toResponse(order)).thenReturn(response(7L));
+        doAnswer(mapRows(Map.of("id", "t-1", "email", EMAIL, "request", "{}")))
+                .when(jdbcTemplate).query(startsWith(RECOVER), any(RowMapper.class), eq(120_000L),
+                        eq(10));
+
+        pipeline.recover();
+
+        verify(jdbcTemplate, timeout(5000)).update(startsWith(COMPLETE), eq(7L), anyString(),
+                eq(900_000L), eq("t-1"));
+    }
+
+    @Test
+    void stop_shouldReleaseQueuedTicketsToOtherNodes() throws InterruptedException {
+        startPipeline(1, 0);
+        String ticketId = pipeline.submit(EMAIL, new OrderRequestDto()).getTicketId();
+
+        pipeline.stop();
+
+        verify(jdbcTemplate).update(startsWith(RELEASE), eq(ticketId));
+        assertThatThrownBy(() -> pipeline.submit(EMAIL, new OrderRequestDto()))
+                .isInstanceOf(CheckoutQueueFullException.class);
+    }
+
+    private void startPipeline(int queueCapacity, int workers) {
+        lenient().when(transactionManager.getTransaction(any()))
+                .thenReturn(mock(TransactionStatus.class));
+        lenient().when(jdbcTemplate.queryForList(startsWith(LOCK), eq(String.class), anyString()))
+                .thenAnswer(invocation -> List.of(invocation.<String>getArgument(2)));
+        pipeline = new OrderCheckoutPipeline(orderService, jdbcTemplate, transactionManager,
+                objectMapper, new SimpleMeterRegistry(), queueCapacity, workers,
+                Duration.ofMinutes(15), Duration.ofMinutes(2));
+        pipeline.start();
+    }
+
+    @SafeVarargs
+    private void stubTicket(String ticketId, Map<String, String>... rows) {
+        Answer<?>[] answers = new Answer<?>[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            answers[i] = mapRows(rows[i]);
+        }
+        var stubbing = lenient().doAnswer(answers[0]);
+        for (int i = 1; i < answers.length; i++) {
+            stubbing = stubbing.doAnswer(answers[i]);
+        }
+        stubbing.when(jdbcTemplate).query(startsWith(FIND), any(RowMapper.class), eq(ticketId),
+                eq(EMAIL));
+    }
+
+    private static Answer<List<Object>> mapRows(Map<String, String> row) {
+        return invocation -> {
+            ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.getString(anyString()))
+                    .thenAnswer(column -> row.get(column.<String>getArgument(0)));
+            return List.of(invocation.<RowMapper<Object>>getArgument(1).mapRow(resultSet, 0));
+        };
+    }
+
+    private static Map<String, String> row(String stage, String response, String error) {
+        Map<String, String> row = new HashMap<>();
+        row.put("stage", stage);
+        row.put("response", response);
+        row.put("error", error);
+        return row;
+    }
+
+    private static OrderResponseDto response(Long orderId) {
+        OrderResponseDto response = new OrderResponseDto();
+        response.setId(orderId);
+        response.setStatus(Order.OrderStatus.PENDING.name());
+        return response;
+    }
+}
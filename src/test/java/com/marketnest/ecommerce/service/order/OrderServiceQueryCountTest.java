@@ -0,0 +1,248 @@
+package com.marketnest.ecommerce.service.order;
+
+import com.marketnest.ecommerce.dto.order.OrderResponseDto;
+import com.marketnest.ecommerce.dto.order.OrderSummaryDto;
+import com.marketnest.ecommerce.mapper.order.OrderItemMapperImpl;
+import com.marketnest.ecommerce.mapper.order.OrderMapperImpl;
+import com.marketnest.ecommerce.mapper.order.OrderStatusHistoryMapperImpl;
+import com.marketnest.ecommerce.mapper.payment.PaymentMapperImpl;
+import com.marketnest.ecommerce.mapper.user.UserAddressMapperImpl;
+import com.marketnest.ecommerce.model.*;
+import com.marketnest.ecommerce.repository.*;
+import com.marketnest.ecommerce.service.inventory.InventoryReservationService;
+import com.marketnest.ecommerce.util.HtmlEscapeUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderService.class, OrderMapperImpl.class, OrderItemMapperImpl.class,
+        OrderStatusHistoryMapperImpl.class, PaymentMapperImpl.class, UserAddressMapperImpl.class,
+        HtmlEscapeUtil.class, InvoiceRenderer.class, InvoiceCache.class,
+        SimpleMeterRegistry.class})
+class OrderServiceQueryCountTest {
+
+    @Container
+    @SuppressWarnings("resource")
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductVariantRepository variantRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private InventoryReservationService inventoryReservationService;
+
+    @TempDir
+    static Path invoiceDir;
+
+    private User user;
+    private Order order;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+        registry.add("invoice.cache.dir", () -> invoiceDir.toString());
+    }
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("buyer@example.com");
+        user.setPassword("password");
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user = userRepository.save(user);
+
+        Address address = new Address();
+        address.setUser(user);
+        address.setAddressLine1("123 Main St");
+        address.setCity("Test City");
+        address.setStateProvince("TS");
+        address.setCountryCode("EGY");
+        address.setPostalCode("12345");
+        address = addressRepository.save(address);
+
+        order = new Order();
+        order.setUser(user);
+        order.setOrderDate(LocalDateTime.now());
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setShippingAddress(address);
+        order.setBillingAddress(address);
+        order.setSubtotal(new BigDecimal("59.97"));
+        order.setShippingCost(new BigDecimal("10.00"));
+        order.setTax(new BigDecimal("5.00"));
+        order.setDiscount(BigDecimal.ZERO);
+        order.setTotal(new BigDecimal("74.97"));
+
+        for (int i = 0; i < 3; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setSlug("query-count-product-" + i);
+            product.setSku("QC-" + i);
+            product.setPrice(new BigDecimal("19.99"));
+            product.setStockQuantity(10);
+            product.setIsActive(true);
+            product = productRepository.save(product);
+
+            ProductVariant variant = new ProductVariant();
+            variant.setProductId(product.getId());
+            variant.setSku("QC-VAR-" + i);
+            variant.setOption1Name("Size");
+            variant.setPrice(new BigDecimal("19.99"));
+            variant = variantRepository.save(variant);
+
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setVariant(variant);
+            item.setQuantity(1);
+            item.setUnitPrice(new BigDecimal("19.99"));
+            item.setTotalPrice(new BigDecimal("19.99"));
+            order.addOrderItem(item);
+        }
+
+        for (Order.OrderStatus status : new Order.OrderStatus[]{Order.OrderStatus.PENDING,
+                Order.OrderStatus.PROCESSING}) {
+            OrderStatusHistory history = new OrderStatusHistory();
+            history.setStatus(status);
+            history.setCreatedBy(user.getEmail());
+            order.addStatusHistory(history);
+        }
+
+        for (Payment.PaymentStatus status : new Payment.PaymentStatus[]{
+                Payment.PaymentStatus.FAILED, Payment.PaymentStatus.COMPLETED}) {
+            Payment payment = new Payment();
+            payment.setAmount(order.getTotal());
+            payment.setPaymentMethod(Payment.PaymentMethod.CREDIT_CARD);
+            payment.setStatus(status);
+            order.addPayment(payment);
+        }
+
+        order = orderRepository.save(order);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getOrderDetails_shouldLoadWholeOrderWithoutLazyLoads() {
+        Statistics statistics = statistics();
+
+        OrderResponseDto result = orderService.getOrderDetails(order.getId(), user.getUserId());
+
+        assertThat(result.getItems()).hasSize(3)
+                .allSatisfy(item -> assertThat(item.getProductName()).startsWith("Product"));
+        assertThat(result.getStatusHistory()).hasSize(2);
+        assertThat(result.getPayments()).hasSize(2);
+        assertThat(result.getShippingAddress().getCity()).isEqualTo("Test City");
+        // order with addresses and items + status history + payments
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void trackOrder_shouldLoadWholeOrderWithoutLazyLoads() {
+        Statistics statistics = statistics();
+
+        OrderResponseDto result = orderService.trackOrder(order.getId(), user.getUserId());
+
+        assertThat(result.getItems()).hasSize(3);
+        assertThat(result.getStatusHistory()).hasSize(2);
+        assertThat(result.getPayments()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void getInvoicePdf_shouldLoadInvoiceDataInOneQueryOnMissAndOnlyTheVersionOnHit()
+            throws IOException {
+        Statistics statistics = statistics();
+
+        try (InputStream pdf = orderService.getInvoicePdf(order.getId(), user.getUserId())
+                .content()) {
+            assertThat(pdf.readAllBytes()).isNotEmpty();
+        }
+        // version + order with everything the invoice shows
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        statistics.clear();
+        try (InputStream pdf = orderService.getInvoicePdf(order.getId(), user.getUserId())
+                .content()) {
+            assertThat(pdf.readAllBytes()).isNotEmpty();
+        }
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getUserOrders_shouldCountItemsWithoutLoadingThem() {
+        Statistics statistics = statistics();
+
+        Page<OrderSummaryDto> result = orderService.getUserOrders(user.getUserId(),
+                PageRequest.of(0, 10, Sort.by("orderDate")));
+
+        assertThat(result.getContent()).singleElement()
+                .satisfies(summary -> assertThat(summary.getItemCount()).isEqualTo(3));
+        // page + count
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -1,24 +1,36 @@
 package com.marketnest.ecommerce.service.order;
 
+import com.marketnest.ecommerce.dto.order.OrderItemRequestDto;
 import com.marketnest.ecommerce.dto.order.OrderRequestDto;
 import com.marketnest.ecommerce.dto.order.OrderResponseDto;
 import com.marketnest.ecommerce.dto.order.OrderSummaryDto;
+import com.marketnest.ecommerce.dto.order.OrderSummaryRowDto;
+import com.marketnest.ecommerce.dto.pagination.CursorPageResponse;
 import com.marketnest.ecommerce.exception.ResourceNotFoundException;
 import com.marketnest.ecommerce.mapper.order.OrderMapper;
+import com.marketnest.ecommerce.model.Address;
 import com.marketnest.ecommerce.model.Order;
+import com.marketnest.ecommerce.model.Product;
+import com.marketnest.ecommerce.model.ProductVariant;
 import com.marketnest.ecommerce.model.User;
 import com.marketnest.ecommerce.repository.*;
+import com.marketnest.ecommerce.service.inventory.InventoryReservationService;
 import com.marketnest.ecommerce.util.HtmlEscapeUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -27,6 +39,8 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -59,6 +73,15 @@ class OrderServiceTest {
     @Mock
     private HtmlEscapeUtil htmlEscapeUtil;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private InventoryReservationService inventoryReservationService;
+
+    @Spy
+    private InvoiceRenderer invoiceRenderer = new InvoiceRenderer();
+
     @Mock
     private SecurityContext securityContext;
 
@@ -109,25 +132,29 @@ class OrderServiceTest {
     @Test
     void getUserOrders_shouldReturnUserOrders() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Order> orderPage = new PageImpl<>(Collections.singletonList(testOrder));
+        OrderSummaryRowDto summaryRow = new OrderSummaryRowDto(1L, LocalDateTime.now(),
+                Order.OrderStatus.PENDING, new BigDecimal("100.00"), null, 2L);
+        Page<OrderSummaryRowDto> orderPage =
+                new PageImpl<>(Collections.singletonList(summaryRow));
 
-        when(orderRepository.findByUser_UserId(1L, pageable)).thenReturn(orderPage);
-        when(orderMapper.toSummary(testOrder, htmlEscapeUtil)).thenReturn(orderSummaryDto);
+        when(orderRepository.findSummariesByUserId(1L, pageable)).thenReturn(orderPage);
+        when(orderMapper.toSummary(summaryRow, htmlEscapeUtil)).thenReturn(orderSummaryDto);
 
         Page<OrderSummaryDto> result = orderService.getUserOrders(1L, pageable);
 
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().getFirst().getId()).isEqualTo(1L);
-        verify(orderRepository).findByUser_UserId(1L, pageable);
+        verify(orderRepository).findSummariesByUserId(1L, pageable);
+        verify(orderRepository, never()).findByUser_UserId(anyLong(), any(Pageable.class));
     }
 
     @Test
     void getUserOrders_shouldReturnEmptyPage_whenNoOrders() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Order> orderPage = new PageImpl<>(new ArrayList<>());
+        Page<OrderSummaryRowDto> orderPage = new PageImpl<>(new ArrayList<>());
 
-        when(orderRepository.findByUser_UserId(1L, pageable)).thenReturn(orderPage);
+        when(orderRepository.findSummariesByUserId(1L, pageable)).thenReturn(orderPage);
 
         Page<OrderSummaryDto> result = orderService.getUserOrders(1L, pageable);
 
@@ -135,21 +162,65 @@ class OrderServiceTest {
         assertThat(result.getContent()).isEmpty();
     }
 
+    @Test
+    void getUserOrdersByCursor_shouldSeekFromPreviousPageWithoutCounting() {
+        LocalDateTime orderDate = LocalDateTime.of(2025, 1, 15, 10, 30);
+        Window<Order> firstWindow = Window.from(List.of(testOrder),
+                index -> ScrollPosition.forward(Map.of("orderDate", orderDate, "id", 1L)), true);
+
+        when(orderRepository.findByUser_UserIdOrderByOrderDateDescIdDesc(
+                eq(1L), eq(ScrollPosition.keyset()), eq(Limit.of(1))))
+                .thenReturn(firstWindow);
+        OrderSummaryRowDto summaryRow = new OrderSummaryRowDto(1L, orderDate,
+                Order.OrderStatus.PENDING, new BigDecimal("100.00"), null, 2L);
+        when(orderRepository.findSummariesByIdIn(List.of(1L))).thenReturn(List.of(summaryRow));
+        when(orderMapper.toSummary(summaryRow, htmlEscapeUtil)).thenReturn(orderSummaryDto);
+
+        CursorPageResponse<OrderSummaryDto> firstPage =
+                orderService.getUserOrdersByCursor(1L, "", 1);
+
+        assertThat(firstPage.getContent()).hasSize(1);
+        assertThat(firstPage.isHasNext()).isTrue();
+        assertThat(firstPage.getNextCursor()).isNotBlank();
+
+        when(orderRepository.findByUser_UserIdOrderByOrderDateDescIdDesc(
+                eq(1L), eq(ScrollPosition.forward(Map.of("orderDate", orderDate, "id", 1L))),
+                eq(Limit.of(1))))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset, false));
+
+        CursorPageResponse<OrderSummaryDto> secondPage =
+                orderService.getUserOrdersByCursor(1L, firstPage.getNextCursor(), 1);
+
+        assertThat(secondPage.getContent()).isEmpty();
+        assertThat(secondPage.isHasNext()).isFalse();
+        assertThat(secondPage.getNextCursor()).isNull();
+        verify(orderRepository, never()).findByUser_UserId(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void getUserOrdersByCursor_shouldRejectTamperedCursor() {
+        assertThatThrownBy(() -> orderService.getUserOrdersByCursor(1L, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
     @Test
     void getOrderDetails_shouldReturnOrderDetails_whenOrderExists() {
-        when(orderRepository.findByUser_UserIdAndId(1L, 1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findDetailsByUserIdAndId(1L, 1L)).thenReturn(Optional.of(testOrder));
         when(orderMapper.toResponse(testOrder, htmlEscapeUtil)).thenReturn(orderResponseDto);
 
         OrderResponseDto result = orderService.getOrderDetails(1L, 1L);
 
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
-        verify(orderRepository).findByUser_UserIdAndId(1L, 1L);
+        verify(orderRepository).findDetailsByUserIdAndId(1L, 1L);
+        verify(orderRepository).fetchStatusHistory(testOrder);
+        verify(orderRepository).fetchPayments(testOrder);
     }
 
     @Test
     void getOrderDetails_shouldThrowException_whenOrderNotFound() {
-        when(orderRepository.findByUser_UserIdAndId(anyLong(), anyLong())).thenReturn(
+        when(orderRepository.findDetailsByUserIdAndId(anyLong(), anyLong())).thenReturn(
                 Optional.empty());
 
         assertThatThrownBy(() -> orderService.getOrderDetails(999L, 1L))
@@ -187,6 +258,43 @@ class OrderServiceTest {
         verify(orderRepository, never()).save(any());
     }
 
+    @Test
+    void createOrder_shouldLoadProductsAndVariantsWithOneQueryEach() {
+        mockOrderCreation();
+        Product product = product(10L, "50.00");
+        when(productRepository.findAllById(List.of(10L))).thenReturn(List.of(product));
+        when(variantRepository.findAllById(List.of(20L, 21L)))
+                .thenReturn(List.of(variant(20L, 10L, null), variant(21L, 10L, "30.00")));
+        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+        when(orderMapper.toResponse(testOrder, htmlEscapeUtil)).thenReturn(orderResponseDto);
+        orderRequestDto.setItems(List.of(item(10L, 20L, 2), item(10L, 21L, 1), item(10L, 20L, 1)));
+
+        orderService.createOrder(orderRequestDto);
+
+        verify(productRepository, never()).findById(anyLong());
+        verify(variantRepository, never()).findById(anyLong());
+        assertThat(testOrder.getOrderItems()).hasSize(3)
+                .allSatisfy(orderItem -> assertThat(orderItem.getProduct()).isSameAs(product));
+        assertThat(testOrder.getSubtotal()).isEqualByComparingTo("180.00");
+        verify(inventoryReservationService).reserve(1L, testOrder.getOrderItems());
+    }
+
+    @Test
+    void createOrder_shouldThrowException_whenVariantBelongsToAnotherProduct() {
+        mockOrderCreation();
+        when(productRepository.findAllById(List.of(10L)))
+                .thenReturn(List.of(product(10L, "50.00")));
+        when(variantRepository.findAllById(List.of(20L)))
+                .thenReturn(List.of(variant(20L, 11L, null)));
+        orderRequestDto.setItems(List.of(item(10L, 20L, 1)));
+
+        assertThatThrownBy(() -> orderService.createOrder(orderRequestDto))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Variant does not belong to specified product");
+
+        verify(orderRepository, never()).save(any());
+    }
+
     @Test
     void cancelOrder_shouldCancelOrder_whenOrderIsPending() {
         when(orderRepository.findByUser_UserIdAndId(1L, 1L)).thenReturn(Optional.of(testOrder));
@@ -213,23 +321,48 @@ class OrderServiceTest {
 
     @Test
     void trackOrder_shouldReturnOrderDetails() {
-        when(orderRepository.findByUser_UserIdAndId(1L, 1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findDetailsByUserIdAndId(1L, 1L)).thenReturn(Optional.of(testOrder));
         when(orderMapper.toResponse(testOrder, htmlEscapeUtil)).thenReturn(orderResponseDto);
 
         OrderResponseDto result = orderService.trackOrder(1L, 1L);
 
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
-        verify(orderRepository).findByUser_UserIdAndId(1L, 1L);
+        verify(orderRepository).findDetailsByUserIdAndId(1L, 1L);
+        verify(orderRepository).fetchStatusHistory(testOrder);
+        verify(orderRepository).fetchPayments(testOrder);
     }
 
-    @Test
-    void generateInvoicePdf_shouldGeneratePdf() {
-        when(orderRepository.findByUser_UserIdAndId(1L, 1L)).thenReturn(Optional.of(testOrder));
+    private void mockOrderCreation() {
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getName()).thenReturn("test@example.com");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(addressRepository.findAddressByUser_UserIdAndId(1L, 1L))
+                .thenReturn(Optional.of(new Address()));
+        when(orderMapper.toEntity(orderRequestDto, htmlEscapeUtil)).thenReturn(testOrder);
+    }
 
-        byte[] result = orderService.generateInvoicePdf(1L, 1L);
+    private static Product product(Long id, String price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setPrice(new BigDecimal(price));
+        return product;
+    }
 
-        assertThat(result).isNotNull();
-        verify(orderRepository).findByUser_UserIdAndId(1L, 1L);
+    private static ProductVariant variant(Long id, Long productId, String price) {
+        ProductVariant variant = new ProductVariant();
+        variant.setId(id);
+        variant.setProductId(productId);
+        variant.setPrice(price != null ? new BigDecimal(price) : null);
+        return variant;
+    }
+
+    private static OrderItemRequestDto item(Long productId, Long variantId, int quantity) {
+        OrderItemRequestDto item = new OrderItemRequestDto();
+        item.setProductId(productId);
+        item.setVariantId(variantId);
+        item.setQuantity(quantity);
+        return item;
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,7 @@ import com.marketnest.ecommerce.model.Order;
 import com.marketnest.ecommerce.model.Payment;
 import com.marketnest.ecommerce.repository.OrderRepository;
 import com.marketnest.ecommerce.repository.PaymentRepository;
+import com.marketnest.ecommerce.service.inventory.InventoryReservationService;
 import com.marketnest.ecommerce.util.HtmlEscapeUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -44,6 +45,9 @@ class PaymentServiceTest {
     @Mock
     private HtmlEscapeUtil htmlEscapeUtil;
 
+    @Mock
+    private InventoryReservationService inventoryReservationService;
+
     @InjectMocks
     private PaymentServiceImpl paymentService;
 
@@ -108,6 +112,19 @@ class PaymentServiceTest {
         verify(paymentRepository, never()).save(any());
     }
 
+    @Test
+    void processPayment_shouldThrowException_whenOrderCancelled() {
+        testOrder.setStatus(Order.OrderStatus.CANCELLED);
+        when(orderRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testOrder));
+
+        assertThatThrownBy(() -> paymentService.processPayment(paymentProcessRequestDto))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("cancelled order");
+
+        verify(paymentRepository, never()).save(any());
+        verifyNoInteractions(inventoryReservationService);
+    }
+
     @Test
     void processPayment_shouldHandleCashOnDelivery() {
         paymentProcessRequestDto.setPaymentMethod(
@@ -0,0 +1,169 @@
+package com.marketnest.ecommerce.service.product;
+
+import com.marketnest.ecommerce.repository.OrderItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCoPurchaseIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> rowsCaptor;
+
+    private ProductCoPurchaseIndex productCoPurchaseIndex;
+
+    @BeforeEach
+    void setUp() {
+        productCoPurchaseIndex = new ProductCoPurchaseIndex(jdbcTemplate, transactionManager,
+                orderItemRepository, new SyncTaskExecutor(), 2);
+    }
+
+    @Test
+    void rebuild_shouldKeepStrongestNeighboursPerProductAndPersistThem() {
+        givenOrderItems(new long[][]{
+                {1, 10}, {1, 20}, {1, 30},
+                {2, 10}, {2, 20},
+                {3, 10}, {3, 20}, {3, 20},
+                {4, 30},
+                {5, 40}, {5, 10}});
+
+        productCoPurchaseIndex.rebuild();
+
+        assertThat(productCoPurchaseIndex.getNeighbours(10L)).containsExactly(20L, 30L);
+        assertThat(productCoPurchaseIndex.getNeighbours(20L)).containsExactly(10L, 30L);
+        assertThat(productCoPurchaseIndex.getNeighbours(40L)).containsExactly(10L);
+        assertThat(productCoPurchaseIndex.getNeighbours(99L)).isEmpty();
+
+        verify(jdbcTemplate).update("DELETE FROM product_co_purchases");
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), rowsCaptor.capture());
+        assertThat(rowsCaptor.getValue()).hasSize(7)
+                .anySatisfy(row -> assertThat(row).containsExactly(10L, 20L, 3));
+    }
+
+    @Test
+    void orderPlacedAndCancelled_shouldAdjustCountsIncrementally() {
+        givenOrderItems(new long[][]{
+                {1, 10}, {1, 20}, {1, 30},
+                {2, 10}, {2, 20}});
+        productCoPurchaseIndex.rebuild();
+        clearInvocations(jdbcTemplate);
+
+        when(orderItemRepository.findProductIdsByOrderId(7L)).thenReturn(List.of(30L, 10L));
+        productCoPurchaseIndex.orderPlaced(7L);
+        productCoPurchaseIndex.orderPlaced(7L);
+
+        assertThat(productCoPurchaseIndex.getNeighbours(10L)).containsExactly(30L, 20L);
+        assertThat(productCoPurchaseIndex.getNeighbours(30L)).containsExactly(10L, 20L);
+
+        when(orderItemRepository.findProductIdsByOrderId(1L)).thenReturn(List.of(10L, 20L, 30L));
+        productCoPurchaseIndex.orderCancelled(1L);
+
+        assertThat(productCoPurchaseIndex.getNeighbours(20L)).containsExactly(10L);
+        assertThat(productCoPurchaseIndex.getNeighbours(10L)).containsExactly(30L, 20L);
+        verify(jdbcTemplate, times(3)).batchUpdate(startsWith("DELETE"), anyList());
+    }
+
+    @Test
+    void rebuild_shouldReplayOnlyChangesTheScanDidNotSee() {
+        when(orderItemRepository.findProductIdsByOrderId(anyLong())).thenAnswer(invocation ->
+                switch (invocation.<Long>getArgument(0).intValue()) {
+                    case 3 -> List.of(10L, 40L);
+                    case 4 -> List.of(20L, 40L);
+                    case 5, 9 -> List.of(10L, 20L);
+                    default -> List.of(10L, 30L);
+                });
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row(5, 10, 0));
+            handler.processRow(row(5, 20, 0));
+            // committed while the scan runs: a lower id placed after its snapshot, a
+            // cancellation of a scanned order, a placement the scan counted and a
+            // cancellation of an order it never saw
+            productCoPurchaseIndex.orderPlaced(3L);
+            productCoPurchaseIndex.orderCancelled(5L);
+            productCoPurchaseIndex.orderPlaced(9L);
+            productCoPurchaseIndex.orderCancelled(2L);
+            // placed and cancelled again during the scan
+            productCoPurchaseIndex.orderPlaced(4L);
+            productCoPurchaseIndex.orderCancelled(4L);
+            handler.processRow(row(9, 10, 0));
+            handler.processRow(row(9, 20, 0));
+            return null;
+        }).when(jdbcTemplate)
+                .query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        productCoPurchaseIndex.rebuild();
+
+        assertThat(productCoPurchaseIndex.getNeighbours(10L)).containsExactly(20L, 40L);
+        assertThat(productCoPurchaseIndex.getNeighbours(20L)).containsExactly(10L);
+        assertThat(productCoPurchaseIndex.getNeighbours(40L)).containsExactly(10L);
+        assertThat(productCoPurchaseIndex.getNeighbours(30L)).isEmpty();
+    }
+
+    @Test
+    void load_shouldServePersistedNeighboursWithoutRebuilding() {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row(10, 20, 5));
+            handler.processRow(row(10, 30, 2));
+            handler.processRow(row(20, 10, 5));
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        productCoPurchaseIndex.load();
+
+        assertThat(productCoPurchaseIndex.getNeighbours(10L)).containsExactly(20L, 30L);
+        assertThat(productCoPurchaseIndex.getNeighbours(20L)).containsExactly(10L);
+        verify(jdbcTemplate, never())
+                .query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    private void givenOrderItems(long[][] items) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (long[] item : items) {
+                handler.processRow(row(item[0], item[1], 0));
+            }
+            return null;
+        }).when(jdbcTemplate)
+                .query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    private static ResultSet row(long first, long second, int third) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        lenient().when(resultSet.getLong(1)).thenReturn(first);
+        lenient().when(resultSet.getLong(2)).thenReturn(second);
+        lenient().when(resultSet.getInt(3)).thenReturn(third);
+        return resultSet;
+    }
+}
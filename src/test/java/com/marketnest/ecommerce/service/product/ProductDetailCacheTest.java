@@ -0,0 +1,82 @@
+package com.marketnest.ecommerce.service.product;
+
+import com.marketnest.ecommerce.dto.product.ProductResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductDetailCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductDetailCache productDetailCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        productDetailCache = new ProductDetailCache(
+                meterRegistry, 1_000_000, 1_000, Duration.ofMinutes(5));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getBySlug_shouldShareEntryWithIdLookup() {
+        productDetailCache.getBySlug("laptop", () -> load(1L, "laptop"));
+
+        ProductResponseDto byId = productDetailCache.getById(1L, id -> load(id, "laptop"));
+        ProductResponseDto bySlug = productDetailCache.getBySlug("laptop", () -> load(1L, "laptop"));
+
+        assertThat(byId.getSlug()).isEqualTo("laptop");
+        assertThat(bySlug).isSameAs(byId);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void invalidate_shouldDropIdAndSlugEntries() {
+        productDetailCache.getBySlug("laptop", () -> load(1L, "laptop"));
+
+        productDetailCache.invalidate(1L);
+        productDetailCache.getById(1L, id -> load(id, "laptop"));
+        productDetailCache.getBySlug("laptop", () -> load(1L, "laptop"));
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void getBySlug_shouldReloadWhenCachedProductChangedSlug() {
+        productDetailCache.getBySlug("old-laptop", () -> load(1L, "old-laptop"));
+        productDetailCache.invalidate(1L);
+        productDetailCache.getById(1L, id -> load(id, "new-laptop"));
+
+        ProductResponseDto result =
+                productDetailCache.getBySlug("old-laptop", () -> load(2L, "old-laptop"));
+
+        assertThat(result.getId()).isEqualTo(2L);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void shouldPublishHitAndMissMetrics() {
+        productDetailCache.getById(1L, id -> load(id, "laptop"));
+        productDetailCache.getById(1L, id -> load(id, "laptop"));
+
+        assertThat(meterRegistry.get("cache.gets")
+                .tags("cache", "productDetailsById", "result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets")
+                .tags("cache", "productDetailsById", "result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.find("cache.evictions")
+                .tags("cache", "productDetailsById").functionCounter()).isNotNull();
+    }
+
+    private ProductResponseDto load(Long id, String slug) {
+        loads.incrementAndGet();
+        return ProductResponseDto.builder().id(id).slug(slug).name("Laptop").build();
+    }
+}
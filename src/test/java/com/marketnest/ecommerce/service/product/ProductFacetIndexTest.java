@@ -0,0 +1,166 @@
+package com.marketnest.ecommerce.service.product;
+
+import com.marketnest.ecommerce.dto.product.FacetValueDto;
+import com.marketnest.ecommerce.dto.product.ProductFacetAttributesDto;
+import com.marketnest.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductFacetIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductFacetIndex productFacetIndex;
+
+    @BeforeEach
+    void setUp() {
+        productFacetIndex = new ProductFacetIndex(productRepository, new SyncTaskExecutor());
+        when(productRepository.findFacetAttributesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(
+                        product(1L, 1L, "Acme", "20.00", "30.00", 5, true, false),
+                        product(2L, 1L, "acme", "75.00", null, 0, true, true),
+                        product(3L, 2L, "Sony", "300.00", null, 3, true, false),
+                        product(4L, 2L, "Sony", "1200.00", "1500.00", 1, false, true)));
+
+        productFacetIndex.rebuild();
+    }
+
+    @Test
+    void search_shouldCountEachFacetAgainstTheOtherFilters() {
+        ProductFacetIndex.FacetSearchResult result = productFacetIndex.search(
+                null, "ACME", null, true, null, null, true, 0, 10);
+
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(result.getProductIds()).containsExactly(1L);
+        assertThat(result.getFacets().get(ProductFacetIndex.BRAND))
+                .containsExactly(new FacetValueDto("Acme", 1), new FacetValueDto("Sony", 1));
+        assertThat(result.getFacets().get(ProductFacetIndex.IN_STOCK))
+                .containsExactly(new FacetValueDto("true", 1), new FacetValueDto("false", 1));
+        assertThat(result.getFacets().get(ProductFacetIndex.ON_SALE))
+                .containsExactly(new FacetValueDto("true", 1), new FacetValueDto("false", 0));
+        assertThat(result.getFacets().get(ProductFacetIndex.PRICE_RANGE))
+                .contains(new FacetValueDto("0-25", 1), new FacetValueDto("1000+", 0));
+    }
+
+    @Test
+    void search_withoutActiveOnly_shouldIncludeInactiveProducts() {
+        ProductFacetIndex.FacetSearchResult result = productFacetIndex.search(
+                2L, null, "1000+", null, null, null, false, 0, 10);
+
+        assertThat(result.getProductIds()).containsExactly(4L);
+        assertThat(result.getFacets().get(ProductFacetIndex.CATEGORY))
+                .containsExactly(new FacetValueDto("2", 1));
+    }
+
+    @Test
+    void search_shouldPageThroughMatchesInIdOrder() {
+        ProductFacetIndex.FacetSearchResult result = productFacetIndex.search(
+                null, null, null, null, null, null, true, 1, 2);
+
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(result.getProductIds()).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void search_withOffsetPastTheMatches_shouldReturnEmptyPage() {
+        ProductFacetIndex.FacetSearchResult result = productFacetIndex.search(
+                null, null, null, null, null, null, true, 25_000_000L * 100, 100);
+
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(result.getProductIds()).isEmpty();
+    }
+
+    @Test
+    void search_withUnknownPriceRange_shouldThrow() {
+        assertThatThrownBy(() -> productFacetIndex.search(
+                null, null, "cheap", null, null, null, true, 0, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void refresh_shouldMoveProductBetweenFacetValues() {
+        when(productRepository.findFacetAttributesById(anyLong()))
+                .thenReturn(Optional.of(product(3L, 2L, "Acme", "40.00", null, 0, true, false)));
+
+        productFacetIndex.refresh(3L);
+
+        ProductFacetIndex.FacetSearchResult result = productFacetIndex.search(
+                null, "acme", null, null, null, null, true, 0, 10);
+        assertThat(result.getProductIds()).containsExactly(1L, 2L, 3L);
+        assertThat(result.getFacets().get(ProductFacetIndex.BRAND))
+                .containsExactly(new FacetValueDto("Acme", 3));
+    }
+
+    @Test
+    void remove_shouldDropProductFromAllFacets() {
+        productFacetIndex.remove(1L);
+
+        ProductFacetIndex.FacetSearchResult result = productFacetIndex.search(
+                1L, null, null, null, null, null, true, 0, 10);
+        assertThat(result.getProductIds()).containsExactly(2L);
+        assertThat(result.getFacets().get(ProductFacetIndex.PRICE_RANGE))
+                .contains(new FacetValueDto("0-25", 0), new FacetValueDto("50-100", 1));
+    }
+
+    @Test
+    void rebuildAsync_shouldRebuildOnTheTaskExecutor() {
+        when(productRepository.findFacetAttributesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(product(5L, 3L, "Lego", "10.00", null, 2, true, false)));
+
+        productFacetIndex.rebuildAsync();
+
+        ProductFacetIndex.FacetSearchResult result = productFacetIndex.search(
+                null, null, null, null, null, null, true, 0, 10);
+        assertThat(result.getProductIds()).containsExactly(5L);
+    }
+
+    @Test
+    void rebuild_shouldKeepChangesMadeWhileItScans() {
+        when(productRepository.findFacetAttributesById(3L))
+                .thenReturn(Optional.of(product(3L, 2L, "Acme", "40.00", null, 0, true, false)));
+        when(productRepository.findFacetAttributesAfter(eq(0L), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    productFacetIndex.refresh(3L);
+                    productFacetIndex.remove(1L);
+                    return List.of(
+                            product(1L, 1L, "Acme", "20.00", "30.00", 5, true, false),
+                            product(3L, 2L, "Sony", "300.00", null, 3, true, false));
+                });
+
+        productFacetIndex.rebuild();
+
+        ProductFacetIndex.FacetSearchResult result = productFacetIndex.search(
+                null, null, null, null, null, null, true, 0, 10);
+        assertThat(result.getProductIds()).containsExactly(3L);
+        assertThat(result.getFacets().get(ProductFacetIndex.BRAND))
+                .containsExactly(new FacetValueDto("Acme", 1));
+        assertThat(result.getFacets().get(ProductFacetIndex.IN_STOCK))
+                .containsExactly(new FacetValueDto("true", 0), new FacetValueDto("false", 1));
+    }
+
+    private ProductFacetAttributesDto product(Long id, Long categoryId, String brand, String price,
+                                              String compareAtPrice, int stock, boolean active,
+                                              boolean featured) {
+        return new ProductFacetAttributesDto(id, categoryId, brand, new BigDecimal(price),
+                compareAtPrice != null ? new BigDecimal(compareAtPrice) : null, stock, active,
+                featured);
+    }
+}
@@ -0,0 +1,161 @@
+package com.marketnest.ecommerce.service.product;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketnest.ecommerce.dto.product.ProductImportErrorDto;
+import com.marketnest.ecommerce.dto.product.ProductImportResultDto;
+import com.marketnest.ecommerce.event.ProductChangedEvent;
+import com.marketnest.ecommerce.mapper.product.ProductMapperImpl;
+import com.marketnest.ecommerce.repository.CategoryRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> batchCaptor;
+
+    private ProductImportService productImportService;
+
+    @BeforeEach
+    void setUp() {
+        productImportService = new ProductImportService(jdbcTemplate, transactionManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                new ProductMapperImpl(), categoryRepository, eventPublisher, 2);
+
+        when(categoryRepository.findAllIds()).thenReturn(List.of(1L));
+    }
+
+    @Test
+    void testImportProducts_Csv_ShouldUpsertValidRowsInBatchesAndReportInvalidRows() {
+        String csv = """
+                sku,name,price,stockQuantity,categoryId,brand
+                SKU-1,"Headphones, Black",99.90,5,1,Sony
+                SKU-2,Mouse,abc,5,1,
+                SKU-3,Keyboard,49.00,5,7,
+                SKU-4,Monitor,199.00,2,1,
+                ,No Sku,10.00,1,1,
+                SKU-5,Cable,5.00,100,1,
+                """;
+
+        ProductImportResultDto result =
+                productImportService.importProducts(stream(csv), ProductImportService.Format.CSV);
+
+        assertThat(result.getTotalRows()).isEqualTo(6);
+        assertThat(result.getImportedRows()).isEqualTo(3);
+        assertThat(result.getFailedRows()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting(ProductImportErrorDto::getRow,
+                        ProductImportErrorDto::getSku, ProductImportErrorDto::getMessage)
+                .containsExactly(
+                        tuple(2L, "SKU-2", "Invalid value for price"),
+                        tuple(3L, "SKU-3", "Category not found with ID: 7"),
+                        tuple(5L, null, "sku: SKU is required"));
+
+        verify(jdbcTemplate, times(2))
+                .batchUpdate(anyString(), batchCaptor.capture(), any(int[].class));
+        List<Object[]> firstBatch = batchCaptor.getAllValues().get(0);
+        assertThat(firstBatch).hasSize(2);
+        assertThat(firstBatch.get(0)).startsWith(
+                "SKU-1", "Headphones, Black", "headphones-black-sku-1", null,
+                new BigDecimal("99.90"));
+        assertThat(batchCaptor.getAllValues().get(1)).hasSize(1);
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof ProductChangedEvent changed
+                && changed.getType() == ProductChangedEvent.Type.BULK_IMPORTED));
+    }
+
+    @Test
+    void testImportProducts_Ndjson_ShouldKeepLastRowPerSkuAndReportMalformedLines() {
+        String ndjson = """
+                {"sku":"SKU-1","name":"First","price":10,"stockQuantity":1,"categoryId":1}
+                {not json
+
+                {"sku":"SKU-1","name":"Second","slug":"second","price":12,"stockQuantity":1,"categoryId":1}
+                """;
+
+        ProductImportResultDto result = productImportService.importProducts(
+                stream(ndjson), ProductImportService.Format.NDJSON);
+
+        assertThat(result.getTotalRows()).isEqualTo(3);
+        assertThat(result.getImportedRows()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(ProductImportErrorDto::getRow,
+                        ProductImportErrorDto::getMessage)
+                .containsExactly(tuple(2L, "Malformed row"));
+
+        verify(jdbcTemplate).batchUpdate(anyString(), batchCaptor.capture(), any(int[].class));
+        assertThat(batchCaptor.getValue()).singleElement()
+                .satisfies(args -> assertThat(args).startsWith("SKU-1", "Second", "second"));
+    }
+
+    @Test
+    void testImportProducts_BatchFailure_ShouldRetryRowsIndividually() {
+        String csv = """
+                sku,name,price,stockQuantity,categoryId
+                SKU-1,Laptop,999.99,1,1
+                SKU-2,Tablet,499.99,1,1
+                """;
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class)))
+                .thenThrow(new DuplicateKeyException("batch failed"));
+        when(jdbcTemplate.update(anyString(), any(Object[].class), any(int[].class)))
+                .thenReturn(1)
+                .thenThrow(new DuplicateKeyException(
+                        "duplicate key value violates unique constraint \"products_slug\""));
+
+        ProductImportResultDto result =
+                productImportService.importProducts(stream(csv), ProductImportService.Format.CSV);
+
+        assertThat(result.getImportedRows()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(2);
+            assertThat(error.getSku()).isEqualTo("SKU-2");
+            assertThat(error.getMessage()).contains("duplicate key value");
+        });
+    }
+
+    @Test
+    void testImportProducts_NothingImported_ShouldNotPublishEvent() {
+        ProductImportResultDto result = productImportService.importProducts(
+                stream("sku,name,price,stockQuantity,categoryId\nSKU-1,X,-1,1,1\n"),
+                ProductImportService.Format.CSV);
+
+        assertThat(result.getFailedRows()).isEqualTo(1);
+        verifyNoInteractions(jdbcTemplate, eventPublisher);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,171 @@
+package com.marketnest.ecommerce.service.product;
+
+import com.marketnest.ecommerce.dto.pagination.CursorPageResponse;
+import com.marketnest.ecommerce.dto.product.ProductResponseDto;
+import com.marketnest.ecommerce.mapper.product.ProductMapperImpl;
+import com.marketnest.ecommerce.model.Category;
+import com.marketnest.ecommerce.model.Product;
+import com.marketnest.ecommerce.model.ProductImage;
+import com.marketnest.ecommerce.model.ProductVariant;
+import com.marketnest.ecommerce.repository.CategoryRepository;
+import com.marketnest.ecommerce.repository.ProductImageRepository;
+import com.marketnest.ecommerce.repository.ProductRepository;
+import com.marketnest.ecommerce.repository.ProductVariantRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductService.class, ProductMapperImpl.class})
+class ProductServiceQueryCountTest {
+
+    @Container
+    @SuppressWarnings("resource")
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductVariantRepository variantRepository;
+
+    @Autowired
+    private ProductImageRepository productImageRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private ProductFacetIndex productFacetIndex;
+
+    @MockBean
+    private ProductDetailCache productDetailCache;
+
+    @MockBean
+    private ProductSuggestIndex productSuggestIndex;
+
+    @MockBean
+    private ProductCoPurchaseIndex productCoPurchaseIndex;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+    }
+
+    @BeforeEach
+    void setUp() {
+        productImageRepository.deleteAll();
+        variantRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+
+        for (int c = 0; c < 3; c++) {
+            Category category = new Category();
+            category.setName("Category " + c);
+            category.setSlug("category-" + c);
+            category = categoryRepository.save(category);
+
+            for (int p = 0; p < 4; p++) {
+                Product product = new Product();
+                product.setName("Product " + c + "-" + p);
+                product.setSlug("product-" + c + "-" + p);
+                product.setSku("SKU-" + c + "-" + p);
+                product.setPrice(new BigDecimal("19.99"));
+                product.setStockQuantity(10);
+                product.setCategoryId(category.getId());
+                product.setIsActive(true);
+
+                product = productRepository.save(product);
+
+                ProductVariant variant = new ProductVariant();
+                variant.setProductId(product.getId());
+                variant.setSku("VAR-" + c + "-" + p);
+                variant.setPrice(new BigDecimal("21.99"));
+                variantRepository.save(variant);
+
+                ProductImage image = new ProductImage();
+                image.setProductId(product.getId());
+                image.setUrl("https://example.com/" + c + "-" + p + ".jpg");
+                productImageRepository.save(image);
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getAllProducts_shouldSelectSummariesWithoutHydratingEntities() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<ProductResponseDto> result = productService.getAllProducts(
+                null, null, null, null, true, null, null, null, PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).hasSize(10);
+        assertThat(result.getTotalElements()).isEqualTo(12);
+        assertThat(result.getContent()).allSatisfy(product -> {
+            assertThat(product.getCategoryName()).isNotNull();
+            assertThat(product.getInStock()).isTrue();
+        });
+        // page + count
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void getAllProductsByCursor_shouldLoadPageWithBoundedNumberOfQueries() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CursorPageResponse<ProductResponseDto> result = productService.getAllProductsByCursor(
+                null, null, null, null, true, null, null, null, Sort.Order.asc("id"), "", 10);
+
+        assertThat(result.getContent()).hasSize(10);
+        assertThat(result.getContent()).allSatisfy(product -> {
+            assertThat(product.getCategoryName()).isNotNull();
+            assertThat(product.getVariants()).hasSize(1);
+            assertThat(product.getImages()).hasSize(1);
+        });
+        // window + categories + variants + images + variant images
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+    }
+}
@@ -1,32 +1,53 @@
 package com.marketnest.ecommerce.service.product;
 
+import com.marketnest.ecommerce.dto.pagination.CursorPageResponse;
+import com.marketnest.ecommerce.dto.product.FacetValueDto;
+import com.marketnest.ecommerce.dto.product.ProductFacetResponseDto;
 import com.marketnest.ecommerce.dto.product.ProductRequestDto;
 import com.marketnest.ecommerce.dto.product.ProductResponseDto;
+import com.marketnest.ecommerce.dto.product.ProductSummaryDto;
+import com.marketnest.ecommerce.event.ProductChangedEvent;
 import com.marketnest.ecommerce.exception.ResourceNotFoundException;
 import com.marketnest.ecommerce.mapper.product.ProductMapper;
 import com.marketnest.ecommerce.model.Category;
 import com.marketnest.ecommerce.model.Product;
 import com.marketnest.ecommerce.repository.CategoryRepository;
 import com.marketnest.ecommerce.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,12 +62,29 @@ class ProductServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ProductFacetIndex productFacetIndex;
+
+    @Mock
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Mock
+    private ProductCoPurchaseIndex productCoPurchaseIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ProductDetailCache productDetailCache = new ProductDetailCache(
+            new SimpleMeterRegistry(), 1_000_000, 1_000, Duration.ofMinutes(5));
+
     @InjectMocks
     private ProductService productService;
 
     private Product product;
     private ProductRequestDto productRequestDto;
     private ProductResponseDto productResponseDto;
+    private ProductSummaryDto productSummary;
     private Category category;
 
     @BeforeEach
@@ -73,6 +111,13 @@ class ProductServiceTest {
         productResponseDto.setId(1L);
         productResponseDto.setName("Laptop");
         productResponseDto.setPrice(new BigDecimal("999.99"));
+
+        productSummary = new ProductSummaryDto();
+        productSummary.setId(1L);
+        productSummary.setName("Laptop");
+        productSummary.setPrice(new BigDecimal("999.99"));
+        productSummary.setCategoryId(1L);
+        productSummary.setCategoryName("Electronics");
     }
 
     @Test
@@ -103,6 +148,23 @@ class ProductServiceTest {
         verify(productMapper, times(1)).toResponse(any(Product.class));
     }
 
+    @Test
+    void testGetProductById_ShouldServeRepeatReadsFromCacheUntilInvalidated() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productMapper.toResponse(product)).thenReturn(productResponseDto);
+
+        productService.getProductById(1L);
+        productService.getProductById(1L);
+
+        verify(productRepository, times(1)).findById(1L);
+
+        productDetailCache.invalidate(1L);
+        productService.getProductById(1L);
+
+        verify(productRepository, times(2)).findById(1L);
+        verify(productMapper, times(2)).toResponse(product);
+    }
+
     @Test
     void testGetProductById_NotFound() {
         when(productRepository.findById(anyLong())).thenReturn(Optional.empty());
@@ -153,6 +215,10 @@ class ProductServiceTest {
 
         verify(productRepository, times(1)).existsById(1L);
         verify(productRepository, times(1)).deleteById(1L);
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof ProductChangedEvent changed
+                && changed.getProductId().equals(1L)
+                && changed.getType() == ProductChangedEvent.Type.DELETED));
     }
 
     @Test
@@ -182,13 +248,14 @@ class ProductServiceTest {
 
     @Test
     void testGetProductsByCategoryId() {
-        Page<Product> productPage = new PageImpl<>(Collections.singletonList(product));
+        Page<ProductSummaryDto> productPage =
+                new PageImpl<>(Collections.singletonList(productSummary));
         Pageable pageable = PageRequest.of(0, 10);
 
         when(categoryRepository.findById(anyLong())).thenReturn(Optional.of(category));
-        when(productRepository.findByCategoryIdAndIsActiveTrue(anyLong(), any(Pageable.class)))
+        when(productRepository.findSummariesByCategoryId(1L, true, pageable))
                 .thenReturn(productPage);
-        when(productMapper.toResponse(any(Product.class))).thenReturn(productResponseDto);
+        when(productMapper.toSummaryResponse(productSummary)).thenReturn(productResponseDto);
 
         Page<ProductResponseDto> result =
                 productService.getProductsByCategoryId(1L, true, pageable);
@@ -196,8 +263,7 @@ class ProductServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(1);
         verify(categoryRepository, times(1)).findById(1L);
-        verify(productRepository, times(1)).findByCategoryIdAndIsActiveTrue(anyLong(),
-                any(Pageable.class));
+        verify(productRepository, times(1)).findSummariesByCategoryId(1L, true, pageable);
     }
 
     @Test
@@ -235,20 +301,173 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findBySlug("nonexistent");
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetAllProducts_ShouldFilterAndPageInRepository() {
+        Pageable pageable = PageRequest.of(2, 10);
+        Page<ProductSummaryDto> productPage =
+                new PageImpl<>(Collections.singletonList(productSummary), pageable, 21);
+
+        when(productRepository.findSummaries(any(Specification.class), any(Pageable.class)))
+                .thenReturn(productPage);
+        when(productMapper.toSummaryResponse(productSummary)).thenReturn(productResponseDto);
+
+        Page<ProductResponseDto> result = productService.getAllProducts(
+                1L, "Acme", new BigDecimal("10.00"), new BigDecimal("1000.00"), true, false,
+                null, true, pageable);
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getTotalElements()).isEqualTo(21);
+        assertThat(result.getNumber()).isEqualTo(2);
+        verify(productRepository, times(1)).findSummaries(any(Specification.class), eq(pageable));
+        verify(productRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+        verify(categoryRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetAllProducts_WithSearch_ShouldRankByRelevance() {
+        Pageable pageable = PageRequest.of(1, 10, Sort.by("price"));
+        ProductSummaryDto second = new ProductSummaryDto();
+        second.setId(2L);
+        Page<Long> productIds = new PageImpl<>(List.of(2L, 1L), PageRequest.of(1, 10), 12);
+
+        when(productRepository.searchIdsByRelevance(eq("wireless hedphones"), eq(1L), eq("Acme"),
+                any(), any(), eq(true), any(), any(), any(Pageable.class)))
+                .thenReturn(productIds);
+        when(productRepository.findSummariesByIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(productSummary, second));
+        when(productMapper.toSummaryResponse(any(ProductSummaryDto.class)))
+                .thenAnswer(invocation -> ProductResponseDto.builder()
+                        .id(invocation.<ProductSummaryDto>getArgument(0).getId())
+                        .build());
+
+        Page<ProductResponseDto> result = productService.getAllProducts(
+                1L, "Acme", null, null, true, null, "  wireless hedphones ", null, pageable);
+
+        assertThat(result.getContent()).extracting(ProductResponseDto::getId)
+                .containsExactly(2L, 1L);
+        assertThat(result.getTotalElements()).isEqualTo(12);
+        verify(productRepository).searchIdsByRelevance(eq("wireless hedphones"), eq(1L),
+                eq("Acme"), isNull(), isNull(), eq(true), isNull(), isNull(),
+                eq(PageRequest.of(1, 10)));
+        verify(productRepository, never()).findSummaries(any(Specification.class),
+                any(Pageable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetProductFacets_ShouldLoadPageFromIndexResult() {
+        ProductSummaryDto second = new ProductSummaryDto();
+        second.setId(2L);
+        second.setName("Mouse");
+        Map<String, List<FacetValueDto>> facets =
+                Map.of("brand", List.of(new FacetValueDto("Acme", 2)));
+
+        when(productFacetIndex.search(null, "Acme", null, true, null, null, true, 0, 10))
+                .thenReturn(new ProductFacetIndex.FacetSearchResult(12, List.of(2L, 1L), facets));
+        when(productRepository.findSummariesByIdIn(List.of(2L, 1L)))
+                .thenReturn(List.of(productSummary, second));
+        when(productMapper.toSummaryResponseList(anyList()))
+                .thenAnswer(invocation -> ((List<ProductSummaryDto>) invocation.getArgument(0))
+                        .stream()
+                        .map(p -> ProductResponseDto.builder().id(p.getId()).build())
+                        .toList());
+
+        ProductFacetResponseDto result = productService.getProductFacets(
+                null, "Acme", null, true, null, null, true, 0, 10);
+
+        assertThat(result.getProducts()).extracting(ProductResponseDto::getId)
+                .containsExactly(2L, 1L);
+        assertThat(result.getTotalElements()).isEqualTo(12);
+        assertThat(result.getTotalPages()).isEqualTo(2);
+        assertThat(result.getFacets()).isSameAs(facets);
+    }
+
+    @Test
+    void testGetProductFacets_ShouldNotOverflowOffsetOfDeepPages() {
+        when(productFacetIndex.search(null, null, null, null, null, null, true,
+                2_500_000_000L, 100))
+                .thenReturn(new ProductFacetIndex.FacetSearchResult(12, List.of(), Map.of()));
+
+        ProductFacetResponseDto result = productService.getProductFacets(
+                null, null, null, null, null, null, true, 25_000_000, 100);
+
+        assertThat(result.getProducts()).isEmpty();
+        assertThat(result.getTotalElements()).isEqualTo(12);
+    }
+
+    @Test
+    void testGetFrequentlyBoughtTogether_ShouldKeepNeighbourOrderAndSkipInactive() {
+        productSummary.setIsActive(true);
+        ProductSummaryDto inactive = new ProductSummaryDto();
+        inactive.setId(2L);
+        inactive.setIsActive(false);
+        ProductSummaryDto third = new ProductSummaryDto();
+        third.setId(3L);
+        third.setIsActive(true);
+
+        when(productRepository.existsById(5L)).thenReturn(true);
+        when(productCoPurchaseIndex.getNeighbours(5L)).thenReturn(List.of(3L, 2L, 1L));
+        when(productRepository.findSummariesByIdIn(List.of(3L, 2L, 1L)))
+                .thenReturn(List.of(productSummary, inactive, third));
+        when(productMapper.toSummaryResponse(any(ProductSummaryDto.class)))
+                .thenAnswer(invocation -> ProductResponseDto.builder()
+                        .id(invocation.<ProductSummaryDto>getArgument(0).getId())
+                        .build());
+
+        List<ProductResponseDto> result = productService.getFrequentlyBoughtTogether(5L, true, 4);
+
+        assertThat(result).extracting(ProductResponseDto::getId).containsExactly(3L, 1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetAllProductsByCursor_ShouldScrollWithIdTieBreaker() {
+        Window<Product> window = Window.from(List.of(product),
+                index -> ScrollPosition.forward(Map.of("price", product.getPrice(), "id", 1L)),
+                true);
+
+        when(productRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenReturn(window);
+        when(categoryRepository.findAllById(Set.of(1L))).thenReturn(List.of(category));
+        when(productMapper.toResponse(product)).thenReturn(productResponseDto);
+
+        CursorPageResponse<ProductResponseDto> result = productService.getAllProductsByCursor(
+                null, null, null, null, true, null, null, null,
+                Sort.Order.desc("price"), "", 1);
+
+        assertThat(result.getContent()).containsExactly(productResponseDto);
+        assertThat(result.isHasNext()).isTrue();
+        assertThat(result.getNextCursor()).isNotNull();
+        verify(productRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void testGetAllProductsByCursor_ShouldRejectSearchAndUnsupportedSort() {
+        assertThatThrownBy(() -> productService.getAllProductsByCursor(
+                null, null, null, null, null, null, "laptop", null,
+                Sort.Order.asc("id"), "", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productService.getAllProductsByCursor(
+                null, null, null, null, null, null, null, null,
+                Sort.Order.asc("brand"), "", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void testGetFeaturedProducts() {
-        Page<Product> productPage = new PageImpl<>(Collections.singletonList(product));
+        Page<ProductSummaryDto> productPage =
+                new PageImpl<>(Collections.singletonList(productSummary));
         Pageable pageable = PageRequest.of(0, 10);
 
-        when(productRepository.findByIsFeaturedTrueAndIsActiveTrue(any(Pageable.class)))
-                .thenReturn(productPage);
-        when(productMapper.toResponse(any(Product.class))).thenReturn(productResponseDto);
+        when(productRepository.findFeaturedSummaries(true, pageable)).thenReturn(productPage);
+        when(productMapper.toSummaryResponse(productSummary)).thenReturn(productResponseDto);
 
         Page<ProductResponseDto> result = productService.getFeaturedProducts(true, pageable);
 
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(1);
-        verify(productRepository, times(1)).findByIsFeaturedTrueAndIsActiveTrue(
-                any(Pageable.class));
+        verify(productRepository, times(1)).findFeaturedSummaries(true, pageable);
     }
 }
\ No newline at end of file
@@ -0,0 +1,183 @@
+package com.marketnest.ecommerce.service.product;
+
+import com.marketnest.ecommerce.dto.product.ProductSalesDto;
+import com.marketnest.ecommerce.dto.product.ProductSuggestAttributesDto;
+import com.marketnest.ecommerce.dto.product.ProductSuggestionDto;
+import com.marketnest.ecommerce.model.Category;
+import com.marketnest.ecommerce.repository.CategoryRepository;
+import com.marketnest.ecommerce.repository.OrderItemRepository;
+import com.marketnest.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSuggestIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    private ProductSuggestIndex productSuggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        productSuggestIndex = new ProductSuggestIndex(productRepository, categoryRepository,
+                orderItemRepository, new SyncTaskExecutor());
+
+        when(productRepository.findSuggestAttributesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(
+                        product(1L, "Sony WH-1000XM4 Headphones", "WH-1000XM4", "Sony", 1L),
+                        product(2L, "Wireless Mouse", "MS-200", "Logitech", 2L),
+                        product(3L, "Café Crème Maker", "CM-1", null, 2L)));
+        when(orderItemRepository.findQuantitySoldPerProduct()).thenReturn(List.of(
+                new ProductSalesDto(1L, 5L), new ProductSalesDto(2L, 10L)));
+        when(categoryRepository.findAll()).thenReturn(List.of(
+                category(1L, "Headphones", true), category(2L, "Computer Accessories", true),
+                category(3L, "Hidden", false)));
+
+        productSuggestIndex.rebuildAsync();
+    }
+
+    @Test
+    void suggest_shouldMatchWordPrefixesRankedByPopularity() {
+        assertThat(productSuggestIndex.suggest("head", 10))
+                .extracting(ProductSuggestionDto::getType, ProductSuggestionDto::getText,
+                        ProductSuggestionDto::getId)
+                .containsExactly(
+                        tuple(ProductSuggestionDto.Type.CATEGORY, "Headphones", 1L),
+                        tuple(ProductSuggestionDto.Type.PRODUCT, "Sony WH-1000XM4 Headphones",
+                                1L));
+        assertThat(productSuggestIndex.suggest("  SO", 10))
+                .extracting(ProductSuggestionDto::getType, ProductSuggestionDto::getText)
+                .containsExactly(
+                        tuple(ProductSuggestionDto.Type.BRAND, "Sony"),
+                        tuple(ProductSuggestionDto.Type.PRODUCT, "Sony WH-1000XM4 Headphones"));
+        assertThat(productSuggestIndex.suggest("wire", 10))
+                .extracting(ProductSuggestionDto::getSlug)
+                .containsExactly("product-2");
+    }
+
+    @Test
+    void suggest_shouldFoldAccentsAndPunctuationAndMatchSkus() {
+        assertThat(productSuggestIndex.suggest("creme", 10))
+                .extracting(ProductSuggestionDto::getId)
+                .containsExactly(3L);
+        assertThat(productSuggestIndex.suggest("ms-2", 10))
+                .extracting(ProductSuggestionDto::getText)
+                .containsExactly("Wireless Mouse");
+        assertThat(productSuggestIndex.suggest("hid", 10)).isEmpty();
+        assertThat(productSuggestIndex.suggest(" - ", 10)).isEmpty();
+        assertThat(productSuggestIndex.suggest(null, 10)).isEmpty();
+    }
+
+    @Test
+    void refreshAndRemove_shouldPatchTheIndexUntilTheNextRebuild() {
+        when(productRepository.findSuggestAttributesById(2L)).thenReturn(Optional.of(
+                product(2L, "Gaming Mouse", "MS-200", "Logitech", 2L)));
+
+        productSuggestIndex.refresh(2L);
+        productSuggestIndex.remove(3L);
+
+        assertThat(productSuggestIndex.suggest("wire", 10)).isEmpty();
+        assertThat(productSuggestIndex.suggest("gam", 10))
+                .extracting(ProductSuggestionDto::getId)
+                .containsExactly(2L);
+        assertThat(productSuggestIndex.suggest("creme", 10)).isEmpty();
+
+        productSuggestIndex.rebuild();
+
+        assertThat(productSuggestIndex.suggest("wire", 10)).hasSize(1);
+        assertThat(productSuggestIndex.suggest("gam", 10)).isEmpty();
+    }
+
+    @Test
+    void refreshAndRemove_shouldRebuildWhenABrandGainsItsFirstOrLosesItsLastProduct() {
+        ProductSuggestAttributesDto razerMouse =
+                product(2L, "Wireless Mouse", "MS-200", "Razer", 2L);
+        when(productRepository.findSuggestAttributesById(2L)).thenReturn(Optional.of(razerMouse));
+        when(productRepository.findSuggestAttributesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(
+                        product(1L, "Sony WH-1000XM4 Headphones", "WH-1000XM4", "Sony", 1L),
+                        razerMouse));
+
+        productSuggestIndex.refresh(2L);
+
+        assertThat(productSuggestIndex.suggest("razer", 10))
+                .extracting(ProductSuggestionDto::getType, ProductSuggestionDto::getText)
+                .containsExactly(tuple(ProductSuggestionDto.Type.BRAND, "Razer"));
+        assertThat(productSuggestIndex.suggest("logi", 10)).isEmpty();
+
+        when(productRepository.findSuggestAttributesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(razerMouse));
+
+        productSuggestIndex.remove(1L);
+
+        assertThat(productSuggestIndex.suggest("sony", 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_onLargeRanges_shouldServePrecomputedTopEntriesAndHonourPatches() {
+        List<ProductSuggestAttributesDto> cables = new ArrayList<>();
+        List<ProductSalesDto> sales = new ArrayList<>();
+        LongStream.rangeClosed(1, 1000).forEach(id -> {
+            cables.add(product(id, "Cable " + id, "CBL-" + id, null, null));
+            sales.add(new ProductSalesDto(id, id));
+        });
+        when(productRepository.findSuggestAttributesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(cables);
+        when(orderItemRepository.findQuantitySoldPerProduct()).thenReturn(sales);
+        when(categoryRepository.findAll()).thenReturn(List.of());
+        productSuggestIndex.rebuild();
+
+        assertThat(productSuggestIndex.suggest("cab", 3))
+                .extracting(ProductSuggestionDto::getId)
+                .containsExactly(1000L, 999L, 998L);
+        assertThat(productSuggestIndex.suggest("cbl-99", 3))
+                .extracting(ProductSuggestionDto::getId)
+                .containsExactly(999L, 998L, 997L);
+
+        for (long id = 1000; id > 980; id--) {
+            productSuggestIndex.remove(id);
+        }
+
+        assertThat(productSuggestIndex.suggest("cab", 3))
+                .extracting(ProductSuggestionDto::getId)
+                .containsExactly(980L, 979L, 978L);
+    }
+
+    private static ProductSuggestAttributesDto product(Long id, String name, String sku,
+                                                       String brand, Long categoryId) {
+        return new ProductSuggestAttributesDto(id, name, "product-" + id, sku, brand,
+                categoryId);
+    }
+
+    private static Category category(Long id, String name, boolean active) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName(name);
+        category.setSlug(name.toLowerCase().replace(' ', '-'));
+        category.setIsActive(active);
+        return category;
+    }
+}
@@ -2,18 +2,21 @@ package com.marketnest.ecommerce.service.product;
 
 import com.marketnest.ecommerce.dto.variant.VariantRequestDto;
 import com.marketnest.ecommerce.dto.variant.VariantResponseDto;
+import com.marketnest.ecommerce.event.ProductChangedEvent;
 import com.marketnest.ecommerce.exception.ResourceNotFoundException;
 import com.marketnest.ecommerce.mapper.Variant.VariantMapper;
 import com.marketnest.ecommerce.model.Product;
 import com.marketnest.ecommerce.model.ProductVariant;
 import com.marketnest.ecommerce.repository.ProductRepository;
 import com.marketnest.ecommerce.repository.VariantRepository;
+import com.marketnest.ecommerce.service.inventory.FlashSaleStockService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.Collections;
@@ -24,6 +27,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,6 +44,12 @@ class VariantServiceTest {
     @Mock
     private VariantMapper variantMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private FlashSaleStockService flashSaleStockService;
+
     @InjectMocks
     private VariantService variantService;
 
@@ -163,6 +174,21 @@ class VariantServiceTest {
         verify(variantRepository).save(any(ProductVariant.class));
     }
 
+    @Test
+    void updateVariant_shouldRejectStockChange_whenFlashSaleActive() {
+        testVariant.setFlashSale(true);
+        ProductVariant updated = new ProductVariant();
+        updated.setStockQuantity(10);
+        when(variantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
+        when(variantMapper.toEntity(requestDto)).thenReturn(updated);
+
+        assertThatThrownBy(() -> variantService.updateVariant(1L, requestDto))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("flash sale");
+
+        verify(variantRepository, never()).save(any());
+    }
+
     @Test
     void updateVariant_shouldThrowException_whenNotFound() {
         when(variantRepository.findById(anyLong())).thenReturn(Optional.empty());
@@ -174,17 +200,20 @@ class VariantServiceTest {
 
     @Test
     void deleteVariant_shouldDeleteVariant_whenExists() {
-        when(variantRepository.existsById(1L)).thenReturn(true);
+        when(variantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
 
         variantService.deleteVariant(1L);
 
-        verify(variantRepository).existsById(1L);
         verify(variantRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof ProductChangedEvent changed
+                && changed.getProductId().equals(1L)
+                && changed.getType() == ProductChangedEvent.Type.VARIANTS_CHANGED));
     }
 
     @Test
     void deleteVariant_shouldThrowException_whenNotFound() {
-        when(variantRepository.existsById(anyLong())).thenReturn(false);
+        when(variantRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> variantService.deleteVariant(999L))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -1,5 +1,6 @@
 package com.marketnest.ecommerce.service.review;
 
+import com.marketnest.ecommerce.dto.pagination.CursorPageResponse;
 import com.marketnest.ecommerce.dto.review.CreateReviewRequest;
 import com.marketnest.ecommerce.dto.review.ReviewResponse;
 import com.marketnest.ecommerce.dto.review.UpdateReviewRequest;
@@ -12,6 +13,7 @@ import com.marketnest.ecommerce.repository.OrderRepository;
 import com.marketnest.ecommerce.repository.ProductRepository;
 import com.marketnest.ecommerce.repository.ReviewRepository;
 import com.marketnest.ecommerce.repository.UserRepository;
+import com.marketnest.ecommerce.util.CursorUtils;
 import org.apache.coyote.BadRequestException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,12 +21,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -114,6 +122,36 @@ class ReviewServiceTest {
         verify(reviewRepository).findByProductIdAndIsApprovedTrue(1L, pageable);
     }
 
+    @Test
+    void getProductReviewsByCursor_shouldReturnApprovedReviewsNewestFirst() {
+        Window<Review> window = Window.from(List.of(testReview),
+                index -> ScrollPosition.forward(
+                        Map.of("createdAt", LocalDateTime.of(2025, 1, 15, 10, 30), "id", 1L)),
+                true);
+
+        when(productRepository.existsById(1L)).thenReturn(true);
+        when(reviewRepository.findByProductIdAndIsApprovedTrueOrderByCreatedAtDescIdDesc(
+                1L, ScrollPosition.keyset(), Limit.of(10))).thenReturn(window);
+        when(reviewMapper.toResponse(testReview)).thenReturn(reviewResponse);
+
+        CursorPageResponse<ReviewResponse> result =
+                reviewService.getProductReviewsByCursor(1L, "", 10);
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.isHasNext()).isTrue();
+        assertThat(result.getNextCursor()).isNotNull();
+    }
+
+    @Test
+    void getProductReviewsByCursor_shouldRejectCursorFromAnotherListing() {
+        String couponCursor = CursorUtils.encode("coupons",
+                ScrollPosition.forward(Map.of("id", 5L)));
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> reviewService.getProductReviewsByCursor(1L, couponCursor, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void getReviewById_shouldReturnReview_whenExists() {
         when(reviewRepository.findById(1L)).thenReturn(Optional.of(testReview));